@@ -0,0 +1,251 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ArmazemProdutosMapeado implements Closeable {                                          // Armazém persistente de produtos em arquivo de registros de tamanho fixo, acessado via MappedByteBuffer
+    private static final int ASSINATURA = 0x50524F44;                                               // "PROD" - identifica o formato do arquivo
+    private static final int VERSAO = 1;
+    public static final int TAMANHO_MAXIMO_NOME = 64;                                               // Bytes (UTF-8) reservados para o nome em cada registro
+
+    // Layout do cabeçalho (início do arquivo)
+    private static final int CABECALHO_ASSINATURA = 0;
+    private static final int CABECALHO_VERSAO = 4;
+    private static final int CABECALHO_CAPACIDADE = 8;
+    private static final int CABECALHO_TAMANHO = 12;                                                // Quantidade de registros gravados
+    private static final int TAMANHO_CABECALHO = 64;
+
+    // Layout de cada registro (deslocamentos dentro do registro)
+    private static final int REGISTRO_ID = 0;                                                       // long
+    private static final int REGISTRO_PRECO = 8;                                                    // double
+    private static final int REGISTRO_QUANTIDADE = 16;                                              // int
+    private static final int REGISTRO_TAMANHO_NOME = 20;                                            // int (bytes usados do nome)
+    private static final int REGISTRO_NOME = 24;                                                    // bytes do nome em UTF-8
+    private static final int TAMANHO_REGISTRO = REGISTRO_NOME + TAMANHO_MAXIMO_NOME;                // 88 bytes por produto
+
+    private static final int REGISTROS_POR_MAPA = Integer.MAX_VALUE / TAMANHO_REGISTRO;             // Cada MappedByteBuffer cobre no máximo 2 GB, então o arquivo é dividido em vários mapas
+    private static final int TAMANHO_MAXIMO_INDICE = 1 << 30;                                       // Maior potência de 2 que cabe em um array Java
+    public static final int CAPACIDADE_MAXIMA = TAMANHO_MAXIMO_INDICE / 2;                          // Mantém o fator de carga do índice <= 0,5 (arquivo de até ~44 GB)
+
+    private final FileChannel canal;
+    private final MappedByteBuffer cabecalho;
+    private final MappedByteBuffer[] mapas;                                                         // Regiões mapeadas com os registros
+    private final int capacidade;
+    private int tamanho;
+
+    private final long[] indiceIds;                                                                 // Índice id -> posição (hash com endereçamento aberto em arrays primitivos)
+    private final int[] indicePosicoes;
+    private final boolean[] indiceOcupado;
+
+    private ArmazemProdutosMapeado(FileChannel canal, int capacidade, boolean novo) throws IOException {
+        this.canal = canal;
+        this.capacidade = capacidade;
+        this.cabecalho = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANHO_CABECALHO);
+        this.cabecalho.order(ByteOrder.LITTLE_ENDIAN);
+
+        int quantidadeMapas = (capacidade + REGISTROS_POR_MAPA - 1) / REGISTROS_POR_MAPA;
+        this.mapas = new MappedByteBuffer[Math.max(quantidadeMapas, 1)];
+        for (int i = 0; i < mapas.length; i++) {                                                    // Mapeia o arquivo em vez de desserializar: o sistema operacional carrega as páginas sob demanda
+            int registrosNoMapa = Math.min(REGISTROS_POR_MAPA, capacidade - i * REGISTROS_POR_MAPA);
+            long posicao = TAMANHO_CABECALHO + (long) i * REGISTROS_POR_MAPA * TAMANHO_REGISTRO;
+            mapas[i] = canal.map(FileChannel.MapMode.READ_WRITE, posicao, (long) Math.max(registrosNoMapa, 0) * TAMANHO_REGISTRO);
+            mapas[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        if (novo) {                                                                                 // Arquivo novo: grava o cabeçalho
+            cabecalho.putInt(CABECALHO_ASSINATURA, ASSINATURA);
+            cabecalho.putInt(CABECALHO_VERSAO, VERSAO);
+            cabecalho.putInt(CABECALHO_CAPACIDADE, capacidade);
+            cabecalho.putInt(CABECALHO_TAMANHO, 0);
+        }
+        this.tamanho = cabecalho.getInt(CABECALHO_TAMANHO);
+        if (tamanho < 0 || tamanho > capacidade) {                                                  // Cabeçalho corrompido: os registros ficariam fora do mapeamento
+            throw new IOException("Quantidade de registros inválida no cabeçalho: " + tamanho + " (capacidade " + capacidade + ")");
+        }
+
+        long minimoIndice = Long.highestOneBit(capacidade * 2L - 1) << 1;                           // Potência de 2 com folga (fator de carga <= 0,5), calculada em long para não transbordar
+        int tamanhoIndice = (int) Math.min(minimoIndice, TAMANHO_MAXIMO_INDICE);
+        this.indiceIds = new long[tamanhoIndice];
+        this.indicePosicoes = new int[tamanhoIndice];
+        this.indiceOcupado = new boolean[tamanhoIndice];
+        for (int posicao = 0; posicao < tamanho; posicao++) {                                       // Reconstrói o índice lendo apenas a coluna de ids (sem criar objetos)
+            indexar(mapa(posicao).getLong(deslocamento(posicao) + REGISTRO_ID), posicao);
+        }
+    }
+
+    public static ArmazemProdutosMapeado abrir(Path arquivo, int capacidade) throws IOException {   // Abre o arquivo existente ou cria um novo com a capacidade informada
+        if (capacidade <= 0 || capacidade > CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("Capacidade deve estar entre 1 e " + CAPACIDADE_MAXIMA);
+        }
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean novo = canal.size() == 0;
+            if (!novo) {
+                MappedByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANHO_CABECALHO);
+                cabecalho.order(ByteOrder.LITTLE_ENDIAN);
+                if (cabecalho.getInt(CABECALHO_ASSINATURA) != ASSINATURA || cabecalho.getInt(CABECALHO_VERSAO) != VERSAO) {
+                    throw new IOException("Arquivo não é um armazém de produtos válido: " + arquivo);
+                }
+                capacidade = cabecalho.getInt(CABECALHO_CAPACIDADE);                                // Arquivo existente: a capacidade gravada prevalece
+                if (capacidade <= 0 || capacidade > CAPACIDADE_MAXIMA) {
+                    throw new IOException("Capacidade inválida no cabeçalho de " + arquivo + ": " + capacidade);
+                }
+            }
+            return new ArmazemProdutosMapeado(canal, capacidade, novo);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    // Inserção (mesmas validações dos setters de Produto)
+    public void inserir(long id, Produto produto) {
+        inserir(id, produto.getNome(), produto.getPreco(), produto.getQuantidadeEmEstoque());
+    }
+
+    public void inserir(long id, String nome, double preco, int quantidadeEmEstoque) {
+        lancarSeInvalido(Produto.validarNome(nome));
+        lancarSeInvalido(Produto.validarPreco(preco));
+        lancarSeInvalido(Produto.validarQuantidadeEmEstoque(quantidadeEmEstoque));
+        byte[] bytesNome = nome.trim().getBytes(StandardCharsets.UTF_8);
+        if (bytesNome.length > TAMANHO_MAXIMO_NOME) {
+            throw new IllegalArgumentException("Nome não pode exceder " + TAMANHO_MAXIMO_NOME + " bytes");
+        }
+        if (buscarPosicao(id) >= 0) {
+            throw new IllegalArgumentException("Já existe um produto com id " + id);
+        }
+        if (tamanho == capacidade) {
+            throw new IllegalStateException("Armazém cheio (capacidade " + capacidade + ")");
+        }
+
+        int posicao = tamanho;
+        MappedByteBuffer mapa = mapa(posicao);
+        int base = deslocamento(posicao);
+        mapa.putLong(base + REGISTRO_ID, id);
+        mapa.putDouble(base + REGISTRO_PRECO, preco);
+        mapa.putInt(base + REGISTRO_QUANTIDADE, quantidadeEmEstoque);
+        mapa.putInt(base + REGISTRO_TAMANHO_NOME, bytesNome.length);
+        mapa.put(base + REGISTRO_NOME, bytesNome);
+
+        indexar(id, posicao);
+        tamanho++;
+        cabecalho.putInt(CABECALHO_TAMANHO, tamanho);                                               // O contador só é atualizado depois do registro completo
+    }
+
+    // Leitura e atualização no próprio arquivo (sem regravar o restante)
+    public boolean contem(long id) {
+        return buscarPosicao(id) >= 0;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public String getNome(long id) {
+        int posicao = posicaoObrigatoria(id);
+        MappedByteBuffer mapa = mapa(posicao);
+        int base = deslocamento(posicao);
+        byte[] bytesNome = new byte[mapa.getInt(base + REGISTRO_TAMANHO_NOME)];
+        mapa.get(base + REGISTRO_NOME, bytesNome);
+        return new String(bytesNome, StandardCharsets.UTF_8);
+    }
+
+    public double getPreco(long id) {
+        int posicao = posicaoObrigatoria(id);
+        return mapa(posicao).getDouble(deslocamento(posicao) + REGISTRO_PRECO);
+    }
+
+    public void setPreco(long id, double preco) {
+        lancarSeInvalido(Produto.validarPreco(preco));
+        int posicao = posicaoObrigatoria(id);
+        mapa(posicao).putDouble(deslocamento(posicao) + REGISTRO_PRECO, preco);
+    }
+
+    public int getQuantidadeEmEstoque(long id) {
+        int posicao = posicaoObrigatoria(id);
+        return mapa(posicao).getInt(deslocamento(posicao) + REGISTRO_QUANTIDADE);
+    }
+
+    public void setQuantidadeEmEstoque(long id, int quantidadeEmEstoque) {
+        lancarSeInvalido(Produto.validarQuantidadeEmEstoque(quantidadeEmEstoque));
+        int posicao = posicaoObrigatoria(id);
+        mapa(posicao).putInt(deslocamento(posicao) + REGISTRO_QUANTIDADE, quantidadeEmEstoque);
+    }
+
+    public Produto carregar(long id) {                                                              // Cria um Produto comum a partir do registro
+        return new Produto(getNome(id), getPreco(id), getQuantidadeEmEstoque(id));
+    }
+
+    public void sincronizar() {                                                                     // Força a gravação das páginas alteradas no disco
+        cabecalho.force();
+        for (MappedByteBuffer mapa : mapas) {
+            mapa.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sincronizar();
+        canal.close();
+    }
+
+    // Métodos auxiliares
+    private MappedByteBuffer mapa(int posicao) {
+        return mapas[posicao / REGISTROS_POR_MAPA];
+    }
+
+    private static int deslocamento(int posicao) {
+        return (posicao % REGISTROS_POR_MAPA) * TAMANHO_REGISTRO;
+    }
+
+    private int posicaoObrigatoria(long id) {
+        int posicao = buscarPosicao(id);
+        if (posicao < 0) {
+            throw new IllegalArgumentException("Produto não encontrado: " + id);
+        }
+        return posicao;
+    }
+
+    private int buscarPosicao(long id) {                                                            // Busca linear a partir do hash até encontrar o id ou uma vaga livre
+        int mascara = indiceIds.length - 1;
+        for (int i = espalhar(id) & mascara; indiceOcupado[i]; i = (i + 1) & mascara) {
+            if (indiceIds[i] == id) {
+                return indicePosicoes[i];
+            }
+        }
+        return -1;
+    }
+
+    private void indexar(long id, int posicao) {
+        int mascara = indiceIds.length - 1;
+        int i = espalhar(id) & mascara;
+        while (indiceOcupado[i]) {
+            i = (i + 1) & mascara;
+        }
+        indiceIds[i] = id;
+        indicePosicoes[i] = posicao;
+        indiceOcupado[i] = true;
+    }
+
+    private static int espalhar(long id) {                                                          // Mistura os bits do id para distribuir bem ids sequenciais
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void lancarSeInvalido(CodigoErroProduto codigo) {
+        if (codigo != CodigoErroProduto.OK) {
+            throw new IllegalArgumentException(codigo.getMensagem());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ArmazemProdutosMapeado{tamanho=%d, capacidade=%d, mapas=%d}",
+                tamanho, capacidade, mapas.length);
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+public class BenchmarkArmazemMapeado {                                                              // Benchmark: inicialização a frio e atualizações aleatórias do armazém mapeado vs reconstrução a partir do CSV
+    private static final int QUANTIDADE_PRODUTOS = 1_000_000;
+    private static final int ATUALIZACOES = 5_000_000;
+
+    public static void main(String[] args) throws IOException {
+        Path csv = Files.createTempFile("produtos", ".csv");
+        Path armazem = Files.createTempFile("produtos", ".dat");
+        Files.delete(armazem);                                                                      // O armazém precisa começar sem arquivo para ser criado do zero
+        try {
+            System.out.println("=== PREPARANDO DADOS ===");
+            try (BufferedWriter escritor = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+                 ArmazemProdutosMapeado armazemNovo = ArmazemProdutosMapeado.abrir(armazem, QUANTIDADE_PRODUTOS)) {
+                escritor.write("nome;preco;quantidade\n");
+                for (int i = 0; i < QUANTIDADE_PRODUTOS; i++) {
+                    String nome = "Produto " + i;
+                    double preco = (i % 1000) + 0.50;
+                    int estoque = i % 100;
+                    escritor.write(nome + ";" + preco + ";" + estoque + "\n");
+                    armazemNovo.inserir(i, nome, preco, estoque);
+                }
+            }
+
+            System.out.println("\n=== INICIALIZAÇÃO A FRIO ===");
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                long inicio = System.nanoTime();
+                CatalogoColunar catalogo = new CatalogoColunar(QUANTIDADE_PRODUTOS);                // Reconstrução: lê e valida todo o CSV
+                new ImportadorProdutos().importar(csv, catalogo::adicionar);
+                long tempoCsv = System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                try (ArmazemProdutosMapeado mapeado = ArmazemProdutosMapeado.abrir(armazem, QUANTIDADE_PRODUTOS)) {  // Mapeamento: só reconstrói o índice de ids
+                    long tempoMapa = System.nanoTime() - inicio;
+                    System.out.printf("Rodada %d: CSV %d ms (%d produtos) | mapeado %d ms (%d produtos)%n",
+                            rodada, tempoCsv / 1_000_000, catalogo.tamanho(), tempoMapa / 1_000_000, mapeado.tamanho());
+                }
+            }
+
+            System.out.println("\n=== ATUALIZAÇÕES ALEATÓRIAS NO ARQUIVO ===");
+            try (ArmazemProdutosMapeado mapeado = ArmazemProdutosMapeado.abrir(armazem, QUANTIDADE_PRODUTOS)) {
+                SplittableRandom aleatorio = new SplittableRandom(42);
+                for (int rodada = 1; rodada <= 3; rodada++) {
+                    long inicio = System.nanoTime();
+                    for (int i = 0; i < ATUALIZACOES; i++) {
+                        long id = aleatorio.nextInt(QUANTIDADE_PRODUTOS);
+                        if ((i & 1) == 0) {
+                            mapeado.setPreco(id, aleatorio.nextInt(10_000) / 100.0);
+                        } else {
+                            mapeado.setQuantidadeEmEstoque(id, aleatorio.nextInt(1_000));
+                        }
+                    }
+                    long duracao = System.nanoTime() - inicio;
+                    System.out.printf("Rodada %d: %.0f atualizações/s%n", rodada, ATUALIZACOES / (duracao / 1_000_000_000.0));
+                }
+                System.out.println("Exemplo após as atualizações: " + mapeado.carregar(123));
+            }
+
+            System.out.println("\n=== CABEÇALHO CORROMPIDO ===");
+            try (FileChannel canal = FileChannel.open(armazem, StandardOpenOption.WRITE)) {         // Quantidade de registros maior que a capacidade
+                canal.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, QUANTIDADE_PRODUTOS + 1), 12);
+            }
+            try (ArmazemProdutosMapeado corrompido = ArmazemProdutosMapeado.abrir(armazem, QUANTIDADE_PRODUTOS)) {
+                throw new IllegalStateException("Cabeçalho corrompido deveria ser rejeitado: " + corrompido.tamanho() + " registros");
+            } catch (IOException e) {
+                System.out.println("Rejeitado: " + e.getMessage());
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(armazem);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.concurrent.CountDownLatch;
+
+public class BenchmarkReservaEstoque {                                                              // Benchmark de contenção: várias threads reservando o mesmo produto
+    private static final int OPERACOES_POR_THREAD = 200_000;                                        // Quantidade de pares reservar/liberar que cada thread executa
+    private static final int[] QUANTIDADES_THREADS = {1, 2, 4, 8, 16, 32, 64};                      // Cenários de contenção testados
+    private static final int ESTOQUE_INICIAL = 1_000;                                               // Estoque inicial do produto "quente"
+
+    interface Operacao {                                                                            // Operação executada por cada thread (uma reserva seguida de uma liberação)
+        void executar(Produto produto);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Operacao atomica = produto -> {                                                             // Versão sem bloqueio (compare-and-set dentro do Produto)
+            if (produto.tentarReservar(1)) {
+                produto.liberar(1);
+            }
+        };
+
+        Operacao sincronizada = produto -> {                                                        // Versão de referência: ler-validar-gravar dentro de um bloco synchronized
+            synchronized (produto) {
+                int atual = produto.getQuantidadeEmEstoque();
+                if (atual >= 1) {
+                    produto.setQuantidadeEmEstoque(atual - 1);
+                }
+            }
+            synchronized (produto) {
+                produto.setQuantidadeEmEstoque(produto.getQuantidadeEmEstoque() + 1);
+            }
+        };
+
+        System.out.println("=== AQUECIMENTO ===");                                                   // Executa uma rodada descartável para o JIT compilar os métodos
+        medir(atomica, 4);
+        medir(sincronizada, 4);
+
+        System.out.println("\n=== CONTENÇÃO EM UM ÚNICO PRODUTO ===");
+        System.out.printf("%8s | %18s | %18s%n", "Threads", "CAS (ops/s)", "synchronized (ops/s)");
+        for (int threads : QUANTIDADES_THREADS) {
+            double opsAtomica = medir(atomica, threads);
+            double opsSincronizada = medir(sincronizada, threads);
+            System.out.printf("%8d | %18.0f | %18.0f%n", threads, opsAtomica, opsSincronizada);
+        }
+    }
+
+    private static double medir(Operacao operacao, int quantidadeThreads) throws InterruptedException {
+        Produto produto = new Produto("Produto Quente", 10.00, ESTOQUE_INICIAL);
+        CountDownLatch largada = new CountDownLatch(1);                                             // Faz todas as threads começarem ao mesmo tempo
+        CountDownLatch chegada = new CountDownLatch(quantidadeThreads);                             // Aguarda todas as threads terminarem
+
+        for (int i = 0; i < quantidadeThreads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                    for (int j = 0; j < OPERACOES_POR_THREAD; j++) {
+                        operacao.executar(produto);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    chegada.countDown();
+                }
+            });
+            thread.start();
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        chegada.await();
+        long duracao = System.nanoTime() - inicio;
+
+        if (produto.getQuantidadeEmEstoque() != ESTOQUE_INICIAL) {                                  // Confere que nenhuma atualização foi perdida
+            throw new IllegalStateException("Estoque final inconsistente: " + produto.getQuantidadeEmEstoque());
+        }
+
+        long totalOperacoes = (long) quantidadeThreads * OPERACOES_POR_THREAD * 2;                  // Cada iteração faz uma reserva e uma liberação
+        return totalOperacoes / (duracao / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,228 @@
+import java.util.Arrays;
+
+public class CatalogoColunar {                                                                      // Catálogo de produtos em formato colunar: cada atributo fica em um array primitivo próprio
+    private static final int CAPACIDADE_INICIAL = 16;                                               // Capacidade inicial dos arrays (cresce conforme necessário)
+    private static final int CARACTERES_INICIAIS_MAXIMOS = 1 << 24;                                 // Teto da estimativa inicial do buffer de nomes (cresce sob demanda)
+    private static final int TAMANHO_MAXIMO_BUFFER = Integer.MAX_VALUE - 8;                         // Maior array que a JVM costuma aceitar
+
+    private char[] caracteresNomes;                                                                 // Todos os nomes concatenados em um único buffer de caracteres
+    private int tamanhoCaracteres;                                                                  // Quantidade de caracteres já usados no buffer de nomes
+    private int[] inicioNome;                                                                       // Posição (offset) onde o nome de cada produto começa no buffer
+    private int[] tamanhoNome;                                                                      // Quantidade de caracteres do nome de cada produto
+    private double[] precos;                                                                        // Preço de cada produto
+    private int[] quantidadesEmEstoque;                                                             // Quantidade em estoque de cada produto
+    private int tamanho;                                                                            // Quantidade de produtos cadastrados
+
+    public CatalogoColunar() {                                                                      // Construtor com a capacidade padrão
+        this(CAPACIDADE_INICIAL);
+    }
+
+    public CatalogoColunar(int capacidade) {                                                        // Construtor que já reserva espaço para a quantidade de produtos esperada
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("Capacidade não pode ser negativa");
+        }
+        this.caracteresNomes = new char[(int) Math.min(Math.max(capacidade, 1) * 8L, CARACTERES_INICIAIS_MAXIMOS)];  // Estimativa de 8 caracteres por nome, calculada em long
+        this.inicioNome = new int[capacidade];
+        this.tamanhoNome = new int[capacidade];
+        this.precos = new double[capacidade];
+        this.quantidadesEmEstoque = new int[capacidade];
+    }
+
+    // Cadastro de produtos (mesmas validações dos setters de Produto)
+    public int adicionar(String nome, double preco, int quantidadeEmEstoque) {                      // Adiciona um produto e retorna o índice em que ele foi armazenado
+        validarNome(nome);                                                                          // Valida tudo antes de gravar, na mesma ordem do construtor de Produto
+        validarPreco(preco);
+        validarQuantidadeEmEstoque(quantidadeEmEstoque);
+
+        garantirCapacidade(tamanho + 1);
+        int indice = tamanho;
+        gravarNome(indice, nome);
+        precos[indice] = preco;
+        quantidadesEmEstoque[indice] = quantidadeEmEstoque;
+        tamanho++;
+        return indice;
+    }
+
+    public int adicionar(Produto produto) {                                                         // Converte um Produto comum para o formato colunar
+        return adicionar(produto.getNome(), produto.getPreco(), produto.getQuantidadeEmEstoque());
+    }
+
+    public int tamanho() {                                                                          // Retorna a quantidade de produtos cadastrados
+        return tamanho;
+    }
+
+    // Getters e Setters por índice
+    public String getNome(int indice) {                                                             // Monta a String do nome a partir do buffer (única operação que aloca)
+        validarIndice(indice);
+        return new String(caracteresNomes, inicioNome[indice], tamanhoNome[indice]);
+    }
+
+    public void setNome(int indice, String nome) {                                                  // O nome novo é gravado no fim do buffer (o espaço antigo não é reaproveitado)
+        validarIndice(indice);
+        validarNome(nome);
+        gravarNome(indice, nome);
+    }
+
+    public double getPreco(int indice) {
+        validarIndice(indice);
+        return precos[indice];
+    }
+
+    public void setPreco(int indice, double preco) {
+        validarIndice(indice);
+        validarPreco(preco);
+        precos[indice] = preco;
+    }
+
+    public int getQuantidadeEmEstoque(int indice) {
+        validarIndice(indice);
+        return quantidadesEmEstoque[indice];
+    }
+
+    public void setQuantidadeEmEstoque(int indice, int quantidadeEmEstoque) {
+        validarIndice(indice);
+        validarQuantidadeEmEstoque(quantidadeEmEstoque);
+        quantidadesEmEstoque[indice] = quantidadeEmEstoque;
+    }
+
+    public Produto paraProduto(int indice) {                                                        // Converte de volta para um objeto Produto comum
+        return new Produto(getNome(indice), getPreco(indice), getQuantidadeEmEstoque(indice));
+    }
+
+    // Visões leves (flyweight) para acesso a um único item
+    public VisaoProduto visao(int indice) {                                                         // Cria uma visão posicionada no índice informado
+        VisaoProduto visao = new VisaoProduto();
+        visao.posicionar(indice);
+        return visao;
+    }
+
+    public final class VisaoProduto {                                                               // Visão que guarda apenas o índice e lê direto dos arrays do catálogo
+        private int indice;
+
+        private VisaoProduto() {
+        }
+
+        public VisaoProduto posicionar(int indice) {                                                // Reposiciona a mesma visão em outro produto (permite reutilizar o objeto em laços)
+            validarIndice(indice);
+            this.indice = indice;
+            return this;
+        }
+
+        public int getIndice() { return indice; }
+        public String getNome() { return CatalogoColunar.this.getNome(indice); }
+        public double getPreco() { return precos[indice]; }
+        public int getQuantidadeEmEstoque() { return quantidadesEmEstoque[indice]; }
+        public void setPreco(double preco) { CatalogoColunar.this.setPreco(indice, preco); }
+        public void setQuantidadeEmEstoque(int quantidade) { CatalogoColunar.this.setQuantidadeEmEstoque(indice, quantidade); }
+
+        @Override
+        public String toString() {                                                                  // Mesmo formato do toString() de Produto
+            return String.format("Produto: %s | Preço: R$ %.2f | Estoque: %d unidades",
+                    getNome(), getPreco(), getQuantidadeEmEstoque());
+        }
+    }
+
+    // Operações em massa (laços simples sobre os arrays primitivos)
+    public double somarValorEmEstoque() {                                                           // Soma preço * quantidade de todos os produtos
+        double total = 0;
+        double[] precos = this.precos;                                                              // Cópias locais ajudam o JIT a manter os arrays em registradores
+        int[] quantidades = this.quantidadesEmEstoque;
+        for (int i = 0; i < tamanho; i++) {
+            total += precos[i] * quantidades[i];
+        }
+        return total;
+    }
+
+    public long somarQuantidadeEmEstoque() {                                                        // Soma a quantidade em estoque de todos os produtos
+        long total = 0;
+        int[] quantidades = this.quantidadesEmEstoque;
+        for (int i = 0; i < tamanho; i++) {
+            total += quantidades[i];
+        }
+        return total;
+    }
+
+    public int contarComEstoqueAbaixoDe(int limite) {                                               // Conta quantos produtos têm estoque abaixo do limite
+        int contador = 0;
+        int[] quantidades = this.quantidadesEmEstoque;
+        for (int i = 0; i < tamanho; i++) {
+            if (quantidades[i] < limite) {
+                contador++;
+            }
+        }
+        return contador;
+    }
+
+    public int[] buscarComEstoqueAbaixoDe(int limite) {                                             // Retorna os índices dos produtos com estoque abaixo do limite
+        int[] resultado = new int[contarComEstoqueAbaixoDe(limite)];                                // Primeira passada conta, segunda preenche (evita crescer o array)
+        int posicao = 0;
+        int[] quantidades = this.quantidadesEmEstoque;
+        for (int i = 0; i < tamanho; i++) {
+            if (quantidades[i] < limite) {
+                resultado[posicao++] = i;
+            }
+        }
+        return resultado;
+    }
+
+    // Métodos auxiliares
+    private void gravarNome(int indice, String nome) {                                              // Copia o nome (já sem espaços nas pontas, igual ao trim()) para o buffer
+        int inicio = 0;
+        int fim = nome.length();
+        while (inicio < fim && nome.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && nome.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        int tamanhoNovo = fim - inicio;
+
+        long necessario = (long) tamanhoCaracteres + tamanhoNovo;
+        if (necessario > caracteresNomes.length) {                                                  // Cresce o buffer de nomes se necessário (contas em long para não estourar int)
+            if (necessario > TAMANHO_MAXIMO_BUFFER) {
+                throw new IllegalStateException("Buffer de nomes excede o tamanho máximo permitido");
+            }
+            caracteresNomes = Arrays.copyOf(caracteresNomes,
+                    (int) Math.min(Math.max(caracteresNomes.length * 2L, necessario), TAMANHO_MAXIMO_BUFFER));
+        }
+        nome.getChars(inicio, fim, caracteresNomes, tamanhoCaracteres);
+        inicioNome[indice] = tamanhoCaracteres;
+        tamanhoNome[indice] = tamanhoNovo;
+        tamanhoCaracteres += tamanhoNovo;
+    }
+
+    private void garantirCapacidade(int capacidadeMinima) {                                         // Cresce todos os arrays juntos quando o catálogo enche
+        if (capacidadeMinima <= precos.length) {
+            return;
+        }
+        int novaCapacidade = Math.max(precos.length * 2, Math.max(capacidadeMinima, CAPACIDADE_INICIAL));
+        inicioNome = Arrays.copyOf(inicioNome, novaCapacidade);
+        tamanhoNome = Arrays.copyOf(tamanhoNome, novaCapacidade);
+        precos = Arrays.copyOf(precos, novaCapacidade);
+        quantidadesEmEstoque = Arrays.copyOf(quantidadesEmEstoque, novaCapacidade);
+    }
+
+    private void validarIndice(int indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice inválido: " + indice);
+        }
+    }
+
+    private static void validarNome(String nome) {                                                  // Mesmas regras de Produto.setNome
+        lancarSeInvalido(Produto.validarNome(nome));
+    }
+
+    private static void validarPreco(double preco) {                                                // Mesmas regras de Produto.setPreco
+        lancarSeInvalido(Produto.validarPreco(preco));
+    }
+
+    private static void validarQuantidadeEmEstoque(int quantidadeEmEstoque) {                       // Mesmas regras de Produto.setQuantidadeEmEstoque
+        lancarSeInvalido(Produto.validarQuantidadeEmEstoque(quantidadeEmEstoque));
+    }
+
+    private static void lancarSeInvalido(CodigoErroProduto codigo) {
+        if (codigo != CodigoErroProduto.OK) {
+            throw new IllegalArgumentException(codigo.getMensagem());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogoColunarTeste {                                                                 // Demonstração do catálogo colunar comparado com uma lista de objetos Produto
+    private static final int QUANTIDADE_PRODUTOS = 2_000_000;
+
+    public static void main(String[] args) {
+        System.out.println("=== CATÁLOGO COLUNAR ===");
+        CatalogoColunar catalogo = new CatalogoColunar(QUANTIDADE_PRODUTOS);
+        List<Produto> lista = new ArrayList<>(QUANTIDADE_PRODUTOS);
+
+        for (int i = 0; i < QUANTIDADE_PRODUTOS; i++) {                                             // Preenche as duas estruturas com os mesmos dados
+            String nome = "Produto " + i;
+            double preco = (i % 1000) + 0.99;
+            int estoque = i % 50;
+            catalogo.adicionar(nome, preco, estoque);
+            lista.add(new Produto(nome, preco, estoque));
+        }
+
+        CatalogoColunar.VisaoProduto visao = catalogo.visao(0);                                     // Acesso a um único item pela visão flyweight
+        System.out.println(visao);
+        System.out.println(visao.posicionar(42));
+
+        for (int rodada = 1; rodada <= 5; rodada++) {                                               // Várias rodadas para o JIT aquecer
+            long inicio = System.nanoTime();
+            double totalColunar = catalogo.somarValorEmEstoque();
+            long tempoColunar = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            double totalLista = 0;
+            for (Produto produto : lista) {
+                totalLista += produto.getPreco() * produto.getQuantidadeEmEstoque();
+            }
+            long tempoLista = System.nanoTime() - inicio;
+
+            System.out.printf("Rodada %d: colunar R$ %.2f em %d µs | lista R$ %.2f em %d µs%n",
+                    rodada, totalColunar, tempoColunar / 1000, totalLista, tempoLista / 1000);
+        }
+
+        int[] poucoEstoque = catalogo.buscarComEstoqueAbaixoDe(5);
+        System.out.println("Produtos com estoque abaixo de 5: " + poucoEstoque.length);
+
+        System.out.println("\n=== TESTANDO VALIDAÇÕES ===");
+        try {
+            catalogo.adicionar("  ", 10.00, 1);                                                     // Nome vazio - deve lançar exceção
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro ao adicionar nome vazio: " + e.getMessage());
+        }
+        try {
+            catalogo.adicionar("  ", -1.00, -1);                                                    // Vários campos inválidos - primeiro erro deve ser o mesmo de Produto (nome)
+        } catch (IllegalArgumentException e) {
+            String esperado = CodigoErroProduto.NOME_VAZIO.getMensagem();
+            System.out.println("Primeiro erro com vários campos inválidos: " + e.getMessage()
+                    + (e.getMessage().equals(esperado) ? " (mesmo de Produto)" : " (DIFERENTE de Produto)"));
+        }
+        try {
+            visao.setPreco(-1.00);                                                                  // Preço negativo - deve lançar exceção
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro ao setar preço negativo: " + e.getMessage());
+        }
+    }
+}
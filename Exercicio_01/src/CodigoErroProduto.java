@@ -0,0 +1,20 @@
+public enum CodigoErroProduto {                                                                     // Códigos de erro das validações de Produto (permite validar sem lançar exceções)
+    OK("Valores válidos"),
+    NOME_VAZIO("Nome não pode ser nulo ou vazio"),
+    PRECO_NEGATIVO("Preço não pode ser negativo"),
+    QUANTIDADE_NEGATIVA("Quantidade em estoque não pode ser negativa"),
+    PRECO_INVALIDO("Preço não é um número válido"),                                                 // Códigos abaixo são usados apenas na importação de arquivos
+    QUANTIDADE_INVALIDA("Quantidade em estoque não é um número inteiro válido"),
+    CAMPOS_INSUFICIENTES("Linha não contém os três campos esperados"),
+    LINHA_MUITO_LONGA("Linha excede o tamanho máximo permitido");
+
+    private final String mensagem;                                                                  // Mensagem usada quando o erro precisa virar exceção
+
+    CodigoErroProduto(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -0,0 +1,297 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+public class ImportadorProdutos {                                                                   // Importador em streaming de arquivos CSV (nome;preco;quantidade) sem usar exceções para linhas inválidas
+    private static final int TAMANHO_BLOCO_PADRAO = 1 << 20;                                        // Tamanho padrão do bloco lido do arquivo (1 MB), também é o tamanho máximo de uma linha
+    private static final int AMOSTRAS_REJEICAO_PADRAO = 1_000;                                      // Quantas linhas rejeitadas são guardadas no relatório (as demais só entram na contagem)
+    private static final double[] POTENCIAS_DE_DEZ = {                                              // Potências de 10 exatas em double, usadas na conversão do preço
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+    private static final long LIMITE_MANTISSA = 1L << 53;                                           // Maior inteiro representado exatamente em double
+
+    private final byte separador;                                                                   // Separador de campos (';' por padrão)
+    private final boolean ignorarCabecalho;                                                         // Se true, descarta a primeira linha do arquivo
+    private final int tamanhoBloco;
+    private final int amostrasRejeicao;
+
+    private double precoLido;                                                                       // Resultado da última conversão de preço (evita criar objetos para devolver dois valores)
+    private int quantidadeLida;                                                                     // Resultado da última conversão de quantidade
+
+    public ImportadorProdutos() {                                                                   // Construtor com as configurações padrão
+        this((byte) ';', true, TAMANHO_BLOCO_PADRAO, AMOSTRAS_REJEICAO_PADRAO);
+    }
+
+    public ImportadorProdutos(byte separador, boolean ignorarCabecalho, int tamanhoBloco, int amostrasRejeicao) {
+        if (tamanhoBloco < 64) {
+            throw new IllegalArgumentException("Tamanho do bloco deve ser de pelo menos 64 bytes");
+        }
+        if (amostrasRejeicao < 0) {
+            throw new IllegalArgumentException("Quantidade de amostras não pode ser negativa");
+        }
+        this.separador = separador;
+        this.ignorarCabecalho = ignorarCabecalho;
+        this.tamanhoBloco = tamanhoBloco;
+        this.amostrasRejeicao = amostrasRejeicao;
+    }
+
+    public Resultado importar(Path arquivo, Consumer<Produto> destino) throws IOException {        // Lê o arquivo bloco a bloco e entrega cada produto válido ao destino
+        Resultado resultado = new Resultado(amostrasRejeicao);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(tamanhoBloco);                                // Buffer único reutilizado durante toda a importação (memória limitada)
+        byte[] linha = new byte[tamanhoBloco];                                                      // Área de trabalho para a linha atual
+        long numeroLinha = 0;
+        boolean descartandoLinhaLonga = false;                                                      // true enquanto pula o resto de uma linha maior que o bloco
+        long inicio = System.nanoTime();
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            int tamanhoLinha = 0;
+            boolean fimArquivo = false;
+            while (!fimArquivo) {
+                buffer.clear();
+                fimArquivo = canal.read(buffer) < 0;
+                buffer.flip();
+
+                while (buffer.hasRemaining()) {                                                     // Percorre os bytes do bloco procurando o fim de cada linha
+                    byte b = buffer.get();
+                    if (b != '\n') {
+                        if (descartandoLinhaLonga) {
+                            continue;
+                        }
+                        if (tamanhoLinha == linha.length) {                                         // Linha não cabe na área de trabalho: rejeita e pula até o próximo '\n'
+                            numeroLinha++;
+                            resultado.rejeitar(numeroLinha, CodigoErroProduto.LINHA_MUITO_LONGA);
+                            descartandoLinhaLonga = true;
+                            tamanhoLinha = 0;
+                            continue;
+                        }
+                        linha[tamanhoLinha++] = b;
+                        continue;
+                    }
+
+                    if (descartandoLinhaLonga) {
+                        descartandoLinhaLonga = false;
+                        continue;
+                    }
+                    numeroLinha++;
+                    processarLinha(linha, tamanhoLinha, numeroLinha, resultado, destino);
+                    tamanhoLinha = 0;
+                }
+            }
+            if (tamanhoLinha > 0 && !descartandoLinhaLonga) {                                       // Última linha sem '\n' no final do arquivo
+                numeroLinha++;
+                processarLinha(linha, tamanhoLinha, numeroLinha, resultado, destino);
+            }
+        }
+
+        resultado.duracaoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    private void processarLinha(byte[] linha, int tamanho, long numeroLinha,
+                                Resultado resultado, Consumer<Produto> destino) {
+        if (tamanho > 0 && linha[tamanho - 1] == '\r') {                                            // Aceita finais de linha no formato Windows (\r\n)
+            tamanho--;
+        }
+        if (numeroLinha == 1 && ignorarCabecalho) {
+            return;
+        }
+        if (tamanho == 0) {                                                                         // Linhas em branco são ignoradas
+            return;
+        }
+
+        int fimNome = indiceDe(linha, 0, tamanho, separador);                                       // Localiza os separadores sem criar substrings
+        int fimPreco = fimNome < 0 ? -1 : indiceDe(linha, fimNome + 1, tamanho, separador);
+        if (fimPreco < 0 || indiceDe(linha, fimPreco + 1, tamanho, separador) >= 0) {
+            resultado.rejeitar(numeroLinha, CodigoErroProduto.CAMPOS_INSUFICIENTES);
+            return;
+        }
+
+        CodigoErroProduto codigo = validarNome(linha, 0, fimNome);                                  // Aplica as mesmas regras dos setters de Produto, na mesma ordem
+        if (codigo == CodigoErroProduto.OK) {
+            codigo = converterPreco(linha, fimNome + 1, fimPreco);
+        }
+        if (codigo == CodigoErroProduto.OK) {
+            codigo = Produto.validarPreco(precoLido);
+        }
+        if (codigo == CodigoErroProduto.OK) {
+            codigo = converterQuantidade(linha, fimPreco + 1, tamanho);
+        }
+        if (codigo == CodigoErroProduto.OK) {
+            codigo = Produto.validarQuantidadeEmEstoque(quantidadeLida);
+        }
+        if (codigo != CodigoErroProduto.OK) {
+            resultado.rejeitar(numeroLinha, codigo);
+            return;
+        }
+
+        String nome = new String(linha, 0, fimNome, StandardCharsets.UTF_8).trim();                 // Só linhas válidas chegam a criar String e Produto
+        destino.accept(new Produto(nome, precoLido, quantidadeLida));
+        resultado.validos++;
+    }
+
+    private static int indiceDe(byte[] dados, int inicio, int fim, byte procurado) {
+        for (int i = inicio; i < fim; i++) {
+            if (dados[i] == procurado) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static CodigoErroProduto validarNome(byte[] dados, int inicio, int fim) {               // Mesma regra de Produto.validarNome: precisa de ao menos um caractere além de espaços
+        for (int i = inicio; i < fim; i++) {
+            if ((dados[i] & 0xFF) > ' ') {                                                          // Bytes de caracteres não ASCII em UTF-8 são sempre maiores que ' '
+                return CodigoErroProduto.OK;
+            }
+        }
+        return CodigoErroProduto.NOME_VAZIO;
+    }
+
+    private CodigoErroProduto converterPreco(byte[] dados, int inicio, int fim) {                   // Converte "-123.45" (ou "123,45") direto dos bytes para double
+        inicio = pularEspacos(dados, inicio, fim);
+        fim = recuarEspacos(dados, inicio, fim);
+        boolean negativo = inicio < fim && dados[inicio] == '-';
+        if (negativo) {
+            inicio++;
+        }
+        if (inicio == fim) {
+            return CodigoErroProduto.PRECO_INVALIDO;
+        }
+
+        long mantissa = 0;
+        int casasDecimais = -1;                                                                     // -1 enquanto não encontrou o separador decimal
+        boolean temDigito = false;
+        for (int i = inicio; i < fim; i++) {
+            byte b = dados[i];
+            if (b >= '0' && b <= '9') {
+                temDigito = true;
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa >= LIMITE_MANTISSA) {                                                  // Mais dígitos do que um double representa com exatidão
+                    return CodigoErroProduto.PRECO_INVALIDO;
+                }
+                if (casasDecimais >= 0) {
+                    casasDecimais++;
+                }
+            } else if ((b == '.' || (b == ',' && separador != ',')) && casasDecimais < 0) {
+                casasDecimais = 0;
+            } else {
+                return CodigoErroProduto.PRECO_INVALIDO;
+            }
+        }
+        if (!temDigito || casasDecimais >= POTENCIAS_DE_DEZ.length) {                               // Só o separador ("." ou "-.") não é um número
+            return CodigoErroProduto.PRECO_INVALIDO;
+        }
+
+        double valor = casasDecimais > 0 ? mantissa / POTENCIAS_DE_DEZ[casasDecimais] : mantissa;   // Divisão de dois valores exatos: resultado corretamente arredondado
+        precoLido = negativo ? -valor : valor;
+        return CodigoErroProduto.OK;
+    }
+
+    private CodigoErroProduto converterQuantidade(byte[] dados, int inicio, int fim) {              // Converte um inteiro com sinal direto dos bytes
+        inicio = pularEspacos(dados, inicio, fim);
+        fim = recuarEspacos(dados, inicio, fim);
+        boolean negativo = inicio < fim && dados[inicio] == '-';
+        if (negativo) {
+            inicio++;
+        }
+        if (inicio == fim) {
+            return CodigoErroProduto.QUANTIDADE_INVALIDA;
+        }
+
+        long valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte b = dados[i];
+            if (b < '0' || b > '9') {
+                return CodigoErroProduto.QUANTIDADE_INVALIDA;
+            }
+            valor = valor * 10 + (b - '0');
+            if (valor > Integer.MAX_VALUE + 1L) {                                                   // Fora da faixa de int
+                return CodigoErroProduto.QUANTIDADE_INVALIDA;
+            }
+        }
+        valor = negativo ? -valor : valor;
+        if (valor > Integer.MAX_VALUE) {
+            return CodigoErroProduto.QUANTIDADE_INVALIDA;
+        }
+        quantidadeLida = (int) valor;
+        return CodigoErroProduto.OK;
+    }
+
+    private static int pularEspacos(byte[] dados, int inicio, int fim) {
+        while (inicio < fim && dados[inicio] == ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    private static int recuarEspacos(byte[] dados, int inicio, int fim) {
+        while (fim > inicio && dados[fim - 1] == ' ') {
+            fim--;
+        }
+        return fim;
+    }
+
+    public static final class Resultado {                                                           // Resultado da importação: contadores, relatório compacto de rejeições e métrica de desempenho
+        private final int[] rejeicoesPorCodigo = new int[CodigoErroProduto.values().length];        // Contagem de rejeições por código de erro
+        private final long[] linhasAmostra;                                                         // Número das primeiras linhas rejeitadas
+        private final byte[] codigosAmostra;                                                        // Código de erro de cada linha da amostra
+        private int tamanhoAmostra;
+        private long validos;
+        private long rejeitados;
+        private long duracaoNanos;
+
+        private Resultado(int amostrasRejeicao) {
+            this.linhasAmostra = new long[amostrasRejeicao];
+            this.codigosAmostra = new byte[amostrasRejeicao];
+        }
+
+        private void rejeitar(long numeroLinha, CodigoErroProduto codigo) {
+            rejeitados++;
+            rejeicoesPorCodigo[codigo.ordinal()]++;
+            if (tamanhoAmostra < linhasAmostra.length) {
+                linhasAmostra[tamanhoAmostra] = numeroLinha;
+                codigosAmostra[tamanhoAmostra] = (byte) codigo.ordinal();
+                tamanhoAmostra++;
+            }
+        }
+
+        public long getValidos() { return validos; }
+        public long getRejeitados() { return rejeitados; }
+        public long getDuracaoNanos() { return duracaoNanos; }
+
+        public int getRejeicoes(CodigoErroProduto codigo) {
+            return rejeicoesPorCodigo[codigo.ordinal()];
+        }
+
+        public double getRegistrosPorSegundo() {                                                    // Linhas processadas (válidas + rejeitadas) por segundo
+            return duracaoNanos == 0 ? 0 : (validos + rejeitados) / (duracaoNanos / 1_000_000_000.0);
+        }
+
+        public String gerarRelatorioRejeicoes() {                                                   // Relatório de rejeições: totais por código e a amostra das primeiras linhas
+            CodigoErroProduto[] codigos = CodigoErroProduto.values();
+            StringBuilder relatorio = new StringBuilder();
+            relatorio.append("Rejeitados: ").append(rejeitados).append('\n');
+            for (CodigoErroProduto codigo : codigos) {
+                if (rejeicoesPorCodigo[codigo.ordinal()] > 0) {
+                    relatorio.append("  ").append(codigo).append(": ")
+                            .append(rejeicoesPorCodigo[codigo.ordinal()]).append('\n');
+                }
+            }
+            for (int i = 0; i < tamanhoAmostra; i++) {
+                relatorio.append("  linha ").append(linhasAmostra[i]).append(" -> ")
+                        .append(codigos[codigosAmostra[i]].getMensagem()).append('\n');
+            }
+            return relatorio.toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Importação: %d válidos | %d rejeitados | %.0f registros/s",
+                    validos, rejeitados, getRegistrosPorSegundo());
+        }
+    }
+}
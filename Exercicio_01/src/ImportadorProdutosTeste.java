@@ -0,0 +1,42 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ImportadorProdutosTeste {                                                              // Demonstração da importação em streaming de um CSV com linhas válidas e inválidas
+    private static final int QUANTIDADE_LINHAS = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        Path arquivo = Files.createTempFile("produtos", ".csv");                                     // Gera um arquivo temporário "sujo" (1 em cada 10 linhas é inválida)
+        try {
+            try (BufferedWriter escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+                escritor.write("nome;preco;quantidade\n");
+                for (int i = 0; i < QUANTIDADE_LINHAS; i++) {
+                    switch (i % 10) {
+                        case 3 -> escritor.write("   ;10.00;5\n");                                  // Nome vazio
+                        case 6 -> escritor.write("Produto " + i + ";-1.50;5\n");                    // Preço negativo
+                        case 9 -> escritor.write("Produto " + i + ";abc;-2\n");                     // Preço não numérico
+                        case 4 -> escritor.write("Produto " + i + (i % 20 == 4 ? ";.;5\n" : ";-.;5\n"));  // Preço só com o separador, sem dígitos
+                        default -> escritor.write("Produto " + i + ";" + (i % 500) + ".90;" + (i % 40) + "\n");
+                    }
+                }
+            }
+
+            System.out.println("=== IMPORTANDO PRODUTOS ===");
+            ImportadorProdutos importador = new ImportadorProdutos((byte) ';', true, 1 << 20, 5);
+            CatalogoColunar catalogo = null;                                                        // Destino dos produtos válidos
+            for (int rodada = 1; rodada <= 3; rodada++) {                                           // Várias rodadas para o JIT aquecer
+                catalogo = new CatalogoColunar(QUANTIDADE_LINHAS);                                  // Catálogo novo a cada rodada
+                ImportadorProdutos.Resultado resultado = importador.importar(arquivo, catalogo::adicionar);
+                System.out.println("Rodada " + rodada + ": " + resultado);
+                if (rodada == 3) {
+                    System.out.print(resultado.gerarRelatorioRejeicoes());
+                }
+            }
+            System.out.println("Produtos no catálogo: " + catalogo.tamanho());
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+}
@@ -1,7 +1,9 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Produto {                                                                              // Declaração da classe pública Produto
     private String nome;                                                                            // Declaração de atributo privado para armazenar o nome do produto
     private double preco;                                                                           // Declaração de atributo privado para armazenar o preço do produto
-    private int quantidadeEmEstoque;                                                                // Declaração de atributo privado para armazenar a quantidade em estoque
+    private final AtomicInteger quantidadeEmEstoque = new AtomicInteger();                          // Quantidade em estoque atômica, permite reservas concorrentes sem bloqueio (compare-and-set)
 
     // Construtor
     public Produto(String nome, double preco, int quantidadeEmEstoque) {                            // Construtor da classe - Recebe três parâmetros: nome, preço e quantidade em estoque
@@ -16,9 +18,7 @@ public class Produto {
     }
 
     public void setNome(String nome) {                                                              // Setter para o atributo nome, metodo que define/modifica o valor do atributo
-        if (nome == null || nome.trim().isEmpty()) {                                                // Validação: verifica se o nome é nulo OU se após remover espaços está vazio
-            throw new IllegalArgumentException("Nome não pode ser nulo ou vazio");                  // Se a validação falhar, lança uma exceção com mensagem explicativa
-        }
+        lancarSeInvalido(validarNome(nome));                                                        // Validação: verifica se o nome é nulo OU se após remover espaços está vazio
         this.nome = nome.trim();                                                                    // Se a validação passar, atribui o valor ao atributo, usando trim() para remover espaços em branco no início e fim
     }
 
@@ -27,27 +27,85 @@ public class Produto {
     }
 
     public void setPreco(double preco) {                                                            // Setter para o atributo preço - define/modifica o valor
-        if (preco < 0) {                                                                            // Validação: verifica se o preço é negativo
-            throw new IllegalArgumentException("Preço não pode ser negativo");                      // Se for negativo, lança exceção
-        }
+        lancarSeInvalido(validarPreco(preco));                                                      // Validação: verifica se o preço é negativo
         this.preco = preco;                                                                         // Se a validação passar, atribui o valor ao atributo
     }
 
     public int getQuantidadeEmEstoque() {                                                           // Getter para o atributo quantidadeEmEstoque - retorna o valor atual
-        return quantidadeEmEstoque;
+        return quantidadeEmEstoque.get();
     }
 
     public void setQuantidadeEmEstoque(int quantidadeEmEstoque) {                                   // Setter para o atributo quantidadeEmEstoque - define/modifica o valor
-        if (quantidadeEmEstoque < 0) {                                                              // Validação: verifica se a quantidade é negativa
-            throw new IllegalArgumentException("Quantidade em estoque não pode ser negativa");      // Se for negativa, lança exceção
+        lancarSeInvalido(validarQuantidadeEmEstoque(quantidadeEmEstoque));                          // Validação: verifica se a quantidade é negativa
+        this.quantidadeEmEstoque.set(quantidadeEmEstoque);                                          // Se a validação passar, atribui o valor ao atributo
+    }
+
+    // Operações atômicas de reserva de estoque (seguras para várias threads de checkout)
+    public boolean tentarReservar(int quantidade) {                                                 // Tenta reservar unidades do estoque, retorna false se não houver quantidade suficiente
+        validarQuantidadeOperacao(quantidade);                                                      // Validação: a quantidade a reservar deve ser positiva
+        while (true) {                                                                              // Laço de compare-and-set: repete até conseguir gravar sem interferência de outra thread
+            int atual = quantidadeEmEstoque.get();                                                  // Lê o estoque atual
+            int restante = atual - quantidade;                                                      // Calcula o estoque que sobraria após a reserva
+            if (restante < 0) {                                                                     // Validação: nunca permite estoque negativo (não vende mais do que existe)
+                return false;
+            }
+            if (quantidadeEmEstoque.compareAndSet(atual, restante)) {                               // Só grava se ninguém alterou o estoque desde a leitura
+                return true;
+            }
+        }
+    }
+
+    public void reservar(int quantidade) {                                                          // Reserva unidades do estoque, lança exceção se não houver quantidade suficiente
+        if (!tentarReservar(quantidade)) {
+            throw new IllegalArgumentException("Quantidade em estoque insuficiente para reservar " + quantidade + " unidades");
+        }
+    }
+
+    public void liberar(int quantidade) {                                                           // Devolve ao estoque unidades reservadas anteriormente
+        validarQuantidadeOperacao(quantidade);                                                      // Validação: a quantidade a liberar deve ser positiva
+        while (true) {                                                                              // Laço de compare-and-set, igual ao da reserva
+            int atual = quantidadeEmEstoque.get();
+            if (atual > Integer.MAX_VALUE - quantidade) {                                           // Validação: evita estouro de inteiro (o estoque ficaria negativo)
+                throw new IllegalArgumentException("Quantidade em estoque excede o limite permitido");
+            }
+            if (quantidadeEmEstoque.compareAndSet(atual, atual + quantidade)) {
+                return;
+            }
+        }
+    }
+
+    private static void validarQuantidadeOperacao(int quantidade) {                                 // Validação comum para reservar e liberar
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade da operação deve ser positiva");
+        }
+    }
+
+    // Validações sem exceção (retornam um código de erro, usadas pelos setters e pela importação em massa)
+    public static CodigoErroProduto validarNome(String nome) {                                      // Nome não pode ser nulo nem conter apenas espaços
+        if (nome == null || nome.trim().isEmpty()) {
+            return CodigoErroProduto.NOME_VAZIO;
+        }
+        return CodigoErroProduto.OK;
+    }
+
+    public static CodigoErroProduto validarPreco(double preco) {                                    // Preço não pode ser negativo
+        return preco < 0 ? CodigoErroProduto.PRECO_NEGATIVO : CodigoErroProduto.OK;
+    }
+
+    public static CodigoErroProduto validarQuantidadeEmEstoque(int quantidadeEmEstoque) {           // Quantidade em estoque não pode ser negativa
+        return quantidadeEmEstoque < 0 ? CodigoErroProduto.QUANTIDADE_NEGATIVA : CodigoErroProduto.OK;
+    }
+
+    private static void lancarSeInvalido(CodigoErroProduto codigo) {                                // Converte o código de erro na exceção usada pelos setters
+        if (codigo != CodigoErroProduto.OK) {
+            throw new IllegalArgumentException(codigo.getMensagem());                               // Se a validação falhar, lança uma exceção com mensagem explicativa
         }
-        this.quantidadeEmEstoque = quantidadeEmEstoque;                                             // Se a validação passar, atribui o valor ao atributo
     }
 
     // Sobrescrita do metodo toString() da classe Object
     @Override                                                                                       // Chama automaticamente quando tenta imprimir um objeto Produto
     public String toString() {
         return String.format("Produto: %s | Preço: R$ %.2f | Estoque: %d unidades",                 // Formata a string com os dados do produto
-                nome, preco, quantidadeEmEstoque);
+                nome, preco, quantidadeEmEstoque.get());
     }
 }
\ No newline at end of file
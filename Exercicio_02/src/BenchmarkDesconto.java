@@ -0,0 +1,53 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+// Benchmark que compara o desconto em massa com chamadas a Produto.aplicarDesconto em um laço
+public class BenchmarkDesconto {
+    private static final int QUANTIDADE_PRODUTOS = 1_000_000;
+    private static final int RODADAS = 5;
+    private static final double PORCENTAGEM = 10.0;
+
+    public static void main(String[] args) throws DescontoInvalidoException {
+        PrintStream consoleOriginal = System.out;
+
+        double[] precosOriginais = new double[QUANTIDADE_PRODUTOS];
+        for (int i = 0; i < QUANTIDADE_PRODUTOS; i++) {
+            precosOriginais[i] = 10.0 + (i % 1000);
+        }
+
+        MotorDescontoEmMassa motor = new MotorDescontoEmMassa(mensagem -> { });                     // Log descartado para medir só o cálculo
+
+        consoleOriginal.println("=== DESCONTO EM MASSA vs LAÇO DE aplicarDesconto ===");
+        for (int rodada = 1; rodada <= RODADAS; rodada++) {
+            // 1) Laço chamando aplicarDesconto (o println de cada chamada vai para um fluxo descartado)
+            Produto[] produtos = new Produto[QUANTIDADE_PRODUTOS];
+            for (int i = 0; i < QUANTIDADE_PRODUTOS; i++) {
+                produtos[i] = new Produto("Produto " + i, precosOriginais[i]);
+            }
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long inicio = System.nanoTime();
+            for (Produto produto : produtos) {
+                produto.aplicarDesconto(PORCENTAGEM);
+            }
+            long tempoLaco = System.nanoTime() - inicio;
+            System.setOut(consoleOriginal);
+
+            // 2) Desconto em massa sobre o array primitivo
+            double[] precos = Arrays.copyOf(precosOriginais, QUANTIDADE_PRODUTOS);
+            inicio = System.nanoTime();
+            motor.aplicarDesconto(precos, PORCENTAGEM);
+            long tempoMassa = System.nanoTime() - inicio;
+
+            // Confere que os dois caminhos produzem exatamente o mesmo resultado
+            for (int i = 0; i < QUANTIDADE_PRODUTOS; i++) {
+                if (Double.compare(produtos[i].getPreco(), precos[i]) != 0) {
+                    throw new IllegalStateException("Resultado divergente no índice " + i);
+                }
+            }
+
+            System.out.printf("Rodada %d: laço %d ms | massa %d ms (%.0fx mais rápido)%n",
+                    rodada, tempoLaco / 1_000_000, tempoMassa / 1_000_000, (double) tempoLaco / tempoMassa);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Benchmark de descontos sucessivos: double vs BigDecimal vs long em centavos
+public class BenchmarkPrecoCentavos {
+    private static final int QUANTIDADE_PRECOS = 1_000_000;
+    private static final int RODADAS = 5;
+    private static final double[] DESCONTOS = {5.0, 10.0, 12.5, 7.0, 3.25};
+    private static final RoundingMode ARREDONDAMENTO = RoundingMode.HALF_EVEN;
+
+    public static void main(String[] args) throws DescontoInvalidoException {
+        long[] centavosOriginais = new long[QUANTIDADE_PRECOS];
+        for (int i = 0; i < QUANTIDADE_PRECOS; i++) {
+            centavosOriginais[i] = 999 + (i * 37L) % 500_000;                                       // Preços entre R$ 9,99 e R$ 5.009,98
+        }
+
+        // Porcentagens pré-convertidas para cada representação
+        long[] descontosEscalados = new long[DESCONTOS.length];
+        BigDecimal[] descontosDecimais = new BigDecimal[DESCONTOS.length];
+        for (int d = 0; d < DESCONTOS.length; d++) {
+            descontosEscalados[d] = PrecoCentavos.porcentagemEscalada(DESCONTOS[d]);
+            descontosDecimais[d] = BigDecimal.valueOf(DESCONTOS[d]).movePointLeft(2);
+        }
+
+        System.out.println("=== DESCONTOS SUCESSIVOS EM " + QUANTIDADE_PRECOS + " PREÇOS ===");
+        for (int rodada = 1; rodada <= RODADAS; rodada++) {
+            // 1) double: mesma conta de Produto.aplicarDesconto, sem nenhum arredondamento (como hoje)
+            long inicio = System.nanoTime();
+            double[] precosDouble = new double[QUANTIDADE_PRECOS];
+            for (int i = 0; i < QUANTIDADE_PRECOS; i++) {
+                double preco = centavosOriginais[i] / 100.0;
+                for (double desconto : DESCONTOS) {
+                    preco -= preco * (desconto / 100);
+                }
+                precosDouble[i] = preco;
+            }
+            long tempoDouble = System.nanoTime() - inicio;
+
+            // 1b) double arredondando para centavos a cada passo (o re-arredondamento feito hoje depois do cálculo)
+            inicio = System.nanoTime();
+            double[] precosDoubleArredondados = new double[QUANTIDADE_PRECOS];
+            for (int i = 0; i < QUANTIDADE_PRECOS; i++) {
+                double preco = centavosOriginais[i] / 100.0;
+                for (double desconto : DESCONTOS) {
+                    preco -= Math.rint(preco * desconto) / 100;
+                    preco = Math.rint(preco * 100) / 100;
+                }
+                precosDoubleArredondados[i] = preco;
+            }
+            long tempoDoubleArredondado = System.nanoTime() - inicio;
+
+            // 2) BigDecimal: desconto arredondado para centavos a cada passo
+            inicio = System.nanoTime();
+            BigDecimal[] precosDecimais = new BigDecimal[QUANTIDADE_PRECOS];
+            for (int i = 0; i < QUANTIDADE_PRECOS; i++) {
+                BigDecimal preco = BigDecimal.valueOf(centavosOriginais[i], 2);
+                for (BigDecimal desconto : descontosDecimais) {
+                    preco = preco.subtract(preco.multiply(desconto).setScale(2, ARREDONDAMENTO));
+                }
+                precosDecimais[i] = preco;
+            }
+            long tempoDecimal = System.nanoTime() - inicio;
+
+            // 3) long em centavos: mesma regra de arredondamento, sem alocar objetos
+            inicio = System.nanoTime();
+            long[] precosCentavos = new long[QUANTIDADE_PRECOS];
+            for (int i = 0; i < QUANTIDADE_PRECOS; i++) {
+                long preco = centavosOriginais[i];
+                for (long desconto : descontosEscalados) {
+                    preco -= PrecoCentavos.calcularDesconto(preco, desconto, ARREDONDAMENTO);
+                }
+                precosCentavos[i] = preco;
+            }
+            long tempoCentavos = System.nanoTime() - inicio;
+
+            // Confere os resultados: long deve ser idêntico ao BigDecimal; double costuma divergir em centavos
+            int divergenciasDouble = 0;
+            int divergenciasDoubleArredondado = 0;
+            for (int i = 0; i < QUANTIDADE_PRECOS; i++) {
+                long esperado = PrecoCentavos.deReais(precosDecimais[i], RoundingMode.UNNECESSARY);
+                if (precosCentavos[i] != esperado) {
+                    throw new IllegalStateException("Centavos divergem do BigDecimal no índice " + i);
+                }
+                if (PrecoCentavos.deReais(precosDouble[i]) != esperado) {
+                    divergenciasDouble++;
+                }
+                if (PrecoCentavos.deReais(precosDoubleArredondados[i]) != esperado) {
+                    divergenciasDoubleArredondado++;
+                }
+            }
+
+            System.out.printf("Rodada %d: double %d ms (%d divergências) | double arredondado %d ms (%d divergências) | BigDecimal %d ms | long %d ms%n",
+                    rodada, tempoDouble / 1_000_000, divergenciasDouble, tempoDoubleArredondado / 1_000_000,
+                    divergenciasDoubleArredondado, tempoDecimal / 1_000_000, tempoCentavos / 1_000_000);
+        }
+
+        conferirBordas();
+    }
+
+    // Porcentagens com mais de duas casas são rejeitadas pelos dois caminhos; formatar aguenta o menor long
+    private static void conferirBordas() throws DescontoInvalidoException {
+        try {
+            PrecoCentavos.porcentagemEscalada(50.004);                                              // Antes arredondava para 50% e passava
+            throw new IllegalStateException("50.004% deveria ser rejeitado por porcentagemEscalada");
+        } catch (DescontoInvalidoException e) {
+            // Esperado: mesma exceção de ProdutoCentavos.aplicarDesconto(50.004)
+        }
+        try {
+            PrecoCentavos.porcentagemEscalada(12.345);
+            throw new IllegalStateException("12.345% deveria ser rejeitado por porcentagemEscalada");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        try {
+            new ProdutoCentavos("Teste", 10_000, ARREDONDAMENTO).aplicarDesconto(12.345);
+            throw new IllegalStateException("12.345% deveria ser rejeitado por ProdutoCentavos");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        if (PrecoCentavos.porcentagemEscalada(0.07) != 7 || PrecoCentavos.porcentagemEscalada(50.0) != 5000) {
+            throw new IllegalStateException("Porcentagens com até duas casas deveriam ser aceitas");
+        }
+        if (!PrecoCentavos.formatar(Long.MIN_VALUE).equals("-92233720368547758.08")) {
+            throw new IllegalStateException("Formatação incorreta de Long.MIN_VALUE: " + PrecoCentavos.formatar(Long.MIN_VALUE));
+        }
+        System.out.println("Bordas conferidas: porcentagens com mais de duas casas rejeitadas e Long.MIN_VALUE formatado.");
+    }
+}
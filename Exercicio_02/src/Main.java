@@ -61,6 +61,21 @@ class Produto {
 
     // Método para aplicar desconto com validação da porcentagem
     public void aplicarDesconto(double porcentagem) throws DescontoInvalidoException {
+        // Valida a porcentagem (mesmas regras usadas pelo desconto em massa)
+        validarPorcentagem(porcentagem);
+
+        // Calcula o valor do desconto em reais
+        double desconto = preco * (porcentagem / 100);
+
+        // Aplica o desconto subtraindo do preço original
+        preco -= desconto;
+
+        // Exibe mensagem informativa sobre o desconto aplicado
+        System.out.println("Desconto de " + porcentagem + "% aplicado com sucesso!");
+    }
+
+    // Método que valida a porcentagem de desconto (compartilhado com o MotorDescontoEmMassa)
+    static void validarPorcentagem(double porcentagem) throws DescontoInvalidoException {
         // Verifica se a porcentagem é negativa
         if (porcentagem < 0) {
             // Lança exceção padrão do Java para valores negativos
@@ -72,15 +87,6 @@ class Produto {
             // Lança exceção personalizada para valores acima do permitido
             throw new DescontoInvalidoException("Desconto máximo permitido é 50%");
         }
-
-        // Calcula o valor do desconto em reais
-        double desconto = preco * (porcentagem / 100);
-
-        // Aplica o desconto subtraindo do preço original
-        preco -= desconto;
-
-        // Exibe mensagem informativa sobre o desconto aplicado
-        System.out.println("Desconto de " + porcentagem + "% aplicado com sucesso!");
     }
 }
 
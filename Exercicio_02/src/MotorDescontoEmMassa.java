@@ -0,0 +1,96 @@
+import java.math.RoundingMode;
+import java.util.function.Consumer;
+
+// Classe que aplica descontos em lotes de preços de uma só vez (promoções em todo o catálogo)
+class MotorDescontoEmMassa {
+    // Destino das mensagens de log (uma mensagem por lote, fora do laço de cálculo)
+    private final Consumer<String> registro;
+
+    // Construtor padrão que registra as mensagens no console
+    public MotorDescontoEmMassa() {
+        this(System.out::println);
+    }
+
+    // Construtor que permite trocar o destino do log (ex.: um logger assíncrono ou descartar as mensagens)
+    public MotorDescontoEmMassa(Consumer<String> registro) {
+        this.registro = registro;
+    }
+
+    // Aplica a mesma porcentagem a todos os preços do array (alterando o próprio array)
+    public void aplicarDesconto(double[] precos, double porcentagem) throws DescontoInvalidoException {
+        aplicarDesconto(precos, 0, precos.length, porcentagem);
+    }
+
+    // Aplica a mesma porcentagem a um trecho do array [inicio, fim)
+    public void aplicarDesconto(double[] precos, int inicio, int fim, double porcentagem) throws DescontoInvalidoException {
+        validarIntervalo(precos.length, inicio, fim);
+        // A validação é feita uma única vez para o lote inteiro
+        Produto.validarPorcentagem(porcentagem);
+
+        // Mesma conta de Produto.aplicarDesconto (resultado idêntico bit a bit), em um laço simples
+        // sem desvios nem chamadas, que o compilador JIT consegue vetorizar automaticamente (SIMD)
+        double fator = porcentagem / 100;
+        for (int i = inicio; i < fim; i++) {
+            precos[i] -= precos[i] * fator;
+        }
+
+        registro.accept("Desconto de " + porcentagem + "% aplicado com sucesso a " + (fim - inicio) + " preços!");
+    }
+
+    // Aplica uma porcentagem diferente para cada preço (porcentagens[i] vale para precos[i])
+    public void aplicarDescontos(double[] precos, double[] porcentagens) throws DescontoInvalidoException {
+        if (precos.length != porcentagens.length) {
+            throw new IllegalArgumentException("Arrays de preços e porcentagens devem ter o mesmo tamanho");
+        }
+
+        // Valida todas as porcentagens antes de alterar qualquer preço (o lote é aplicado por inteiro ou não é aplicado)
+        for (double porcentagem : porcentagens) {
+            Produto.validarPorcentagem(porcentagem);
+        }
+
+        for (int i = 0; i < precos.length; i++) {
+            precos[i] -= precos[i] * (porcentagens[i] / 100);
+        }
+
+        registro.accept("Descontos individuais aplicados com sucesso a " + precos.length + " preços!");
+    }
+
+    // Aplica a mesma porcentagem a um array de produtos sem imprimir uma mensagem por produto
+    public void aplicarDesconto(Produto[] produtos, double porcentagem) throws DescontoInvalidoException {
+        Produto.validarPorcentagem(porcentagem);
+
+        // Copia os preços para um array primitivo, aplica o desconto em massa e devolve os valores
+        double[] precos = new double[produtos.length];
+        for (int i = 0; i < produtos.length; i++) {
+            precos[i] = produtos[i].getPreco();
+        }
+
+        double fator = porcentagem / 100;
+        for (int i = 0; i < precos.length; i++) {
+            precos[i] -= precos[i] * fator;
+        }
+
+        for (int i = 0; i < produtos.length; i++) {
+            produtos[i].setPreco(precos[i]);
+        }
+
+        registro.accept("Desconto de " + porcentagem + "% aplicado com sucesso a " + produtos.length + " produtos!");
+    }
+
+    // Aplica a mesma porcentagem a preços em centavos (ponto fixo), com arredondamento explícito
+    public void aplicarDesconto(long[] precosCentavos, double porcentagem, RoundingMode arredondamento) throws DescontoInvalidoException {
+        long porcentagemEscalada = PrecoCentavos.porcentagemEscalada(porcentagem);                                    // Valida e rejeita porcentagens com mais de duas casas
+        for (int i = 0; i < precosCentavos.length; i++) {
+            precosCentavos[i] -= PrecoCentavos.calcularDesconto(precosCentavos[i], porcentagemEscalada, arredondamento);
+        }
+
+        registro.accept("Desconto de " + porcentagem + "% aplicado com sucesso a " + precosCentavos.length + " preços em centavos!");
+    }
+
+    // Verifica se o trecho [inicio, fim) está dentro do array
+    private static void validarIntervalo(int tamanho, int inicio, int fim) {
+        if (inicio < 0 || fim > tamanho || inicio > fim) {
+            throw new IndexOutOfBoundsException("Intervalo inválido: [" + inicio + ", " + fim + ") em array de tamanho " + tamanho);
+        }
+    }
+}
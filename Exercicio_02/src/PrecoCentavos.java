@@ -0,0 +1,177 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Classe utilitária para preços em ponto fixo: o valor é guardado como long em centavos (unidades mínimas)
+// Evita os erros de arredondamento do double e não aloca BigDecimal nas contas de desconto
+final class PrecoCentavos {
+    // Quantidade de centavos em um real
+    static final long CENTAVOS_POR_REAL = 100;
+
+    // Porcentagens são representadas em centésimos de ponto percentual (ex.: 12,5% = 1250)
+    static final long ESCALA_PORCENTAGEM = 100;
+
+    // Divisor usado no cálculo do desconto: 100% * escala da porcentagem
+    private static final long DIVISOR_DESCONTO = 100 * ESCALA_PORCENTAGEM;
+
+    // Construtor privado: classe só com métodos estáticos
+    private PrecoCentavos() {
+    }
+
+    // Converte um valor em reais (double) para centavos, arredondando para o centavo mais próximo
+    static long deReais(double reais) {
+        if (Double.isNaN(reais) || Double.isInfinite(reais)) {
+            throw new IllegalArgumentException("Valor em reais inválido: " + reais);
+        }
+        return Math.round(reais * CENTAVOS_POR_REAL);
+    }
+
+    // Converte um BigDecimal em reais para centavos com o modo de arredondamento informado
+    static long deReais(BigDecimal reais, RoundingMode modo) {
+        return reais.setScale(2, modo).unscaledValue().longValueExact();
+    }
+
+    // Converte centavos para reais em double (apenas para exibição ou integração)
+    static double paraReais(long centavos) {
+        return centavos / (double) CENTAVOS_POR_REAL;
+    }
+
+    // Converte centavos para BigDecimal com escala 2 (exato)
+    static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    // Formata centavos como texto "1234.56" sem passar por double
+    // Divide antes de tirar o sinal: Math.abs(Long.MIN_VALUE) continuaria negativo
+    static String formatar(long centavos) {
+        String sinal = centavos < 0 ? "-" : "";
+        long reais = Math.abs(centavos / CENTAVOS_POR_REAL);
+        long resto = Math.abs(centavos % CENTAVOS_POR_REAL);
+        return sinal + reais + (resto < 10 ? ".0" : ".") + resto;
+    }
+
+    // Valida a porcentagem em double (ex.: 12.5) e converte para a escala inteira (ex.: 1250)
+    // Porcentagens com mais de duas casas (ex.: 50.004) são rejeitadas em vez de arredondadas
+    static long porcentagemEscalada(double porcentagem) throws DescontoInvalidoException {
+        // Mesmas regras de Produto.aplicarDesconto (negativo ou acima de 50%), sobre o valor recebido
+        Produto.validarPorcentagem(porcentagem);
+
+        long escalada = Math.round(porcentagem * ESCALA_PORCENTAGEM);
+        if (escalada / (double) ESCALA_PORCENTAGEM != porcentagem) {
+            throw new IllegalArgumentException("Porcentagem de desconto deve ter no máximo duas casas decimais: " + porcentagem);
+        }
+        return escalada;
+    }
+
+    // Aplica um desconto (porcentagem escalada) sobre um valor em centavos
+    // O valor do desconto é arredondado para o centavo com o modo informado, igual a BigDecimal.setScale(2, modo)
+    static long aplicarDesconto(long centavos, long porcentagemEscalada, RoundingMode modo) throws DescontoInvalidoException {
+        validarPorcentagemEscalada(porcentagemEscalada);
+        return centavos - calcularDesconto(centavos, porcentagemEscalada, modo);
+    }
+
+    // Mesmas regras de Produto.validarPorcentagem, direto na escala inteira (0 a 5000)
+    static void validarPorcentagemEscalada(long porcentagemEscalada) throws DescontoInvalidoException {
+        if (porcentagemEscalada < 0) {
+            throw new IllegalArgumentException("Porcentagem de desconto não pode ser negativa");
+        }
+        if (porcentagemEscalada > 50 * ESCALA_PORCENTAGEM) {
+            throw new DescontoInvalidoException("Desconto máximo permitido é 50%");
+        }
+    }
+
+    // Calcula apenas o valor do desconto (sem validar a porcentagem, usado nos laços em massa já validados)
+    static long calcularDesconto(long centavos, long porcentagemEscalada, RoundingMode modo) {
+        return dividir(Math.multiplyExact(centavos, porcentagemEscalada), DIVISOR_DESCONTO, modo);
+    }
+
+    // Divisão inteira com modo de arredondamento explícito (mesma semântica de RoundingMode no BigDecimal)
+    static long dividir(long numerador, long divisor, RoundingMode modo) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("Divisor deve ser positivo");
+        }
+
+        long quociente = numerador / divisor;
+        long resto = numerador % divisor;
+        if (resto == 0) {
+            return quociente;
+        }
+
+        // Sinal do resultado exato (quociente truncado em direção a zero)
+        // Os modos são comparados com if (e não switch) para manter o método pequeno e fácil de o JIT embutir
+        int sinal = numerador < 0 ? -1 : 1;
+        boolean afastarDoZero;
+        if (modo == RoundingMode.HALF_EVEN || modo == RoundingMode.HALF_UP || modo == RoundingMode.HALF_DOWN) {
+            // Compara o resto com a metade do divisor (sem estourar: resto < divisor)
+            long dobroResto = Math.abs(resto) * 2;
+            if (dobroResto != divisor) {
+                afastarDoZero = dobroResto > divisor;
+            } else if (modo == RoundingMode.HALF_EVEN) {
+                afastarDoZero = (quociente & 1) != 0;
+            } else {
+                afastarDoZero = modo == RoundingMode.HALF_UP;
+            }
+        } else if (modo == RoundingMode.UP) {
+            afastarDoZero = true;
+        } else if (modo == RoundingMode.DOWN) {
+            afastarDoZero = false;
+        } else if (modo == RoundingMode.CEILING) {
+            afastarDoZero = sinal > 0;
+        } else if (modo == RoundingMode.FLOOR) {
+            afastarDoZero = sinal < 0;
+        } else {
+            throw new ArithmeticException("Arredondamento necessário");
+        }
+        return afastarDoZero ? quociente + sinal : quociente;
+    }
+}
+
+// Classe que representa um produto com preço em centavos (modo de preço em ponto fixo)
+class ProdutoCentavos {
+    // Atributo privado para armazenar o nome do produto
+    private String nome;
+
+    // Preço em centavos (long), sem imprecisão de ponto flutuante
+    private long precoCentavos;
+
+    // Modo de arredondamento usado nos descontos (padrão: HALF_EVEN, arredondamento bancário)
+    private final RoundingMode arredondamento;
+
+    // Construtor que recebe o preço já em centavos
+    public ProdutoCentavos(String nome, long precoCentavos, RoundingMode arredondamento) {
+        this.nome = nome;
+        this.precoCentavos = precoCentavos;
+        this.arredondamento = arredondamento;
+    }
+
+    // Construtor de conveniência que converte um produto com preço em double
+    public ProdutoCentavos(Produto produto) {
+        this(produto.getNome(), PrecoCentavos.deReais(produto.getPreco()), RoundingMode.HALF_EVEN);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getPrecoCentavos() {
+        return precoCentavos;
+    }
+
+    public void setPrecoCentavos(long precoCentavos) {
+        this.precoCentavos = precoCentavos;
+    }
+
+    public RoundingMode getArredondamento() {
+        return arredondamento;
+    }
+
+    // Aplica o desconto com as mesmas regras de Produto.aplicarDesconto, mas em aritmética inteira
+    public void aplicarDesconto(double porcentagem) throws DescontoInvalidoException {
+        long porcentagemEscalada = PrecoCentavos.porcentagemEscalada(porcentagem);                              // Valida uma vez, sobre a porcentagem recebida
+        precoCentavos -= PrecoCentavos.calcularDesconto(precoCentavos, porcentagemEscalada, arredondamento);
+    }
+
+    @Override
+    public String toString() {
+        return nome + " - R$ " + PrecoCentavos.formatar(precoCentavos);
+    }
+}
@@ -0,0 +1,156 @@
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class AgregadoFolha {                                                                                       // Totais da folha mantidos incrementalmente a partir de eventos (contratação, demissão e reajuste)
+    private static final Cargo[] CARGOS = Cargo.values();
+
+    private final AtomicReference<Totais> atual = new AtomicReference<>(Totais.VAZIO);                      // Foto imutável atual; leitores nunca bloqueiam, escritores trocam a foto com compare-and-set
+    private final Map<Funcionario, BigDecimal> bonusSomado = new ConcurrentHashMap<>();                     // Bônus que cada funcionário somou aos totais (a TabelaBonus pode mudar depois)
+    private final ReentrantReadWriteLock recalculo = new ReentrantReadWriteLock();                          // Eventos usam a leitura (correm juntos); recalcular usa a escrita e não perde eventos
+
+    // Eventos (cada um custa O(1): só os totais do cargo envolvido mudam)
+    public void contratar(Funcionario funcionario) {                                                        // Soma o funcionário aos totais do seu cargo
+        Cargo cargo = Cargo.de(funcionario);
+        recalculo.readLock().lock();
+        try {
+            BigDecimal bonus = funcionario.calcularBonus();
+            if (bonusSomado.putIfAbsent(funcionario, bonus) != null) {
+                throw new IllegalArgumentException("Funcionário já está na folha: " + funcionario.getNome());
+            }
+            aplicar(cargo, 1, funcionario.getSalario(), bonus);
+        } finally {
+            recalculo.readLock().unlock();
+        }
+    }
+
+    public void demitir(Funcionario funcionario) {                                                          // Retira o funcionário dos totais do seu cargo, com o bônus que ele somou
+        Cargo cargo = Cargo.de(funcionario);
+        recalculo.readLock().lock();
+        try {
+            BigDecimal bonus = retirarBonus(funcionario);
+            aplicar(cargo, -1, funcionario.getSalario().negate(), bonus.negate());
+        } finally {
+            recalculo.readLock().unlock();
+        }
+    }
+
+    public void reajustar(Funcionario antes, Funcionario depois) {                                          // Troca o salário (e o bônus) antigo pelo novo, em uma única atualização
+        Cargo cargo = Cargo.de(antes);
+        if (cargo != Cargo.de(depois)) {
+            throw new IllegalArgumentException("Reajuste não pode mudar o cargo do funcionário");
+        }
+        recalculo.readLock().lock();
+        try {
+            BigDecimal bonusDepois = depois.calcularBonus();
+            BigDecimal bonusAntes = retirarBonus(antes);
+            bonusSomado.put(depois, bonusDepois);
+            aplicar(cargo, 0,
+                    depois.getSalario().subtract(antes.getSalario()),
+                    bonusDepois.subtract(bonusAntes));
+        } finally {
+            recalculo.readLock().unlock();
+        }
+    }
+
+    public Funcionario reajustar(Funcionario funcionario, BigDecimal novoSalario) {                         // Cria o funcionário com o novo salário (mesmo cargo), aplica o evento e o retorna
+        Funcionario reajustado = switch (Cargo.de(funcionario)) {
+            case GERENTE -> new Gerente(funcionario.getNome(), novoSalario);
+            case DESENVOLVEDOR -> new Desenvolvedor(funcionario.getNome(), novoSalario);
+            case FUNCIONARIO -> new Funcionario(funcionario.getNome(), novoSalario);
+        };
+        reajustar(funcionario, reajustado);
+        return reajustado;
+    }
+
+    public void recalcular(Collection<Funcionario> funcionarios) {                                          // Recalcula tudo do zero com a TabelaBonus atual; a coleção deve ser a folha inteira neste momento
+        recalculo.writeLock().lock();                                                                       // Nenhum evento é aplicado (nem perdido) enquanto a soma é refeita
+        try {
+            ResumoFolha resumo = new ResumoFolha();
+            bonusSomado.clear();
+            for (Funcionario funcionario : funcionarios) {
+                BigDecimal bonusFuncionario = funcionario.calcularBonus();
+                bonusSomado.put(funcionario, bonusFuncionario);
+                resumo.adicionar(Cargo.de(funcionario), funcionario.getSalario(), bonusFuncionario);
+            }
+            long[] quantidades = new long[CARGOS.length];
+            BigDecimal[] salarios = new BigDecimal[CARGOS.length];
+            BigDecimal[] bonus = new BigDecimal[CARGOS.length];
+            for (Cargo cargo : CARGOS) {
+                quantidades[cargo.ordinal()] = resumo.getQuantidade(cargo);
+                salarios[cargo.ordinal()] = resumo.getTotalSalario(cargo);
+                bonus[cargo.ordinal()] = resumo.getTotalBonus(cargo);
+            }
+            atual.set(new Totais(quantidades, salarios, bonus));
+        } finally {
+            recalculo.writeLock().unlock();
+        }
+    }
+
+    // Consultas (sem bloqueio, sempre sobre uma foto consistente)
+    public long getQuantidade(Cargo cargo) { return atual.get().quantidades[cargo.ordinal()]; }
+    public BigDecimal getTotalSalario(Cargo cargo) { return atual.get().salarios[cargo.ordinal()]; }
+    public BigDecimal getTotalBonus(Cargo cargo) { return atual.get().bonus[cargo.ordinal()]; }
+
+    public ResumoFolha getResumo() {                                                                        // Copia a foto atual para um ResumoFolha (todos os cargos do mesmo instante)
+        Totais totais = atual.get();
+        ResumoFolha resumo = new ResumoFolha();
+        for (Cargo cargo : CARGOS) {
+            int i = cargo.ordinal();
+            resumo.acumular(cargo, totais.quantidades[i], totais.salarios[i], totais.bonus[i]);
+        }
+        return resumo;
+    }
+
+    private BigDecimal retirarBonus(Funcionario funcionario) {                                              // Bônus somado na contratação (ou no último reajuste), não o da tabela atual
+        BigDecimal bonus = bonusSomado.remove(funcionario);
+        if (bonus == null) {
+            throw new IllegalArgumentException("Funcionário não está na folha: " + funcionario.getNome());
+        }
+        return bonus;
+    }
+
+    private void aplicar(Cargo cargo, long deltaQuantidade, BigDecimal deltaSalario, BigDecimal deltaBonus) {
+        while (true) {                                                                                      // Laço de compare-and-set: refaz a conta se outro escritor trocou a foto no meio
+            Totais anterior = atual.get();
+            Totais novo = anterior.com(cargo.ordinal(), deltaQuantidade, deltaSalario, deltaBonus);
+            if (atual.compareAndSet(anterior, novo)) {
+                return;
+            }
+        }
+    }
+
+    private static final class Totais {                                                                     // Foto imutável dos totais por cargo (arrays pequenos, um item por cargo)
+        static final Totais VAZIO;
+
+        static {
+            BigDecimal[] zeros = new BigDecimal[CARGOS.length];
+            Arrays.fill(zeros, BigDecimal.ZERO);
+            VAZIO = new Totais(new long[CARGOS.length], zeros, zeros.clone());
+        }
+
+        final long[] quantidades;
+        final BigDecimal[] salarios;
+        final BigDecimal[] bonus;
+
+        Totais(long[] quantidades, BigDecimal[] salarios, BigDecimal[] bonus) {
+            this.quantidades = quantidades;
+            this.salarios = salarios;
+            this.bonus = bonus;
+        }
+
+        Totais com(int i, long deltaQuantidade, BigDecimal deltaSalario, BigDecimal deltaBonus) {            // Nova foto com apenas o cargo i alterado
+            long[] novasQuantidades = quantidades.clone();
+            BigDecimal[] novosSalarios = salarios.clone();
+            BigDecimal[] novosBonus = bonus.clone();
+            novasQuantidades[i] += deltaQuantidade;
+            novosSalarios[i] = novosSalarios[i].add(deltaSalario);
+            novosBonus[i] = novosBonus[i].add(deltaBonus);
+            return new Totais(novasQuantidades, novosSalarios, novosBonus);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AgregadoFolhaTeste {                                                                           // Confere o agregado incremental contra o recálculo completo, com escritores e leitores concorrentes
+    private static final int ESCRITORES = 4;
+    private static final int EVENTOS_POR_ESCRITOR = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== TESTE DO AGREGADO INCREMENTAL DA FOLHA ===\n");
+        AgregadoFolha agregado = new AgregadoFolha();
+        List<List<Funcionario>> equipes = new ArrayList<>();                                                // Cada escritor mantém sua própria equipe (o estado final é conhecido)
+        CountDownLatch fim = new CountDownLatch(ESCRITORES);
+        AtomicBoolean executando = new AtomicBoolean(true);
+        AtomicLong leituras = new AtomicLong();
+
+        for (int e = 0; e < ESCRITORES; e++) {
+            List<Funcionario> equipe = new ArrayList<>();
+            equipes.add(equipe);
+            int semente = e;
+            new Thread(() -> {
+                SplittableRandom aleatorio = new SplittableRandom(semente);
+                for (int i = 0; i < EVENTOS_POR_ESCRITOR; i++) {
+                    int evento = aleatorio.nextInt(10);
+                    if (equipe.isEmpty() || evento < 5) {                                                   // 50% contratações
+                        Funcionario novo = criar(aleatorio, "F" + semente + "-" + i);
+                        equipe.add(novo);
+                        agregado.contratar(novo);
+                    } else if (evento < 8) {                                                                // 30% reajustes
+                        int posicao = aleatorio.nextInt(equipe.size());
+                        BigDecimal novoSalario = equipe.get(posicao).getSalario().add(BigDecimal.valueOf(aleatorio.nextInt(1, 50_000), 2));
+                        equipe.set(posicao, agregado.reajustar(equipe.get(posicao), novoSalario));
+                    } else {                                                                                // 20% demissões
+                        int posicao = aleatorio.nextInt(equipe.size());
+                        Funcionario demitido = equipe.get(posicao);
+                        equipe.set(posicao, equipe.get(equipe.size() - 1));
+                        equipe.remove(equipe.size() - 1);
+                        agregado.demitir(demitido);
+                    }
+                }
+                fim.countDown();
+            }).start();
+        }
+
+        Thread leitor = new Thread(() -> {                                                                  // Leitor concorrente: lê os totais sem bloquear os escritores
+            while (executando.get()) {
+                ResumoFolha resumo = agregado.getResumo();
+                if (resumo.getQuantidadeTotal() < 0) {
+                    throw new IllegalStateException("Quantidade negativa em uma foto consistente");
+                }
+                leituras.incrementAndGet();
+            }
+        });
+        leitor.start();
+
+        fim.await();
+        executando.set(false);
+        leitor.join();
+
+        List<Funcionario> todos = new ArrayList<>();
+        for (List<Funcionario> equipe : equipes) {
+            todos.addAll(equipe);
+        }
+        ResumoFolha incremental = agregado.getResumo();
+        ResumoFolha recalculado = MotorFolhaPagamento.calcularSequencial(todos);
+
+        System.out.println("Incremental:\n" + incremental);
+        System.out.println("\nRecálculo completo:\n" + recalculado);
+        System.out.println("\nLeituras concorrentes realizadas: " + leituras.get());
+        System.out.println("Resultados iguais? " + incremental.mesmosValores(recalculado));
+        if (!incremental.mesmosValores(recalculado)) {
+            throw new IllegalStateException("Agregado incremental divergiu do recálculo completo");
+        }
+
+        System.out.println("\n=== RECARGA DA TABELA DE BÔNUS ===\n");
+        Funcionario gerente = new Gerente("Gerente recarga", new BigDecimal("10000.00"));
+        BigDecimal bonusAntes = agregado.getTotalBonus(Cargo.GERENTE);
+        agregado.contratar(gerente);                                                                        // Soma 20% com a tabela padrão
+        TabelaBonus.substituir(new TabelaBonus.Construtor()
+                .definir(Cargo.GERENTE, new RegraBonus(new BigDecimal("0.35"), 2, RoundingMode.HALF_UP))
+                .definir(Cargo.DESENVOLVEDOR, new RegraBonus(new BigDecimal("0.15"), 2, RoundingMode.HALF_UP))
+                .construir());
+        try {
+            agregado.demitir(gerente);                                                                      // Precisa retirar os 20% somados, não os 35% da tabela nova
+            System.out.println("Bônus de gerentes volta ao valor anterior? " + (agregado.getTotalBonus(Cargo.GERENTE).compareTo(bonusAntes) == 0));
+            if (agregado.getTotalBonus(Cargo.GERENTE).compareTo(bonusAntes) != 0) {
+                throw new IllegalStateException("Demissão depois da recarga retirou um bônus diferente do somado");
+            }
+
+            agregado.recalcular(todos);
+            boolean iguais = agregado.getResumo().mesmosValores(MotorFolhaPagamento.calcularSequencial(todos));
+            System.out.println("Recalcular com a tabela nova bate com o recálculo completo? " + iguais);
+            if (!iguais) {
+                throw new IllegalStateException("Recalcular divergiu do recálculo completo com a tabela nova");
+            }
+            Funcionario reajustado = agregado.reajustar(todos.get(0), todos.get(0).getSalario().add(BigDecimal.ONE));
+            todos.set(0, reajustado);
+            if (!agregado.getResumo().mesmosValores(MotorFolhaPagamento.calcularSequencial(todos))) {
+                throw new IllegalStateException("Reajuste depois de recalcular divergiu do recálculo completo");
+            }
+        } finally {
+            TabelaBonus.substituir(TabelaBonus.padrao());
+        }
+
+        System.out.println("\n=== TESTE CONCLUÍDO ===");
+    }
+
+    private static Funcionario criar(SplittableRandom aleatorio, String nome) {
+        BigDecimal salario = BigDecimal.valueOf(aleatorio.nextInt(150_000, 3_000_000), 2);
+        return switch (aleatorio.nextInt(3)) {
+            case 0 -> new Gerente(nome, salario);
+            case 1 -> new Desenvolvedor(nome, salario);
+            default -> new Funcionario(nome, salario);
+        };
+    }
+}
@@ -0,0 +1,66 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class BenchmarkFolhaPagamento {                                                                      // Mede a escalabilidade do cálculo paralelo da folha de 1 até N núcleos
+    private static final int QUANTIDADE_FUNCIONARIOS = 3_000_000;
+    private static final int RODADAS = 3;
+
+    public static void main(String[] args) {
+        List<Funcionario> funcionarios = gerarFuncionarios(QUANTIDADE_FUNCIONARIOS);
+
+        System.out.println("=== FOLHA SEQUENCIAL (REFERÊNCIA) ===");
+        ResumoFolha referencia = null;
+        long melhorSequencial = Long.MAX_VALUE;
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            long inicio = System.nanoTime();
+            referencia = MotorFolhaPagamento.calcularSequencial(funcionarios);
+            melhorSequencial = Math.min(melhorSequencial, System.nanoTime() - inicio);
+        }
+        System.out.println(referencia);
+        System.out.printf("Tempo sequencial: %d ms%n", melhorSequencial / 1_000_000);
+
+        System.out.println("\n=== FOLHA PARALELA ===");
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%8s | %10s | %10s | %s%n", "Núcleos", "Tempo (ms)", "Speedup", "Idêntico ao sequencial");
+        for (int paralelismo = 1; paralelismo <= nucleos; paralelismo *= 2) {
+            medirParalelo(funcionarios, paralelismo, referencia, melhorSequencial);
+            if (paralelismo < nucleos && paralelismo * 2 > nucleos) {                                       // Garante que o último cenário use todos os núcleos
+                medirParalelo(funcionarios, nucleos, referencia, melhorSequencial);
+            }
+        }
+    }
+
+    private static void medirParalelo(List<Funcionario> funcionarios, int paralelismo,
+                                      ResumoFolha referencia, long tempoSequencial) {
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            MotorFolhaPagamento motor = new MotorFolhaPagamento(pool);
+            long melhor = Long.MAX_VALUE;
+            ResumoFolha resumo = null;
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                long inicio = System.nanoTime();
+                resumo = motor.calcular(funcionarios);
+                melhor = Math.min(melhor, System.nanoTime() - inicio);
+            }
+            System.out.printf("%8d | %10d | %9.2fx | %s%n", paralelismo, melhor / 1_000_000,
+                    (double) tempoSequencial / melhor, resumo.equals(referencia) ? "sim" : "NÃO");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static List<Funcionario> gerarFuncionarios(int quantidade) {                                            // Gera uma força de trabalho sintética com os três cargos
+        List<Funcionario> funcionarios = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            BigDecimal salario = BigDecimal.valueOf(150_000 + (i * 7919L) % 2_000_000, 2);                  // Salários entre R$ 1.500,00 e R$ 21.499,99
+            switch (i % 10) {
+                case 0 -> funcionarios.add(new Gerente("Gerente " + i, salario));
+                case 1, 2, 3, 4, 5 -> funcionarios.add(new Desenvolvedor("Desenvolvedor " + i, salario));
+                default -> funcionarios.add(new Funcionario("Funcionário " + i, salario));
+            }
+        }
+        return funcionarios;
+    }
+}
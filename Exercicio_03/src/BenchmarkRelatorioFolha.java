@@ -0,0 +1,39 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class BenchmarkRelatorioFolha {                                                                      // Gera um arquivo grande de funcionários e mede a vazão do relatório em streaming
+    private static final int QUANTIDADE_FUNCIONARIOS = 2_000_000;
+    private static final String[] CARGOS = {"Gerente", "Desenvolvedor", "Desenvolvedor", "Funcionario", "Funcionario"};
+
+    public static void main(String[] args) throws IOException {
+        Path entrada = Files.createTempFile("funcionarios", ".csv");
+        Path saida = Files.createTempFile("folha", ".csv");
+        try {
+            try (BufferedWriter escritor = Files.newBufferedWriter(entrada, StandardCharsets.UTF_8)) {
+                escritor.write("nome;cargo;salario\n");
+                for (int i = 0; i < QUANTIDADE_FUNCIONARIOS; i++) {
+                    String salario = (i % 1000 == 999) ? "0" : (1500 + i % 20000) + "." + (i % 100 < 10 ? "0" : "") + (i % 100);  // Um em cada mil com salário inválido
+                    escritor.write("Funcionário " + i + ";" + CARGOS[i % CARGOS.length] + ";" + salario + "\n");
+                }
+            }
+
+            System.out.println("=== RELATÓRIO DA FOLHA EM STREAMING ===");
+            System.out.printf("Entrada: %d MB | Heap máximo: %d MB%n",
+                    Files.size(entrada) >> 20, Runtime.getRuntime().maxMemory() >> 20);
+            RelatorioFolhaStreaming relatorio = new RelatorioFolhaStreaming(true);
+            RelatorioFolhaStreaming.Resultado resultado = null;
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                resultado = relatorio.gerar(entrada, saida);
+                System.out.println("Rodada " + rodada + ": " + resultado);
+            }
+            System.out.println(resultado.getResumo());
+            System.out.printf("Saída: %d MB%n", Files.size(saida) >> 20);
+        } finally {
+            Files.deleteIfExists(entrada);
+            Files.deleteIfExists(saida);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BenchmarkTabelaBonus {                                                                         // Compara a TabelaBonus com o cálculo polimórfico antigo (new BigDecimal("0.20") a cada chamada)
+    private static final int QUANTIDADE_FUNCIONARIOS = 3_000_000;
+    private static final int RODADAS = 5;
+
+    public static void main(String[] args) throws IOException {
+        List<Funcionario> funcionarios = BenchmarkFolhaPagamento.gerarFuncionarios(QUANTIDADE_FUNCIONARIOS);
+
+        System.out.println("=== BÔNUS: CAMINHO ANTIGO vs TABELA DE BÔNUS ===");
+        TabelaBonus tabela = TabelaBonus.atual();
+        for (int rodada = 1; rodada <= RODADAS; rodada++) {
+            long inicio = System.nanoTime();
+            BigDecimal totalAntigo = BigDecimal.ZERO;
+            for (Funcionario funcionario : funcionarios) {
+                totalAntigo = totalAntigo.add(calcularBonusAntigo(funcionario));
+            }
+            long tempoAntigo = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            BigDecimal totalTabela = tabela.somarBonus(funcionarios);
+            long tempoTabela = System.nanoTime() - inicio;
+
+            if (!totalAntigo.equals(totalTabela)) {
+                throw new IllegalStateException("Totais divergentes: " + totalAntigo + " vs " + totalTabela);
+            }
+            System.out.printf("Rodada %d: antigo %d ms | tabela %d ms | total R$ %s%n",
+                    rodada, tempoAntigo / 1_000_000, tempoTabela / 1_000_000, totalTabela);
+        }
+
+        System.out.println("\n=== RECARREGANDO TAXAS SEM RECOMPILAR ===");                                   // Troca as taxas em tempo de execução a partir de um arquivo
+        Path arquivo = Files.createTempFile("bonus", ".properties");
+        try {
+            Files.writeString(arquivo, "GERENTE=0.25\nDESENVOLVEDOR=0.15\nDESENVOLVEDOR.arredondamento=HALF_EVEN\n");
+            Funcionario gerente = funcionarios.get(0);
+            System.out.println("Bônus antes: " + gerente.calcularBonus() + " | " + TabelaBonus.atual());
+            TabelaBonus.recarregar(arquivo);
+            System.out.println("Bônus depois: " + gerente.calcularBonus() + " | " + TabelaBonus.atual());
+        } finally {
+            TabelaBonus.substituir(TabelaBonus.padrao());
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static BigDecimal calcularBonusAntigo(Funcionario funcionario) {                                // Cópia do cálculo original das subclasses, usada só como referência
+        if (funcionario instanceof Gerente) {
+            return funcionario.getSalario().multiply(new BigDecimal("0.20")).setScale(2, RoundingMode.HALF_UP);
+        }
+        if (funcionario instanceof Desenvolvedor) {
+            return funcionario.getSalario().multiply(new BigDecimal("0.10")).setScale(2, RoundingMode.HALF_UP);
+        }
+        return BigDecimal.ZERO;
+    }
+}
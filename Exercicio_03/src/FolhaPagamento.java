@@ -0,0 +1,188 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+enum Cargo {                                                                                                // Cargos da hierarquia de funcionários, usados para agrupar os totais da folha
+    FUNCIONARIO,
+    GERENTE,
+    DESENVOLVEDOR;
+
+    public static Cargo de(Funcionario funcionario) {                                                       // Descobre o cargo a partir da classe do funcionário
+        if (funcionario instanceof Gerente) {
+            return GERENTE;
+        }
+        if (funcionario instanceof Desenvolvedor) {
+            return DESENVOLVEDOR;
+        }
+        return FUNCIONARIO;
+    }
+}
+
+final class ResumoFolha {                                                                                   // Totais da folha de pagamento por cargo (quantidade, salários e bônus)
+    private final long[] quantidades = new long[Cargo.values().length];                                     // Arrays indexados pelo ordinal do Cargo
+    private final BigDecimal[] totaisSalario = new BigDecimal[Cargo.values().length];
+    private final BigDecimal[] totaisBonus = new BigDecimal[Cargo.values().length];
+
+    public ResumoFolha() {
+        Arrays.fill(totaisSalario, BigDecimal.ZERO);
+        Arrays.fill(totaisBonus, BigDecimal.ZERO);
+    }
+
+    public void adicionar(Cargo cargo, BigDecimal salario, BigDecimal bonus) {                              // Acumula um funcionário nos totais do seu cargo
+        acumular(cargo, 1, salario, bonus);
+    }
+
+    void acumular(Cargo cargo, long quantidade, BigDecimal salario, BigDecimal bonus) {                     // Acumula totais já agregados de um cargo (usado pelo AgregadoFolha)
+        int i = cargo.ordinal();
+        quantidades[i] += quantidade;
+        totaisSalario[i] = totaisSalario[i].add(salario);
+        totaisBonus[i] = totaisBonus[i].add(bonus);
+    }
+
+    public ResumoFolha somar(ResumoFolha outro) {                                                           // Junta os totais de outro resumo neste (usado para combinar as partes paralelas)
+        for (int i = 0; i < quantidades.length; i++) {
+            quantidades[i] += outro.quantidades[i];
+            totaisSalario[i] = totaisSalario[i].add(outro.totaisSalario[i]);
+            totaisBonus[i] = totaisBonus[i].add(outro.totaisBonus[i]);
+        }
+        return this;
+    }
+
+    public long getQuantidade(Cargo cargo) { return quantidades[cargo.ordinal()]; }
+    public BigDecimal getTotalSalario(Cargo cargo) { return totaisSalario[cargo.ordinal()]; }
+    public BigDecimal getTotalBonus(Cargo cargo) { return totaisBonus[cargo.ordinal()]; }
+
+    public long getQuantidadeTotal() {
+        long total = 0;
+        for (long quantidade : quantidades) {
+            total += quantidade;
+        }
+        return total;
+    }
+
+    public BigDecimal getTotalSalarios() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal valor : totaisSalario) {
+            total = total.add(valor);
+        }
+        return total;
+    }
+
+    public BigDecimal getTotalBonus() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal valor : totaisBonus) {
+            total = total.add(valor);
+        }
+        return total;
+    }
+
+    public boolean mesmosValores(ResumoFolha outro) {                                                       // Igualdade numérica (compareTo), ignorando diferenças de escala como 0 e 0.00
+        for (int i = 0; i < quantidades.length; i++) {
+            if (quantidades[i] != outro.quantidades[i]
+                    || totaisSalario[i].compareTo(outro.totaisSalario[i]) != 0
+                    || totaisBonus[i].compareTo(outro.totaisBonus[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override                                                                                               // Igualdade estrita: usa BigDecimal.equals (valor e escala), ou seja, resultados idênticos bit a bit
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResumoFolha outro = (ResumoFolha) o;
+        return Arrays.equals(quantidades, outro.quantidades)
+                && Arrays.equals(totaisSalario, outro.totaisSalario)
+                && Arrays.equals(totaisBonus, outro.totaisBonus);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(quantidades) + Arrays.hashCode(totaisSalario)) + Arrays.hashCode(totaisBonus);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        for (Cargo cargo : Cargo.values()) {
+            texto.append(String.format("%-13s | %10d funcionários | Salários: R$ %s | Bônus: R$ %s%n",
+                    cargo, getQuantidade(cargo), getTotalSalario(cargo), getTotalBonus(cargo)));
+        }
+        texto.append(String.format("%-13s | %10d funcionários | Salários: R$ %s | Bônus: R$ %s",
+                "TOTAL", getQuantidadeTotal(), getTotalSalarios(), getTotalBonus()));
+        return texto.toString();
+    }
+}
+
+class MotorFolhaPagamento {                                                                                 // Calcula a folha de pagamento em paralelo usando fork/join
+    private static final int LIMITE_SEQUENCIAL = 8_192;                                                     // Abaixo deste tamanho a tarefa não é mais dividida
+
+    private final ForkJoinPool pool;                                                                        // Pool usado nos cálculos (define quantos núcleos participam)
+
+    public MotorFolhaPagamento() {                                                                          // Usa o pool comum da JVM (todos os núcleos disponíveis)
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MotorFolhaPagamento(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static ResumoFolha calcularSequencial(List<Funcionario> funcionarios) {                          // Versão sequencial (mesmo laço de HierarquiaFuncionarios.main), usada como referência
+        TabelaBonus tabela = TabelaBonus.atual();                                                           // Uma única tabela para a folha inteira, mesmo que as taxas sejam recarregadas no meio
+        ResumoFolha resumo = new ResumoFolha();
+        for (Funcionario funcionario : funcionarios) {
+            Cargo cargo = Cargo.de(funcionario);
+            resumo.adicionar(cargo, funcionario.getSalario(), tabela.calcular(cargo, funcionario.getSalario()));
+        }
+        return resumo;
+    }
+
+    public ResumoFolha calcular(List<Funcionario> funcionarios) {                                           // Versão paralela: divide a lista em partes e soma os resumos parciais
+        // A soma de BigDecimal sem contexto de arredondamento é exata (associativa e comutativa, inclusive na escala),
+        // por isso o resultado é idêntico ao sequencial independentemente de como a lista é dividida
+        if (!(funcionarios instanceof RandomAccess)) {                                                      // As tarefas acessam por índice, então listas encadeadas são copiadas antes
+            funcionarios = new ArrayList<>(funcionarios);
+        }
+        return pool.invoke(new TarefaFolha(funcionarios, TabelaBonus.atual(), 0, funcionarios.size()));
+    }
+
+    @SuppressWarnings("serial")                                                                             // Tarefa só vive dentro do pool, nunca é serializada
+    private static final class TarefaFolha extends RecursiveTask<ResumoFolha> {                             // Tarefa que processa o intervalo [inicio, fim) da lista
+        private final List<Funcionario> funcionarios;
+        private final TabelaBonus tabela;                                                                   // Todas as partes usam a mesma tabela de bônus
+        private final int inicio;
+        private final int fim;
+
+        TarefaFolha(List<Funcionario> funcionarios, TabelaBonus tabela, int inicio, int fim) {
+            this.funcionarios = funcionarios;
+            this.tabela = tabela;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected ResumoFolha compute() {
+            if (fim - inicio <= LIMITE_SEQUENCIAL) {                                                        // Parte pequena: calcula diretamente
+                ResumoFolha resumo = new ResumoFolha();
+                for (int i = inicio; i < fim; i++) {
+                    Funcionario funcionario = funcionarios.get(i);
+                    Cargo cargo = Cargo.de(funcionario);
+                    resumo.adicionar(cargo, funcionario.getSalario(), tabela.calcular(cargo, funcionario.getSalario()));
+                }
+                return resumo;
+            }
+
+            int meio = (inicio + fim) >>> 1;                                                                // Parte grande: divide ao meio
+            TarefaFolha esquerda = new TarefaFolha(funcionarios, tabela, inicio, meio);
+            TarefaFolha direita = new TarefaFolha(funcionarios, tabela, meio, fim);
+            esquerda.fork();                                                                                // A metade esquerda roda em outra thread do pool
+            ResumoFolha resumoDireita = direita.compute();                                                  // A metade direita roda na thread atual
+            return esquerda.join().somar(resumoDireita);                                                    // Combina sempre na mesma ordem (esquerda + direita)
+        }
+    }
+}
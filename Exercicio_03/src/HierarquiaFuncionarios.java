@@ -1,5 +1,4 @@
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,7 +25,7 @@ class Funcionario {
     }
 
     public BigDecimal calcularBonus() {                                                                     // Método para calcular bônus (será sobrescrito pelas subclasses)
-        return BigDecimal.ZERO;                                                                             // Retorna zero como padrão (será sobrescrito)
+        return TabelaBonus.atual().calcular(Cargo.FUNCIONARIO, salario);                                    // Sem bônus na tabela padrão (retorna zero)
     }
 }
 
@@ -37,9 +36,8 @@ class Gerente extends Funcionario {
 
     @Override                                                                                               // Sobrescreve o método calcularBonus
     public BigDecimal calcularBonus() {
-        // Calcula 20% do salário (bônus do gerente)
-        return salario.multiply(new BigDecimal("0.20"))                                                 // Calcula o bônus do gerente, multiplica salário por 0.20 (20%) e arredonda para 2 casas decimais
-                .setScale(2, RoundingMode.HALF_UP);
+        // Calcula 20% do salário (bônus do gerente), taxa e arredondamento vêm da TabelaBonus
+        return TabelaBonus.atual().calcular(Cargo.GERENTE, salario);                                        // Calcula o bônus do gerente, multiplica salário pela taxa (padrão 0.20) e arredonda para 2 casas decimais
     }
 }
 
@@ -50,8 +48,7 @@ class Desenvolvedor extends Funcionario {
 
     @Override                                                                                               // Sobrescreve o método calcularBonus
     public BigDecimal calcularBonus() {
-        return salario.multiply(new BigDecimal("0.10"))                                                 // Calcula bônus do desenvolvedor, multiplica salário por 0.10 (10%) e arredonda para 2 casas decimais
-                .setScale(2, RoundingMode.HALF_UP);
+        return TabelaBonus.atual().calcular(Cargo.DESENVOLVEDOR, salario);                                  // Calcula bônus do desenvolvedor, multiplica salário pela taxa (padrão 0.10) e arredonda para 2 casas decimais
     }
 }
 
@@ -0,0 +1,213 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class RelatorioFolhaStreaming {                                                                             // Gera o relatório da folha a partir de um arquivo (nome;cargo;salario) sem carregar tudo na memória
+    private static final int TAMANHO_BLOCO = 1 << 20;                                                       // Bloco de leitura de 1 MB (também é o tamanho máximo de uma linha)
+    private static final int TAMANHO_BUFFER_SAIDA = 1 << 16;
+    private static final byte SEPARADOR = ';';
+    private static final Cargo[] CARGOS = Cargo.values();                                                   // Cópia única (Cargo.values() cria um array novo a cada chamada)
+    private static final byte[][] CARGOS_EM_BYTES = new byte[CARGOS.length][];                              // Nome de cada cargo em bytes, para comparar e escrever sem criar Strings
+
+    static {
+        for (Cargo cargo : CARGOS) {
+            CARGOS_EM_BYTES[cargo.ordinal()] = cargo.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final boolean ignorarCabecalho;
+    private boolean cabecalhoPendente;                                                                      // true até a primeira linha ser descartada
+
+    private long salarioSemEscala;                                                                          // Resultado da última conversão de salário (valor sem vírgula e número de casas)
+    private int escalaSalario;
+
+    public RelatorioFolhaStreaming(boolean ignorarCabecalho) {
+        this.ignorarCabecalho = ignorarCabecalho;
+    }
+
+    public Resultado gerar(Path entrada, Path saida) throws IOException {                                   // Lê a entrada em blocos, escreve uma linha por funcionário e os totais no final
+        TabelaBonus tabela = TabelaBonus.atual();                                                           // Mesma tabela para o relatório inteiro
+        ResumoFolha resumo = new ResumoFolha();
+        Resultado resultado = new Resultado(resumo);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BLOCO);
+        byte[] linha = new byte[TAMANHO_BLOCO];
+        long inicio = System.nanoTime();
+        cabecalhoPendente = ignorarCabecalho;
+
+        try (FileChannel canal = FileChannel.open(entrada, StandardOpenOption.READ);
+             OutputStream escritor = new BufferedOutputStream(Files.newOutputStream(saida), TAMANHO_BUFFER_SAIDA)) {
+            escritor.write("nome;cargo;salario;bonus\n".getBytes(StandardCharsets.US_ASCII));
+            int tamanhoLinha = 0;
+            boolean descartando = false;                                                                    // true enquanto pula uma linha maior que o bloco
+            boolean fimArquivo = false;
+            while (!fimArquivo) {
+                buffer.clear();
+                fimArquivo = canal.read(buffer) < 0;
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b != '\n') {
+                        if (descartando) {
+                            continue;
+                        }
+                        if (tamanhoLinha == linha.length) {
+                            resultado.linhas++;
+                            resultado.rejeitadas++;
+                            descartando = true;
+                            tamanhoLinha = 0;
+                            continue;
+                        }
+                        linha[tamanhoLinha++] = b;
+                        continue;
+                    }
+                    if (descartando) {
+                        descartando = false;
+                        continue;
+                    }
+                    processarLinha(linha, tamanhoLinha, tabela, resultado, escritor);
+                    tamanhoLinha = 0;
+                }
+            }
+            if (tamanhoLinha > 0 && !descartando) {                                                         // Última linha sem '\n'
+                processarLinha(linha, tamanhoLinha, tabela, resultado, escritor);
+            }
+
+            escritor.write(("---\n" + resumo + "\n").getBytes(StandardCharsets.UTF_8));                     // Totais agregados no final do arquivo
+        }
+
+        resultado.duracaoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    private void processarLinha(byte[] linha, int tamanho, TabelaBonus tabela,
+                                Resultado resultado, OutputStream escritor) throws IOException {
+        if (tamanho > 0 && linha[tamanho - 1] == '\r') {
+            tamanho--;
+        }
+        if (cabecalhoPendente) {
+            cabecalhoPendente = false;
+            return;
+        }
+        if (tamanho == 0) {                                                                                 // Linhas em branco são ignoradas
+            return;
+        }
+        resultado.linhas++;
+
+        int fimNome = indiceDe(linha, 0, tamanho);
+        int fimCargo = fimNome < 0 ? -1 : indiceDe(linha, fimNome + 1, tamanho);
+        Cargo cargo = fimCargo < 0 ? null : identificarCargo(linha, fimNome + 1, fimCargo);
+        if (cargo == null || !converterSalario(linha, fimCargo + 1, tamanho) || salarioSemEscala <= 0) {    // Mesma regra do construtor de Funcionario: salário deve ser positivo
+            resultado.rejeitadas++;
+            return;
+        }
+
+        BigDecimal salario = BigDecimal.valueOf(salarioSemEscala, escalaSalario);                           // Nenhum Funcionario é criado: o bônus sai direto da tabela
+        BigDecimal bonus = tabela.calcular(cargo, salario);
+        resultado.resumo.adicionar(cargo, salario, bonus);
+
+        escritor.write(linha, 0, fimNome);                                                                  // Copia o nome direto dos bytes da entrada
+        escritor.write(SEPARADOR);
+        escritor.write(CARGOS_EM_BYTES[cargo.ordinal()]);
+        escritor.write(SEPARADOR);
+        escreverDecimal(escritor, salario);
+        escritor.write(SEPARADOR);
+        escreverDecimal(escritor, bonus);
+        escritor.write('\n');
+    }
+
+    private static int indiceDe(byte[] dados, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            if (dados[i] == SEPARADOR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Cargo identificarCargo(byte[] dados, int inicio, int fim) {                              // Compara o campo com o nome de cada cargo, sem diferenciar maiúsculas
+        while (inicio < fim && dados[inicio] == ' ') inicio++;
+        while (fim > inicio && dados[fim - 1] == ' ') fim--;
+        for (Cargo cargo : CARGOS) {
+            byte[] nome = CARGOS_EM_BYTES[cargo.ordinal()];
+            if (nome.length != fim - inicio) {
+                continue;
+            }
+            boolean igual = true;
+            for (int i = 0; i < nome.length && igual; i++) {
+                igual = (dados[inicio + i] & 0xDF) == nome[i];                                              // & 0xDF converte letras ASCII minúsculas para maiúsculas
+            }
+            if (igual) {
+                return cargo;
+            }
+        }
+        return null;
+    }
+
+    private boolean converterSalario(byte[] dados, int inicio, int fim) {                                   // Converte "1234.56" em valor sem escala + escala, sem criar String
+        while (inicio < fim && dados[inicio] == ' ') inicio++;
+        while (fim > inicio && dados[fim - 1] == ' ') fim--;
+        if (inicio == fim) {
+            return false;
+        }
+        long valor = 0;
+        int escala = -1;
+        for (int i = inicio; i < fim; i++) {
+            byte b = dados[i];
+            if (b >= '0' && b <= '9') {
+                if (valor > (Long.MAX_VALUE - 9) / 10) {                                                    // Estouro de long
+                    return false;
+                }
+                valor = valor * 10 + (b - '0');
+                if (escala >= 0) {
+                    escala++;
+                }
+            } else if ((b == '.' || b == ',') && escala < 0) {
+                escala = 0;
+            } else {
+                return false;
+            }
+        }
+        salarioSemEscala = valor;
+        escalaSalario = Math.max(escala, 0);
+        return true;
+    }
+
+    private static void escreverDecimal(OutputStream escritor, BigDecimal valor) throws IOException {
+        String texto = valor.toPlainString();
+        for (int i = 0; i < texto.length(); i++) {
+            escritor.write(texto.charAt(i));                                                                // Apenas dígitos, sinal e ponto (ASCII)
+        }
+    }
+
+    static final class Resultado {                                                                          // Totais do relatório e métrica de vazão
+        private final ResumoFolha resumo;
+        private long linhas;
+        private long rejeitadas;
+        private long duracaoNanos;
+
+        private Resultado(ResumoFolha resumo) {
+            this.resumo = resumo;
+        }
+
+        public ResumoFolha getResumo() { return resumo; }
+        public long getLinhas() { return linhas; }
+        public long getRejeitadas() { return rejeitadas; }
+        public long getDuracaoNanos() { return duracaoNanos; }
+
+        public double getLinhasPorSegundo() {
+            return duracaoNanos == 0 ? 0 : linhas / (duracaoNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Relatório: %d linhas | %d rejeitadas | %.0f linhas/s", linhas, rejeitadas, getLinhasPorSegundo());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+final class RegraBonus {                                                                                    // Regra de bônus de um cargo: taxa já convertida para BigDecimal e política de arredondamento
+    private final BigDecimal taxa;                                                                          // Ex.: 0.20 para 20% do salário
+    private final int escala;                                                                               // Casas decimais do resultado
+    private final RoundingMode arredondamento;
+
+    public RegraBonus(BigDecimal taxa, int escala, RoundingMode arredondamento) {
+        this.taxa = Objects.requireNonNull(taxa, "Taxa não pode ser nula");
+        this.arredondamento = Objects.requireNonNull(arredondamento, "Arredondamento não pode ser nulo");
+        if (taxa.signum() < 0) {
+            throw new IllegalArgumentException("Taxa de bônus não pode ser negativa");
+        }
+        if (escala < 0) {
+            throw new IllegalArgumentException("Escala não pode ser negativa");
+        }
+        this.escala = escala;
+    }
+
+    public BigDecimal calcular(BigDecimal salario) {                                                        // Calcula o bônus sem nenhuma conversão de texto
+        if (taxa.signum() == 0) {
+            return BigDecimal.ZERO;                                                                         // Mesmo retorno de Funcionario.calcularBonus() original
+        }
+        return salario.multiply(taxa).setScale(escala, arredondamento);
+    }
+
+    public BigDecimal getTaxa() { return taxa; }
+    public int getEscala() { return escala; }
+    public RoundingMode getArredondamento() { return arredondamento; }
+
+    @Override
+    public String toString() {
+        return String.format("RegraBonus{taxa=%s, escala=%d, arredondamento=%s}", taxa, escala, arredondamento);
+    }
+}
+
+final class TabelaBonus {                                                                                   // Tabela imutável cargo -> regra de bônus, que pode ser trocada em tempo de execução
+    private static final RegraBonus SEM_BONUS = new RegraBonus(BigDecimal.ZERO, 2, RoundingMode.HALF_UP);
+
+    private static volatile TabelaBonus atual = padrao();                                                   // Tabela em uso; leitores pegam a referência sem bloqueio
+
+    private final RegraBonus[] regras;                                                                      // Regras indexadas pelo ordinal do Cargo
+
+    private TabelaBonus(RegraBonus[] regras) {
+        this.regras = regras;
+    }
+
+    public static TabelaBonus padrao() {                                                                    // Regras originais: gerente 20%, desenvolvedor 10%, demais sem bônus
+        return new Construtor()
+                .definir(Cargo.GERENTE, new RegraBonus(new BigDecimal("0.20"), 2, RoundingMode.HALF_UP))
+                .definir(Cargo.DESENVOLVEDOR, new RegraBonus(new BigDecimal("0.10"), 2, RoundingMode.HALF_UP))
+                .construir();
+    }
+
+    public static TabelaBonus atual() {                                                                     // Tabela usada por Funcionario, Gerente e Desenvolvedor
+        return atual;
+    }
+
+    public static void substituir(TabelaBonus novaTabela) {                                                 // Troca atômica da tabela (as próximas chamadas já usam as novas taxas)
+        atual = Objects.requireNonNull(novaTabela, "Tabela não pode ser nula");
+    }
+
+    public static TabelaBonus carregar(Path arquivo) throws IOException {                                   // Lê as regras de um arquivo .properties (ex.: GERENTE=0.20, GERENTE.escala=2, GERENTE.arredondamento=HALF_UP)
+        Properties propriedades = new Properties();
+        try (Reader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            propriedades.load(leitor);
+        }
+
+        Construtor construtor = new Construtor();
+        for (Cargo cargo : Cargo.values()) {
+            String taxa = propriedades.getProperty(cargo.name());
+            if (taxa == null) {                                                                             // Cargo ausente no arquivo fica sem bônus
+                continue;
+            }
+            int escala = Integer.parseInt(propriedades.getProperty(cargo.name() + ".escala", "2").trim());
+            RoundingMode arredondamento = RoundingMode.valueOf(
+                    propriedades.getProperty(cargo.name() + ".arredondamento", "HALF_UP").trim());
+            construtor.definir(cargo, new RegraBonus(new BigDecimal(taxa.trim()), escala, arredondamento));  // A taxa é convertida uma única vez, na carga
+        }
+        return construtor.construir();
+    }
+
+    public static void recarregar(Path arquivo) throws IOException {                                        // Carrega o arquivo e substitui a tabela atual
+        substituir(carregar(arquivo));
+    }
+
+    public RegraBonus getRegra(Cargo cargo) {
+        return regras[cargo.ordinal()];
+    }
+
+    public BigDecimal calcular(Cargo cargo, BigDecimal salario) {
+        return regras[cargo.ordinal()].calcular(salario);
+    }
+
+    public BigDecimal calcular(Funcionario funcionario) {
+        return calcular(Cargo.de(funcionario), funcionario.getSalario());
+    }
+
+    public BigDecimal[] calcularTodos(List<Funcionario> funcionarios) {                                     // Avaliação em massa: a mesma tabela vale para o lote inteiro
+        BigDecimal[] bonus = new BigDecimal[funcionarios.size()];
+        int i = 0;
+        for (Funcionario funcionario : funcionarios) {
+            bonus[i++] = calcular(funcionario);
+        }
+        return bonus;
+    }
+
+    public BigDecimal somarBonus(List<Funcionario> funcionarios) {                                          // Soma dos bônus do lote sem guardar os valores individuais
+        BigDecimal total = BigDecimal.ZERO;
+        for (Funcionario funcionario : funcionarios) {
+            total = total.add(calcular(funcionario));
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder("TabelaBonus{");
+        for (Cargo cargo : Cargo.values()) {
+            texto.append(cargo).append('=').append(regras[cargo.ordinal()].getTaxa());
+            if (cargo.ordinal() < regras.length - 1) {
+                texto.append(", ");
+            }
+        }
+        return texto.append('}').toString();
+    }
+
+    static final class Construtor {                                                                         // Monta uma nova tabela; cargos não definidos ficam sem bônus
+        private final RegraBonus[] regras = new RegraBonus[Cargo.values().length];
+
+        Construtor() {
+            Arrays.fill(regras, SEM_BONUS);
+        }
+
+        Construtor definir(Cargo cargo, RegraBonus regra) {
+            regras[cargo.ordinal()] = Objects.requireNonNull(regra, "Regra não pode ser nula");
+            return this;
+        }
+
+        TabelaBonus construir() {
+            return new TabelaBonus(regras.clone());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class BenchmarkRegistroEventos {                                                                     // Compara println direto com o log assíncrono e mostra as políticas de buffer cheio
+    private static final int THREADS = 4;
+    private static final int OPERACOES_POR_THREAD = 1_000_000;
+    private static final int OPERACOES_POLITICA = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== PRINTLN DIRETO vs LOG ASSÍNCRONO (" + THREADS + " threads, um carro por thread) ===");
+        PrintStream nulo = new PrintStream(OutputStream.nullOutputStream());
+        RegistroEventosVelocidade registroOriginal = RegistroEventosVelocidade.padrao();
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            double opsPrintln = medir(OPERACOES_POR_THREAD, () -> {                                         // Mesmo texto que Carro imprimia antes, formatado e escrito a cada chamada
+                int velocidade = 0;
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    velocidade = velocidade == 0 ? 1 : 0;
+                    nulo.println("Carro acelerou para: " + velocidade + " km/h");
+                }
+            });
+
+            try (RegistroEventosVelocidade registro = new RegistroEventosVelocidade(1 << 16, PoliticaBufferCheio.BLOQUEAR, 1,
+                    new RegistroEventosVelocidade.ConsumidorConsole(nulo))) {                               // Mesmo texto, formatado em lotes pela thread consumidora
+                RegistroEventosVelocidade.definirPadrao(registro);
+                double opsLog = medir(OPERACOES_POR_THREAD, () -> {
+                    Carro carro = new Carro();
+                    for (int i = 0; i < OPERACOES_POR_THREAD; i += 2) {
+                        try {
+                            carro.acelerar(1);
+                            carro.frear(1);
+                        } catch (VelocidadeException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+                registro.descarregar();
+                System.out.printf("Rodada %d: println %,.0f eventos/s | log assíncrono %,.0f eventos/s | processados %,d%n",
+                        rodada, opsPrintln, opsLog, registro.getProcessados());
+            } finally {
+                RegistroEventosVelocidade.definirPadrao(registroOriginal);
+            }
+        }
+
+        System.out.println("\n=== POLÍTICAS COM CONSUMIDOR LENTO (buffer de 1024 eventos) ===");
+        for (PoliticaBufferCheio politica : PoliticaBufferCheio.values()) {
+            AtomicLong consumidos = new AtomicLong();
+            try (RegistroEventosVelocidade registro = new RegistroEventosVelocidade(1 << 10, politica, 10,
+                    (ids, tipos, anteriores, novas, instantes, quantidade) -> {
+                        LockSupport.parkNanos(1_000_000);                                                   // Simula um destino lento (disco, rede)
+                        consumidos.addAndGet(quantidade);
+                    })) {
+                long total = (long) THREADS * OPERACOES_POLITICA;
+                double ops = medir(OPERACOES_POLITICA, () -> {
+                    for (int i = 0; i < OPERACOES_POLITICA; i++) {
+                        registro.publicar(1, TipoVeiculo.CARRO, i, i + 1);
+                    }
+                });
+                registro.descarregar();
+                System.out.printf("%-10s | %,14.0f eventos/s no produtor | gravados %,9d | descartados %,9d de %,d%n",
+                        politica, ops, consumidos.get(), registro.getDescartados(), total);
+            }
+        }
+
+        conferirEncerramento();
+    }
+
+    private static void conferirEncerramento() {                                                             // Depois de close() ou da morte do consumidor, publicar descarta em vez de perder eventos em silêncio
+        System.out.println("\n=== CONFERINDO ENCERRAMENTO ===");
+        RegistroEventosVelocidade encerrado = new RegistroEventosVelocidade(1 << 4, PoliticaBufferCheio.BLOQUEAR, 1,
+                (ids, tipos, anteriores, novas, instantes, quantidade) -> { });
+        encerrado.close();
+        if (encerrado.publicar(1, TipoVeiculo.CARRO, 0, 1)) {
+            throw new IllegalStateException("publicar deveria retornar false depois de close()");
+        }
+
+        RegistroEventosVelocidade quebrado = new RegistroEventosVelocidade(1 << 4, PoliticaBufferCheio.BLOQUEAR, 1,
+                (ids, tipos, anteriores, novas, instantes, quantidade) -> {
+                    throw new AssertionError("consumidor quebrado");                                        // Error derruba a thread consumidora
+                });
+        for (int i = 0; i < 1_000; i++) {                                                                   // Com BLOQUEAR, o produtor não pode ficar preso esperando espaço
+            quebrado.publicar(1, TipoVeiculo.CARRO, i, i + 1);
+        }
+        if (quebrado.publicar(1, TipoVeiculo.CARRO, 0, 1)) {
+            throw new IllegalStateException("publicar deveria retornar false depois que o consumidor morreu");
+        }
+        quebrado.close();
+        System.out.println("publicar recusou eventos depois de close() e depois da morte do consumidor.");
+    }
+
+    private static double medir(int operacoesPorThread, Runnable tarefa) throws InterruptedException {  // Executa a tarefa em THREADS threads ao mesmo tempo e devolve eventos/s
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    largada.await();
+                    tarefa.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            }).start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        fim.await();
+        return (double) THREADS * operacoesPorThread / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.SplittableRandom;
+
+public class BenchmarkSimuladorFrota {                                                                      // Confere as regras do simulador contra as classes originais e mede ticks/s e veículos/s
+    private static final int VEICULOS = 2_000_000;
+    private static final int TICKS = 20;
+    private static final int VEICULOS_CONFERENCIA = 10_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        conferirRegras();
+        conferirOperacaoDesconhecida();
+
+        System.out.println("\n=== ESCALABILIDADE DO SIMULADOR ===");
+        byte[] operacoes = new byte[VEICULOS];
+        int[] valores = new int[VEICULOS];
+        gerarComandos(new SplittableRandom(7), operacoes, valores);
+
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%8s | %12s | %16s%n", "Threads", "Ticks/s", "Veículos/s");
+        for (int threads = 1; threads <= nucleos; threads *= 2) {
+            medir(threads, operacoes, valores);
+            if (threads < nucleos && threads * 2 > nucleos) {                                               // Garante que o último cenário use todos os núcleos
+                medir(nucleos, operacoes, valores);
+            }
+        }
+    }
+
+    private static void medir(int threads, byte[] operacoes, int[] valores) throws InterruptedException {
+        try (SimuladorFrota simulador = criarFrota(threads)) {
+            simulador.tick(operacoes, valores);                                                             // Aquecimento
+            long inicio = System.nanoTime();
+            for (int t = 0; t < TICKS; t++) {
+                simulador.tick(operacoes, valores);
+            }
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            System.out.printf("%8d | %12.1f | %16.0f%n", threads, TICKS / segundos, (double) TICKS * VEICULOS / segundos);
+        }
+    }
+
+    private static SimuladorFrota criarFrota(int threads) {
+        SimuladorFrota simulador = new SimuladorFrota(VEICULOS, threads);
+        TipoVeiculo[] tipos = TipoVeiculo.values();
+        for (int i = 0; i < VEICULOS; i++) {
+            simulador.adicionar(tipos[i % tipos.length]);
+        }
+        return simulador;
+    }
+
+    private static void gerarComandos(SplittableRandom aleatorio, byte[] operacoes, int[] valores) {        // Comandos aleatórios, incluindo valores inválidos (zero e negativos)
+        for (int i = 0; i < operacoes.length; i++) {
+            operacoes[i] = (byte) aleatorio.nextInt(3);
+            valores[i] = aleatorio.nextInt(-5, 60);
+        }
+    }
+
+    private static void conferirOperacaoDesconhecida() throws InterruptedException {                       // Opcodes inválidos devem ser rejeitados sem mexer na velocidade
+        System.out.println("\n=== CONFERINDO OPERAÇÕES DESCONHECIDAS ===");
+        try (SimuladorFrota simulador = new SimuladorFrota(4, 2)) {
+            for (int i = 0; i < 4; i++) {
+                simulador.adicionar(TipoVeiculo.CARRO);
+            }
+            simulador.tick(new byte[]{SimuladorFrota.ACELERAR, SimuladorFrota.ACELERAR, SimuladorFrota.ACELERAR, SimuladorFrota.ACELERAR},
+                    new int[]{50, 50, 50, 50});
+            SimuladorFrota.ResultadoTick resultado = simulador.tick(new byte[]{3, -1, SimuladorFrota.FREAR, SimuladorFrota.NENHUMA},
+                    new int[]{10, 10, 10, 10});
+            if (resultado.getAceitos() != 1 || resultado.getRejeitados() != 2) {
+                throw new IllegalStateException("Contagem inesperada para operações desconhecidas: " + resultado);
+            }
+            if (simulador.getVelocidade(0) != 50 || simulador.getVelocidade(1) != 50 || simulador.getVelocidade(2) != 40) {
+                throw new IllegalStateException("Operação desconhecida alterou a velocidade");
+            }
+        }
+        System.out.println("Operações desconhecidas foram rejeitadas sem alterar a velocidade.");
+    }
+
+    private static void conferirRegras() throws InterruptedException {                                      // Aplica os mesmos comandos no simulador e nos objetos Carro/Bicicleta/Trem
+        System.out.println("=== CONFERINDO REGRAS COM AS CLASSES ORIGINAIS ===");
+        RegistroEventosVelocidade registroOriginal = RegistroEventosVelocidade.padrao();
+        IMeioTransporte[] objetos = new IMeioTransporte[VEICULOS_CONFERENCIA];
+        try (SimuladorFrota simulador = new SimuladorFrota(VEICULOS_CONFERENCIA, 2)) {
+            for (int i = 0; i < VEICULOS_CONFERENCIA; i++) {
+                objetos[i] = switch (i % 3) {
+                    case 0 -> new Carro();
+                    case 1 -> new Bicicleta();
+                    default -> new Trem();
+                };
+                simulador.adicionar(objetos[i]);
+            }
+
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            byte[] operacoes = new byte[VEICULOS_CONFERENCIA];
+            int[] valores = new int[VEICULOS_CONFERENCIA];
+            RegistroEventosVelocidade silencioso = new RegistroEventosVelocidade(1 << 10, PoliticaBufferCheio.DESCARTAR, 1,
+                    (ids, tipos, anteriores, novas, instantes, quantidade) -> { });                         // Descarta os eventos de velocidade das classes originais
+            RegistroEventosVelocidade.definirPadrao(silencioso);
+            try {
+                for (int tick = 0; tick < 200; tick++) {
+                    gerarComandos(aleatorio, operacoes, valores);
+                    simulador.tick(operacoes, valores);
+                    for (int i = 0; i < VEICULOS_CONFERENCIA; i++) {
+                        try {
+                            if (operacoes[i] == SimuladorFrota.ACELERAR) {
+                                objetos[i].acelerar(valores[i]);
+                            } else if (operacoes[i] == SimuladorFrota.FREAR) {
+                                objetos[i].frear(valores[i]);
+                            }
+                        } catch (VelocidadeException e) {
+                            // Comando rejeitado: o simulador também deve ter mantido a velocidade
+                        }
+                        if (objetos[i].getVelocidadeAtual() != simulador.getVelocidade(i)) {
+                            throw new IllegalStateException("Divergência no veículo " + i + " no tick " + tick);
+                        }
+                    }
+                }
+            } finally {
+                RegistroEventosVelocidade.definirPadrao(registroOriginal);
+                silencioso.close();
+            }
+        }
+        System.out.println("Simulador e classes originais produziram as mesmas velocidades em 200 ticks.");
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class BenchmarkTelemetria {                                                                          // Mede ingestão, consultas e memória da telemetria comprimida contra uma lista de objetos
+    private static final int VEICULOS = 1_000;
+    private static final int AMOSTRAS_POR_VEICULO = 5_000;
+    private static final int CONSULTAS = 200_000;
+    private static final long PASSO_MS = 100;                                                               // Uma leitura de velocidade a cada ~100 ms
+
+    public static void main(String[] args) throws VelocidadeException {
+        demonstrarComRegistro();
+
+        System.out.println("\n=== INGESTÃO (" + VEICULOS + " veículos x " + AMOSTRAS_POR_VEICULO + " amostras) ===");
+        long[] instantes = new long[AMOSTRAS_POR_VEICULO];
+        int[][] velocidades = new int[VEICULOS][AMOSTRAS_POR_VEICULO];
+        gerarAmostras(new SplittableRandom(3), instantes, velocidades);
+
+        long memoriaAntes = memoriaUsada();
+        TelemetriaVelocidade telemetria = new TelemetriaVelocidade();
+        long inicio = System.nanoTime();
+        for (int v = 0; v < VEICULOS; v++) {
+            for (int i = 0; i < AMOSTRAS_POR_VEICULO; i++) {
+                telemetria.registrar(v, instantes[i], velocidades[v][i]);
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        long memoriaTelemetria = memoriaUsada() - memoriaAntes;
+        long total = (long) VEICULOS * AMOSTRAS_POR_VEICULO;
+        System.out.printf("Telemetria comprimida: %,.0f amostras/s | %,d amostras guardadas (repetidas são omitidas)%n",
+                total / segundos, telemetria.getTotalAmostras());
+
+        memoriaAntes = memoriaUsada();
+        List<List<Amostra>> listas = new ArrayList<>(VEICULOS);
+        inicio = System.nanoTime();
+        for (int v = 0; v < VEICULOS; v++) {
+            List<Amostra> lista = new ArrayList<>();
+            for (int i = 0; i < AMOSTRAS_POR_VEICULO; i++) {
+                lista.add(new Amostra(instantes[i], velocidades[v][i]));
+            }
+            listas.add(lista);
+        }
+        segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        long memoriaListas = memoriaUsada() - memoriaAntes;
+        System.out.printf("List<Amostra>:         %,.0f amostras/s%n", total / segundos);
+
+        System.out.println("\n=== MEMÓRIA ===");
+        System.out.printf("Telemetria: %,d bytes (arrays: %,d) | List<Amostra>: %,d bytes | %.1f%% da lista%n",
+                memoriaTelemetria, telemetria.getBytesUsados(), memoriaListas, 100.0 * memoriaTelemetria / memoriaListas);
+
+        System.out.println("\n=== CONSULTAS (" + CONSULTAS + " de cada, janelas de 1 a 60 s) ===");
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        long duracao = instantes[AMOSTRAS_POR_VEICULO - 1];
+        long[] veiculos = new long[CONSULTAS];
+        long[] inicios = new long[CONSULTAS];
+        long[] fins = new long[CONSULTAS];
+        for (int q = 0; q < CONSULTAS; q++) {
+            veiculos[q] = aleatorio.nextInt(VEICULOS);
+            inicios[q] = aleatorio.nextLong(duracao);
+            fins[q] = inicios[q] + aleatorio.nextLong(1_000, 60_000);
+        }
+
+        conferir(telemetria, listas, veiculos, inicios, fins);
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            long soma = 0;
+            long t0 = System.nanoTime();
+            for (int q = 0; q < CONSULTAS; q++) soma += telemetria.velocidadeEm(veiculos[q], inicios[q]);
+            long t1 = System.nanoTime();
+            for (int q = 0; q < CONSULTAS; q++) soma += telemetria.maxima(veiculos[q], inicios[q], fins[q]);
+            long t2 = System.nanoTime();
+            for (int q = 0; q < CONSULTAS; q++) soma += telemetria.tempoAcima(veiculos[q], 60, inicios[q], fins[q]);
+            long t3 = System.nanoTime();
+            System.out.printf("Rodada %d: velocidadeEm %,.0f ns | maxima %,.0f ns | tempoAcima %,.0f ns (por consulta, checksum %d)%n",
+                    rodada, (t1 - t0) / (double) CONSULTAS, (t2 - t1) / (double) CONSULTAS,
+                    (t3 - t2) / (double) CONSULTAS, soma);
+        }
+    }
+
+    private static void demonstrarComRegistro() throws VelocidadeException {                                // Liga a telemetria ao log de eventos: cada acelerar/frear vira uma amostra
+        System.out.println("=== TELEMETRIA ALIMENTADA PELO REGISTRO DE EVENTOS ===");
+        TelemetriaVelocidade telemetria = new TelemetriaVelocidade();
+        RegistroEventosVelocidade registroOriginal = RegistroEventosVelocidade.padrao();
+        try (RegistroEventosVelocidade registro = new RegistroEventosVelocidade(1 << 10, PoliticaBufferCheio.BLOQUEAR, 1, telemetria)) {
+            RegistroEventosVelocidade.definirPadrao(registro);
+            Carro carro = new Carro();
+            long inicio = System.nanoTime();
+            carro.acelerar(90);
+            carro.acelerar(50);
+            carro.frear(100);
+            registro.descarregar();
+            long fim = System.nanoTime();
+
+            long id = RegistroEventosVelocidade.proximoId() - 1;                                            // O carro foi o último veículo criado
+            System.out.println("Velocidade atual registrada: " + telemetria.velocidadeEm(id, fim) + " km/h");
+            System.out.println("Máxima no período: " + telemetria.maxima(id, inicio, fim + 1) + " km/h");
+            System.out.println("Tempo acima de 100 km/h > 0: " + (telemetria.tempoAcima(id, 100, inicio, fim + 1) > 0));
+
+            long outro = id + 1;                                                                            // Lote com uma amostra fora de ordem e uma negativa no meio
+            telemetria.consumir(new long[]{id, id, outro, outro}, new byte[4], new int[4], new int[]{10, 20, -5, 30},
+                    new long[]{fim + 10, fim + 5, fim + 10, fim + 20}, 4);
+            System.out.println("Lote com amostras inválidas: " + telemetria.getAmostrasRejeitadas() + " rejeitadas, velocidade do outro veículo "
+                    + telemetria.velocidadeEm(outro, fim + 20) + " km/h");
+            if (telemetria.getAmostrasRejeitadas() != 2 || telemetria.velocidadeEm(outro, fim + 20) != 30) {
+                throw new IllegalStateException("Amostra inválida não deveria descartar o resto do lote");
+            }
+        } finally {
+            RegistroEventosVelocidade.definirPadrao(registroOriginal);
+        }
+    }
+
+    private static void conferir(TelemetriaVelocidade telemetria, List<List<Amostra>> listas,
+                                 long[] veiculos, long[] inicios, long[] fins) {                            // Compara as respostas com uma varredura simples da lista
+        for (int q = 0; q < 5_000; q++) {
+            List<Amostra> lista = listas.get((int) veiculos[q]);
+            int velocidade = SerieVelocidade.SEM_DADOS;
+            int maxima = SerieVelocidade.SEM_DADOS;
+            long acima = 0;
+            for (int i = 0; i < lista.size(); i++) {
+                Amostra amostra = lista.get(i);
+                long proximo = i + 1 < lista.size() ? lista.get(i + 1).instante : Long.MAX_VALUE;
+                if (amostra.instante <= inicios[q]) velocidade = amostra.velocidade;
+                if (amostra.instante < fins[q] && proximo > inicios[q]) maxima = Math.max(maxima, amostra.velocidade);
+                if (amostra.velocidade > 60) {
+                    acima += Math.max(0, Math.min(proximo, fins[q]) - Math.max(amostra.instante, inicios[q]));
+                }
+            }
+            if (velocidade != telemetria.velocidadeEm(veiculos[q], inicios[q])
+                    || maxima != telemetria.maxima(veiculos[q], inicios[q], fins[q])
+                    || acima != telemetria.tempoAcima(veiculos[q], 60, inicios[q], fins[q])) {
+                throw new IllegalStateException("Divergência na consulta " + q);
+            }
+        }
+        System.out.println("Respostas conferidas contra varredura da lista: OK");
+    }
+
+    private static void gerarAmostras(SplittableRandom aleatorio, long[] instantes, int[][] velocidades) {  // Passeio aleatório respeitando os limites de cada tipo
+        long instante = 0;
+        for (int i = 0; i < instantes.length; i++) {
+            instante += PASSO_MS + aleatorio.nextInt(-10, 11);
+            instantes[i] = instante;
+        }
+        TipoVeiculo[] tipos = TipoVeiculo.values();
+        for (int v = 0; v < velocidades.length; v++) {
+            int maxima = tipos[v % tipos.length].getVelocidadeMaxima();
+            int velocidade = 0;
+            for (int i = 0; i < instantes.length; i++) {
+                if (aleatorio.nextInt(4) != 0) {                                                            // Em 1 a cada 4 leituras a velocidade não muda
+                    velocidade = Math.max(0, Math.min(maxima, velocidade + aleatorio.nextInt(-5, 6)));
+                }
+                velocidades[v][i] = velocidade;
+            }
+        }
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class Amostra {                                                                    // Representação ingênua: um objeto por amostra
+        final long instante;
+        final int velocidade;
+
+        Amostra(long instante, int velocidade) {
+            this.instante = instante;
+            this.velocidade = velocidade;
+        }
+    }
+}
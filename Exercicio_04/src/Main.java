@@ -17,7 +17,8 @@ class VelocidadeException extends Exception {
 
 class Carro implements IMeioTransporte {                                                                    // Classe que representa um Carro, implementando a interface IMeioTransporte
     private int velocidadeAtual;                                                                            // Velocidade atual do carro
-    private static final int VELOCIDADE_MAXIMA = 200;                                                       // Limite máximo de velocidade
+    private final long id = RegistroEventosVelocidade.proximoId();                                          // Identifica o carro nos eventos de velocidade
+    static final int VELOCIDADE_MAXIMA = 200;                                                               // Limite máximo de velocidade
 
     public Carro() {                                                                                        // Construtor que inicializa o carro parado
         this.velocidadeAtual = 0;
@@ -35,8 +36,9 @@ class Carro implements IMeioTransporte {
             throw new VelocidadeException("Carro não pode exceder " + VELOCIDADE_MAXIMA + " km/h");
         }
 
+        int velocidadeAnterior = velocidadeAtual;
         velocidadeAtual = novaVelocidade;                                                                   // Atualiza a velocidade
-        System.out.println("Carro acelerou para: " + velocidadeAtual + " km/h");
+        RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.CARRO, velocidadeAnterior, velocidadeAtual);  // Evento vai para o log assíncrono (sem println no caminho quente)
     }
 
     @Override                                                                                               // Implementação do método frear para carro
@@ -51,8 +53,9 @@ class Carro implements IMeioTransporte {
             throw new VelocidadeException("Velocidade não pode ser negativa");
         }
 
+        int velocidadeAnterior = velocidadeAtual;
         velocidadeAtual = novaVelocidade;                                                                   // Atualiza a velocidade
-        System.out.println("Carro freou para: " + velocidadeAtual + " km/h");
+        RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.CARRO, velocidadeAnterior, velocidadeAtual);  // Evento vai para o log assíncrono (sem println no caminho quente)
     }
 
     @Override                                                                                               // Método para obter a velocidade atual
@@ -63,7 +66,8 @@ class Carro implements IMeioTransporte {
 
 class Bicicleta implements IMeioTransporte {                                                                // Classe que representa uma Bicicleta, implementando a interface IMeioTransporte
     private int velocidadeAtual;                                                                            // Velocidade atual da bicicleta
-    private static final int VELOCIDADE_MAXIMA = 40;                                                        // Limite máximo de velocidade
+    private final long id = RegistroEventosVelocidade.proximoId();                                          // Identifica a bicicleta nos eventos de velocidade
+    static final int VELOCIDADE_MAXIMA = 40;                                                                // Limite máximo de velocidade
 
     public Bicicleta() {                                                                                    // Construtor que inicializa a bicicleta parada
         this.velocidadeAtual = 0;
@@ -81,8 +85,9 @@ class Bicicleta implements IMeioTransporte {
             throw new VelocidadeException("Bicicleta não pode exceder " + VELOCIDADE_MAXIMA + " km/h");
         }
 
+        int velocidadeAnterior = velocidadeAtual;
         velocidadeAtual = novaVelocidade;                                                                   // Atualiza a velocidade
-        System.out.println("Bicicleta acelerou para: " + velocidadeAtual + " km/h");
+        RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.BICICLETA, velocidadeAnterior, velocidadeAtual);  // Evento vai para o log assíncrono (sem println no caminho quente)
     }
 
     @Override                                                                                               // Implementação do método frear para bicicleta
@@ -97,8 +102,9 @@ class Bicicleta implements IMeioTransporte {
             throw new VelocidadeException("Velocidade não pode ser negativa");
         }
 
+        int velocidadeAnterior = velocidadeAtual;
         velocidadeAtual = novaVelocidade;                                                                   // Atualiza a velocidade
-        System.out.println("Bicicleta freou para: " + velocidadeAtual + " km/h");
+        RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.BICICLETA, velocidadeAnterior, velocidadeAtual);  // Evento vai para o log assíncrono (sem println no caminho quente)
     }
 
     @Override                                                                                               // Método para obter a velocidade atual
@@ -109,8 +115,9 @@ class Bicicleta implements IMeioTransporte {
 
 class Trem implements IMeioTransporte {                                                                     // Classe que representa um Trem, implementando a interface IMeioTransporte
     private int velocidadeAtual;                                                                            // Velocidade atual do trem
-    private static final int VELOCIDADE_MAXIMA = 120;                                                       // Limite máximo de velocidade
-    private static final int VELOCIDADE_MINIMA = 20;                                                        // Limite mínimo de velocidade (trem não pode andar muito devagar)
+    private final long id = RegistroEventosVelocidade.proximoId();                                          // Identifica o trem nos eventos de velocidade
+    static final int VELOCIDADE_MAXIMA = 120;                                                               // Limite máximo de velocidade
+    static final int VELOCIDADE_MINIMA = 20;                                                                // Limite mínimo de velocidade (trem não pode andar muito devagar)
 
     public Trem() {                                                                                         // Construtor que inicializa o trem parado
         this.velocidadeAtual = 0;
@@ -128,8 +135,9 @@ class Trem implements IMeioTransporte {
             throw new VelocidadeException("Trem não pode exceder " + VELOCIDADE_MAXIMA + " km/h");
         }
 
+        int velocidadeAnterior = velocidadeAtual;
         velocidadeAtual = novaVelocidade;                                                                   // Atualiza a velocidade
-        System.out.println("Trem acelerou para: " + velocidadeAtual + " km/h");
+        RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.TREM, velocidadeAnterior, velocidadeAtual);  // Evento vai para o log assíncrono (sem println no caminho quente)
     }
 
     @Override                                                                                               // Implementação do método frear para trem (com regras específicas)
@@ -148,13 +156,9 @@ class Trem implements IMeioTransporte {
             throw new VelocidadeException("Trem não pode andar abaixo de " + VELOCIDADE_MINIMA + " km/h");
         }
 
+        int velocidadeAnterior = velocidadeAtual;
         velocidadeAtual = novaVelocidade;                                                                   // Atualiza a velocidade
-
-        if (velocidadeAtual == 0) {                                                                         // Mensagem diferente se parou completamente
-            System.out.println("Trem parou completamente");
-        } else {
-            System.out.println("Trem freou para: " + velocidadeAtual + " km/h");
-        }
+        RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.TREM, velocidadeAnterior, velocidadeAtual);  // O log escreve "parou completamente" quando chega a 0
     }
 
     @Override                                                                                               // Método para obter a velocidade atual
@@ -173,7 +177,7 @@ public class Main {
         transportes.add(new Trem());
 
         for (IMeioTransporte transporte : transportes) {                                                    // Percorre a lista e demonstra polimorfismo
-            System.out.println("\n--- Operando " + transporte.getClass().getSimpleName() + " ---");
+            imprimir("\n--- Operando " + transporte.getClass().getSimpleName() + " ---");
 
             try {
                 // Tenta acelerar cada veículo
@@ -185,26 +189,26 @@ public class Main {
                 transporte.frear(10);
 
             } catch (VelocidadeException e) {
-                System.out.println("Erro: " + e.getMessage());                                              // Captura e trata exceções específicas de velocidade
+                imprimir("Erro: " + e.getMessage());                                                       // Captura e trata exceções específicas de velocidade
             } catch (Exception e) {
-                System.out.println("Erro inesperado: " + e.getMessage());                                   // Captura outras exceções genéricas
+                imprimir("Erro inesperado: " + e.getMessage());                                            // Captura outras exceções genéricas
             }
         }
 
-        System.out.println("\n--- Testando operações inválidas ---");                                       // Teste adicional com operações que geram exceções
+        imprimir("\n--- Testando operações inválidas ---");                                                // Teste adicional com operações que geram exceções
 
         try {
             Carro carro = new Carro();
             carro.acelerar(-10);                                                                  // Incremento negativo - deve gerar exceção
         } catch (VelocidadeException e) {
-            System.out.println("Exceção capturada: " + e.getMessage());
+            imprimir("Exceção capturada: " + e.getMessage());
         }
 
         try {
             Bicicleta bicicleta = new Bicicleta();
             bicicleta.acelerar(100);                                                              // Excede limite máximo - deve gerar exceção
         } catch (VelocidadeException e) {
-            System.out.println("Exceção capturada: " + e.getMessage());
+            imprimir("Exceção capturada: " + e.getMessage());
         }
 
         try {
@@ -212,7 +216,12 @@ public class Main {
             trem.acelerar(30);
             trem.frear(25);                                                                      // Fica abaixo do mínimo permitido - deve gerar exceção
         } catch (VelocidadeException e) {
-            System.out.println("Exceção capturada: " + e.getMessage());
+            imprimir("Exceção capturada: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private static void imprimir(String texto) {                                                            // Espera o log de velocidade escrever os eventos pendentes para manter a ordem das mensagens
+        RegistroEventosVelocidade.padrao().descarregar();
+        System.out.println(texto);
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+abstract class MeioTransporteConcorrente implements IMeioTransporte {                                       // Base das versões seguras para várias threads: a velocidade só muda via compare-and-set
+    private final AtomicInteger velocidadeAtual = new AtomicInteger();                                      // Velocidade atual (começa parado, igual às classes originais)
+    private final long id = RegistroEventosVelocidade.proximoId();                                          // Identifica o veículo nos eventos de velocidade
+    private final TipoVeiculo tipo;                                                                         // Tipo publicado nos eventos, igual ao da classe original
+    private final String nome;                                                                              // Nome usado nas mensagens de erro ("Carro", "Bicicleta", "Trem")
+    private final int velocidadeMaxima;
+    private final int velocidadeMinima;                                                                     // 0 = sem mínimo (só o trem tem mínimo ao frear)
+
+    protected MeioTransporteConcorrente(TipoVeiculo tipo) {
+        this.tipo = tipo;
+        this.nome = tipo.getNome();
+        this.velocidadeMaxima = tipo.getVelocidadeMaxima();
+        this.velocidadeMinima = tipo.getVelocidadeMinima();
+    }
+
+    @Override                                                                                               // Acelera com as mesmas regras das classes originais; nenhuma intercalação de threads passa do máximo
+    public void acelerar(int incremento) throws VelocidadeException {
+        if (incremento <= 0) {                                                                              // Verifica se o incremento é válido
+            throw new VelocidadeException("Incremento de velocidade deve ser positivo");
+        }
+
+        while (true) {                                                                                      // Laço de compare-and-set: lê, valida e só grava se ninguém mudou a velocidade no meio
+            int atual = velocidadeAtual.get();
+            int novaVelocidade = atual + incremento;                                                        // Calcula a nova velocidade
+
+            if (novaVelocidade > velocidadeMaxima) {                                                        // Verifica se excede o limite máximo
+                throw new VelocidadeException(nome + " não pode exceder " + velocidadeMaxima + " km/h");
+            }
+
+            if (velocidadeAtual.compareAndSet(atual, novaVelocidade)) {                                     // Atualiza a velocidade
+                RegistroEventosVelocidade.padrao().publicar(id, tipo, atual, novaVelocidade);               // Mesmo evento das classes originais, com os valores exatos do CAS
+                return;
+            }
+        }
+    }
+
+    @Override                                                                                               // Freia com as mesmas regras das classes originais (incluindo o mínimo do trem)
+    public void frear(int decremento) throws VelocidadeException {
+        if (decremento <= 0) {                                                                              // Verifica se o decremento é válido
+            throw new VelocidadeException("Decremento de velocidade deve ser positivo");
+        }
+
+        while (true) {
+            int atual = velocidadeAtual.get();
+            int novaVelocidade = atual - decremento;                                                        // Calcula a nova velocidade
+
+            if (novaVelocidade < 0) {                                                                       // Verifica se a velocidade ficaria negativa
+                throw new VelocidadeException("Velocidade não pode ser negativa");
+            }
+
+            if (novaVelocidade > 0 && novaVelocidade < velocidadeMinima) {                                  // Verifica se a velocidade ficaria abaixo do mínimo permitido
+                throw new VelocidadeException(nome + " não pode andar abaixo de " + velocidadeMinima + " km/h");
+            }
+
+            if (velocidadeAtual.compareAndSet(atual, novaVelocidade)) {                                     // Atualiza a velocidade
+                RegistroEventosVelocidade.padrao().publicar(id, tipo, atual, novaVelocidade);               // Mesmo evento das classes originais, com os valores exatos do CAS
+                return;
+            }
+        }
+    }
+
+    @Override                                                                                               // Método para obter a velocidade atual
+    public int getVelocidadeAtual() {
+        return velocidadeAtual.get();
+    }
+}
+
+class CarroConcorrente extends MeioTransporteConcorrente {                                                  // Versão de Carro segura para vários controladores ao mesmo tempo
+    public CarroConcorrente() {
+        super(TipoVeiculo.CARRO);
+    }
+}
+
+class BicicletaConcorrente extends MeioTransporteConcorrente {                                              // Versão de Bicicleta segura para vários controladores ao mesmo tempo
+    public BicicletaConcorrente() {
+        super(TipoVeiculo.BICICLETA);
+    }
+}
+
+class TremConcorrente extends MeioTransporteConcorrente {                                                   // Versão de Trem segura para vários controladores ao mesmo tempo
+    public TremConcorrente() {
+        super(TipoVeiculo.TREM);
+    }
+}
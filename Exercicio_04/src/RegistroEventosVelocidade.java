@@ -0,0 +1,270 @@
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+enum PoliticaBufferCheio {                                                                                  // O que fazer quando o buffer de eventos está cheio
+    DESCARTAR,                                                                                              // Descarta o evento e apenas conta o descarte
+    BLOQUEAR,                                                                                               // Espera o consumidor liberar espaço
+    AMOSTRAR                                                                                                // Com o buffer cheio, só 1 a cada N eventos espera; os demais são descartados
+}
+
+interface ConsumidorEventosVelocidade {                                                                     // Recebe os eventos em lotes, direto dos arrays do registro (sem criar objetos por evento)
+    void consumir(long[] ids, byte[] tipos, int[] velocidadesAnteriores, int[] velocidadesNovas,
+                  long[] instantes, int quantidade);
+}
+
+class RegistroEventosVelocidade implements AutoCloseable {                                                  // Log assíncrono de mudanças de velocidade em um buffer circular pré-alocado
+    private static final AtomicLong PROXIMO_ID = new AtomicLong(1);                                         // Gerador de ids dos veículos
+    private static final TipoVeiculo[] TIPOS = TipoVeiculo.values();
+    private static final int TAMANHO_LOTE = 1024;                                                           // Máximo de eventos entregues ao consumidor por vez
+    private static final long ESPERA_OCIOSA_NANOS = 50_000;                                                 // Pausa do consumidor quando não há eventos
+
+    private static volatile RegistroEventosVelocidade padrao;                                               // Registro usado por Carro, Bicicleta e Trem
+
+    // Buffer circular: uma posição por evento, com os campos em arrays primitivos pré-alocados
+    private final int mascara;
+    private final AtomicLongArray sequencias;                                                               // Controle de cada posição: indica se está livre para o produtor ou pronta para o consumidor
+    private final long[] ids;
+    private final byte[] tipos;
+    private final int[] velocidadesAnteriores;
+    private final int[] velocidadesNovas;
+    private final long[] instantes;
+
+    private final AtomicLong proximaEscrita = new AtomicLong();                                             // Próxima posição a ser reservada pelos produtores
+    private long proximaLeitura;                                                                            // Próxima posição a ser lida (só a thread consumidora altera)
+    private final AtomicLong processados = new AtomicLong();                                                // Eventos já entregues ao consumidor
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong tentativasComBufferCheio = new AtomicLong();                                   // Eventos que encontraram o buffer cheio (política AMOSTRAR)
+
+    private final PoliticaBufferCheio politica;
+    private final int taxaAmostragem;
+    private final ConsumidorEventosVelocidade consumidor;
+    private final Thread threadConsumidora;
+    private volatile boolean aceitando = true;                                                              // false depois de close(): publicar passa a descartar
+    private volatile boolean executando = true;
+    private volatile boolean consumidorAtivo = true;                                                        // false quando a thread consumidora está saindo (encerrada ou morta por um Error)
+
+    // Lote reutilizado pela thread consumidora
+    private final long[] loteIds = new long[TAMANHO_LOTE];
+    private final byte[] loteTipos = new byte[TAMANHO_LOTE];
+    private final int[] loteAnteriores = new int[TAMANHO_LOTE];
+    private final int[] loteNovas = new int[TAMANHO_LOTE];
+    private final long[] loteInstantes = new long[TAMANHO_LOTE];
+
+    public RegistroEventosVelocidade(int capacidade, PoliticaBufferCheio politica, int taxaAmostragem,
+                                     ConsumidorEventosVelocidade consumidor) {
+        if (capacidade <= 0 || Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("Capacidade deve ser uma potência de 2");
+        }
+        if (taxaAmostragem <= 0) {
+            throw new IllegalArgumentException("Taxa de amostragem deve ser positiva");
+        }
+        this.mascara = capacidade - 1;
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);                                                                           // Posição i livre para a escrita de número i
+        }
+        this.ids = new long[capacidade];
+        this.tipos = new byte[capacidade];
+        this.velocidadesAnteriores = new int[capacidade];
+        this.velocidadesNovas = new int[capacidade];
+        this.instantes = new long[capacidade];
+        this.politica = politica;
+        this.taxaAmostragem = taxaAmostragem;
+        this.consumidor = consumidor;
+
+        this.threadConsumidora = new Thread(this::consumirEmLotes, "registro-eventos-velocidade");
+        this.threadConsumidora.setDaemon(true);
+        this.threadConsumidora.start();
+    }
+
+    public static RegistroEventosVelocidade padrao() {                                                      // Registro padrão: escreve as mesmas mensagens de antes no console, em lotes
+        RegistroEventosVelocidade registro = padrao;
+        if (registro == null) {
+            synchronized (RegistroEventosVelocidade.class) {
+                registro = padrao;
+                if (registro == null) {
+                    registro = new RegistroEventosVelocidade(1 << 16, PoliticaBufferCheio.BLOQUEAR, 1,
+                            new ConsumidorConsole(System.out));
+                    RegistroEventosVelocidade criado = registro;
+                    Runtime.getRuntime().addShutdownHook(new Thread(criado::close));                        // Garante que os eventos pendentes sejam escritos ao encerrar
+                    padrao = registro;
+                }
+            }
+        }
+        return registro;
+    }
+
+    public static void definirPadrao(RegistroEventosVelocidade registro) {                                  // Troca o registro usado pelas classes (ex.: descartar eventos em benchmarks)
+        padrao = registro;
+    }
+
+    static long proximoId() {
+        return PROXIMO_ID.getAndIncrement();
+    }
+
+    public boolean publicar(long id, TipoVeiculo tipo, int velocidadeAnterior, int velocidadeNova) {        // Publica um evento sem alocar memória; retorna false se foi descartado
+        if (!aceitando || !consumidorAtivo) {                                                               // Ninguém mais consumiria o evento
+            descartados.incrementAndGet();
+            return false;
+        }
+        long instante = System.nanoTime();
+        long posicao;
+        boolean primeiraEspera = true;
+        while (true) {
+            posicao = proximaEscrita.get();
+            long diferenca = sequencias.get((int) posicao & mascara) - posicao;
+            if (diferenca == 0) {                                                                           // Posição livre: tenta reservá-la
+                if (proximaEscrita.compareAndSet(posicao, posicao + 1)) {
+                    break;
+                }
+            } else if (diferenca < 0) {                                                                     // Buffer cheio: aplica a política configurada
+                if (!esperarEspaco(primeiraEspera)) {
+                    descartados.incrementAndGet();
+                    return false;
+                }
+                primeiraEspera = false;
+            }
+            // diferenca > 0: outro produtor reservou a posição; tenta de novo
+        }
+
+        int i = (int) posicao & mascara;
+        ids[i] = id;
+        tipos[i] = (byte) tipo.ordinal();
+        velocidadesAnteriores[i] = velocidadeAnterior;
+        velocidadesNovas[i] = velocidadeNova;
+        instantes[i] = instante;
+        sequencias.set(i, posicao + 1);                                                                     // Libera a posição para o consumidor (escrita volátil publica os campos acima)
+        if (!consumidorAtivo && !foiConsumido(posicao)) {                                                   // O consumidor saiu enquanto o evento era publicado
+            descartados.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean foiConsumido(long posicao) {                                                            // Espera a thread consumidora terminar e verifica se ela chegou até a posição
+        while (threadConsumidora.isAlive()) {
+            LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+        }
+        return processados.get() > posicao;                                                                 // Eventos são consumidos em ordem a partir da posição 0
+    }
+
+    private boolean esperarEspaco(boolean primeiraEspera) {                                                 // Retorna true se o produtor deve continuar tentando, false se deve descartar
+        switch (politica) {
+            case DESCARTAR:
+                return false;
+            case AMOSTRAR:
+                if (primeiraEspera && tentativasComBufferCheio.incrementAndGet() % taxaAmostragem != 0) {   // A amostragem é decidida uma vez por evento
+                    return false;
+                }
+                return esperarUmPouco();                                                                    // Evento escolhido pela amostragem: espera como na política BLOQUEAR
+            default:
+                return esperarUmPouco();
+        }
+    }
+
+    private boolean esperarUmPouco() {                                                                      // Espera curta antes de tentar de novo; false se o registro foi encerrado ou o consumidor morreu
+        if (!executando || !consumidorAtivo) {
+            return false;
+        }
+        Thread.onSpinWait();
+        LockSupport.parkNanos(1_000);
+        return true;
+    }
+
+    private void consumirEmLotes() {                                                                        // Laço da thread consumidora: copia até TAMANHO_LOTE eventos e entrega de uma vez
+        try {
+            consumirAteEncerrar();
+        } finally {
+            consumidorAtivo = false;                                                                        // Também quando um Error do consumidor derruba a thread
+        }
+    }
+
+    private void consumirAteEncerrar() {
+        while (true) {
+            int quantidade = 0;
+            while (quantidade < TAMANHO_LOTE) {
+                int i = (int) proximaLeitura & mascara;
+                if (sequencias.get(i) != proximaLeitura + 1) {                                              // Próximo evento ainda não publicado
+                    break;
+                }
+                loteIds[quantidade] = ids[i];
+                loteTipos[quantidade] = tipos[i];
+                loteAnteriores[quantidade] = velocidadesAnteriores[i];
+                loteNovas[quantidade] = velocidadesNovas[i];
+                loteInstantes[quantidade] = instantes[i];
+                quantidade++;
+                sequencias.set(i, proximaLeitura + mascara + 1);                                            // Devolve a posição aos produtores (próxima volta do buffer)
+                proximaLeitura++;
+            }
+
+            if (quantidade > 0) {
+                try {
+                    consumidor.consumir(loteIds, loteTipos, loteAnteriores, loteNovas, loteInstantes, quantidade);
+                } catch (RuntimeException e) {
+                    System.err.println("Erro no consumidor de eventos: " + e.getMessage());                 // Um erro no consumidor não pode parar o registro
+                }
+                processados.addAndGet(quantidade);
+            } else if (!executando && proximaEscrita.get() == proximaLeitura) {                             // Encerrado e sem eventos pendentes
+                consumidorAtivo = false;                                                                    // Avisa antes de conferir de novo: quem reservou uma posição antes disso é visto abaixo
+                if (proximaEscrita.get() == proximaLeitura) {
+                    return;
+                }
+            } else {
+                LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+            }
+        }
+    }
+
+    public void descarregar() {                                                                             // Espera até que todos os eventos publicados até agora tenham sido consumidos
+        long alvo = proximaEscrita.get();
+        while (processados.get() < alvo && threadConsumidora.isAlive()) {
+            LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+        }
+    }
+
+    public long getPublicados() { return proximaEscrita.get(); }
+    public long getProcessados() { return processados.get(); }
+    public long getDescartados() { return descartados.get(); }
+
+    @Override
+    public void close() {                                                                                   // Encerra a thread consumidora depois de esvaziar o buffer
+        aceitando = false;
+        descarregar();
+        executando = false;
+        try {
+            threadConsumidora.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class ConsumidorConsole implements ConsumidorEventosVelocidade {                           // Escreve as mesmas mensagens que Carro, Bicicleta e Trem imprimiam, uma escrita por lote
+        private final PrintStream saida;
+        private final StringBuilder texto = new StringBuilder(64 * TAMANHO_LOTE);
+
+        ConsumidorConsole(PrintStream saida) {
+            this.saida = saida;
+        }
+
+        @Override
+        public void consumir(long[] ids, byte[] tipos, int[] velocidadesAnteriores, int[] velocidadesNovas,
+                             long[] instantes, int quantidade) {
+            texto.setLength(0);
+            for (int i = 0; i < quantidade; i++) {
+                TipoVeiculo tipo = TIPOS[tipos[i]];
+                int nova = velocidadesNovas[i];
+                if (nova > velocidadesAnteriores[i]) {
+                    texto.append(tipo.getNome()).append(" acelerou para: ").append(nova).append(" km/h\n");
+                } else if (tipo == TipoVeiculo.TREM && nova == 0) {
+                    texto.append("Trem parou completamente\n");
+                } else {
+                    texto.append(tipo.getNome()).append(" freou para: ").append(nova).append(" km/h\n");
+                }
+            }
+            saida.print(texto);
+            saida.flush();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+enum TipoVeiculo {                                                                                          // Tipos de veículo da frota, com os mesmos limites das classes Carro, Bicicleta e Trem
+    CARRO("Carro", Carro.VELOCIDADE_MAXIMA, 0),
+    BICICLETA("Bicicleta", Bicicleta.VELOCIDADE_MAXIMA, 0),
+    TREM("Trem", Trem.VELOCIDADE_MAXIMA, Trem.VELOCIDADE_MINIMA);
+
+    private final String nome;                                                                              // Nome usado nas mensagens ("Carro", "Bicicleta", "Trem")
+    private final int velocidadeMaxima;
+    private final int velocidadeMinima;                                                                     // Só o trem tem mínimo (0 = sem mínimo)
+
+    TipoVeiculo(String nome, int velocidadeMaxima, int velocidadeMinima) {
+        this.nome = nome;
+        this.velocidadeMaxima = velocidadeMaxima;
+        this.velocidadeMinima = velocidadeMinima;
+    }
+
+    public String getNome() { return nome; }
+    public int getVelocidadeMaxima() { return velocidadeMaxima; }
+    public int getVelocidadeMinima() { return velocidadeMinima; }
+
+    public static TipoVeiculo de(IMeioTransporte transporte) {                                              // Descobre o tipo a partir da implementação
+        if (transporte instanceof Carro) return CARRO;
+        if (transporte instanceof Bicicleta) return BICICLETA;
+        if (transporte instanceof Trem) return TREM;
+        throw new IllegalArgumentException("Meio de transporte não suportado: " + transporte.getClass().getSimpleName());
+    }
+}
+
+class SimuladorFrota implements AutoCloseable {                                                             // Simula milhões de veículos por tick, com os dados em arrays primitivos (struct-of-arrays)
+    public static final byte NENHUMA = 0;                                                                   // Operações possíveis de um veículo em um tick
+    public static final byte ACELERAR = 1;
+    public static final byte FREAR = 2;
+
+    private static final TipoVeiculo[] TIPOS = TipoVeiculo.values();
+
+    private final int[] velocidadeMaximaPorTipo = new int[TIPOS.length];                                    // Limites copiados do enum para arrays (consulta barata dentro do laço)
+    private final int[] velocidadeMinimaPorTipo = new int[TIPOS.length];
+
+    private byte[] tipos;                                                                                   // Tipo (ordinal de TipoVeiculo) de cada veículo
+    private int[] velocidades;                                                                              // Velocidade atual de cada veículo
+    private int tamanho;
+
+    private final int quantidadeThreads;
+    private final ExecutorService executor;                                                                 // Threads que processam as partes da frota em cada tick
+
+    public SimuladorFrota(int capacidade, int quantidadeThreads) {
+        if (quantidadeThreads <= 0) {
+            throw new IllegalArgumentException("Quantidade de threads deve ser positiva");
+        }
+        for (TipoVeiculo tipo : TIPOS) {
+            velocidadeMaximaPorTipo[tipo.ordinal()] = tipo.getVelocidadeMaxima();
+            velocidadeMinimaPorTipo[tipo.ordinal()] = tipo.getVelocidadeMinima();
+        }
+        this.tipos = new byte[capacidade];
+        this.velocidades = new int[capacidade];
+        this.quantidadeThreads = quantidadeThreads;
+        this.executor = Executors.newFixedThreadPool(quantidadeThreads);
+    }
+
+    public int adicionar(TipoVeiculo tipo) {                                                                // Adiciona um veículo parado (igual aos construtores das classes)
+        return adicionar(tipo, 0);
+    }
+
+    public int adicionar(IMeioTransporte transporte) {                                                      // Copia um veículo existente (tipo e velocidade atual)
+        return adicionar(TipoVeiculo.de(transporte), transporte.getVelocidadeAtual());
+    }
+
+    private int adicionar(TipoVeiculo tipo, int velocidade) {
+        if (tamanho == tipos.length) {
+            int novaCapacidade = Math.max(16, tipos.length * 2);
+            tipos = Arrays.copyOf(tipos, novaCapacidade);
+            velocidades = Arrays.copyOf(velocidades, novaCapacidade);
+        }
+        tipos[tamanho] = (byte) tipo.ordinal();
+        velocidades[tamanho] = velocidade;
+        return tamanho++;
+    }
+
+    public int tamanho() { return tamanho; }
+    public int getVelocidade(int veiculo) { return velocidades[veiculo]; }
+    public TipoVeiculo getTipo(int veiculo) { return TIPOS[tipos[veiculo]]; }
+
+    public ResultadoTick tick(byte[] operacoes, int[] valores) throws InterruptedException {                 // Avança um tick: operacoes[i] e valores[i] são o comando do veículo i
+        if (operacoes.length < tamanho || valores.length < tamanho) {
+            throw new IllegalArgumentException("Deve haver um comando para cada veículo");
+        }
+
+        List<Callable<long[]>> partes = new ArrayList<>(quantidadeThreads);
+        int tamanhoParte = (tamanho + quantidadeThreads - 1) / quantidadeThreads;
+        for (int inicio = 0; inicio < tamanho; inicio += tamanhoParte) {                                    // Cada thread recebe um trecho contíguo (sem compartilhar posições dos arrays)
+            int de = inicio;
+            int ate = Math.min(tamanho, inicio + tamanhoParte);
+            partes.add(() -> processar(operacoes, valores, de, ate));
+        }
+
+        long aceitos = 0;
+        long rejeitados = 0;
+        try {
+            for (Future<long[]> parte : executor.invokeAll(partes)) {
+                long[] contagem = parte.get();
+                aceitos += contagem[0];
+                rejeitados += contagem[1];
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao processar o tick", e.getCause());
+        }
+        return new ResultadoTick(aceitos, rejeitados);
+    }
+
+    private long[] processar(byte[] operacoes, int[] valores, int inicio, int fim) {                        // Aplica as mesmas regras de acelerar/frear das classes, sem exceções nem println
+        int[] velocidades = this.velocidades;
+        byte[] tipos = this.tipos;
+        long aceitos = 0;
+        long rejeitados = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte operacao = operacoes[i];
+            if (operacao == NENHUMA) {
+                continue;
+            }
+            int valor = valores[i];
+            int tipo = tipos[i];
+            int novaVelocidade;
+            boolean valido;
+            if (operacao == ACELERAR) {
+                novaVelocidade = velocidades[i] + valor;
+                valido = valor > 0 && novaVelocidade <= velocidadeMaximaPorTipo[tipo];                     // Incremento positivo e sem exceder o máximo
+            } else if (operacao == FREAR) {
+                novaVelocidade = velocidades[i] - valor;
+                int minima = velocidadeMinimaPorTipo[tipo];
+                valido = valor > 0 && novaVelocidade >= 0                                                   // Decremento positivo e sem ficar negativa
+                        && !(novaVelocidade > 0 && novaVelocidade < minima);                                // Trem: não pode ficar entre 0 e o mínimo
+            } else {
+                rejeitados++;                                                                               // Operação desconhecida: não altera a velocidade
+                continue;
+            }
+            if (valido) {
+                velocidades[i] = novaVelocidade;
+                aceitos++;
+            } else {
+                rejeitados++;
+            }
+        }
+        return new long[]{aceitos, rejeitados};
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    static final class ResultadoTick {                                                                      // Quantos comandos foram aceitos e rejeitados em um tick
+        private final long aceitos;
+        private final long rejeitados;
+
+        ResultadoTick(long aceitos, long rejeitados) {
+            this.aceitos = aceitos;
+            this.rejeitados = rejeitados;
+        }
+
+        public long getAceitos() { return aceitos; }
+        public long getRejeitados() { return rejeitados; }
+
+        @Override
+        public String toString() {
+            return "ResultadoTick{aceitos=" + aceitos + ", rejeitados=" + rejeitados + "}";
+        }
+    }
+}
@@ -0,0 +1,325 @@
+import java.util.Arrays;
+
+class SerieVelocidade {                                                                                     // Histórico de velocidade de um veículo, comprimido em blocos (delta + varint)
+    public static final int SEM_DADOS = -1;                                                                 // Resposta quando não há amostra antes do instante pedido
+    static final int AMOSTRAS_POR_BLOCO = 128;
+
+    private byte[] dados = new byte[64];                                                                    // Deltas de tempo e de velocidade de todos os blocos, em varint
+    private int tamanhoDados;
+
+    // Índice por bloco: a primeira amostra fica aqui (não em dados), então cada bloco é decodificado sozinho
+    private long[] blocoInicio = new long[4];                                                               // Instante da primeira amostra
+    private long[] blocoFim = new long[4];                                                                  // Instante da última amostra
+    private int[] blocoVelocidadeInicial = new int[4];
+    private int[] blocoVelocidadeFinal = new int[4];
+    private int[] blocoMaxima = new int[4];
+    private int[] blocoMinima = new int[4];
+    private int[] blocoPosicao = new int[4];                                                                // Onde começam os deltas do bloco em dados
+    private int[] blocoQuantidade = new int[4];
+    private int quantidadeBlocos;
+
+    private long ultimoInstante;
+    private int ultimaVelocidade;
+    private long totalAmostras;
+
+    public boolean aceita(long instante, int velocidade) {                                                  // Mesmas regras de registrar, sem lançar exceção
+        return velocidade >= 0 && (totalAmostras == 0 || instante >= ultimoInstante);
+    }
+
+    public void registrar(long instante, int velocidade) {                                                  // Acrescenta uma amostra; o tempo não pode voltar
+        if (velocidade < 0) {
+            throw new IllegalArgumentException("Velocidade não pode ser negativa");
+        }
+        if (totalAmostras > 0) {
+            if (instante < ultimoInstante) {
+                throw new IllegalArgumentException("Amostras devem estar em ordem de tempo");
+            }
+            if (velocidade == ultimaVelocidade) {                                                           // Velocidade vale até a próxima mudança: repetir não acrescenta informação
+                return;
+            }
+        }
+
+        int b = quantidadeBlocos - 1;
+        if (b < 0 || blocoQuantidade[b] == AMOSTRAS_POR_BLOCO) {                                            // Abre um bloco novo
+            if (quantidadeBlocos == blocoInicio.length) {
+                crescerIndice();
+            }
+            b = quantidadeBlocos++;
+            blocoInicio[b] = instante;
+            blocoVelocidadeInicial[b] = velocidade;
+            blocoMaxima[b] = velocidade;
+            blocoMinima[b] = velocidade;
+            blocoPosicao[b] = tamanhoDados;
+            blocoQuantidade[b] = 1;
+        } else {
+            escreverVarint(instante - ultimoInstante);
+            escreverVarint(zigZag(velocidade - ultimaVelocidade));
+            if (velocidade > blocoMaxima[b]) blocoMaxima[b] = velocidade;
+            if (velocidade < blocoMinima[b]) blocoMinima[b] = velocidade;
+            blocoQuantidade[b]++;
+        }
+        blocoFim[b] = instante;
+        blocoVelocidadeFinal[b] = velocidade;
+
+        ultimoInstante = instante;
+        ultimaVelocidade = velocidade;
+        totalAmostras++;
+    }
+
+    public int velocidadeEm(long instante) {                                                                // Velocidade da última amostra com tempo <= instante
+        int b = buscarBloco(instante);
+        if (b < 0) {
+            return SEM_DADOS;
+        }
+        if (instante >= blocoFim[b]) {
+            return blocoVelocidadeFinal[b];
+        }
+        Leitor leitor = new Leitor(this, b);
+        int velocidade = leitor.velocidade;
+        while (leitor.avancar() && leitor.instante <= instante) {
+            velocidade = leitor.velocidade;
+        }
+        return velocidade;
+    }
+
+    public int maxima(long inicio, long fim) {                                                              // Maior velocidade no intervalo [inicio, fim)
+        validarIntervalo(inicio, fim);
+        int maxima = velocidadeEm(inicio);                                                                  // Velocidade que já valia no começo do intervalo
+        int b = Math.max(0, buscarBloco(inicio));
+        for (; b < quantidadeBlocos && blocoInicio[b] < fim; b++) {
+            if (blocoFim[b] < inicio) {
+                continue;
+            }
+            if (blocoInicio[b] > inicio && blocoFim[b] < fim) {                                             // Bloco inteiro dentro do intervalo: usa o máximo do índice
+                maxima = Math.max(maxima, blocoMaxima[b]);
+                continue;
+            }
+            Leitor leitor = new Leitor(this, b);
+            do {
+                if (leitor.instante >= fim) {
+                    break;
+                }
+                if (leitor.instante > inicio) {
+                    maxima = Math.max(maxima, leitor.velocidade);
+                }
+            } while (leitor.avancar());
+        }
+        return maxima;
+    }
+
+    public long tempoAcima(int limite, long inicio, long fim) {                                             // Quanto tempo, dentro de [inicio, fim), a velocidade ficou acima do limite
+        validarIntervalo(inicio, fim);
+        long total = 0;
+        int b = Math.max(0, buscarBloco(inicio));
+        for (; b < quantidadeBlocos && blocoInicio[b] < fim; b++) {
+            long fimBloco = b + 1 < quantidadeBlocos ? blocoInicio[b + 1] : Long.MAX_VALUE;                 // A última velocidade do bloco vale até o próximo bloco
+            if (blocoMaxima[b] <= limite) {                                                                 // Nenhuma amostra do bloco passa do limite
+                continue;
+            }
+            if (blocoMinima[b] > limite) {                                                                  // Todas passam: soma o trecho do bloco dentro do intervalo
+                total += sobreposicao(blocoInicio[b], fimBloco, inicio, fim);
+                continue;
+            }
+            Leitor leitor = new Leitor(this, b);
+            long instante = leitor.instante;
+            int velocidade = leitor.velocidade;
+            while (instante < fim) {
+                boolean temProxima = leitor.avancar();
+                long proximo = temProxima ? leitor.instante : fimBloco;
+                if (velocidade > limite) {
+                    total += sobreposicao(instante, proximo, inicio, fim);
+                }
+                if (!temProxima) {
+                    break;
+                }
+                instante = proximo;
+                velocidade = leitor.velocidade;
+            }
+        }
+        return total;
+    }
+
+    public long getTotalAmostras() { return totalAmostras; }
+    public int getQuantidadeBlocos() { return quantidadeBlocos; }
+
+    public long getBytesUsados() {                                                                          // Memória ocupada pelos arrays (dados + índice)
+        return dados.length + (long) blocoInicio.length * (8 + 8 + 4 * 6);
+    }
+
+    private int buscarBloco(long instante) {                                                                // Último bloco que começa em tempo <= instante (-1 se nenhum)
+        int baixo = 0;
+        int alto = quantidadeBlocos - 1;
+        int resultado = -1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (blocoInicio[meio] <= instante) {
+                resultado = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return resultado;
+    }
+
+    private static long sobreposicao(long inicioA, long fimA, long inicioB, long fimB) {
+        return Math.max(0, Math.min(fimA, fimB) - Math.max(inicioA, inicioB));
+    }
+
+    private static void validarIntervalo(long inicio, long fim) {
+        if (fim <= inicio) {
+            throw new IllegalArgumentException("Fim do intervalo deve ser maior que o início");
+        }
+    }
+
+    private void crescerIndice() {
+        int novaCapacidade = blocoInicio.length * 2;
+        blocoInicio = Arrays.copyOf(blocoInicio, novaCapacidade);
+        blocoFim = Arrays.copyOf(blocoFim, novaCapacidade);
+        blocoVelocidadeInicial = Arrays.copyOf(blocoVelocidadeInicial, novaCapacidade);
+        blocoVelocidadeFinal = Arrays.copyOf(blocoVelocidadeFinal, novaCapacidade);
+        blocoMaxima = Arrays.copyOf(blocoMaxima, novaCapacidade);
+        blocoMinima = Arrays.copyOf(blocoMinima, novaCapacidade);
+        blocoPosicao = Arrays.copyOf(blocoPosicao, novaCapacidade);
+        blocoQuantidade = Arrays.copyOf(blocoQuantidade, novaCapacidade);
+    }
+
+    private void escreverVarint(long valor) {                                                               // 7 bits por byte; o bit mais alto indica que há mais bytes
+        if (tamanhoDados + 10 > dados.length) {
+            dados = Arrays.copyOf(dados, dados.length * 2);
+        }
+        while ((valor & ~0x7FL) != 0) {
+            dados[tamanhoDados++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        dados[tamanhoDados++] = (byte) valor;
+    }
+
+    private static long zigZag(int valor) {                                                                 // Deltas negativos pequenos viram números positivos pequenos
+        return ((valor << 1) ^ (valor >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static final class Leitor {                                                                     // Percorre as amostras de um bloco
+        private final byte[] dados;
+        private int posicao;
+        private int restantes;
+        long instante;
+        int velocidade;
+
+        Leitor(SerieVelocidade serie, int bloco) {
+            this.dados = serie.dados;
+            this.posicao = serie.blocoPosicao[bloco];
+            this.restantes = serie.blocoQuantidade[bloco] - 1;
+            this.instante = serie.blocoInicio[bloco];
+            this.velocidade = serie.blocoVelocidadeInicial[bloco];
+        }
+
+        boolean avancar() {                                                                                 // Vai para a próxima amostra; false se o bloco acabou
+            if (restantes == 0) {
+                return false;
+            }
+            restantes--;
+            instante += lerVarint();
+            int zigZag = (int) lerVarint();
+            velocidade += (zigZag >>> 1) ^ -(zigZag & 1);
+            return true;
+        }
+
+        private long lerVarint() {
+            long valor = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = dados[posicao++];
+                valor |= (long) (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+            return valor;
+        }
+    }
+}
+
+class TelemetriaVelocidade implements ConsumidorEventosVelocidade {                                         // Guarda o histórico de velocidade de todos os veículos, indexado pelo id do veículo
+    private SerieVelocidade[] series = new SerieVelocidade[16];
+    private long amostrasRejeitadas;                                                                        // Eventos de lote fora de ordem, com velocidade negativa ou id inválido
+
+    public synchronized void registrar(long id, long instante, int velocidade) {
+        serieParaEscrita(id).registrar(instante, velocidade);
+    }
+
+    @Override                                                                                               // Recebe os lotes do RegistroEventosVelocidade (um lock por lote, não por evento)
+    public synchronized void consumir(long[] ids, byte[] tipos, int[] velocidadesAnteriores, int[] velocidadesNovas,
+                                      long[] instantes, int quantidade) {
+        for (int i = 0; i < quantidade; i++) {                                                              // Evento inválido é contado e pulado: não derruba o resto do lote
+            long id = ids[i];
+            if (!idValido(id)) {
+                amostrasRejeitadas++;
+                continue;
+            }
+            SerieVelocidade serie = serieParaEscrita(id);
+            if (serie.aceita(instantes[i], velocidadesNovas[i])) {
+                serie.registrar(instantes[i], velocidadesNovas[i]);
+            } else {
+                amostrasRejeitadas++;
+            }
+        }
+    }
+
+    public synchronized int velocidadeEm(long id, long instante) {
+        SerieVelocidade serie = serie(id);
+        return serie == null ? SerieVelocidade.SEM_DADOS : serie.velocidadeEm(instante);
+    }
+
+    public synchronized int maxima(long id, long inicio, long fim) {
+        SerieVelocidade serie = serie(id);
+        return serie == null ? SerieVelocidade.SEM_DADOS : serie.maxima(inicio, fim);
+    }
+
+    public synchronized long tempoAcima(long id, int limite, long inicio, long fim) {
+        SerieVelocidade serie = serie(id);
+        return serie == null ? 0 : serie.tempoAcima(limite, inicio, fim);
+    }
+
+    public synchronized long getTotalAmostras() {
+        long total = 0;
+        for (SerieVelocidade serie : series) {
+            if (serie != null) total += serie.getTotalAmostras();
+        }
+        return total;
+    }
+
+    public synchronized long getAmostrasRejeitadas() {
+        return amostrasRejeitadas;
+    }
+
+    public synchronized long getBytesUsados() {
+        long total = (long) series.length * 4;
+        for (SerieVelocidade serie : series) {
+            if (serie != null) total += serie.getBytesUsados();
+        }
+        return total;
+    }
+
+    private SerieVelocidade serie(long id) {
+        return id >= 0 && id < series.length ? series[(int) id] : null;
+    }
+
+    private static boolean idValido(long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE - 8;
+    }
+
+    private SerieVelocidade serieParaEscrita(long id) {                                                     // Os ids vêm de RegistroEventosVelocidade.proximoId(), então são pequenos e sequenciais
+        if (!idValido(id)) {
+            throw new IllegalArgumentException("Id de veículo inválido: " + id);
+        }
+        if (id >= series.length) {
+            series = Arrays.copyOf(series, (int) Math.max(id + 1, (long) series.length * 2));
+        }
+        SerieVelocidade serie = series[(int) id];
+        if (serie == null) {
+            serie = new SerieVelocidade();
+            series[(int) id] = serie;
+        }
+        return serie;
+    }
+}
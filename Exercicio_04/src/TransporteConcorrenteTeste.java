@@ -0,0 +1,208 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class TransporteConcorrenteTeste {                                                                   // Teste de estresse das versões concorrentes e comparação de vazão com synchronized
+    private static final int THREADS = 8;
+    private static final int OPERACOES_POR_THREAD = 500_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        conferirEventos();
+
+        RegistroEventosVelocidade registroOriginal = RegistroEventosVelocidade.padrao();
+        RegistroEventosVelocidade silencioso = new RegistroEventosVelocidade(1 << 10, PoliticaBufferCheio.DESCARTAR, 1,
+                (ids, tipos, anteriores, novas, instantes, quantidade) -> { });                             // Todas as versões publicam um evento a cada mudança aceita
+        RegistroEventosVelocidade.definirPadrao(silencioso);
+        try {
+            System.out.println("\n=== TESTE DE ESTRESSE: VÁRIOS CONTROLADORES NO MESMO VEÍCULO ===\n");
+
+            System.out.println(estressar("CarroConcorrente", CarroConcorrente::new, Carro.VELOCIDADE_MAXIMA));
+            System.out.println(estressar("BicicletaConcorrente", BicicletaConcorrente::new, Bicicleta.VELOCIDADE_MAXIMA));
+            System.out.println(estressar("TremConcorrente", TremConcorrente::new, Trem.VELOCIDADE_MAXIMA));
+            System.out.println(estressar("Carro (original, sem sincronização)", Carro::new, Carro.VELOCIDADE_MAXIMA)
+                    + " (pode variar entre execuções)");
+
+            System.out.println("\n=== VAZÃO: COMPARE-AND-SET vs SYNCHRONIZED ===");
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                double opsCas = medirVazao(new CarroConcorrente());
+                double opsSincronizado = medirVazao(new CarroSincronizado());
+                System.out.printf("Rodada %d: CAS %.0f ops/s | synchronized %.0f ops/s%n", rodada, opsCas, opsSincronizado);
+            }
+        } finally {
+            RegistroEventosVelocidade.definirPadrao(registroOriginal);
+            silencioso.close();
+        }
+    }
+
+    private static void conferirEventos() throws InterruptedException {                                     // As versões concorrentes publicam os mesmos eventos que as classes originais
+        System.out.println("=== CONFERINDO EVENTOS DAS VERSÕES CONCORRENTES ===");
+        RegistroEventosVelocidade registroOriginal = RegistroEventosVelocidade.padrao();
+        AtomicLong eventos = new AtomicLong();
+        AtomicLong somaVariacoes = new AtomicLong();                                                        // Soma de (nova - anterior) de todos os eventos: deve bater com a velocidade final
+        RegistroEventosVelocidade contador = new RegistroEventosVelocidade(1 << 16, PoliticaBufferCheio.BLOQUEAR, 1,
+                (ids, tipos, anteriores, novas, instantes, quantidade) -> {
+                    for (int i = 0; i < quantidade; i++) {
+                        if (tipos[i] != TipoVeiculo.TREM.ordinal()) {
+                            throw new IllegalStateException("Tipo inesperado no evento: " + tipos[i]);
+                        }
+                        somaVariacoes.addAndGet(novas[i] - anteriores[i]);
+                    }
+                    eventos.addAndGet(quantidade);
+                });
+        RegistroEventosVelocidade.definirPadrao(contador);
+        try {
+            IMeioTransporte trem = new TremConcorrente();
+            Thread[] threads = new Thread[THREADS];
+            AtomicLong aceitos = new AtomicLong();
+            for (int t = 0; t < THREADS; t++) {
+                int semente = t;
+                threads[t] = new Thread(() -> {
+                    SplittableRandom aleatorio = new SplittableRandom(semente);
+                    for (int i = 0; i < 10_000; i++) {
+                        int valor = aleatorio.nextInt(1, 40);
+                        try {
+                            if (aleatorio.nextBoolean()) {
+                                trem.acelerar(valor);
+                            } else {
+                                trem.frear(valor);
+                            }
+                            aceitos.incrementAndGet();
+                        } catch (VelocidadeException e) {
+                            // Rejeitado: não publica evento
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            contador.descarregar();
+            if (eventos.get() != aceitos.get() || somaVariacoes.get() != trem.getVelocidadeAtual()) {
+                throw new IllegalStateException("Eventos divergem: " + eventos.get() + " eventos para " + aceitos.get() + " mudanças aceitas");
+            }
+            System.out.printf("TremConcorrente publicou %,d eventos, um por mudança aceita.%n", eventos.get());
+        } finally {
+            RegistroEventosVelocidade.definirPadrao(registroOriginal);
+            contador.close();
+        }
+    }
+
+    private static String estressar(String nome, Supplier<IMeioTransporte> fabrica, int maxima) throws InterruptedException {
+        IMeioTransporte veiculo = fabrica.get();
+        AtomicLong somaAceita = new AtomicLong();                                                           // Soma de todos os incrementos/decrementos aceitos (deve bater com a velocidade final)
+        AtomicLong violacoes = new AtomicLong();                                                            // Leituras fora dos limites vistas pelo observador
+        AtomicBoolean executando = new AtomicBoolean(true);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+
+        Thread observador = new Thread(() -> {
+            while (executando.get()) {
+                int velocidade = veiculo.getVelocidadeAtual();
+                if (velocidade < 0 || velocidade > maxima) {                                                // O mínimo do trem só vale ao frear, então não entra aqui
+                    violacoes.incrementAndGet();
+                }
+            }
+        });
+        observador.start();
+
+        for (int t = 0; t < THREADS; t++) {
+            int semente = t;
+            new Thread(() -> {
+                SplittableRandom aleatorio = new SplittableRandom(semente);
+                long soma = 0;
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    int valor = aleatorio.nextInt(1, 40);
+                    try {
+                        if (aleatorio.nextBoolean()) {
+                            veiculo.acelerar(valor);
+                            soma += valor;
+                        } else {
+                            veiculo.frear(valor);
+                            soma -= valor;
+                        }
+                    } catch (VelocidadeException e) {
+                        // Rejeição esperada pelas regras de limite
+                    }
+                }
+                somaAceita.addAndGet(soma);
+                fim.countDown();
+            }).start();
+        }
+
+        fim.await();
+        executando.set(false);
+        observador.join();
+
+        int velocidadeFinal = veiculo.getVelocidadeAtual();
+        boolean ok = violacoes.get() == 0 && velocidadeFinal == somaAceita.get()
+                && velocidadeFinal >= 0 && velocidadeFinal <= maxima;
+        return String.format("%-38s | final %3d km/h | soma aceita %5d | violações vistas %d | %s",
+                nome, velocidadeFinal, somaAceita.get(), violacoes.get(), ok ? "OK" : "INCONSISTENTE");
+    }
+
+    private static double medirVazao(IMeioTransporte veiculo) throws InterruptedException {               // Cada thread alterna acelerar(1) e frear(1) no mesmo veículo
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    largada.await();
+                    for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                        try {
+                            veiculo.acelerar(1);
+                            veiculo.frear(1);
+                        } catch (VelocidadeException e) {
+                            // Não ocorre com 8 threads (velocidade máxima 200)
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            }).start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        fim.await();
+        return (double) THREADS * OPERACOES_POR_THREAD * 2 / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+
+    private static final class CarroSincronizado implements IMeioTransporte {                              // Referência: mesmas regras de Carro protegidas por synchronized, publicando os mesmos eventos
+        private int velocidadeAtual;
+        private final long id = RegistroEventosVelocidade.proximoId();
+
+        @Override
+        public synchronized void acelerar(int incremento) throws VelocidadeException {
+            if (incremento <= 0) {
+                throw new VelocidadeException("Incremento de velocidade deve ser positivo");
+            }
+            int novaVelocidade = velocidadeAtual + incremento;
+            if (novaVelocidade > Carro.VELOCIDADE_MAXIMA) {
+                throw new VelocidadeException("Carro não pode exceder " + Carro.VELOCIDADE_MAXIMA + " km/h");
+            }
+            RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.CARRO, velocidadeAtual, novaVelocidade);
+            velocidadeAtual = novaVelocidade;
+        }
+
+        @Override
+        public synchronized void frear(int decremento) throws VelocidadeException {
+            if (decremento <= 0) {
+                throw new VelocidadeException("Decremento de velocidade deve ser positivo");
+            }
+            int novaVelocidade = velocidadeAtual - decremento;
+            if (novaVelocidade < 0) {
+                throw new VelocidadeException("Velocidade não pode ser negativa");
+            }
+            RegistroEventosVelocidade.padrao().publicar(id, TipoVeiculo.CARRO, velocidadeAtual, novaVelocidade);
+            velocidadeAtual = novaVelocidade;
+        }
+
+        @Override
+        public synchronized int getVelocidadeAtual() {
+            return velocidadeAtual;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+public class BenchmarkBoletoCnab {                                                                                                              // Confere o decodificador e compara o CNAB em fluxo com a leitura por linhas + substring + BigDecimal
+    private static final int ITERACOES = 2_000_000;
+    private static final int BOLETOS_NO_ARQUIVO = 300_000;
+    private static final int[] BANCOS = {1, 33, 104, 237, 341, 748};
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();                                                               // Bytes alocados pela thread atual
+
+    public static void main(String[] args) throws IOException {
+        conferir();
+
+        System.out.println("\n=== DECODIFICAÇÃO (" + ITERACOES + " por formato) ===");
+        String barras = "00192373700000010000500940144816060680935031";
+        String linha = formatarLinha(linhaDigitavel(barras));
+        byte[] barrasBytes = barras.getBytes(StandardCharsets.US_ASCII);
+        DecodificadorBoleto decodificador = DecodificadorBoleto.padrao();
+        BoletoDecodificado boleto = new BoletoDecodificado();
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            long soma = 0;
+            long bytes0 = alocado();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += decodificador.decodificar(barras, boleto).ordinal() + boleto.getValorCentavos();
+            long t1 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += decodificador.decodificar(linha, boleto).ordinal() + boleto.getValorCentavos();
+            long t2 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += decodificador.decodificar(barrasBytes, 0, 44, boleto).ordinal() + boleto.getBanco();
+            long t3 = System.nanoTime();
+            long bytes1 = alocado();
+            for (int i = 0; i < ITERACOES; i++) soma += decodificarComSubstring(barras);
+            long t4 = System.nanoTime();
+            long bytes2 = alocado();
+            System.out.printf("Rodada %d: barras %.1f ns | linha formatada %.1f ns | byte[] %.1f ns | %.2f B/op"
+                            + " || substring+BigDecimal %.1f ns, %.0f B/op (checksum %d)%n", rodada,
+                    (t1 - t0) / (double) ITERACOES, (t2 - t1) / (double) ITERACOES, (t3 - t2) / (double) ITERACOES,
+                    (bytes1 - bytes0) / (3.0 * ITERACOES), (t4 - t3) / (double) ITERACOES, (bytes2 - bytes1) / (double) ITERACOES, soma);
+        }
+
+        System.out.println("\n=== ARQUIVO CNAB 240 (" + BOLETOS_NO_ARQUIVO + " segmentos J) ===");
+        Path arquivo = Files.createTempFile("remessa", ".rem");
+        try {
+            long esperadoValidos = gerarArquivo(arquivo);
+            double megabytes = Files.size(arquivo) / (1024.0 * 1024.0);
+            ProcessadorCnab240 processador = new ProcessadorCnab240();
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                long bytes0 = alocado();
+                long t0 = System.nanoTime();
+                ResumoCnab resumo;
+                try (InputStream entrada = Files.newInputStream(arquivo)) {
+                    resumo = processador.processar(entrada);
+                }
+                long t1 = System.nanoTime();
+                long bytes1 = alocado();
+                long[] ingenuo = processarComLinhas(arquivo);
+                long t2 = System.nanoTime();
+                long bytes2 = alocado();
+
+                conferir(resumo.getBoletos() == BOLETOS_NO_ARQUIVO && resumo.getRegistrosJ52() == (BOLETOS_NO_ARQUIVO + 9) / 10, "J-52 não é título");
+                conferir(resumo.getValidos() == esperadoValidos && ingenuo[0] == resumo.getValidos()
+                        && ingenuo[1] == resumo.getTotalCentavos() && resumo.trailerConfere(), "resumos deveriam coincidir");
+                System.out.printf("Rodada %d: fluxo %,.0f MB/s (%,.0f boletos/s, %,d KB alocados) | linhas+substring %,.0f MB/s (%,d KB alocados)%n",
+                        rodada, megabytes / ((t1 - t0) / 1e9), resumo.getBoletos() / ((t1 - t0) / 1e9), (bytes1 - bytes0) / 1024,
+                        megabytes / ((t2 - t1) / 1e9), (bytes2 - bytes1) / 1024);
+                if (rodada == 3) {
+                    System.out.printf("Válidos %,d de %,d | total R$ %s | DV inválido %,d | valor divergente %,d | trailer confere: %s%n",
+                            resumo.getValidos(), resumo.getBoletos(), BigDecimal.valueOf(resumo.getTotalCentavos(), 2),
+                            resumo.getRejeitados(CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO),
+                            resumo.getRejeitados(CodigoErroPagamento.BOLETO_VALOR_DIVERGENTE), resumo.trailerConfere());
+                    for (int banco : BANCOS) {
+                        System.out.printf("  banco %03d: %,7d boletos | R$ %s%n", banco, resumo.getQuantidadePorBanco(banco),
+                                BigDecimal.valueOf(resumo.getTotalCentavosPorBanco(banco), 2));
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static void conferir() throws IOException {                                                                                       // Casos conhecidos, com relógio fixo em 16/10/2026
+        System.out.println("=== CONFERINDO DECODIFICAÇÃO ===");
+        DecodificadorBoleto decodificador = new DecodificadorBoleto(Clock.fixed(Instant.parse("2026-10-16T12:00:00Z"), ZoneOffset.UTC));
+        BoletoDecodificado boleto = new BoletoDecodificado();
+
+        String barras = "00192373700000010000500940144816060680935031";
+        esperar(decodificador.decodificar(barras, boleto), CodigoErroPagamento.OK);
+        conferir(boleto.getTipo() == TipoBoleto.BANCARIO && boleto.getBanco() == 1 && boleto.getMoeda() == 9
+                && boleto.getFatorVencimento() == 3737 && boleto.getValorCentavos() == 1_000, "campos do código de barras");
+        System.out.println(boleto);
+
+        String linha = formatarLinha(linhaDigitavel(barras));
+        esperar(decodificador.decodificar(linha, boleto), CodigoErroPagamento.OK);
+        conferir(boleto.getFormato() == FormatoBoleto.LINHA_DIGITAVEL_BANCARIA
+                && boleto.anexarCodigoBarras(new StringBuilder()).toString().equals(barras), "linha digitável convertida em código de barras");
+        System.out.println("Linha digitável " + linha + " -> mesmo código de barras");
+        String dvTrocado = linha.substring(0, 10) + (char) ('0' + (linha.charAt(10) - '0' + 1) % 10) + linha.substring(11);                  // DV do primeiro campo
+        esperar(decodificador.decodificar(dvTrocado, boleto), CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO);
+
+        String novoCiclo = comDvBancario("3419" + "0" + "1000" + "0000012345" + "1090000000000000000000000");                                // Fator 1000 depois da virada de 2025
+        esperar(decodificador.decodificar(novoCiclo, boleto), CodigoErroPagamento.OK);
+        conferir(boleto.getVencimento().equals(LocalDate.of(2025, 2, 22)), "fator 1000 deveria ser 22/02/2025");
+        esperar(new DecodificadorBoleto(Clock.fixed(Instant.parse("2001-01-01T00:00:00Z"), ZoneOffset.UTC)).decodificar(novoCiclo, boleto),
+                CodigoErroPagamento.OK);
+        conferir(boleto.getVencimento().equals(LocalDate.of(2000, 7, 3)), "fator 1000 em 2001 deveria ser 03/07/2000");
+        System.out.println("Fator 1000: 03/07/2000 no primeiro ciclo, 22/02/2025 no atual");
+
+        esperar(decodificador.decodificar("81630000001500000000000000000000000000123456", boleto), CodigoErroPagamento.OK);
+        conferir(boleto.getTipo() == TipoBoleto.ARRECADACAO && boleto.getSegmento() == 1 && boleto.getValorCentavos() == 15_000,
+                "campos de arrecadação");
+        esperar(decodificador.decodificar("818200000024599012345670890123456785901234567894", boleto), CodigoErroPagamento.OK);
+        conferir(boleto.getFormato() == FormatoBoleto.LINHA_DIGITAVEL_ARRECADACAO && boleto.getValorCentavos() == 25_990, "linha de arrecadação");
+        System.out.println(boleto);
+
+        esperar(decodificador.decodificar("123", boleto), CodigoErroPagamento.BOLETO_CODIGO_INVALIDO);
+        esperar(decodificador.decodificar("0019237370000001000050094014481606068093503X", boleto), CodigoErroPagamento.BOLETO_CODIGO_INVALIDO);
+        esperar(decodificador.decodificar("718200000024599012345670890123456785901234567894", boleto), CodigoErroPagamento.BOLETO_TIPO_INVALIDO);
+
+        String registro = detalheJ(1, barras, 1_000) + "\r\n";                                                                                 // Registro solto, com quebra de linha e sem trailer
+        ResumoCnab resumo = new ProcessadorCnab240().processar(new java.io.ByteArrayInputStream(
+                (registro + registro.substring(0, 100)).getBytes(StandardCharsets.US_ASCII)));
+        conferir(resumo.getValidos() == 1 && resumo.isTruncado() && !resumo.trailerConfere(), "registro cortado e sem trailer");
+        System.out.println("Todos os casos conferem");
+    }
+
+    private static long gerarArquivo(Path arquivo) throws IOException {                                                                       // Remessa com 2% de DV errado e 1% de valor divergente; devolve os válidos
+        SplittableRandom aleatorio = new SplittableRandom(20);
+        long validos = 0;
+        int registrosJ52 = 0;
+        try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(arquivo), 1 << 16)) {
+            escrever(saida, registro("0", ' ', ""));                                                                                            // Header do arquivo
+            escrever(saida, registro("1", ' ', ""));                                                                                            // Header do lote
+            for (int i = 0; i < BOLETOS_NO_ARQUIVO; i++) {
+                int banco = BANCOS[aleatorio.nextInt(BANCOS.length)];
+                long valor = 100 + aleatorio.nextLong(1_000_000);
+                String barras = comDvBancario(String.format("%03d9%s%04d%010d%025d", banco, "0", 9_000 + aleatorio.nextInt(999), valor,
+                        aleatorio.nextLong(1_000_000_000_000_000L)));
+                int sorteio = aleatorio.nextInt(100);
+                if (sorteio < 2) {
+                    barras = barras.substring(0, 4) + (char) ('0' + (barras.charAt(4) - '0' + 1) % 10) + barras.substring(5);
+                } else if (sorteio < 3) {
+                    valor++;
+                } else {
+                    validos++;
+                }
+                escrever(saida, detalheJ(i + 1, barras, valor));
+                if (i % 10 == 0) {                                                                                                              // Parte dos títulos vem com o J-52 opcional logo depois
+                    escrever(saida, detalheJ52(i + 1));
+                    registrosJ52++;
+                }
+            }
+            escrever(saida, registro("5", ' ', ""));                                                                                            // Trailer do lote
+            escrever(saida, registro("9", ' ', String.format("%06d", BOLETOS_NO_ARQUIVO + registrosJ52 + 4)));                                  // Trailer do arquivo
+        }
+        return validos;
+    }
+
+    private static String detalheJ(int sequencial, String barras, long valorCentavos) {
+        StringBuilder registro = new StringBuilder(ProcessadorCnab240.TAMANHO_REGISTRO);
+        registro.append("34100013").append(String.format("%05d", sequencial % 100_000)).append('J').append("000")                                        // Banco, lote, tipo 3, sequencial, segmento, movimento
+                .append(barras)
+                .append(String.format("%-30s", "CEDENTE " + sequencial % 97))
+                .append("01012026")
+                .append(String.format("%015d", valorCentavos));
+        while (registro.length() < ProcessadorCnab240.TAMANHO_REGISTRO) {
+            registro.append(' ');
+        }
+        return registro.toString();
+    }
+
+    private static String detalheJ52(int sequencial) {
+        StringBuilder registro = new StringBuilder(ProcessadorCnab240.TAMANHO_REGISTRO);
+        registro.append("34100013").append(String.format("%05d", sequencial % 100_000)).append('J').append("000").append("52")                        // Banco, lote, tipo 3, sequencial, segmento, movimento, registro opcional
+                .append('2').append(String.format("%015d", 12_345_678_000_100L + sequencial % 97))
+                .append(String.format("%-40s", "SACADO " + sequencial % 89));
+        while (registro.length() < ProcessadorCnab240.TAMANHO_REGISTRO) {
+            registro.append(' ');
+        }
+        return registro.toString();
+    }
+
+    private static String registro(String tipo, char segmento, String quantidade) {                                                            // Header ou trailer com os campos que o processador lê
+        StringBuilder registro = new StringBuilder("3410000").append(tipo);
+        while (registro.length() < 23) registro.append(segmento);
+        registro.append(quantidade);
+        while (registro.length() < ProcessadorCnab240.TAMANHO_REGISTRO) registro.append(' ');
+        return registro.toString();
+    }
+
+    private static void escrever(OutputStream saida, String registro) throws IOException {
+        saida.write(registro.getBytes(StandardCharsets.US_ASCII));
+        saida.write('\r');
+        saida.write('\n');
+    }
+
+    private static long[] processarComLinhas(Path arquivo) throws IOException {                                                               // Forma "ingênua": uma String por linha, substring por campo, BigDecimal por valor
+        long validos = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.US_ASCII)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.charAt(7) != '3' || linha.charAt(13) != 'J' || linha.startsWith("52", 17)) continue;
+                String barras = linha.substring(17, 61);
+                if (ValidadorPagamento.validarBoleto(barras) != CodigoErroPagamento.OK) continue;
+                BigDecimal valorTitulo = new BigDecimal(linha.substring(99, 114)).movePointLeft(2);
+                BigDecimal valorBarras = new BigDecimal(barras.substring(9, 19)).movePointLeft(2);
+                if (valorBarras.signum() != 0 && valorBarras.compareTo(valorTitulo) != 0) continue;
+                validos++;
+                total = total.add(valorTitulo);
+            }
+        }
+        return new long[]{validos, total.movePointRight(2).longValueExact()};
+    }
+
+    private static long decodificarComSubstring(String barras) {                                                                               // Equivalente com substring e BigDecimal, para comparação
+        if (ValidadorPagamento.validarBoleto(barras) != CodigoErroPagamento.OK) return -1;
+        int banco = Integer.parseInt(barras.substring(0, 3));
+        int fator = Integer.parseInt(barras.substring(5, 9));
+        BigDecimal valor = new BigDecimal(barras.substring(9, 19)).movePointLeft(2);
+        return banco + fator + valor.unscaledValue().longValue();
+    }
+
+    private static String comDvBancario(String semDv) {                                                                                        // Recalcula a posição 5 (módulo 11), independente do decodificador
+        int soma = 0;
+        int peso = 2;
+        for (int i = 43; i >= 0; i--) {
+            if (i == 4) continue;
+            soma += (semDv.charAt(i) - '0') * peso;
+            peso = peso == 9 ? 2 : peso + 1;
+        }
+        int dv = 11 - soma % 11;
+        if (dv == 0 || dv == 10 || dv == 11) dv = 1;
+        return semDv.substring(0, 4) + dv + semDv.substring(5);
+    }
+
+    private static String linhaDigitavel(String barras) {                                                                                      // Monta os 47 dígitos com os DVs de campo (módulo 10)
+        String campo1 = barras.substring(0, 4) + barras.substring(19, 24);
+        String campo2 = barras.substring(24, 34);
+        String campo3 = barras.substring(34, 44);
+        return campo1 + modulo10(campo1) + campo2 + modulo10(campo2) + campo3 + modulo10(campo3) + barras.charAt(4) + barras.substring(5, 19);
+    }
+
+    private static String formatarLinha(String linha) {                                                                                        // AAAAA.AAAAA BBBBB.BBBBBB CCCCC.CCCCCC D EEEEEEEEEEEEEE
+        return linha.substring(0, 5) + "." + linha.substring(5, 10) + " " + linha.substring(10, 15) + "." + linha.substring(15, 21) + " "
+                + linha.substring(21, 26) + "." + linha.substring(26, 32) + " " + linha.charAt(32) + " " + linha.substring(33);
+    }
+
+    private static int modulo10(String campo) {
+        int soma = 0;
+        int peso = 2;
+        for (int i = campo.length() - 1; i >= 0; i--) {
+            int produto = (campo.charAt(i) - '0') * peso;
+            soma += produto / 10 + produto % 10;
+            peso = 3 - peso;
+        }
+        return (10 - soma % 10) % 10;
+    }
+
+    private static long alocado() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private static void esperar(CodigoErroPagamento obtido, CodigoErroPagamento esperado) {
+        conferir(obtido == esperado, "esperado " + esperado + ", obtido " + obtido);
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+}
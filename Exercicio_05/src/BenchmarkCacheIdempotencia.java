@@ -0,0 +1,221 @@
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class BenchmarkCacheIdempotencia {                                                                                                       // Confere coalescência, TTL e LRU do cache e mede o custo adicionado por chamada
+    private static final int THREADS = 8;
+    private static final int ITERACOES = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        BigDecimal valor = new BigDecimal("150.99");
+        RelogioManual relogio = new RelogioManual();
+
+        System.out.println("=== DUPLICADOS CONCORRENTES ===");
+        CacheIdempotencia cache = new CacheIdempotencia(1_000, 60_000, 16, relogio);
+        PixContado pix = new PixContado(50_000_000);                                                                                            // Cada execução leva 50 ms
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    largada.await();
+                    cache.realizarPagamento("pedido-1", pix, valor);
+                } catch (Exception e) {
+                    System.out.println("Erro inesperado: " + e.getMessage());
+                } finally {
+                    fim.countDown();
+                }
+            }).start();
+        }
+        largada.countDown();
+        fim.await();
+        System.out.printf("%d chamadas -> %d execução(ões) | faltas %d | coalescidos %d | acertos %d%n",
+                THREADS, pix.execucoes.get(), cache.getFaltas(), cache.getCoalescidos(), cache.getAcertos());
+        conferir(pix.execucoes.get() == 1, "duplicados concorrentes deveriam executar uma única vez");
+
+        cache.realizarPagamento("pedido-1", pix, valor);                                                                                        // Retentativa depois de concluído
+        conferir(pix.execucoes.get() == 1 && cache.getAcertos() == 1, "retentativa deveria ser um acerto");
+        try {
+            cache.realizarPagamento("pedido-1", pix, new BigDecimal("10.00"));
+            conferir(false, "chave reutilizada com outro valor deveria ser rejeitada");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Chave reutilizada com outro valor: " + e.getMessage());
+        }
+
+        System.out.println("\n=== RECUSA GUARDADA, TTL E LRU ===");
+        PixContado pixVazio = new PixContado(0, "");
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.realizarPagamento("pedido-2", pixVazio, valor);
+            } catch (PagamentoInvalidoException e) {
+                System.out.println("Tentativa " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        conferir(pixVazio.validacoes.get() == 1, "recusa deveria ser guardada e não validada de novo");
+
+        relogio.avancar(60_000);                                                                                                                // Resultado de pedido-1 expira
+        cache.realizarPagamento("pedido-1", pix, valor);
+        conferir(pix.execucoes.get() == 2, "chave expirada deveria executar de novo");
+        System.out.println("Depois do TTL, pedido-1 executou novamente");
+
+        CacheIdempotencia pequeno = new CacheIdempotencia(16, 60_000, 1, relogio);
+        PixContado rapido = new PixContado(0);
+        for (int i = 0; i < 100; i++) {
+            pequeno.realizarPagamento("chave-" + i, rapido, valor);
+        }
+        conferir(pequeno.tamanho() == 16 && pequeno.getDespejados() == 84, "LRU deveria manter só 16 entradas");
+        pequeno.realizarPagamento("chave-99", rapido, valor);
+        pequeno.realizarPagamento("chave-0", rapido, valor);
+        conferir(rapido.execucoes.get() == 101, "chave recente deveria acertar e chave antiga deveria ter sido despejada");
+        System.out.println("LRU com 16 vagas: " + pequeno.tamanho() + " entradas, " + pequeno.getDespejados() + " despejadas");
+
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Pix travado = new Pix("cliente@email.com") {                                                                                            // Pagamento que fica em andamento até o teste liberar
+            @Override
+            public void processarPagamento(BigDecimal valor) {
+                iniciou.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        CacheIdempotencia quatro = new CacheIdempotencia(4, 60_000, 1, relogio);
+        Thread emAndamento = new Thread(() -> {
+            try {
+                quatro.realizarPagamento("travado", travado, valor);
+            } catch (PagamentoInvalidoException e) {
+                System.out.println("Erro inesperado: " + e.getMessage());
+            }
+        });
+        emAndamento.start();
+        iniciou.await();
+        for (int i = 0; i < 20; i++) {
+            quatro.realizarPagamento("depois-" + i, rapido, valor);
+        }
+        conferir(quatro.tamanho() == 4, "execução em andamento não deveria impedir o LRU de despejar as concluídas");
+        liberar.countDown();
+        emAndamento.join();
+        System.out.println("LRU com 4 vagas e uma execução travada: " + quatro.tamanho() + " entradas, " + quatro.getDespejados() + " despejadas");
+
+        Pix comErro = new Pix("cliente@email.com") {
+            @Override
+            public void processarPagamento(BigDecimal valor) {
+                throw new AssertionError("falha grave no processamento");
+            }
+        };
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.realizarPagamento("pedido-3", comErro, valor);
+                conferir(false, "Error deveria ser propagado");
+            } catch (AssertionError e) {
+                System.out.println("Tentativa " + (i + 1) + " com Error: " + e.getMessage());                                               // A segunda tentativa executa de novo em vez de esperar para sempre
+            }
+        }
+
+        System.out.println("\n=== CUSTO POR CHAMADA (" + THREADS + " threads, pagamento sem latência) ===");
+        CacheIdempotencia grande = new CacheIdempotencia(1 << 20, 60_000, 64, Clock.systemUTC());
+        String[] chaves = new String[1 << 16];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = "pedido-" + i;
+        }
+        PixContado semLatencia = new PixContado(0);
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            double direto = medir(() -> {
+                for (int i = 0; i < ITERACOES; i++) {
+                    semLatencia.realizarPagamento(valor);
+                }
+            });
+            AtomicInteger proximaThread = new AtomicInteger();
+            double comCache = medir(() -> {
+                int deslocamento = proximaThread.getAndIncrement() * (chaves.length / THREADS);                                                 // Cada thread começa em uma parte diferente das chaves (clientes diferentes)
+                for (int i = 0; i < ITERACOES; i++) {
+                    grande.realizarPagamento(chaves[(i + deslocamento) & (chaves.length - 1)], semLatencia, valor);                             // Quase tudo acerto depois da primeira volta
+                }
+            });
+            System.out.printf("Rodada %d: direto %.1f ns | com cache %.1f ns por chamada%n", rodada, direto, comCache);
+        }
+        System.out.printf("Contadores: acertos %,d | faltas %,d | coalescidos %,d%n",
+                grande.getAcertos(), grande.getFaltas(), grande.getCoalescidos());
+    }
+
+    private static double medir(Tarefa tarefa) throws InterruptedException {                                                                    // ns por chamada, com THREADS threads executando a tarefa ao mesmo tempo
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    largada.await();
+                    tarefa.executar();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    fim.countDown();
+                }
+            }).start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        fim.await();
+        return (System.nanoTime() - inicio) / ((double) THREADS * ITERACOES);
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+
+    private interface Tarefa {
+        void executar() throws Exception;
+    }
+
+    private static final class PixContado extends Pix {                                                                                         // Pix que conta validações e execuções, sem println
+        final AtomicInteger validacoes = new AtomicInteger();
+        final AtomicInteger execucoes = new AtomicInteger();
+        private final long latenciaNanos;
+
+        PixContado(long latenciaNanos) {
+            this(latenciaNanos, "cliente@email.com");
+        }
+
+        PixContado(long latenciaNanos, String chave) {
+            super(chave);
+            this.latenciaNanos = latenciaNanos;
+        }
+
+        @Override
+        public void validarPagamento() throws PagamentoInvalidoException {
+            validacoes.incrementAndGet();
+            lancarSeInvalido(verificar());
+        }
+
+        @Override
+        public void processarPagamento(BigDecimal valor) {
+            execucoes.incrementAndGet();
+            if (latenciaNanos > 0) {
+                LockSupport.parkNanos(latenciaNanos);
+            }
+        }
+    }
+
+    private static final class RelogioManual extends Clock {                                                                                    // Relógio que só anda quando o teste manda
+        private volatile long millis = 1_000;
+
+        void avancar(long quantidade) {
+            millis += quantidade;
+        }
+
+        @Override public long millis() { return millis; }
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis); }
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zona) { return this; }
+    }
+}
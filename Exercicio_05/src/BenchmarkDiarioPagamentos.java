@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+public class BenchmarkDiarioPagamentos {                                                                                                        // Compara fsync por registro com commit em grupo e confere a recuperação depois de uma "queda"
+    private static final int[] ESCRITORES = {1, 4, 16, 64};
+    private static final long DURACAO_MILLIS = 1_500;
+    private static final int PAGAMENTOS_EM_LOTE = 20;
+
+    public static void main(String[] args) throws Exception {
+        Path base = Files.createTempDirectory("diario-pagamentos");
+        BigDecimal valor = new BigDecimal("150.99");
+        try {
+            System.out.println("=== VAZÃO (tentativa + resultado por pagamento, cada registro durável antes de retornar) ===");
+            System.out.printf("%-13s | %10s | %16s | %18s%n", "Modo", "Escritores", "Pagamentos/s", "Registros por fsync");
+            for (ModoSincronizacao modo : ModoSincronizacao.values()) {
+                for (int escritores : ESCRITORES) {
+                    Path diretorio = base.resolve(modo + "-" + escritores);
+                    try (DiarioPagamentos diario = DiarioPagamentos.construtor(diretorio).modo(modo).construir()) {
+                        double porSegundo = medir(diario, escritores, valor);
+                        System.out.printf("%-13s | %10d | %,16.0f | %18.1f%n", modo, escritores, porSegundo,
+                                diario.getRegistros() / (double) diario.getSincronizacoes());
+                    }
+                }
+            }
+
+            System.out.println("\n=== ROTAÇÃO E RECUPERAÇÃO ===");
+            Path diretorio = base.resolve("recuperacao");
+            int pendentesEsperados = demonstrarQueda(diretorio, valor);
+            ResultadoRecuperacao recuperacao = DiarioPagamentos.recuperar(diretorio);
+            System.out.printf("%d segmentos | %,d registros | última sequência %d | %d bytes descartados no final cortado%n",
+                    recuperacao.getSegmentos(), recuperacao.getRegistros(), recuperacao.getUltimaSequencia(), recuperacao.getBytesDescartados());
+            System.out.println("Tentativas pendentes: " + recuperacao.getPendentes().size());
+            conferir(recuperacao.getPendentes().size() == pendentesEsperados, "pendentes deveriam ser as tentativas sem resultado");
+            conferir(recuperacao.getBytesDescartados() > 0, "final cortado deveria ser descartado");
+
+            try (DiarioPagamentos reaberto = DiarioPagamentos.construtor(diretorio).construir()) {                                          // Ao reabrir, encerra as pendentes como falha
+                for (RegistroDiario pendente : reaberto.getRecuperacao().getPendentes()) {
+                    System.out.println("  encerrando " + pendente);
+                    reaberto.registrarResultado(pendente.getTentativa(), EventoDiario.FALHOU);
+                }
+            }
+            LongAdder[] porEvento = new LongAdder[EventoDiario.values().length];
+            for (int i = 0; i < porEvento.length; i++) {
+                porEvento[i] = new LongAdder();
+            }
+            recuperacao = DiarioPagamentos.reproduzir(diretorio, registro -> porEvento[registro.getEvento().ordinal()].increment());
+            conferir(recuperacao.getPendentes().isEmpty(), "depois de encerradas não deveria haver pendentes");
+            conferir(porEvento[0].sum() == 301 + PAGAMENTOS_EM_LOTE + pendentesEsperados, "pagamentos do ProcessadorPagamentos deveriam estar no diário");
+            System.out.printf("Depois de reabrir: %d pendentes | tentativas %d | aprovados %d | recusados %d | falhas %d%n",
+                    recuperacao.getPendentes().size(), porEvento[0].sum(), porEvento[1].sum(), porEvento[2].sum(), porEvento[3].sum());
+        } finally {
+            apagar(base);
+        }
+    }
+
+    private static double medir(DiarioPagamentos diario, int escritores, BigDecimal valor) throws InterruptedException {                       // Pagamentos (2 registros) por segundo
+        LongAdder pagamentos = new LongAdder();
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(escritores);
+        long[] prazo = new long[1];
+        for (int t = 0; t < escritores; t++) {
+            new Thread(() -> {
+                try {
+                    largada.await();
+                    while (System.nanoTime() < prazo[0]) {
+                        long tentativa = diario.registrarTentativa(MetodoPagamento.PIX, valor);
+                        diario.registrarResultado(tentativa, EventoDiario.APROVADO);
+                        pagamentos.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            }).start();
+        }
+        long inicio = System.nanoTime();
+        prazo[0] = inicio + DURACAO_MILLIS * 1_000_000;                                                                                         // Visível às threads pelo countDown da largada
+        largada.countDown();
+        fim.await();
+        return pagamentos.sum() / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+
+    private static int demonstrarQueda(Path diretorio, BigDecimal valor) throws IOException, InterruptedException {                                                 // Pagamentos reais pelo diário, tentativas interrompidas e um registro cortado
+        int pendentes = 0;
+        try (DiarioPagamentos diario = DiarioPagamentos.construtor(diretorio).tamanhoMaximoSegmento(4_096).construir()) {                      // Segmentos pequenos para forçar a rotação
+            FormaPagamento.definirDiario(diario);
+            PrintStream consoleOriginal = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));                                                                    // Silencia as mensagens de realizarPagamento
+            try {
+                for (int i = 0; i < 300; i++) {
+                    try {
+                        new Pix(i % 10 == 0 ? "" : "cliente" + i + "@email.com").realizarPagamento(valor);                                      // 10% recusados
+                    } catch (PagamentoInvalidoException e) {
+                        // Recusa também fica no diário
+                    }
+                }
+                try {
+                    new FormaPagamento() {                                                                                                      // Forma de pagamento fora das três conhecidas: registrada sem método
+                        @Override public void validarPagamento() { }
+                        @Override public CodigoErroPagamento verificar() { return CodigoErroPagamento.OK; }
+                        @Override public void processarPagamento(BigDecimal valor) { }
+                    }.realizarPagamento(valor);
+                } catch (PagamentoInvalidoException e) {
+                    throw new IllegalStateException("Forma de pagamento própria deveria ser aprovada", e);
+                }
+                try (ProcessadorPagamentos processador = ProcessadorPagamentos.construtor().construir()) {                                      // Pagamentos em lote também passam pelo diário
+                    for (int i = 0; i < PAGAMENTOS_EM_LOTE; i++) {
+                        processador.submeter(new Pix("lote" + i + "@email.com"), valor);
+                    }
+                }
+            } finally {
+                System.setOut(consoleOriginal);
+                FormaPagamento.definirDiario(null);
+            }
+            for (int i = 0; i < 3; i++) {                                                                                                       // "Queda" no meio do processamento: tentativa sem resultado
+                diario.registrarTentativa(MetodoPagamento.CARTAO_CREDITO, new BigDecimal("99.90").add(BigDecimal.valueOf(i)));
+                pendentes++;
+            }
+        }
+
+        Path ultimo;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            ultimo = arquivos.max(Comparator.naturalOrder()).orElseThrow();
+        }
+        try (FileChannel canal = FileChannel.open(ultimo, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {                            // Registro gravado pela metade antes da queda
+            canal.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+        return pendentes;
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+
+    private static void apagar(Path base) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(base)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+}
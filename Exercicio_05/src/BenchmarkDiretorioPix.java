@@ -0,0 +1,304 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+public class BenchmarkDiretorioPix {                                                                                                            // Confere o classificador de chaves e mede consultas/s com e sem o cache do diretório
+    private static final int ITERACOES = 2_000_000;
+    private static final int CHAVES_NO_DIRETORIO = 100_000;
+    private static final int CHAVES_QUENTES = 10_000;                                                                                           // 90% das consultas vão para estas
+    private static final int THREADS = 8;
+    private static final long DURACAO_MILLIS = 2_000;
+    private static final long LATENCIA_DIRETORIO_MICROS = 500;                                                                                  // Ida e volta ao diretório remoto
+    private static final com.sun.management.ThreadMXBean MX_THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final Pattern CPF = Pattern.compile("\\d{11}");                                                                              // Classificação "comum" para comparação
+    private static final Pattern CNPJ = Pattern.compile("\\d{14}");
+    private static final Pattern TELEFONE = Pattern.compile("\\+[1-9]\\d{1,14}");
+    private static final Pattern EVP = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Pattern EMAIL = Pattern.compile("[A-Za-z0-9.!#$%&'*+/=?^_`{|}~-]+@[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?"
+            + "(?:\\.[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?)*");
+
+    public static void main(String[] args) throws Exception {
+        conferir();
+
+        System.out.println("\n=== CLASSIFICAÇÃO (" + ITERACOES + " chaves, ns e bytes alocados por chave) ===");
+        String[] amostra = {"52998224725", "11222333000181", "joao.silva@email.com", "+5511999998888",
+                "123e4567-e89b-42d3-a456-426614174000", "52998224724", "nao e chave"};
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            int soma = 0;
+            long b0 = alocado();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += ClassificadorChavePix.classificar(amostra[i % amostra.length]).ordinal();
+            long t1 = System.nanoTime();
+            long b1 = alocado();
+            for (int i = 0; i < ITERACOES; i++) soma += classificarComRegex(amostra[i % amostra.length]).ordinal();
+            long t2 = System.nanoTime();
+            long b2 = alocado();
+            System.out.printf("Rodada %d: passada única %.1f ns, %.1f B | regex %.1f ns, %.0f B (checksum %d)%n", rodada,
+                    (t1 - t0) / (double) ITERACOES, (b1 - b0) / (double) ITERACOES,
+                    (t2 - t1) / (double) ITERACOES, (b2 - b1) / (double) ITERACOES, soma);
+        }
+
+        Path arquivo = Files.createTempFile("diretorio-pix", ".txt");
+        try {
+            String[] chaves = gerarDiretorio(arquivo);
+            String[] inexistentes = new String[1_000];
+            for (int i = 0; i < inexistentes.length; i++) {
+                inexistentes[i] = "sem.cadastro" + i + "@email.com";
+            }
+            DiretorioPixArquivo diretorio = new DiretorioPixArquivo(arquivo, LATENCIA_DIRETORIO_MICROS);
+
+            System.out.println("\n=== CONSULTAS (" + THREADS + " threads, diretório com " + LATENCIA_DIRETORIO_MICROS + " µs de latência) ===");
+            System.out.printf("Direto no diretório: %,.0f consultas/s%n", medir(diretorio, chaves, inexistentes));
+            CacheDiretorioPix cache = new CacheDiretorioPix(diretorio, 20_000, 60_000, 5_000, 16, Clock.systemUTC());
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                long consultasAntes = diretorio.getConsultas();
+                double porSegundo = medir(cache, chaves, inexistentes);
+                System.out.printf("Com cache, rodada %d: %,.0f consultas/s | %,d idas ao diretório%n", rodada, porSegundo,
+                        diretorio.getConsultas() - consultasAntes);
+            }
+            long respondidas = cache.getAcertos() + cache.getAcertosNegativos() + cache.getFaltas() + cache.getRenovacoes() + cache.getCoalescidos();
+            System.out.printf("Acertos %.1f%% (negativos %,d) | faltas %,d | coalescidas %,d | despejados %,d | formato inválido %,d | %,d entradas (limite 20.000)%n",
+                    100.0 * (cache.getAcertos() + cache.getAcertosNegativos()) / respondidas, cache.getAcertosNegativos(),
+                    cache.getFaltas(), cache.getCoalescidos(), cache.getDespejados(), cache.getFormatoInvalido(), cache.tamanho());
+            conferir(cache.tamanho() <= 20_000, "cache deveria respeitar a capacidade");
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static void conferir() throws IOException, InterruptedException {
+        System.out.println("=== CONFERINDO CLASSIFICAÇÃO ===");
+        esperar("52998224725", TipoChavePix.CPF);
+        esperar(comDvCpf("123456789"), TipoChavePix.CPF);
+        esperar("52998224724", TipoChavePix.INVALIDA);                                                                                          // DV errado
+        esperar("11111111111", TipoChavePix.INVALIDA);                                                                                          // Dígitos repetidos
+        esperar("11222333000181", TipoChavePix.CNPJ);
+        esperar(comDvCnpj("12ABC34501DE"), TipoChavePix.CNPJ);                                                                                  // CNPJ alfanumérico
+        esperar("11222333000180", TipoChavePix.INVALIDA);
+        esperar("joao.silva@email.com", TipoChavePix.EMAIL);
+        esperar("a@b", TipoChavePix.EMAIL);
+        esperar("joao@-email.com", TipoChavePix.INVALIDA);
+        esperar("joao@email-.com", TipoChavePix.INVALIDA);
+        esperar("joao@email..com", TipoChavePix.INVALIDA);
+        esperar("@email.com", TipoChavePix.INVALIDA);
+        esperar("joao@@email.com", TipoChavePix.INVALIDA);
+        esperar("+5511999998888", TipoChavePix.TELEFONE);
+        esperar("+0511999998888", TipoChavePix.INVALIDA);
+        esperar("+55119999988881234", TipoChavePix.INVALIDA);                                                                                   // Mais de 15 dígitos
+        esperar("5511999998888", TipoChavePix.INVALIDA);                                                                                        // Sem +
+        esperar("123e4567-e89b-42d3-a456-426614174000", TipoChavePix.EVP);
+        esperar("123E4567-E89B-42D3-A456-426614174000", TipoChavePix.INVALIDA);                                                                 // EVP é em minúsculas
+        esperar("", TipoChavePix.INVALIDA);
+        esperar(null, TipoChavePix.INVALIDA);
+
+        SplittableRandom aleatorio = new SplittableRandom(21);
+        for (int i = 0; i < 10_000; i++) {                                                                                                      // Mesma resposta que a classificação com regex
+            String chave = chaveAleatoria(aleatorio, i);
+            if (aleatorio.nextInt(4) == 0) {
+                chave = chave.substring(0, chave.length() - 1) + (char) ('0' + aleatorio.nextInt(10));
+            }
+            conferir(ClassificadorChavePix.classificar(chave) == classificarComRegex(chave), "divergência com regex em " + chave);
+        }
+        System.out.println("Casos conhecidos e 10.000 chaves aleatórias conferem com a versão com regex");
+
+        System.out.println("\n=== TTL E CACHE NEGATIVO (relógio manual) ===");
+        Path arquivo = Files.createTempFile("diretorio-pix", ".txt");
+        try {
+            Files.write(arquivo, List.of("52998224725;00000000;0001;12345-6;CACC;Maria Souza"));
+            DiretorioPixArquivo diretorio = new DiretorioPixArquivo(arquivo, 0);
+            RelogioManual relogio = new RelogioManual();
+            CacheDiretorioPix cache = new CacheDiretorioPix(diretorio, 100, 60_000, 5_000, 1, relogio);
+
+            conferir(cache.consultar("52998224725").getConta().equals("12345-6"), "conta inicial");
+            conferir(cache.consultar("maria@email.com") == null && cache.consultar("maria@email.com") == null, "chave inexistente");
+            conferir(cache.consultar("nao e chave") == null, "chave com formato inválido");
+            conferir(diretorio.getConsultas() == 2, "segunda consulta da inexistente deveria vir do cache negativo");
+
+            Files.write(arquivo, List.of("52998224725;00000000;0001;99999-9;CACC;Maria Souza",
+                    "maria@email.com;60746948;1234;55555-5;SVGS;Maria Souza"));
+            diretorio.recarregar();
+            relogio.avancar(5_000);                                                                                                             // Só o cache negativo expirou
+            conferir(cache.consultar("maria@email.com") != null, "chave recém-cadastrada deveria aparecer depois do TTL negativo");
+            conferir(cache.consultar("52998224725").getConta().equals("12345-6"), "conta ainda dentro do TTL");
+            relogio.avancar(55_000);
+            conferir(cache.consultar("52998224725").getConta().equals("99999-9"), "conta alterada deveria aparecer depois do TTL");
+            System.out.printf("Cadastro novo visível após 5 s, alteração após 60 s | acertos %d, negativos %d, faltas %d, renovações %d, inválidas %d%n",
+                    cache.getAcertos(), cache.getAcertosNegativos(), cache.getFaltas(), cache.getRenovacoes(), cache.getFormatoInvalido());
+
+            DiretorioPixArquivo lento = new DiretorioPixArquivo(arquivo, 50_000);                                                               // 50 ms por consulta
+            CacheDiretorioPix cacheLento = new CacheDiretorioPix(lento, 100, 60_000, 5_000, 1, relogio);
+            CountDownLatch largada = new CountDownLatch(1);
+            CountDownLatch fim = new CountDownLatch(THREADS);
+            LongAdder contasCertas = new LongAdder();
+            for (int t = 0; t < THREADS; t++) {
+                new Thread(() -> {
+                    try {
+                        largada.await();
+                        if (cacheLento.consultar("52998224725").getConta().equals("99999-9")) contasCertas.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        fim.countDown();
+                    }
+                }).start();
+            }
+            largada.countDown();
+            fim.await();
+            conferir(lento.getConsultas() == 1 && contasCertas.sum() == THREADS, "consultas simultâneas da mesma chave deveriam ir uma vez ao diretório");
+            System.out.printf("%d consultas simultâneas da mesma chave -> %d ida(s) ao diretório | coalescidas %d%n",
+                    THREADS, lento.getConsultas(), cacheLento.getCoalescidos());
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static double medir(DiretorioPix diretorio, String[] chaves, String[] inexistentes) throws InterruptedException {                   // Consultas por segundo com THREADS threads
+        LongAdder consultas = new LongAdder();
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        long[] prazo = new long[1];
+        for (int t = 0; t < THREADS; t++) {
+            long semente = t;
+            new Thread(() -> {
+                SplittableRandom aleatorio = new SplittableRandom(semente);
+                try {
+                    largada.await();
+                    long feitas = 0;
+                    while ((feitas & 63) != 0 || System.nanoTime() < prazo[0]) {
+                        int sorteio = aleatorio.nextInt(100);
+                        String chave = sorteio < 90 ? chaves[aleatorio.nextInt(CHAVES_QUENTES)]                                                  // 90% quentes, 8% frias, 1% inexistentes, 1% inválidas
+                                : sorteio < 98 ? chaves[aleatorio.nextInt(chaves.length)]
+                                : sorteio < 99 ? inexistentes[aleatorio.nextInt(inexistentes.length)] : "chave invalida";
+                        diretorio.consultar(chave);
+                        feitas++;
+                    }
+                    consultas.add(feitas);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            }).start();
+        }
+        long inicio = System.nanoTime();
+        prazo[0] = inicio + DURACAO_MILLIS * 1_000_000;
+        largada.countDown();
+        fim.await();
+        return consultas.sum() / ((System.nanoTime() - inicio) / 1e9);
+    }
+
+    private static String[] gerarDiretorio(Path arquivo) throws IOException {                                                                 // Mistura de CPF, CNPJ, e-mail, telefone e EVP
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        String[] chaves = new String[CHAVES_NO_DIRETORIO];
+        List<String> vistas = new ArrayList<>();
+        java.util.Set<String> unicas = new java.util.HashSet<>();
+        try (BufferedWriter escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            escritor.write("# chave;ispb;agencia;conta;tipoConta;titular\n");
+            int i = 0;
+            while (vistas.size() < CHAVES_NO_DIRETORIO) {
+                String chave = chaveAleatoria(aleatorio, i++);
+                if (!unicas.add(chave)) continue;
+                vistas.add(chave);
+                escritor.write(String.format("%s;%08d;%04d;%06d-%d;CACC;Titular %d%n", chave, aleatorio.nextInt(100_000_000),
+                        aleatorio.nextInt(10_000), aleatorio.nextInt(1_000_000), aleatorio.nextInt(10), i));
+            }
+        }
+        return vistas.toArray(chaves);
+    }
+
+    private static String chaveAleatoria(SplittableRandom aleatorio, int i) {
+        switch (i % 5) {
+            case 0: return comDvCpf(String.format("%09d", aleatorio.nextInt(1_000_000_000)));
+            case 1: return comDvCnpj(String.format("%012d", aleatorio.nextLong(1_000_000_000_000L)));
+            case 2: return "cliente" + aleatorio.nextInt(10_000_000) + "@email.com";
+            case 3: return "+5511" + (900_000_000 + aleatorio.nextInt(100_000_000));
+            default: return new UUID(aleatorio.nextLong() & 0xFFFFFFFFFFFF0FFFL | 0x4000L,
+                    aleatorio.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L).toString();                                              // UUID versão 4
+        }
+    }
+
+    private static TipoChavePix classificarComRegex(String chave) {                                                                             // Regex + substring + parseInt, como se costuma escrever
+        if (chave == null || chave.isEmpty() || chave.length() > 77) return TipoChavePix.INVALIDA;
+        if (CPF.matcher(chave).matches()) return cpfValido(chave) ? TipoChavePix.CPF : TipoChavePix.INVALIDA;
+        if (CNPJ.matcher(chave).matches()) return cnpjValido(chave) ? TipoChavePix.CNPJ : TipoChavePix.INVALIDA;
+        if (TELEFONE.matcher(chave).matches()) return TipoChavePix.TELEFONE;
+        if (EVP.matcher(chave).matches()) return TipoChavePix.EVP;
+        if (EMAIL.matcher(chave).matches()) return TipoChavePix.EMAIL;
+        return TipoChavePix.INVALIDA;
+    }
+
+    private static boolean cpfValido(String cpf) {
+        if (cpf.chars().distinct().count() == 1) return false;
+        return comDvCpf(cpf.substring(0, 9)).equals(cpf);
+    }
+
+    private static boolean cnpjValido(String cnpj) {
+        if (cnpj.chars().distinct().count() == 1) return false;
+        return comDvCnpj(cnpj.substring(0, 12)).equals(cnpj);
+    }
+
+    private static String comDvCpf(String base) {                                                                                              // Acrescenta os dois DVs do CPF
+        String comPrimeiro = base + dv(base, 10, true);
+        return comPrimeiro + dv(comPrimeiro, 11, true);
+    }
+
+    private static String comDvCnpj(String base) {                                                                                             // Acrescenta os dois DVs do CNPJ (letras valem ASCII - 48)
+        String comPrimeiro = base + dv(base, 5, false);
+        return comPrimeiro + dv(comPrimeiro, 6, false);
+    }
+
+    private static int dv(String base, int pesoInicial, boolean cpf) {
+        int soma = 0;
+        int peso = pesoInicial;
+        for (int i = 0; i < base.length(); i++) {
+            soma += (base.charAt(i) - '0') * peso;
+            peso = cpf ? peso - 1 : (peso == 2 ? 9 : peso - 1);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private static long alocado() {
+        return MX_THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private static void esperar(String chave, TipoChavePix esperado) {
+        TipoChavePix obtido = ClassificadorChavePix.classificar(chave);
+        conferir(obtido == esperado, chave + ": esperado " + esperado + ", obtido " + obtido);
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+
+    private static final class RelogioManual extends Clock {                                                                                    // Relógio que só anda quando o teste manda
+        private volatile long millis = 1_000;
+
+        void avancar(long quantidade) {
+            millis += quantidade;
+        }
+
+        @Override public long millis() { return millis; }
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis); }
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zona) { return this; }
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class BenchmarkGatewayPagamento {                                                                                                        // Teste de carga: latência de cauda com o gateway simulado saudável, degradado e recuperado
+    private static final int THREADS = 32;                                                                                                      // Pool de threads do "servidor" que atende os pagamentos
+    private static final long DURACAO_FASE_MILLIS = 2_000;
+    private static final long INTERVALO_NANOS = 10_000_000;                                                                                     // Cada thread faz no máximo uma chamada a cada 10 ms (clientes não martelam o servidor)
+
+    private static final GatewaySimulado.Cenario SAUDAVEL = GatewaySimulado.Cenario.saudavel(10);
+    private static final GatewaySimulado.Cenario DEGRADADO = new GatewaySimulado.Cenario(10, 0.30, 2_000, 0.10, 5_000, 0.20, 0.01);          // Picos de 2 s, travamentos de 5 s e 20% de erros
+
+    public static void main(String[] args) throws InterruptedException {
+        conferirDisjuntor();
+        PrintStream consoleOriginal = System.out;
+        BigDecimal valor = new BigDecimal("150.99");
+
+        GatewaySimulado simuladoDireto = new GatewaySimulado(SAUDAVEL);
+        Pix pixDireto = new Pix("cliente@email.com");
+        pixDireto.setGateway(simuladoDireto);
+
+        GatewaySimulado simuladoProtegido = new GatewaySimulado(SAUDAVEL);
+        GatewayProtegido protegido = GatewayProtegido.construtor(simuladoProtegido)
+                .configurar(MetodoPagamento.PIX, new ConfiguracaoProtecao(100, 2 * THREADS, 20, 0.5, 500))                                     // Timeout 100 ms, no máximo 2 × THREADS simultâneos, abre com 50% de falhas em 20 chamadas
+                .construir();
+        Pix pixProtegido = new Pix("cliente@email.com");
+        pixProtegido.setGateway(protegido);
+
+        consoleOriginal.printf("%-28s | %-11s | %8s | %7s | %7s | %8s | %8s | %9s | %9s%n",
+                "Gateway", "Fase", "Chamadas", "OK", "Recusas", "Indisp.", "p50 ms", "p99 ms", "máx ms");
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));                                                                        // Silencia as mensagens de processarPagamento
+        try {
+            for (String fase : new String[]{"saudável", "degradado", "recuperado"}) {
+                GatewaySimulado.Cenario cenario = fase.equals("degradado") ? DEGRADADO : SAUDAVEL;
+                simuladoDireto.alterarCenario(cenario);
+                simuladoProtegido.alterarCenario(cenario);
+                consoleOriginal.println(executarFase("Sem proteção", fase, pixDireto, valor));
+                consoleOriginal.println(executarFase("Timeout+bulkhead+disjuntor", fase, pixProtegido, valor)
+                        + " | circuito " + protegido.getEstado(MetodoPagamento.PIX));
+            }
+        } finally {
+            System.setOut(consoleOriginal);
+        }
+        System.out.printf("%nProteção: %,d timeouts | %,d falhas | %,d rejeitados pelo circuito | %,d rejeitados pelo bulkhead%n",
+                protegido.getTimeouts(), protegido.getFalhas(), protegido.getRejeitadosPeloCircuito(), protegido.getRejeitadosPeloBulkhead());
+    }
+
+    private static void conferirDisjuntor() throws InterruptedException {                                                                       // Só o resultado do teste decide o estado MEIO_ABERTO
+        DisjuntorCircuito disjuntor = new DisjuntorCircuito(4, 0.5, 50);
+        long lenta = disjuntor.permitir();                                                                                                      // Admitida com o circuito fechado, termina bem depois
+        for (int i = 0; i < 4; i++) {
+            disjuntor.registrarFalha(disjuntor.permitir());
+        }
+        conferir(disjuntor.getEstado() == DisjuntorCircuito.Estado.ABERTO, "4 falhas em 4 chamadas deveriam abrir o circuito");
+        Thread.sleep(60);
+        long teste = disjuntor.permitir();
+        disjuntor.registrarSucesso(lenta);
+        conferir(disjuntor.getEstado() == DisjuntorCircuito.Estado.MEIO_ABERTO, "chamada antiga não pode fechar o circuito no lugar do teste");
+        conferir(disjuntor.permitir() == DisjuntorCircuito.NEGADO, "só um teste por vez");
+        disjuntor.desistir(teste);                                                                                                              // Quem fez o teste foi interrompido: outro teste pode passar
+        long novoTeste = disjuntor.permitir();
+        conferir(novoTeste != DisjuntorCircuito.NEGADO, "desistência deveria liberar o teste");
+        disjuntor.registrarSucesso(novoTeste);
+        conferir(disjuntor.getEstado() == DisjuntorCircuito.Estado.FECHADO, "teste bem-sucedido deveria fechar o circuito");
+        System.out.println("Disjuntor: só o resultado do teste fecha ou reabre o circuito");
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+
+    private static String executarFase(String nome, String fase, FormaPagamento forma, BigDecimal valor) throws InterruptedException {
+        long prazo = System.nanoTime() + DURACAO_FASE_MILLIS * 1_000_000;
+        long[][] latencias = new long[THREADS][];
+        int[] quantidades = new int[THREADS];
+        LongAdder aprovados = new LongAdder();
+        LongAdder recusados = new LongAdder();
+        LongAdder indisponiveis = new LongAdder();
+        Thread[] threads = new Thread[THREADS];
+
+        for (int t = 0; t < THREADS; t++) {
+            int indice = t;
+            threads[t] = new Thread(() -> {
+                long[] minhas = new long[1_024];
+                int quantidade = 0;
+                while (System.nanoTime() < prazo) {
+                    long inicio = System.nanoTime();
+                    try {
+                        forma.processarPagamento(valor);
+                        aprovados.increment();
+                    } catch (GatewayIndisponivelException e) {
+                        indisponiveis.increment();
+                    } catch (PagamentoInvalidoException e) {                                                                            // Recusa do emissor: resposta válida do gateway
+                        recusados.increment();
+                    }
+                    if (quantidade == minhas.length) {
+                        minhas = Arrays.copyOf(minhas, quantidade * 2);
+                    }
+                    long duracao = System.nanoTime() - inicio;
+                    minhas[quantidade++] = duracao;
+                    if (duracao < INTERVALO_NANOS) {
+                        LockSupport.parkNanos(INTERVALO_NANOS - duracao);
+                    }
+                }
+                latencias[indice] = minhas;
+                quantidades[indice] = quantidade;
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = 0;
+        for (int quantidade : quantidades) total += quantidade;
+        long[] todas = new long[total];
+        int posicao = 0;
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(latencias[t], 0, todas, posicao, quantidades[t]);
+            posicao += quantidades[t];
+        }
+        Arrays.sort(todas);
+        return String.format("%-28s | %-11s | %,8d | %,7d | %,7d | %,8d | %8.1f | %9.1f | %9.1f", nome, fase, total,
+                aprovados.sum(), recusados.sum(), indisponiveis.sum(), percentil(todas, 0.50), percentil(todas, 0.99),
+                total == 0 ? 0 : todas[total - 1] / 1_000_000.0);
+    }
+
+    private static double percentil(long[] ordenados, double fracao) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(fracao * ordenados.length) - 1;
+        return ordenados[Math.max(0, indice)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,160 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+public class BenchmarkProcessadorPagamentos {                                                                                                   // Vazão e latência p99 do processador em lote com um processamento lento simulado
+    private static final int PAGAMENTOS = 20_000;
+    private static final int PAGAMENTOS_SEQUENCIAIS = 300;
+    private static final long LATENCIA_MEDIA_NANOS = 5_000_000;                                                                                // ~5 ms por chamada ao "adquirente"
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException, TimeoutException {
+        BigDecimal valor = new BigDecimal("150.99");
+        SplittableRandom aleatorio = new SplittableRandom(5);
+
+        System.out.println("=== SEQUENCIAL (realizarPagamento, um de cada vez) ===");
+        PrintStream consoleOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));                                                                        // Silencia as mensagens de validarPagamento
+        long inicio = System.nanoTime();
+        try {
+            for (int i = 0; i < PAGAMENTOS_SEQUENCIAIS; i++) {
+                try {
+                    criarPagamento(aleatorio, i).realizarPagamento(valor);
+                } catch (PagamentoInvalidoException e) {
+                    // Pagamentos inválidos fazem parte da carga
+                }
+            }
+        } finally {
+            System.setOut(consoleOriginal);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.printf("%,.0f pagamentos/s%n", PAGAMENTOS_SEQUENCIAIS / segundos);
+
+        conferirErroInesperado(valor);
+        conferirCallbackLento(valor);
+
+        System.out.println("\n=== PROCESSADOR EM LOTE (limites: cartão 64, boleto 16, pix 128) ===");
+        try (ProcessadorPagamentos processador = ProcessadorPagamentos.construtor()
+                .capacidade(512)
+                .tamanhoLote(64)
+                .limite(MetodoPagamento.CARTAO_CREDITO, 64)
+                .limite(MetodoPagamento.BOLETO, 16)
+                .limite(MetodoPagamento.PIX, 128)
+                .construir()) {
+            List<CompletableFuture<ResultadoPagamento>> resultados = new ArrayList<>(PAGAMENTOS);
+            List<MetodoPagamento> metodos = new ArrayList<>(PAGAMENTOS);
+            inicio = System.nanoTime();
+            for (int i = 0; i < PAGAMENTOS; i++) {
+                FormaPagamento forma = criarPagamento(aleatorio, i);
+                metodos.add(MetodoPagamento.de(forma));
+                resultados.add(processador.submeter(forma, valor));                                                                             // Bloqueia quando as 512 vagas estão ocupadas
+            }
+            CompletableFuture.allOf(resultados.toArray(new CompletableFuture<?>[0])).join();
+            segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            System.out.printf("%,.0f pagamentos/s | aprovados %,d | recusados na validação %,d | falhas %,d%n",
+                    PAGAMENTOS / segundos, processador.getAprovados(), processador.getRecusados(), processador.getFalhas());
+            for (MetodoPagamento metodo : MetodoPagamento.values()) {
+                long[] latencias = new long[PAGAMENTOS];
+                int quantidade = 0;
+                for (int i = 0; i < PAGAMENTOS; i++) {
+                    if (metodos.get(i) == metodo) {
+                        latencias[quantidade++] = resultados.get(i).get().getLatenciaNanos();
+                    }
+                }
+                latencias = Arrays.copyOf(latencias, quantidade);
+                Arrays.sort(latencias);
+                System.out.printf("%-15s | %,6d pagamentos | p50 %7.1f ms | p99 %7.1f ms%n", metodo, latencias.length,
+                        percentil(latencias, 0.50), percentil(latencias, 0.99));
+            }
+        }
+    }
+
+    private static void conferirCallbackLento(BigDecimal valor) throws InterruptedException, ExecutionException, TimeoutException {             // Callback síncrono numa recusa da validação não pode travar o despachante
+        System.out.println("\n=== CONFERINDO CALLBACK LENTO EM UMA RECUSA ===");
+        CountDownLatch liberarCallback = new CountDownLatch(1);
+        try (ProcessadorPagamentos processador = ProcessadorPagamentos.construtor().tamanhoLote(1).construir()) {
+            try {
+                processador.submeter(new Pix(""), valor).thenAccept(resultado -> {                                                              // Recusado na validação; o callback segura a thread até o segundo pagamento terminar
+                    try {
+                        liberarCallback.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                ResultadoPagamento segundo = processador.submeter(new Pix(""), valor).get(5, TimeUnit.SECONDS);                                // Com o callback no despachante, este nunca seria validado
+                if (segundo.getStatus() != StatusPagamento.RECUSADO) {
+                    throw new IllegalStateException("Segundo pagamento deveria ser recusado: " + segundo);
+                }
+            } finally {
+                liberarCallback.countDown();                                                                                                    // Antes de close(), que espera o callback terminar
+            }
+        }
+        System.out.println("Callback lento não atrasou a validação dos outros pagamentos.");
+    }
+
+    private static void conferirErroInesperado(BigDecimal valor) throws InterruptedException, ExecutionException {                           // Uma falha inesperada no processamento não pode prender a vaga nem o future; close() pode ser repetido
+        System.out.println("\n=== CONFERINDO ERRO INESPERADO E CLOSE REPETIDO ===");
+        ProcessadorPagamentos processador = ProcessadorPagamentos.construtor().capacidade(2).construir();
+        try {
+            CompletableFuture<ResultadoPagamento> resultado = processador.submeter(new Pix("cliente@email.com") {
+                @Override
+                public void processarPagamento(BigDecimal valor) {
+                    throw new IllegalStateException("adquirente quebrado");                                                                     // RuntimeException: caminho FALHOU sem despejar stack trace na saída
+                }
+            }, valor);
+            if (resultado.get().getStatus() != StatusPagamento.FALHOU) {
+                throw new IllegalStateException("Falha no processamento deveria concluir como FALHOU: " + resultado.get());
+            }
+        } finally {
+            processador.close();
+        }
+        processador.close();                                                                                                                    // Segunda chamada não pode travar
+        System.out.println("Falha inesperada concluiu o pagamento como FALHOU e close() repetido retornou.");
+    }
+
+    private static FormaPagamento criarPagamento(SplittableRandom aleatorio, int i) {                                                          // Mistura de métodos, com 5% de dados inválidos
+        boolean invalido = aleatorio.nextInt(20) == 0;
+        long latencia = LATENCIA_MEDIA_NANOS / 2 + aleatorio.nextLong(LATENCIA_MEDIA_NANOS);
+        switch (i % 3) {
+            case 0:
+                return new CartaoCredito(invalido ? "1234567812345678" : "4111111111111111", "Cliente " + i, "12/35", "123") {
+                    @Override
+                    public void processarPagamento(BigDecimal valor) {
+                        LockSupport.parkNanos(latencia);                                                                                        // Adquirente lento, sem println
+                    }
+                };
+            case 1:
+                return new Boleto(invalido ? "123" : "00192373700000010000500940144816060680935031") {
+                    @Override
+                    public void processarPagamento(BigDecimal valor) {
+                        LockSupport.parkNanos(latencia);
+                    }
+                };
+            default:
+                return new Pix(invalido ? "" : "cliente" + i + "@email.com") {
+                    @Override
+                    public void processarPagamento(BigDecimal valor) {
+                        LockSupport.parkNanos(latencia);
+                    }
+                };
+        }
+    }
+
+    private static double percentil(long[] ordenados, double fracao) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(fracao * ordenados.length) - 1;
+        return ordenados[Math.max(0, indice)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,106 @@
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+public class BenchmarkValidacaoPagamento {                                                                                                      // Confere os novos validadores e compara com a validação anterior baseada em String.matches
+    private static final int ITERACOES = 2_000_000;
+
+    private static final String[] CARTOES = {"4111111111111111", "1234567812345678", "4111 1111 1111 1111", "5500000000000004"};
+    private static final String[] BOLETOS = {
+            "00192373700000010000500940144816060680935031",                                                                                      // Bancário válido
+            "00193373700000010000500940144816060680935031",                                                                                      // Bancário com DV errado
+            "81630000001500000000000000000000000000123456",                                                                                      // Arrecadação, módulo 10
+            "818200000024599012345670890123456785901234567894",                                                                                  // Linha digitável de arrecadação, módulo 11
+            "123"};
+    private static final String[] CHAVES_PIX = {"joao.silva@email.com", "", "   ", "1234", "+5511999998888"};
+
+    public static void main(String[] args) {
+        conferir();
+
+        System.out.println("\n=== DESEMPENHO (" + ITERACOES + " validações de cada tipo, ns por validação) ===");
+        ValidadorPagamento validador = new ValidadorPagamento(Clock.systemDefaultZone());
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            int soma = 0;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += validarCartaoComRegex(CARTOES[i & 3], "João Silva", "12/35", "123");
+            long t1 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += validador.validarCartao(CARTOES[i & 3], "João Silva", "12/35", "123").ordinal();
+            long t2 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += validarBoletoComRegex(BOLETOS[i % BOLETOS.length]);
+            long t3 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += ValidadorPagamento.validarBoleto(BOLETOS[i % BOLETOS.length]).ordinal();
+            long t4 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += validarPixAnterior(CHAVES_PIX[i % CHAVES_PIX.length]);
+            long t5 = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) soma += ValidadorPagamento.validarChavePix(CHAVES_PIX[i % CHAVES_PIX.length]).ordinal();
+            long t6 = System.nanoTime();
+            System.out.printf("Rodada %d: cartão %.1f -> %.1f | boleto %.1f -> %.1f | pix %.1f -> %.1f (checksum %d)%n", rodada,
+                    porValidacao(t0, t1), porValidacao(t1, t2), porValidacao(t2, t3), porValidacao(t3, t4),
+                    porValidacao(t4, t5), porValidacao(t5, t6), soma);
+        }
+        System.out.println("(anterior -> novo; os novos também fazem Luhn, expiração e dígitos verificadores)");
+    }
+
+    private static void conferir() {                                                                                                            // Casos conhecidos, com relógio fixo em 16/10/2026
+        System.out.println("=== CONFERINDO CÓDIGOS DE ERRO ===");
+        ValidadorPagamento validador = new ValidadorPagamento(Clock.fixed(Instant.parse("2026-10-16T12:00:00Z"), ZoneOffset.UTC));
+        esperar(validador.validarCartao("4111111111111111", "João", "12/35", "123"), CodigoErroPagamento.OK);
+        esperar(validador.validarCartao("1234567812345678", "João", "12/35", "123"), CodigoErroPagamento.CARTAO_LUHN_INVALIDO);
+        esperar(validador.validarCartao("4111", "João", "12/35", "123"), CodigoErroPagamento.CARTAO_NUMERO_INVALIDO);
+        esperar(validador.validarCartao(null, "João", "12/35", "123"), CodigoErroPagamento.CARTAO_NUMERO_INVALIDO);
+        esperar(validador.validarCartao("4111111111111111", "  ", "12/35", "123"), CodigoErroPagamento.TITULAR_OBRIGATORIO);
+        esperar(validador.validarCartao("4111111111111111", "João", "1/35", "123"), CodigoErroPagamento.VALIDADE_FORMATO_INVALIDO);
+        esperar(validador.validarCartao("4111111111111111", "João", "13/35", "123"), CodigoErroPagamento.VALIDADE_MES_INVALIDO);
+        esperar(validador.validarCartao("4111111111111111", "João", "09/26", "123"), CodigoErroPagamento.CARTAO_EXPIRADO);
+        esperar(validador.validarCartao("4111111111111111", "João", "10/26", "123"), CodigoErroPagamento.OK);                                 // Vale até o fim do mês
+        esperar(validador.validarCartao("4111111111111111", "João", "12/35", "12a"), CodigoErroPagamento.CVV_INVALIDO);
+        esperar(ValidadorPagamento.validarBoleto(BOLETOS[0]), CodigoErroPagamento.OK);
+        esperar(ValidadorPagamento.validarBoleto(BOLETOS[1]), CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO);
+        esperar(ValidadorPagamento.validarBoleto(BOLETOS[2]), CodigoErroPagamento.OK);
+        esperar(ValidadorPagamento.validarBoleto(BOLETOS[3]), CodigoErroPagamento.OK);
+        esperar(ValidadorPagamento.validarBoleto("818200000024599012345670890123456785901234567895"), CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO);
+        esperar(ValidadorPagamento.validarBoleto("018200000024599012345670890123456785901234567894"), CodigoErroPagamento.BOLETO_TIPO_INVALIDO);
+        esperar(ValidadorPagamento.validarBoleto(BOLETOS[4]), CodigoErroPagamento.BOLETO_CODIGO_INVALIDO);
+        esperar(ValidadorPagamento.validarChavePix(""), CodigoErroPagamento.PIX_CHAVE_OBRIGATORIA);
+        esperar(ValidadorPagamento.validarChavePix("1234"), CodigoErroPagamento.PIX_CHAVE_CURTA);
+        esperar(ValidadorPagamento.validarChavePix("joao.silva@email.com"), CodigoErroPagamento.OK);
+        esperar(ValidadorPagamento.validarChavePix("joao silva"), CodigoErroPagamento.PIX_CHAVE_FORMATO_INVALIDO);
+
+        try {
+            new CartaoCredito("1234567812345678", "João", "12/35", "123").validarPagamento();
+            throw new IllegalStateException("Cartão com Luhn inválido deveria lançar exceção");
+        } catch (PagamentoInvalidoException e) {
+            System.out.println("validarPagamento continua lançando a exceção: " + e.getMessage());
+        }
+        System.out.println("Todos os códigos conferem.");
+    }
+
+    private static void esperar(CodigoErroPagamento obtido, CodigoErroPagamento esperado) {
+        if (obtido != esperado) {
+            throw new IllegalStateException("Esperado " + esperado + ", obtido " + obtido);
+        }
+    }
+
+    private static double porValidacao(long inicio, long fim) {
+        return (fim - inicio) / (double) ITERACOES;
+    }
+
+    // Validação anterior (copiada de CartaoCredito, Boleto e Pix): 0 = válido, 1 = inválido
+
+    private static int validarCartaoComRegex(String numeroCartao, String nomeTitular, String dataValidade, String cvv) {
+        if (numeroCartao == null || !numeroCartao.matches("\\d{16}")) return 1;
+        if (nomeTitular == null || nomeTitular.trim().isEmpty()) return 1;
+        if (dataValidade == null || !dataValidade.matches("\\d{2}/\\d{2}")) return 1;
+        if (cvv == null || !cvv.matches("\\d{3}")) return 1;
+        return 0;
+    }
+
+    private static int validarBoletoComRegex(String codigoBarras) {
+        return codigoBarras == null || (!codigoBarras.matches("\\d{44}") && !codigoBarras.matches("\\d{48}")) ? 1 : 0;
+    }
+
+    private static int validarPixAnterior(String chavePix) {
+        if (chavePix == null || chavePix.trim().isEmpty()) return 1;
+        return chavePix.length() < 5 ? 1 : 0;
+    }
+}
@@ -0,0 +1,187 @@
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+class CacheIdempotencia {                                                                                                                       // Garante que cada chave de idempotência execute realizarPagamento uma única vez
+    private final Segmento[] segmentos;                                                                                                         // Lock por segmento: chaves diferentes raramente disputam o mesmo lock
+    private final int mascara;
+    private final long ttlMillis;                                                                                                               // Por quanto tempo um resultado concluído continua valendo
+    private final Clock relogio;
+
+    private final LongAdder acertos = new LongAdder();                                                                                          // Chave já concluída: devolve o resultado guardado
+    private final LongAdder faltas = new LongAdder();                                                                                           // Chave nova (ou expirada): executa o pagamento
+    private final LongAdder coalescidos = new LongAdder();                                                                                      // Chave em andamento: espera a mesma execução
+    private final LongAdder despejados = new LongAdder();                                                                                       // Resultados removidos por LRU
+
+    public CacheIdempotencia(int capacidade, long ttlMillis, int quantidadeSegmentos, Clock relogio) {
+        if (capacidade <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Capacidade e TTL devem ser positivos");
+        }
+        if (quantidadeSegmentos <= 0 || Integer.bitCount(quantidadeSegmentos) != 1) {
+            throw new IllegalArgumentException("Quantidade de segmentos deve ser uma potência de 2");
+        }
+        this.segmentos = new Segmento[quantidadeSegmentos];
+        int capacidadePorSegmento = Math.max(1, capacidade / quantidadeSegmentos);
+        for (int i = 0; i < quantidadeSegmentos; i++) {
+            segmentos[i] = new Segmento(capacidadePorSegmento);
+        }
+        this.mascara = quantidadeSegmentos - 1;
+        this.ttlMillis = ttlMillis;
+        this.relogio = relogio;
+    }
+
+    public void realizarPagamento(String chave, FormaPagamento forma, BigDecimal valor) throws PagamentoInvalidoException {                    // Mesmo contrato de FormaPagamento.realizarPagamento, mas no máximo uma vez por chave
+        Objects.requireNonNull(chave, "Chave de idempotência não pode ser nula");
+        Segmento segmento = segmentos[espalhar(chave.hashCode()) & mascara];
+        Execucao execucao;
+        boolean executarAqui = false;
+
+        segmento.lock.lock();
+        try {
+            execucao = segmento.entradas.get(chave);                                                                                            // get também atualiza a ordem do LRU
+            if (execucao != null && execucao.expirou(relogio.millis(), ttlMillis)) {
+                segmento.entradas.remove(chave);
+                execucao = null;
+            }
+            if (execucao == null) {
+                execucao = new Execucao(forma.getClass(), valor);
+                segmento.entradas.put(chave, execucao);
+                executarAqui = true;
+            }
+        } finally {
+            segmento.lock.unlock();
+        }
+
+        if (executarAqui) {
+            faltas.increment();
+            executar(segmento, chave, execucao, forma, valor);
+            return;
+        }
+
+        if (execucao.concluidaEm != 0) {
+            acertos.increment();
+        } else {
+            coalescidos.increment();
+        }
+        if (execucao.tipoForma != forma.getClass() || execucao.valor.compareTo(valor) != 0) {                                                   // Mesma chave com outro pagamento é erro do cliente
+            throw new IllegalArgumentException("Chave de idempotência já usada para outro pagamento: " + chave);
+        }
+        execucao.aguardar();
+    }
+
+    private void executar(Segmento segmento, String chave, Execucao execucao, FormaPagamento forma, BigDecimal valor)
+            throws PagamentoInvalidoException {
+        try {
+            forma.realizarPagamento(valor);
+            execucao.concluir(relogio.millis(), null);
+        } catch (PagamentoInvalidoException e) {                                                                                                // Recusa é definitiva: repetições recebem a mesma recusa
+            execucao.concluir(relogio.millis(), e);
+            throw e;
+        } catch (Throwable e) {                                                                                                                 // Falha inesperada (inclusive Error) não fica guardada: a próxima tentativa executa de novo
+            segmento.lock.lock();
+            try {
+                segmento.entradas.remove(chave, execucao);
+            } finally {
+                segmento.lock.unlock();
+            }
+            execucao.resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long getAcertos() { return acertos.sum(); }
+    public long getFaltas() { return faltas.sum(); }
+    public long getCoalescidos() { return coalescidos.sum(); }
+    public long getDespejados() { return despejados.sum(); }
+
+    public int tamanho() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            segmento.lock.lock();
+            try {
+                total += segmento.entradas.size();
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    private static int espalhar(int hash) {                                                                                                     // Mistura os bits altos nos baixos antes de escolher o segmento
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Segmento {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Execucao> entradas;
+
+        Segmento(int capacidade) {
+            this.entradas = new LinkedHashMap<>(capacidade * 4 / 3 + 1, 0.75f, true) {                                                         // Ordem de acesso: a primeira entrada é a menos usada
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Execucao> maisAntiga) {
+                    if (size() <= capacidade) {
+                        return false;
+                    }
+                    if (maisAntiga.getValue().concluidaEm != 0) {
+                        despejados.increment();
+                        return true;
+                    }
+                    Iterator<Execucao> execucoes = values().iterator();                                                                         // Execução em andamento nunca é despejada: sai a concluída menos usada
+                    while (execucoes.hasNext()) {
+                        if (execucoes.next().concluidaEm != 0) {
+                            execucoes.remove();
+                            despejados.increment();
+                            break;
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final class Execucao {                                                                                                       // Execução em andamento ou concluída de uma chave
+        final Class<?> tipoForma;
+        final BigDecimal valor;
+        final CompletableFuture<Void> resultado = new CompletableFuture<>();
+        volatile long concluidaEm;                                                                                                              // 0 = em andamento
+
+        Execucao(Class<?> tipoForma, BigDecimal valor) {
+            this.tipoForma = tipoForma;
+            this.valor = valor;
+        }
+
+        boolean expirou(long agora, long ttlMillis) {
+            long concluida = concluidaEm;
+            return concluida != 0 && agora - concluida >= ttlMillis;
+        }
+
+        void concluir(long agora, PagamentoInvalidoException recusa) {
+            concluidaEm = Math.max(1, agora);
+            if (recusa == null) {
+                resultado.complete(null);
+            } else {
+                resultado.completeExceptionally(recusa);
+            }
+        }
+
+        void aguardar() throws PagamentoInvalidoException {                                                                                     // Repete o desfecho da execução original
+            try {
+                resultado.join();
+            } catch (CompletionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof PagamentoInvalidoException) {
+                    throw new PagamentoInvalidoException(causa.getMessage());
+                }
+                throw new IllegalStateException("Execução original do pagamento falhou", causa);
+            }
+        }
+    }
+}
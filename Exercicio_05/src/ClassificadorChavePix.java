@@ -0,0 +1,125 @@
+enum TipoChavePix {
+    CPF,                                                                                                                                        // 11 dígitos com DV
+    CNPJ,                                                                                                                                       // 14 posições com DV (raiz alfanumérica aceita)
+    EMAIL,
+    TELEFONE,                                                                                                                                   // E.164: + e até 15 dígitos
+    EVP,                                                                                                                                        // Chave aleatória: UUID em minúsculas
+    INVALIDA
+}
+
+final class ClassificadorChavePix {                                                                                                             // Descobre o tipo da chave PIX em uma única passada, sem regex e sem alocação
+    private static final int TAMANHO_MAXIMO_EMAIL = 77;
+    private static final int TAMANHO_MAXIMO_ROTULO = 63;                                                                                        // Cada parte do domínio do e-mail
+    private static final int[] PESOS_CPF_1 = {10, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] PESOS_CPF_2 = {11, 10, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] PESOS_CNPJ_1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] PESOS_CNPJ_2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final boolean[] LOCAL_EMAIL = new boolean[128];                                                                              // Caracteres aceitos antes do @
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) LOCAL_EMAIL[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) LOCAL_EMAIL[c] = true;
+        for (char c = '0'; c <= '9'; c++) LOCAL_EMAIL[c] = true;
+        for (char c : ".!#$%&'*+/=?^_`{|}~-".toCharArray()) LOCAL_EMAIL[c] = true;
+    }
+
+    private ClassificadorChavePix() {
+    }
+
+    public static TipoChavePix classificar(CharSequence chave) {
+        if (chave == null) {
+            return TipoChavePix.INVALIDA;
+        }
+        int tamanho = chave.length();
+        if (tamanho == 0 || tamanho > TAMANHO_MAXIMO_EMAIL) {
+            return TipoChavePix.INVALIDA;
+        }
+
+        boolean somenteDigitos = true;
+        boolean digitosIguais = true;                                                                                                           // 111.111.111-11 passa no cálculo do DV, mas não é documento
+        boolean cnpj = tamanho == 14;
+        boolean telefone = tamanho >= 3 && tamanho <= 16 && chave.charAt(0) == '+';
+        boolean evp = tamanho == 36;
+        boolean email = true;
+        int somaCpf1 = 0, somaCpf2 = 0, somaCnpj1 = 0, somaCnpj2 = 0;
+        int dvLido1 = 0, dvLido2 = 0;                                                                                                           // Os dois últimos dígitos do documento
+        int arroba = -1;                                                                                                                        // Posição do @
+        int tamanhoRotulo = 0;
+        boolean hifenNoFim = false;
+        char primeiro = chave.charAt(0);
+
+        for (int i = 0; i < tamanho; i++) {
+            char c = chave.charAt(i);
+            boolean digito = c >= '0' && c <= '9';
+            boolean minuscula = c >= 'a' && c <= 'z';
+
+            if (!digito) somenteDigitos = false;                                                                                                // CPF
+            if (c != primeiro) digitosIguais = false;
+            if (i < 14) {
+                int valor = c - '0';                                                                                                            // No CNPJ alfanumérico, letras valem código ASCII - 48
+                if (i < 9) somaCpf1 += valor * PESOS_CPF_1[i];
+                if (i < 10) somaCpf2 += valor * PESOS_CPF_2[i];
+                if (i < 12) somaCnpj1 += valor * PESOS_CNPJ_1[i];
+                if (i < 13) somaCnpj2 += valor * PESOS_CNPJ_2[i];
+                if (i == tamanho - 2) dvLido1 = valor;
+                if (i == tamanho - 1) dvLido2 = valor;
+            }
+
+            if (cnpj && !(digito || (i < 12 && c >= 'A' && c <= 'Z'))) cnpj = false;                                                            // CNPJ: 12 posições alfanuméricas + 2 dígitos
+            if (telefone && i > 0 && (!digito || (i == 1 && c == '0'))) telefone = false;                                                       // Telefone: +, dígito de 1 a 9, depois dígitos
+            if (evp) {                                                                                                                          // EVP: 8-4-4-4-12 em hexadecimal minúsculo
+                evp = (i == 8 || i == 13 || i == 18 || i == 23) ? c == '-' : digito || (c >= 'a' && c <= 'f');
+            }
+
+            if (email) {
+                if (arroba < 0) {                                                                                                               // Parte local
+                    if (c == '@') {
+                        arroba = i;
+                        email = i > 0;
+                    } else {
+                        email = c < 128 && LOCAL_EMAIL[c];
+                    }
+                } else if (c == '.') {                                                                                                          // Domínio: rótulos separados por ponto
+                    email = tamanhoRotulo > 0 && !hifenNoFim;
+                    tamanhoRotulo = 0;
+                } else if (digito || minuscula || (c >= 'A' && c <= 'Z')) {
+                    email = ++tamanhoRotulo <= TAMANHO_MAXIMO_ROTULO;
+                    hifenNoFim = false;
+                } else if (c == '-') {
+                    email = tamanhoRotulo > 0;                                                                                                  // Rótulo não começa com hífen
+                    tamanhoRotulo++;
+                    hifenNoFim = true;
+                } else {
+                    email = false;
+                }
+            }
+        }
+
+        if (tamanho == 11 && somenteDigitos) {
+            return !digitosIguais && dvLido1 == dvCpf(somaCpf1) && dvLido2 == dvCpf(somaCpf2) ? TipoChavePix.CPF : TipoChavePix.INVALIDA;
+        }
+        if (cnpj) {
+            return !digitosIguais && dvLido1 == dvCnpj(somaCnpj1) && dvLido2 == dvCnpj(somaCnpj2) ? TipoChavePix.CNPJ : TipoChavePix.INVALIDA;
+        }
+        if (telefone) {
+            return TipoChavePix.TELEFONE;
+        }
+        if (evp) {
+            return TipoChavePix.EVP;
+        }
+        if (email && arroba > 0 && tamanhoRotulo > 0 && !hifenNoFim) {
+            return TipoChavePix.EMAIL;
+        }
+        return TipoChavePix.INVALIDA;
+    }
+
+    private static int dvCpf(int soma) {
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+
+    private static int dvCnpj(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+}
@@ -0,0 +1,28 @@
+public enum CodigoErroPagamento {                                                                                                                // Códigos de erro das validações de pagamento (permite validar sem lançar exceções)
+    OK("Dados válidos"),
+    CARTAO_NUMERO_INVALIDO("Número do cartão inválido. Deve conter 16 dígitos."),
+    CARTAO_LUHN_INVALIDO("Número do cartão inválido. Dígito verificador não confere."),
+    TITULAR_OBRIGATORIO("Nome do titular é obrigatório."),
+    VALIDADE_FORMATO_INVALIDO("Data de validade inválida. Use o formato MM/AA."),
+    VALIDADE_MES_INVALIDO("Data de validade inválida. Mês deve estar entre 01 e 12."),
+    CARTAO_EXPIRADO("Cartão expirado."),
+    CVV_INVALIDO("CVV inválido. Deve conter 3 dígitos."),
+    BOLETO_CODIGO_INVALIDO("Código de barras inválido. Deve conter 44 ou 48 dígitos."),
+    BOLETO_TIPO_INVALIDO("Linha digitável de 48 dígitos deve ser de arrecadação (começar com 8)."),
+    BOLETO_DIGITO_VERIFICADOR_INVALIDO("Código de barras inválido. Dígito verificador não confere."),
+    BOLETO_VALOR_DIVERGENTE("Valor do título diferente do valor no código de barras."),
+    CNAB_REGISTRO_INVALIDO("Registro CNAB incompleto ou com campo numérico inválido."),
+    PIX_CHAVE_OBRIGATORIA("Chave PIX é obrigatória."),
+    PIX_CHAVE_CURTA("Chave PIX inválida. Muito curta."),
+    PIX_CHAVE_FORMATO_INVALIDO("Chave PIX inválida. Use CPF, CNPJ, e-mail, telefone (+55...) ou chave aleatória.");
+
+    private final String mensagem;                                                                                                              // Mensagem usada quando o erro precisa virar exceção
+
+    CodigoErroPagamento(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -0,0 +1,262 @@
+import java.time.Clock;
+import java.time.LocalDate;
+
+enum TipoBoleto {
+    BANCARIO,                                                                                                                                   // Cobrança bancária (banco, moeda, vencimento, valor)
+    ARRECADACAO                                                                                                                                 // Contas de consumo e tributos (começa com 8)
+}
+
+enum FormatoBoleto {
+    CODIGO_BARRAS,                                                                                                                              // 44 dígitos
+    LINHA_DIGITAVEL_BANCARIA,                                                                                                                   // 47 dígitos em 5 campos
+    LINHA_DIGITAVEL_ARRECADACAO                                                                                                                 // 48 dígitos em 4 campos
+}
+
+final class BoletoDecodificado {                                                                                                                // Campos de um boleto; o mesmo objeto é reaproveitado a cada decodificação (sem alocação)
+    public static final long SEM_VENCIMENTO = Long.MIN_VALUE;
+
+    final byte[] digitos = new byte[48];                                                                                                        // Dígitos da entrada, sem separadores
+    final byte[] barras = new byte[44];                                                                                                         // Código de barras equivalente (a linha digitável é convertida)
+    TipoBoleto tipo;
+    FormatoBoleto formato;
+    int banco;                                                                                                                                  // Bancário
+    int moeda;                                                                                                                                  // Bancário: 9 = Real
+    int fatorVencimento;                                                                                                                        // Bancário: 0 = sem vencimento
+    long vencimentoDiaEpoca = SEM_VENCIMENTO;                                                                                                   // Dias desde 01/01/1970
+    int segmento;                                                                                                                               // Arrecadação: 1 prefeituras, 2 saneamento, 3 energia e gás...
+    int identificadorValor;                                                                                                                     // Arrecadação: 6/8 valor em reais, 7/9 valor de referência
+    int digitoVerificador;                                                                                                                      // DV geral do código de barras
+    long valorCentavos;
+
+    public TipoBoleto getTipo() { return tipo; }
+    public FormatoBoleto getFormato() { return formato; }
+    public int getBanco() { return banco; }
+    public int getMoeda() { return moeda; }
+    public int getFatorVencimento() { return fatorVencimento; }
+    public long getVencimentoDiaEpoca() { return vencimentoDiaEpoca; }
+    public int getSegmento() { return segmento; }
+    public int getIdentificadorValor() { return identificadorValor; }
+    public int getDigitoVerificador() { return digitoVerificador; }
+    public long getValorCentavos() { return valorCentavos; }
+
+    public LocalDate getVencimento() {                                                                                                          // null quando o boleto não tem vencimento no código
+        return vencimentoDiaEpoca == SEM_VENCIMENTO ? null : LocalDate.ofEpochDay(vencimentoDiaEpoca);
+    }
+
+    public StringBuilder anexarCodigoBarras(StringBuilder destino) {                                                                            // Escreve os 44 dígitos do código de barras no destino (sem criar String)
+        for (byte digito : barras) {
+            destino.append((char) ('0' + digito));
+        }
+        return destino;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder("BoletoDecodificado{tipo=").append(tipo).append(", formato=").append(formato);
+        if (tipo == TipoBoleto.BANCARIO) {
+            texto.append(", banco=").append(banco).append(", moeda=").append(moeda).append(", vencimento=").append(getVencimento());
+        } else {
+            texto.append(", segmento=").append(segmento).append(", identificadorValor=").append(identificadorValor);
+        }
+        texto.append(", valorCentavos=").append(valorCentavos).append(", codigoBarras=");
+        return anexarCodigoBarras(texto).append('}').toString();
+    }
+}
+
+final class DecodificadorBoleto {                                                                                                               // Lê código de barras e linha digitável direto de CharSequence ou byte[], sem substring
+    private static final DecodificadorBoleto PADRAO = new DecodificadorBoleto(Clock.systemUTC());
+    private static final long BASE_FATOR = LocalDate.of(1997, 10, 7).toEpochDay();                                                              // Fator 0; o fator volta a 1000 a cada 9000 dias (9999 -> 1000 em 22/02/2025)
+    private static final int CICLO_FATOR = 9_000;
+    private static final long MILLIS_POR_DIA = 86_400_000L;
+    private static final int[] PESOS_BANCARIO = new int[44];                                                                                    // Peso de cada posição no DV geral bancário (0 na posição do próprio DV)
+
+    static {
+        int peso = 2;
+        for (int i = 43; i >= 0; i--) {
+            if (i == 4) continue;
+            PESOS_BANCARIO[i] = peso;
+            peso = peso == 9 ? 2 : peso + 1;
+        }
+    }
+
+    private final Clock relogio;                                                                                                                // Escolhe o ciclo do fator de vencimento mais próximo da data atual
+
+    public DecodificadorBoleto(Clock relogio) {
+        this.relogio = relogio;
+    }
+
+    public static DecodificadorBoleto padrao() {
+        return PADRAO;
+    }
+
+    public CodigoErroPagamento decodificar(CharSequence codigo, BoletoDecodificado destino) {                                                   // Aceita pontos e espaços da linha digitável formatada
+        if (codigo == null) {
+            return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+        }
+        int quantidade = 0;
+        for (int i = 0; i < codigo.length(); i++) {
+            char c = codigo.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (quantidade == destino.digitos.length) {
+                    return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+                }
+                destino.digitos[quantidade++] = (byte) (c - '0');
+            } else if (c != '.' && c != ' ') {
+                return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+            }
+        }
+        return interpretar(destino, quantidade);
+    }
+
+    public CodigoErroPagamento decodificar(byte[] dados, int inicio, int fim, BoletoDecodificado destino) {                                    // Bytes ASCII (ex.: um campo de um registro CNAB)
+        int quantidade = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte c = dados[i];
+            if (c >= '0' && c <= '9') {
+                if (quantidade == destino.digitos.length) {
+                    return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+                }
+                destino.digitos[quantidade++] = (byte) (c - '0');
+            } else if (c != '.' && c != ' ') {
+                return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+            }
+        }
+        return interpretar(destino, quantidade);
+    }
+
+    private CodigoErroPagamento interpretar(BoletoDecodificado boleto, int quantidade) {
+        byte[] d = boleto.digitos;
+        byte[] barras = boleto.barras;
+        switch (quantidade) {
+            case 44:
+                System.arraycopy(d, 0, barras, 0, 44);
+                boleto.formato = FormatoBoleto.CODIGO_BARRAS;
+                break;
+            case 47:                                                                                                                            // AAABC.CCCCX DDDDD.DDDDDY EEEEE.EEEEEZ K UUUUVVVVVVVVVV
+                if (modulo10(d, 0, 9) != d[9] || modulo10(d, 10, 20) != d[20] || modulo10(d, 21, 31) != d[31]) {
+                    return CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO;
+                }
+                System.arraycopy(d, 0, barras, 0, 4);                                                                                           // Banco e moeda
+                barras[4] = d[32];                                                                                                              // DV geral
+                System.arraycopy(d, 33, barras, 5, 14);                                                                                         // Fator de vencimento e valor
+                System.arraycopy(d, 4, barras, 19, 5);                                                                                          // Campo livre, em três pedaços
+                System.arraycopy(d, 10, barras, 24, 10);
+                System.arraycopy(d, 21, barras, 34, 10);
+                boleto.formato = FormatoBoleto.LINHA_DIGITAVEL_BANCARIA;
+                break;
+            case 48:                                                                                                                            // 4 campos de 11 dígitos, cada um seguido do seu DV
+                if (d[0] != 8) {
+                    return CodigoErroPagamento.BOLETO_TIPO_INVALIDO;
+                }
+                boolean modulo10 = usaModulo10(d[2]);
+                for (int campo = 0; campo < 4; campo++) {
+                    int inicio = campo * 12;
+                    if (moduloArrecadacao(d, inicio, inicio + 11, -1, modulo10) != d[inicio + 11]) {
+                        return CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO;
+                    }
+                    System.arraycopy(d, inicio, barras, campo * 11, 11);
+                }
+                boleto.formato = FormatoBoleto.LINHA_DIGITAVEL_ARRECADACAO;
+                break;
+            default:
+                return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+        }
+
+        if (barras[0] == 8 && boleto.formato != FormatoBoleto.LINHA_DIGITAVEL_BANCARIA) {                                                       // Arrecadação: 8, segmento, identificador de valor, DV geral, valor (11), empresa e campo livre
+            if (moduloArrecadacao(barras, 0, 44, 3, usaModulo10(barras[2])) != barras[3]) {
+                return CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO;
+            }
+            boleto.tipo = TipoBoleto.ARRECADACAO;
+            boleto.segmento = barras[1];
+            boleto.identificadorValor = barras[2];
+            boleto.digitoVerificador = barras[3];
+            boleto.valorCentavos = numero(barras, 4, 15);
+            boleto.banco = 0;
+            boleto.moeda = 0;
+            boleto.fatorVencimento = 0;
+            boleto.vencimentoDiaEpoca = BoletoDecodificado.SEM_VENCIMENTO;
+            return CodigoErroPagamento.OK;
+        }
+        if (moduloOnzeBancario(barras) != barras[4]) {
+            return CodigoErroPagamento.BOLETO_DIGITO_VERIFICADOR_INVALIDO;
+        }
+        boleto.tipo = TipoBoleto.BANCARIO;                                                                                                      // Banco (3), moeda, DV geral, fator (4), valor (10), campo livre (25)
+        boleto.banco = (int) numero(barras, 0, 3);
+        boleto.moeda = barras[3];
+        boleto.digitoVerificador = barras[4];
+        boleto.fatorVencimento = (int) numero(barras, 5, 9);
+        boleto.vencimentoDiaEpoca = vencimento(boleto.fatorVencimento);
+        boleto.valorCentavos = numero(barras, 9, 19);
+        boleto.segmento = 0;
+        boleto.identificadorValor = 0;
+        return CodigoErroPagamento.OK;
+    }
+
+    private long vencimento(int fator) {                                                                                                        // Ciclo do fator mais próximo de hoje
+        if (fator == 0) {
+            return BoletoDecodificado.SEM_VENCIMENTO;
+        }
+        long primeiroCiclo = BASE_FATOR + fator;
+        if (fator < 1_000) {                                                                                                                    // Só existe no primeiro ciclo (antes de 2000)
+            return primeiroCiclo;
+        }
+        long hoje = Math.floorDiv(relogio.millis(), MILLIS_POR_DIA);
+        long ciclo = Math.max(0, Math.round((hoje - primeiroCiclo) / (double) CICLO_FATOR));
+        return primeiroCiclo + ciclo * CICLO_FATOR;
+    }
+
+    private static long numero(byte[] d, int inicio, int fim) {
+        long valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            valor = valor * 10 + d[i];
+        }
+        return valor;
+    }
+
+    private static int modulo10(byte[] d, int inicio, int fim) {                                                                                // DV dos campos da linha digitável bancária: pesos 2,1 a partir da direita
+        int soma = 0;
+        int peso = 2;
+        for (int i = fim - 1; i >= inicio; i--) {
+            int produto = d[i] * peso;
+            soma += produto > 9 ? produto - 9 : produto;
+            peso = peso == 2 ? 1 : 2;
+        }
+        return (10 - soma % 10) % 10;
+    }
+
+    private static int moduloOnzeBancario(byte[] barras) {                                                                                      // DV geral bancário: pesos 2 a 9, ignorando a posição 5 (tabela em vez de desvios)
+        int soma = 0;
+        for (int i = 0; i < 44; i++) {
+            soma += barras[i] * PESOS_BANCARIO[i];
+        }
+        int resultado = 11 - soma % 11;
+        return resultado == 0 || resultado == 10 || resultado == 11 ? 1 : resultado;
+    }
+
+    private static int moduloArrecadacao(byte[] d, int inicio, int fim, int ignorar, boolean modulo10) {                                       // Identificador 6 ou 7: módulo 10; 8 ou 9: módulo 11
+        if (modulo10) {
+            int soma = 0;
+            int peso = 2;
+            for (int i = fim - 1; i >= inicio; i--) {
+                if (i == ignorar) continue;
+                int produto = d[i] * peso;
+                soma += produto > 9 ? produto - 9 : produto;
+                peso = peso == 2 ? 1 : 2;
+            }
+            return (10 - soma % 10) % 10;
+        }
+        int soma = 0;
+        int peso = 2;
+        for (int i = fim - 1; i >= inicio; i--) {
+            if (i == ignorar) continue;
+            soma += d[i] * peso;
+            peso = peso == 9 ? 2 : peso + 1;
+        }
+        int resto = soma % 11;
+        return resto <= 1 ? 0 : 11 - resto;                                                                                                    // Resto 0 ou 1 dá DV 0; resto 10 dá DV 1
+    }
+
+    private static boolean usaModulo10(int identificadorValor) {
+        return identificadorValor == 6 || identificadorValor == 7;
+    }
+}
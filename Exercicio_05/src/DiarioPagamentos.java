@@ -0,0 +1,450 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+enum EventoDiario {                                                                                                                             // O que cada registro do diário anota
+    TENTATIVA,                                                                                                                                  // realizarPagamento começou (gravado antes de validar e processar)
+    APROVADO,
+    RECUSADO,                                                                                                                                   // PagamentoInvalidoException
+    FALHOU;                                                                                                                                     // Erro inesperado, ou tentativa pendente encerrada na recuperação
+
+    private static final EventoDiario[] VALORES = values();
+
+    static EventoDiario deCodigo(int codigo) {
+        if (codigo < 0 || codigo >= VALORES.length) {
+            throw new IllegalArgumentException("Código de evento desconhecido: " + codigo);
+        }
+        return VALORES[codigo];
+    }
+}
+
+enum ModoSincronizacao {
+    POR_REGISTRO,                                                                                                                               // Um fsync por registro, um escritor de cada vez
+    EM_GRUPO                                                                                                                                    // Um escritor grava e sincroniza de uma vez tudo o que os outros acumularam enquanto esperavam
+}
+
+final class RegistroDiario {                                                                                                                    // Um registro lido do diário
+    private final long sequencia;
+    private final long tentativa;                                                                                                                // Sequência do registro TENTATIVA a que este registro se refere
+    private final long instanteMillis;
+    private final EventoDiario evento;
+    private final MetodoPagamento metodo;                                                                                                       // Só em TENTATIVA; null também para formas de pagamento fora das três conhecidas
+    private final BigDecimal valor;                                                                                                             // Só em TENTATIVA
+
+    RegistroDiario(long sequencia, long tentativa, long instanteMillis, EventoDiario evento, MetodoPagamento metodo, BigDecimal valor) {
+        this.sequencia = sequencia;
+        this.tentativa = tentativa;
+        this.instanteMillis = instanteMillis;
+        this.evento = evento;
+        this.metodo = metodo;
+        this.valor = valor;
+    }
+
+    public long getSequencia() { return sequencia; }
+    public long getTentativa() { return tentativa; }
+    public long getInstanteMillis() { return instanteMillis; }
+    public EventoDiario getEvento() { return evento; }
+    public MetodoPagamento getMetodo() { return metodo; }
+    public BigDecimal getValor() { return valor; }
+
+    @Override
+    public String toString() {
+        return "RegistroDiario{sequencia=" + sequencia + ", tentativa=" + tentativa + ", evento=" + evento
+                + (evento == EventoDiario.TENTATIVA ? ", metodo=" + metodo + ", valor=" + valor : "") + "}";
+    }
+}
+
+interface ConsumidorDiario {                                                                                                                    // Recebe os registros válidos, em ordem, durante a reprodução
+    void consumir(RegistroDiario registro);
+}
+
+final class ResultadoRecuperacao {                                                                                                              // Resumo da leitura de um diário
+    private final int segmentos;
+    private final long registros;
+    private final long ultimaSequencia;
+    private final long bytesDescartados;                                                                                                        // Finais de segmento incompletos ou corrompidos (escrita interrompida por queda)
+    private final List<RegistroDiario> pendentes;                                                                                               // Tentativas sem resultado gravado
+
+    ResultadoRecuperacao(int segmentos, long registros, long ultimaSequencia, long bytesDescartados, List<RegistroDiario> pendentes) {
+        this.segmentos = segmentos;
+        this.registros = registros;
+        this.ultimaSequencia = ultimaSequencia;
+        this.bytesDescartados = bytesDescartados;
+        this.pendentes = Collections.unmodifiableList(pendentes);
+    }
+
+    public int getSegmentos() { return segmentos; }
+    public long getRegistros() { return registros; }
+    public long getUltimaSequencia() { return ultimaSequencia; }
+    public long getBytesDescartados() { return bytesDescartados; }
+    public List<RegistroDiario> getPendentes() { return pendentes; }
+}
+
+class DiarioPagamentos implements AutoCloseable {                                                                                               // Diário só de acréscimo (write-ahead) das tentativas de pagamento e seus resultados
+    private static final String PREFIXO = "diario-";
+    private static final String SUFIXO = ".log";
+    private static final int CABECALHO = 8;                                                                                                     // Tamanho do corpo (int) + CRC32 do corpo (int)
+    private static final int CORPO_FIXO = 28;                                                                                                   // sequência, tentativa, instante (3 longs) + evento, método, escala, bytes do valor
+    private static final int MAXIMO_BYTES_VALOR = 32;
+    private static final byte[] SEM_VALOR = new byte[0];
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    private final Path diretorio;
+    private final ModoSincronizacao modo;
+    private final long tamanhoMaximoSegmento;
+    private final Clock relogio;
+    private final ResultadoRecuperacao recuperacao;                                                                                             // O que havia no diretório quando o diário foi aberto
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition gravado = lock.newCondition();                                                                                      // Sinalizada ao fim de cada gravação (ou falha)
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pendente;                                                                                                                // Registros anexados que ainda não foram gravados
+    private ByteBuffer emEscrita;                                                                                                               // Lote sendo gravado pelo escritor da vez (fora do lock no modo EM_GRUPO)
+    private long ultimaSequencia;
+    private long sequenciaDuravel;                                                                                                              // Tudo até aqui já passou por fsync
+    private boolean gravando;
+    private IOException falha;                                                                                                                  // Depois de uma falha de escrita o diário não aceita mais registros
+    private boolean fechado;
+
+    private FileChannel canal;                                                                                                                  // Só o escritor da vez (gravando = true) mexe no canal
+    private int numeroSegmento;
+    private long tamanhoSegmento;
+
+    private final LongAdder sincronizacoes = new LongAdder();
+    private final LongAdder registros = new LongAdder();
+
+    private DiarioPagamentos(Path diretorio, ModoSincronizacao modo, long tamanhoMaximoSegmento, int tamanhoBuffer, Clock relogio)
+            throws IOException {
+        this.diretorio = diretorio;
+        this.modo = modo;
+        this.tamanhoMaximoSegmento = tamanhoMaximoSegmento;
+        this.relogio = relogio;
+        Files.createDirectories(diretorio);
+
+        List<Path> existentes = listarSegmentos(diretorio);
+        this.recuperacao = reproduzir(existentes, null);                                                                                        // Continua a numeração depois do último registro válido
+        this.ultimaSequencia = recuperacao.getUltimaSequencia();
+        this.sequenciaDuravel = ultimaSequencia;
+        this.numeroSegmento = existentes.isEmpty() ? 0 : numeroDoSegmento(existentes.get(existentes.size() - 1));
+        this.pendente = ByteBuffer.allocate(tamanhoBuffer);
+        this.emEscrita = ByteBuffer.allocate(tamanhoBuffer);
+        abrirNovoSegmento();                                                                                                                    // Nunca escreve depois de um final possivelmente corrompido
+    }
+
+    public static Construtor construtor(Path diretorio) {
+        return new Construtor(diretorio);
+    }
+
+    public long registrarTentativa(MetodoPagamento metodo, BigDecimal valor) {                                                                  // Grava a tentativa e devolve o identificador usado no resultado (metodo null = outra forma de pagamento)
+        Objects.requireNonNull(valor, "Valor não pode ser nulo");
+        return gravar(EventoDiario.TENTATIVA, 0, metodo, valor);
+    }
+
+    public void registrarResultado(long tentativa, EventoDiario evento) {
+        if (evento == EventoDiario.TENTATIVA || tentativa <= 0) {
+            throw new IllegalArgumentException("Resultado inválido: " + evento + " para a tentativa " + tentativa);
+        }
+        gravar(evento, tentativa, null, null);
+    }
+
+    private long gravar(EventoDiario evento, long tentativa, MetodoPagamento metodo, BigDecimal valor) {                                        // Só retorna depois que o registro passou por fsync
+        byte[] inteiro = valor == null ? SEM_VALOR : valor.unscaledValue().toByteArray();
+        if (inteiro.length > MAXIMO_BYTES_VALOR || valor != null && valor.scale() != (byte) valor.scale()) {
+            throw new IllegalArgumentException("Valor fora do intervalo suportado pelo diário: " + valor);
+        }
+        long instante = relogio.millis();
+
+        lock.lock();
+        try {
+            verificarDisponivel();
+            int tamanho = CABECALHO + CORPO_FIXO + inteiro.length;
+            while (pendente.remaining() < tamanho) {                                                                                            // Buffer cheio: espera (ou faz) a gravação do lote atual
+                esperarOuDescarregar();
+            }
+            long sequencia = ++ultimaSequencia;
+            anexar(sequencia, tentativa == 0 ? sequencia : tentativa, instante, evento, metodo, valor, inteiro);
+            while (sequenciaDuravel < sequencia) {                                                                                              // Quem chega primeiro grava o lote inteiro; os outros só esperam
+                esperarOuDescarregar();
+            }
+            return sequencia;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar no diário de pagamentos", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void anexar(long sequencia, long tentativa, long instante, EventoDiario evento, MetodoPagamento metodo,
+                        BigDecimal valor, byte[] inteiro) {
+        int inicio = pendente.position();
+        pendente.putInt(CORPO_FIXO + inteiro.length)
+                .putInt(0)                                                                                                                      // CRC preenchido abaixo
+                .putLong(sequencia)
+                .putLong(tentativa)
+                .putLong(instante)
+                .put((byte) evento.ordinal())
+                .put(metodo == null ? -1 : (byte) metodo.ordinal())
+                .put(valor == null ? 0 : (byte) valor.scale())
+                .put((byte) inteiro.length)
+                .put(inteiro);
+        crc.reset();
+        crc.update(pendente.array(), inicio + CABECALHO, pendente.position() - inicio - CABECALHO);
+        pendente.putInt(inicio + 4, (int) crc.getValue());
+    }
+
+    private void esperarOuDescarregar() throws IOException {                                                                                    // Chamado com o lock; volta com o lock
+        if (gravando) {
+            gravado.awaitUninterruptibly();
+        } else {
+            descarregar();
+        }
+        verificarDisponivel();
+    }
+
+    private void descarregar() throws IOException {                                                                                             // Grava e sincroniza tudo o que foi anexado até agora
+        gravando = true;
+        ByteBuffer lote = pendente;
+        pendente = emEscrita;                                                                                                                   // Novos registros vão para o outro buffer enquanto este é gravado
+        emEscrita = lote;
+        long alvo = ultimaSequencia;
+        boolean soltarLock = modo == ModoSincronizacao.EM_GRUPO;                                                                                // POR_REGISTRO mantém o lock: ninguém anexa durante o fsync
+
+        IOException erro = null;
+        if (soltarLock) {
+            lock.unlock();
+        }
+        try {
+            lote.flip();
+            if (tamanhoSegmento > 0 && tamanhoSegmento + lote.remaining() > tamanhoMaximoSegmento) {
+                canal.close();                                                                                                                  // O segmento anterior já foi sincronizado no lote passado
+                abrirNovoSegmento();
+            }
+            while (lote.hasRemaining()) {
+                tamanhoSegmento += canal.write(lote);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            erro = e;
+        } finally {
+            lote.clear();
+            if (soltarLock) {
+                lock.lock();
+            }
+        }
+
+        gravando = false;
+        if (erro == null) {
+            registros.add(alvo - sequenciaDuravel);
+            sequenciaDuravel = alvo;
+            sincronizacoes.increment();
+        } else {
+            falha = erro;
+        }
+        gravado.signalAll();
+        if (erro != null) {
+            throw erro;
+        }
+    }
+
+    private void abrirNovoSegmento() throws IOException {                                                                                       // Na abertura do diário e a cada rotação
+        numeroSegmento++;
+        canal = FileChannel.open(diretorio.resolve(nomeDoSegmento(numeroSegmento)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        tamanhoSegmento = 0;
+        sincronizarDiretorio();                                                                                                                 // Sem isso, o fsync do segmento não garante que o arquivo novo exista depois de uma queda
+    }
+
+    private void sincronizarDiretorio() throws IOException {
+        if (WINDOWS) {                                                                                                                          // Diretórios não podem ser abertos como canal no Windows (NTFS já registra a criação no journal)
+            return;
+        }
+        try (FileChannel canalDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canalDiretorio.force(true);
+        }
+    }
+
+    private void verificarDisponivel() throws IOException {
+        if (falha != null) {
+            throw new IOException("Diário de pagamentos indisponível depois de uma falha de escrita", falha);
+        }
+        if (fechado) {
+            throw new IllegalStateException("Diário de pagamentos fechado");
+        }
+    }
+
+    public ResultadoRecuperacao getRecuperacao() { return recuperacao; }
+    public long getSincronizacoes() { return sincronizacoes.sum(); }
+    public long getRegistros() { return registros.sum(); }
+
+    @Override
+    public void close() throws IOException {                                                                                                    // Grava o que já foi anexado, espera quem estiver gravando e fecha o segmento atual
+        lock.lock();
+        try {
+            if (fechado) {
+                return;
+            }
+            while (falha == null && (gravando || pendente.position() > 0)) {
+                if (gravando) {
+                    gravado.awaitUninterruptibly();
+                } else {
+                    descarregar();
+                }
+            }
+            fechado = true;
+            canal.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static ResultadoRecuperacao recuperar(Path diretorio) throws IOException {                                                           // Lê o diário inteiro e devolve as tentativas sem resultado
+        return reproduzir(diretorio, null);
+    }
+
+    public static ResultadoRecuperacao reproduzir(Path diretorio, ConsumidorDiario consumidor) throws IOException {                             // Entrega cada registro válido ao consumidor, em ordem
+        return reproduzir(listarSegmentos(diretorio), consumidor);
+    }
+
+    private static ResultadoRecuperacao reproduzir(List<Path> segmentos, ConsumidorDiario consumidor) throws IOException {
+        Map<Long, RegistroDiario> pendentes = new LinkedHashMap<>();                                                                            // Memória proporcional às tentativas em aberto, não ao diário
+        CRC32 crc = new CRC32();
+        long quantidade = 0;
+        long ultimaSequencia = 0;
+        long descartados = 0;
+
+        for (Path segmento : segmentos) {
+            try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ)) {
+                MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                while (dados.remaining() >= CABECALHO) {
+                    int inicio = dados.position();
+                    int tamanhoCorpo = dados.getInt(inicio);
+                    if (tamanhoCorpo < CORPO_FIXO || tamanhoCorpo > CORPO_FIXO + MAXIMO_BYTES_VALOR
+                            || dados.remaining() < CABECALHO + tamanhoCorpo) {
+                        break;                                                                                                                  // Registro cortado no meio
+                    }
+                    crc.reset();
+                    crc.update(dados.slice(inicio + CABECALHO, tamanhoCorpo));
+                    if ((int) crc.getValue() != dados.getInt(inicio + 4)) {
+                        break;                                                                                                                  // Bytes corrompidos: nada depois disso é confiável
+                    }
+                    dados.position(inicio + CABECALHO);
+                    RegistroDiario registro = decodificar(dados);
+                    if (registro.getSequencia() <= ultimaSequencia) {
+                        throw new IOException("Sequência fora de ordem no diário: " + registro.getSequencia() + " em " + segmento);
+                    }
+                    ultimaSequencia = registro.getSequencia();
+                    quantidade++;
+                    if (registro.getEvento() == EventoDiario.TENTATIVA) {
+                        pendentes.put(registro.getSequencia(), registro);
+                    } else {
+                        pendentes.remove(registro.getTentativa());
+                    }
+                    if (consumidor != null) {
+                        consumidor.consumir(registro);
+                    }
+                }
+                descartados += dados.remaining();
+            }
+        }
+        return new ResultadoRecuperacao(segmentos.size(), quantidade, ultimaSequencia, descartados, new ArrayList<>(pendentes.values()));
+    }
+
+    private static RegistroDiario decodificar(ByteBuffer dados) {
+        long sequencia = dados.getLong();
+        long tentativa = dados.getLong();
+        long instante = dados.getLong();
+        EventoDiario evento = EventoDiario.deCodigo(dados.get());
+        int codigoMetodo = dados.get();
+        int escala = dados.get();
+        byte[] inteiro = new byte[dados.get()];
+        dados.get(inteiro);
+        MetodoPagamento metodo = codigoMetodo < 0 ? null : MetodoPagamento.values()[codigoMetodo];
+        BigDecimal valor = inteiro.length == 0 ? null : new BigDecimal(new BigInteger(inteiro), escala);
+        return new RegistroDiario(sequencia, tentativa, instante, evento, metodo, valor);
+    }
+
+    private static List<Path> listarSegmentos(Path diretorio) throws IOException {                                                             // Segmentos em ordem de número
+        if (!Files.isDirectory(diretorio)) {
+            return new ArrayList<>();
+        }
+        List<Path> segmentos = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(arquivo -> {
+                String nome = arquivo.getFileName().toString();
+                return nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO);
+            }).forEach(segmentos::add);
+        }
+        segmentos.sort((a, b) -> Integer.compare(numeroDoSegmento(a), numeroDoSegmento(b)));
+        return segmentos;
+    }
+
+    private static String nomeDoSegmento(int numero) {
+        return String.format("%s%08d%s", PREFIXO, numero, SUFIXO);
+    }
+
+    private static int numeroDoSegmento(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Integer.parseInt(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+
+    static final class Construtor {
+        private final Path diretorio;
+        private ModoSincronizacao modo = ModoSincronizacao.EM_GRUPO;
+        private long tamanhoMaximoSegmento = 64L << 20;                                                                                         // 64 MiB
+        private int tamanhoBuffer = 64 << 10;                                                                                                   // 64 KiB por lote
+        private Clock relogio = Clock.systemUTC();
+
+        Construtor(Path diretorio) {
+            this.diretorio = Objects.requireNonNull(diretorio, "Diretório não pode ser nulo");
+        }
+
+        Construtor modo(ModoSincronizacao modo) {
+            this.modo = Objects.requireNonNull(modo, "Modo não pode ser nulo");
+            return this;
+        }
+
+        Construtor tamanhoMaximoSegmento(long bytes) {                                                                                          // Um lote nunca é dividido, então o segmento pode passar um pouco disso
+            if (bytes <= 0) {
+                throw new IllegalArgumentException("Tamanho do segmento deve ser positivo");
+            }
+            this.tamanhoMaximoSegmento = bytes;
+            return this;
+        }
+
+        Construtor tamanhoBuffer(int bytes) {
+            if (bytes < CABECALHO + CORPO_FIXO + MAXIMO_BYTES_VALOR) {
+                throw new IllegalArgumentException("Buffer menor que um registro");
+            }
+            this.tamanhoBuffer = bytes;
+            return this;
+        }
+
+        Construtor relogio(Clock relogio) {
+            this.relogio = Objects.requireNonNull(relogio, "Relógio não pode ser nulo");
+            return this;
+        }
+
+        DiarioPagamentos construir() throws IOException {
+            return new DiarioPagamentos(diretorio, modo, tamanhoMaximoSegmento, tamanhoBuffer, relogio);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class ContaPix {                                                                                                                          // Conta associada a uma chave PIX
+    private final String chave;
+    private final TipoChavePix tipo;
+    private final String ispb;                                                                                                                  // Identificador da instituição (8 dígitos)
+    private final String agencia;
+    private final String conta;
+    private final String tipoConta;                                                                                                             // CACC (corrente), SVGS (poupança), TRAN (pagamento)
+    private final String titular;
+
+    ContaPix(String chave, TipoChavePix tipo, String ispb, String agencia, String conta, String tipoConta, String titular) {
+        this.chave = chave;
+        this.tipo = tipo;
+        this.ispb = ispb;
+        this.agencia = agencia;
+        this.conta = conta;
+        this.tipoConta = tipoConta;
+        this.titular = titular;
+    }
+
+    public String getChave() { return chave; }
+    public TipoChavePix getTipo() { return tipo; }
+    public String getIspb() { return ispb; }
+    public String getAgencia() { return agencia; }
+    public String getConta() { return conta; }
+    public String getTipoConta() { return tipoConta; }
+    public String getTitular() { return titular; }
+
+    @Override
+    public String toString() {
+        return "ContaPix{chave='" + chave + "', tipo=" + tipo + ", ispb=" + ispb + ", agencia=" + agencia + ", conta=" + conta
+                + ", tipoConta=" + tipoConta + ", titular='" + titular + "'}";
+    }
+}
+
+interface DiretorioPix {                                                                                                                        // Resolve uma chave PIX para a conta de destino
+    ContaPix consultar(String chave);                                                                                                           // null quando a chave não está cadastrada
+}
+
+class DiretorioPixArquivo implements DiretorioPix {                                                                                             // Substituto local do diretório de chaves: lê um arquivo e simula a latência da consulta remota
+    private final Path arquivo;
+    private final long latenciaNanos;
+    private volatile Map<String, ContaPix> contas;                                                                                              // Trocado inteiro em recarregar()
+    private final LongAdder consultas = new LongAdder();
+
+    public DiretorioPixArquivo(Path arquivo, long latenciaMicros) throws IOException {                                                         // Uma linha por chave: chave;ispb;agencia;conta;tipoConta;titular
+        this.arquivo = Objects.requireNonNull(arquivo, "Arquivo não pode ser nulo");
+        this.latenciaNanos = latenciaMicros * 1_000;
+        this.contas = ler(arquivo);
+    }
+
+    public void recarregar() throws IOException {                                                                                               // Mudanças no arquivo aparecem nos caches depois do TTL
+        contas = ler(arquivo);
+    }
+
+    @Override
+    public ContaPix consultar(String chave) {
+        consultas.increment();
+        if (latenciaNanos > 0) {
+            LockSupport.parkNanos(latenciaNanos);
+        }
+        return contas.get(chave);
+    }
+
+    public long getConsultas() { return consultas.sum(); }
+
+    public int tamanho() {
+        return contas.size();
+    }
+
+    private static Map<String, ContaPix> ler(Path arquivo) throws IOException {
+        Map<String, ContaPix> lidas = new HashMap<>();
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.isEmpty() || linha.charAt(0) == '#') {
+                    continue;
+                }
+                String[] campos = linha.split(";", -1);
+                TipoChavePix tipo = ClassificadorChavePix.classificar(campos[0]);
+                if (campos.length != 6 || tipo == TipoChavePix.INVALIDA) {
+                    throw new IOException("Linha " + numero + " inválida em " + arquivo + ": " + linha);
+                }
+                lidas.put(campos[0], new ContaPix(campos[0], tipo, campos[1], campos[2], campos[3], campos[4], campos[5]));
+            }
+        }
+        return lidas;
+    }
+}
+
+class CacheDiretorioPix implements DiretorioPix {                                                                                               // Cache local do diretório: tamanho limitado (LRU), TTL e cache negativo para chaves inexistentes
+    private final DiretorioPix origem;
+    private final Segmento[] segmentos;                                                                                                         // Lock por segmento, como em CacheIdempotencia
+    private final int mascara;
+    private final long ttlMillis;                                                                                                               // Depois disso a chave é consultada de novo (conta pode ter mudado)
+    private final long ttlNegativoMillis;                                                                                                       // Chave inexistente: tempo menor, para uma chave recém-cadastrada aparecer logo
+    private final Clock relogio;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder acertosNegativos = new LongAdder();                                                                                 // "Não existe" respondido pelo cache
+    private final LongAdder faltas = new LongAdder();                                                                                           // Chave nunca vista (ou despejada)
+    private final LongAdder renovacoes = new LongAdder();                                                                                       // Chave expirada, consultada de novo
+    private final LongAdder coalescidos = new LongAdder();                                                                                      // Chave já sendo consultada por outra thread: espera a mesma consulta
+    private final LongAdder formatoInvalido = new LongAdder();                                                                                  // Rejeitadas pelo classificador, sem ir ao diretório
+    private final LongAdder despejados = new LongAdder();
+
+    public CacheDiretorioPix(DiretorioPix origem, int capacidade, long ttlMillis, long ttlNegativoMillis, int quantidadeSegmentos, Clock relogio) {
+        if (capacidade <= 0 || ttlMillis <= 0 || ttlNegativoMillis <= 0) {
+            throw new IllegalArgumentException("Capacidade e TTLs devem ser positivos");
+        }
+        if (quantidadeSegmentos <= 0 || Integer.bitCount(quantidadeSegmentos) != 1) {
+            throw new IllegalArgumentException("Quantidade de segmentos deve ser uma potência de 2");
+        }
+        this.origem = Objects.requireNonNull(origem, "Diretório de origem não pode ser nulo");
+        this.segmentos = new Segmento[quantidadeSegmentos];
+        int capacidadePorSegmento = Math.max(1, capacidade / quantidadeSegmentos);
+        for (int i = 0; i < quantidadeSegmentos; i++) {
+            segmentos[i] = new Segmento(capacidadePorSegmento);
+        }
+        this.mascara = quantidadeSegmentos - 1;
+        this.ttlMillis = ttlMillis;
+        this.ttlNegativoMillis = ttlNegativoMillis;
+        this.relogio = relogio;
+    }
+
+    @Override
+    public ContaPix consultar(String chave) {
+        if (ClassificadorChavePix.classificar(chave) == TipoChavePix.INVALIDA) {                                                                // Lixo não ocupa o cache nem o diretório
+            formatoInvalido.increment();
+            return null;
+        }
+        Segmento segmento = segmentos[espalhar(chave.hashCode()) & mascara];
+        long agora = relogio.millis();
+        Entrada entrada;
+        CompletableFuture<ContaPix> consulta;
+        boolean consultarAqui = false;
+        segmento.lock.lock();
+        try {
+            entrada = segmento.entradas.get(chave);                                                                                             // get também atualiza a ordem do LRU
+            if (entrada != null && agora < entrada.expiraEm) {
+                consulta = null;
+            } else {
+                consulta = segmento.emAndamento.get(chave);
+                if (consulta == null) {                                                                                                         // Primeira thread a precisar da chave: só ela vai ao diretório
+                    consulta = new CompletableFuture<>();
+                    segmento.emAndamento.put(chave, consulta);
+                    consultarAqui = true;
+                }
+            }
+        } finally {
+            segmento.lock.unlock();
+        }
+
+        if (consulta == null) {
+            (entrada.conta != null ? acertos : acertosNegativos).increment();
+            return entrada.conta;
+        }
+        if (!consultarAqui) {
+            coalescidos.increment();
+            return aguardar(consulta);
+        }
+        (entrada == null ? faltas : renovacoes).increment();
+
+        ContaPix conta;
+        try {
+            conta = origem.consultar(chave);                                                                                                    // Fora do lock: a consulta remota é lenta
+        } catch (Throwable e) {                                                                                                                 // Falha não fica no cache: quem estava esperando recebe o mesmo erro
+            segmento.lock.lock();
+            try {
+                segmento.emAndamento.remove(chave, consulta);
+            } finally {
+                segmento.lock.unlock();
+            }
+            consulta.completeExceptionally(e);
+            throw e;
+        }
+        Entrada nova = new Entrada(conta, relogio.millis() + (conta != null ? ttlMillis : ttlNegativoMillis));                                  // TTL conta a partir da resposta, não do pedido
+        segmento.lock.lock();
+        try {
+            segmento.emAndamento.remove(chave, consulta);
+            Entrada atual = segmento.entradas.get(chave);
+            if (atual == null || atual.expiraEm <= nova.expiraEm) {                                                                             // Não troca uma resposta que vale por mais tempo
+                segmento.entradas.put(chave, nova);
+            }
+        } finally {
+            segmento.lock.unlock();
+        }
+        consulta.complete(conta);
+        return conta;
+    }
+
+    private static ContaPix aguardar(CompletableFuture<ContaPix> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw e;
+        }
+    }
+
+    public long getAcertos() { return acertos.sum(); }
+    public long getAcertosNegativos() { return acertosNegativos.sum(); }
+    public long getFaltas() { return faltas.sum(); }
+    public long getRenovacoes() { return renovacoes.sum(); }
+    public long getCoalescidos() { return coalescidos.sum(); }
+    public long getFormatoInvalido() { return formatoInvalido.sum(); }
+    public long getDespejados() { return despejados.sum(); }
+
+    public int tamanho() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            segmento.lock.lock();
+            try {
+                total += segmento.entradas.size();
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    private static int espalhar(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Segmento {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Entrada> entradas;
+        final HashMap<String, CompletableFuture<ContaPix>> emAndamento = new HashMap<>();                                                       // Consultas ao diretório ainda sem resposta
+
+        Segmento(int capacidade) {
+            this.entradas = new LinkedHashMap<>(capacidade * 4 / 3 + 1, 0.75f, true) {                                                         // Ordem de acesso: a primeira entrada é a menos usada
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                    if (size() > capacidade) {
+                        despejados.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final class Entrada {                                                                                                        // Resposta do diretório (conta ou "não existe") e até quando vale
+        final ContaPix conta;                                                                                                                   // null = cache negativo
+        final long expiraEm;
+
+        Entrada(ContaPix conta, long expiraEm) {
+            this.conta = conta;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
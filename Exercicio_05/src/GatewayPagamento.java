@@ -0,0 +1,387 @@
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+interface GatewayPagamento {                                                                                                                    // Adquirente que autoriza o pagamento (real, simulado ou protegido)
+    GatewayPagamento APROVAR_SEMPRE = (metodo, valor) -> { };                                                                                   // Padrão: aprova na hora, sem chamada externa
+
+    // Recusa definitiva (ex.: emissor negou) = PagamentoInvalidoException; indisponibilidade temporária = GatewayIndisponivelException
+    void autorizar(MetodoPagamento metodo, BigDecimal valor) throws PagamentoInvalidoException;
+}
+
+enum MotivoIndisponibilidade {
+    FALHA_GATEWAY("Gateway retornou erro"),
+    TIMEOUT("Gateway não respondeu a tempo"),
+    CIRCUITO_ABERTO("Gateway temporariamente desativado após muitas falhas"),
+    BULKHEAD_CHEIO("Limite de chamadas simultâneas ao gateway atingido");
+
+    private final String mensagem;
+
+    MotivoIndisponibilidade(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
+
+class GatewayIndisponivelException extends RuntimeException {                                                                                  // Falha temporária: o pagamento pode ser tentado de novo (não fica no cache de idempotência)
+    private static final long serialVersionUID = 1L;
+
+    private final MotivoIndisponibilidade motivo;
+
+    public GatewayIndisponivelException(MotivoIndisponibilidade motivo, MetodoPagamento metodo) {
+        super(motivo.getMensagem() + " (" + metodo + ")");
+        this.motivo = motivo;
+    }
+
+    public MotivoIndisponibilidade getMotivo() {
+        return motivo;
+    }
+}
+
+class GatewaySimulado implements GatewayPagamento {                                                                                             // Adquirente local que injeta latência, picos, falhas e travamentos
+    private volatile Cenario cenario;                                                                                                           // Trocado inteiro para mudar o comportamento no meio de um teste
+
+    public GatewaySimulado(Cenario cenario) {
+        this.cenario = Objects.requireNonNull(cenario, "Cenário não pode ser nulo");
+    }
+
+    public void alterarCenario(Cenario novoCenario) {
+        this.cenario = Objects.requireNonNull(novoCenario, "Cenário não pode ser nulo");
+    }
+
+    @Override
+    public void autorizar(MetodoPagamento metodo, BigDecimal valor) throws PagamentoInvalidoException {
+        Cenario atual = cenario;                                                                                                                // Uma leitura: a chamada inteira usa o mesmo cenário
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        long latencia = atual.latenciaMillis;
+        double sorteio = aleatorio.nextDouble();
+        if (sorteio < atual.taxaTravamentos) {
+            latencia = atual.travamentoMillis;                                                                                                  // Conexão pendurada
+        } else if (sorteio < atual.taxaTravamentos + atual.taxaPicos) {
+            latencia = atual.picoMillis;
+        }
+        try {
+            Thread.sleep(latencia);
+        } catch (InterruptedException e) {                                                                                                      // Cancelado por timeout
+            Thread.currentThread().interrupt();
+            throw new GatewayIndisponivelException(MotivoIndisponibilidade.TIMEOUT, metodo);
+        }
+        if (aleatorio.nextDouble() < atual.taxaFalhas) {
+            throw new GatewayIndisponivelException(MotivoIndisponibilidade.FALHA_GATEWAY, metodo);
+        }
+        if (aleatorio.nextDouble() < atual.taxaRecusas) {
+            throw new PagamentoInvalidoException("Pagamento recusado pelo emissor.");
+        }
+    }
+
+    static final class Cenario {                                                                                                                // Comportamento do gateway simulado (imutável)
+        final long latenciaMillis;
+        final double taxaPicos;
+        final long picoMillis;
+        final double taxaTravamentos;
+        final long travamentoMillis;
+        final double taxaFalhas;
+        final double taxaRecusas;
+
+        Cenario(long latenciaMillis, double taxaPicos, long picoMillis, double taxaTravamentos, long travamentoMillis,
+                double taxaFalhas, double taxaRecusas) {
+            this.latenciaMillis = latenciaMillis;
+            this.taxaPicos = taxaPicos;
+            this.picoMillis = picoMillis;
+            this.taxaTravamentos = taxaTravamentos;
+            this.travamentoMillis = travamentoMillis;
+            this.taxaFalhas = taxaFalhas;
+            this.taxaRecusas = taxaRecusas;
+        }
+
+        static Cenario saudavel(long latenciaMillis) {
+            return new Cenario(latenciaMillis, 0, 0, 0, 0, 0, 0);
+        }
+    }
+}
+
+final class ConfiguracaoProtecao {                                                                                                              // Timeout, bulkhead e disjuntor de um método de pagamento
+    final long timeoutMillis;
+    final int maximoSimultaneos;                                                                                                                // Bulkhead: chamadas em andamento ao gateway
+    final int tamanhoJanela;                                                                                                                    // Disjuntor: quantas chamadas recentes são avaliadas
+    final double taxaFalhasParaAbrir;
+    final long tempoAbertoMillis;                                                                                                               // Quanto tempo o circuito fica aberto antes de testar de novo
+
+    ConfiguracaoProtecao(long timeoutMillis, int maximoSimultaneos, int tamanhoJanela, double taxaFalhasParaAbrir, long tempoAbertoMillis) {
+        if (timeoutMillis <= 0 || maximoSimultaneos <= 0 || tamanhoJanela <= 0 || tempoAbertoMillis <= 0) {
+            throw new IllegalArgumentException("Parâmetros de proteção devem ser positivos");
+        }
+        if (taxaFalhasParaAbrir <= 0 || taxaFalhasParaAbrir > 1) {
+            throw new IllegalArgumentException("Taxa de falhas deve estar entre 0 e 1");
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.maximoSimultaneos = maximoSimultaneos;
+        this.tamanhoJanela = tamanhoJanela;
+        this.taxaFalhasParaAbrir = taxaFalhasParaAbrir;
+        this.tempoAbertoMillis = tempoAbertoMillis;
+    }
+}
+
+final class DisjuntorCircuito {                                                                                                                 // Abre quando a taxa de falhas da janela passa do limite; depois de um tempo deixa uma chamada de teste passar
+    enum Estado { FECHADO, ABERTO, MEIO_ABERTO }
+
+    static final long NEGADO = -1;                                                                                                              // Retorno de permitir() quando a chamada não pode passar
+
+    private final boolean[] janela;                                                                                                             // true = falha, em ordem circular
+    private final double taxaFalhasParaAbrir;
+    private final long tempoAbertoNanos;
+    private int posicao;
+    private int chamadas;
+    private int falhas;
+    private Estado estado = Estado.FECHADO;
+    private long abertoAte;
+    private boolean testeEmAndamento;
+    private long geracao;                                                                                                                       // Muda a cada troca de estado e a cada teste: resultado de outra geração é ignorado
+
+    DisjuntorCircuito(int tamanhoJanela, double taxaFalhasParaAbrir, long tempoAbertoMillis) {
+        this.janela = new boolean[tamanhoJanela];
+        this.taxaFalhasParaAbrir = taxaFalhasParaAbrir;
+        this.tempoAbertoNanos = TimeUnit.MILLISECONDS.toNanos(tempoAbertoMillis);
+    }
+
+    synchronized long permitir() {                                                                                                              // Devolve a permissão a passar para registrarSucesso/registrarFalha, ou NEGADO
+        switch (estado) {
+            case FECHADO:
+                return geracao;
+            case ABERTO:
+                if (System.nanoTime() - abertoAte < 0) {
+                    return NEGADO;
+                }
+                estado = Estado.MEIO_ABERTO;                                                                                                    // Tempo aberto acabou: esta chamada é o teste
+                testeEmAndamento = true;
+                return ++geracao;
+            default:
+                if (testeEmAndamento) {
+                    return NEGADO;
+                }
+                testeEmAndamento = true;
+                return ++geracao;
+        }
+    }
+
+    synchronized void registrarSucesso(long permissao) {
+        if (permissao != geracao) {                                                                                                             // Chamada admitida antes da última troca de estado (ex.: terminou depois de o circuito abrir)
+            return;
+        }
+        if (estado == Estado.MEIO_ABERTO) {                                                                                                     // Teste passou: fecha e recomeça a janela
+            estado = Estado.FECHADO;
+            testeEmAndamento = false;
+            geracao++;
+            Arrays.fill(janela, false);
+            posicao = chamadas = falhas = 0;
+            return;
+        }
+        registrar(false);
+    }
+
+    synchronized void registrarFalha(long permissao) {
+        if (permissao != geracao) {
+            return;
+        }
+        if (estado == Estado.MEIO_ABERTO) {                                                                                                     // Teste falhou: abre de novo
+            abrir();
+            return;
+        }
+        registrar(true);
+        if (estado == Estado.FECHADO && chamadas == janela.length && falhas >= taxaFalhasParaAbrir * chamadas) {
+            abrir();
+        }
+    }
+
+    synchronized void desistir(long permissao) {                                                                                                // Chamada sem resultado do gateway: não conta, mas libera a vaga de teste
+        if (permissao == geracao && estado == Estado.MEIO_ABERTO) {
+            testeEmAndamento = false;
+        }
+    }
+
+    synchronized Estado getEstado() {
+        return estado;
+    }
+
+    private void registrar(boolean falha) {
+        if (chamadas == janela.length) {                                                                                                        // Janela cheia: sai o resultado mais antigo
+            if (janela[posicao]) falhas--;
+        } else {
+            chamadas++;
+        }
+        janela[posicao] = falha;
+        if (falha) falhas++;
+        posicao = (posicao + 1) % janela.length;
+    }
+
+    private void abrir() {
+        estado = Estado.ABERTO;
+        testeEmAndamento = false;
+        geracao++;
+        abertoAte = System.nanoTime() + tempoAbertoNanos;
+        Arrays.fill(janela, false);
+        posicao = chamadas = falhas = 0;
+    }
+}
+
+class GatewayProtegido implements GatewayPagamento {                                                                                            // Envolve outro gateway com timeout, bulkhead e disjuntor por método de pagamento
+    private final GatewayPagamento destino;
+    private final ConfiguracaoProtecao[] configuracoes;
+    private final Semaphore[] bulkheads;
+    private final DisjuntorCircuito[] disjuntores;
+    private final ExecutorService executor;                                                                                                     // Threads que fazem as chamadas; quem chamou só espera até o timeout
+
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder rejeitadosPeloCircuito = new LongAdder();
+    private final LongAdder rejeitadosPeloBulkhead = new LongAdder();
+
+    private GatewayProtegido(GatewayPagamento destino, ConfiguracaoProtecao[] configuracoes) {
+        this.destino = destino;
+        this.configuracoes = configuracoes;
+        this.bulkheads = new Semaphore[configuracoes.length];
+        this.disjuntores = new DisjuntorCircuito[configuracoes.length];
+        for (int i = 0; i < configuracoes.length; i++) {
+            ConfiguracaoProtecao configuracao = configuracoes[i];
+            bulkheads[i] = new Semaphore(configuracao.maximoSimultaneos);
+            disjuntores[i] = new DisjuntorCircuito(configuracao.tamanhoJanela, configuracao.taxaFalhasParaAbrir, configuracao.tempoAbertoMillis);
+        }
+        this.executor = Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "gateway-protegido");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Construtor construtor(GatewayPagamento destino) {
+        return new Construtor(destino);
+    }
+
+    @Override
+    public void autorizar(MetodoPagamento metodo, BigDecimal valor) throws PagamentoInvalidoException {
+        int i = metodo.ordinal();
+        Semaphore bulkhead = bulkheads[i];
+        DisjuntorCircuito disjuntor = disjuntores[i];
+
+        if (!bulkhead.tryAcquire()) {                                                                                                           // Não espera vaga: falha rápido em vez de empilhar threads
+            rejeitadosPeloBulkhead.increment();
+            throw new GatewayIndisponivelException(MotivoIndisponibilidade.BULKHEAD_CHEIO, metodo);
+        }
+        long permissao = disjuntor.permitir();
+        if (permissao == DisjuntorCircuito.NEGADO) {
+            bulkhead.release();
+            rejeitadosPeloCircuito.increment();
+            throw new GatewayIndisponivelException(MotivoIndisponibilidade.CIRCUITO_ABERTO, metodo);
+        }
+
+        Chamada chamada = new Chamada(metodo, valor, bulkhead);                                                                                 // A vaga do bulkhead só é devolvida quando a chamada termina de fato
+        executor.execute(chamada);
+        try {
+            chamada.resultado.get(configuracoes[i].timeoutMillis, TimeUnit.MILLISECONDS);
+            disjuntor.registrarSucesso(permissao);
+        } catch (TimeoutException e) {
+            chamada.abandonar();
+            timeouts.increment();
+            disjuntor.registrarFalha(permissao);
+            throw new GatewayIndisponivelException(MotivoIndisponibilidade.TIMEOUT, metodo);
+        } catch (InterruptedException e) {                                                                                                      // Quem chamou foi interrompido: nada se sabe do gateway, então não conta no disjuntor
+            chamada.abandonar();
+            Thread.currentThread().interrupt();
+            disjuntor.desistir(permissao);
+            throw new GatewayIndisponivelException(MotivoIndisponibilidade.TIMEOUT, metodo);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof PagamentoInvalidoException) {                                                                                  // Recusa do emissor: o gateway respondeu, então conta como sucesso
+                disjuntor.registrarSucesso(permissao);
+                throw new PagamentoInvalidoException(causa.getMessage());
+            }
+            falhas.increment();
+            disjuntor.registrarFalha(permissao);
+            if (causa instanceof GatewayIndisponivelException) {
+                throw new GatewayIndisponivelException(((GatewayIndisponivelException) causa).getMotivo(), metodo);
+            }
+            throw new GatewayIndisponivelException(MotivoIndisponibilidade.FALHA_GATEWAY, metodo);
+        }
+    }
+
+    public DisjuntorCircuito.Estado getEstado(MetodoPagamento metodo) { return disjuntores[metodo.ordinal()].getEstado(); }
+    public long getTimeouts() { return timeouts.sum(); }
+    public long getFalhas() { return falhas.sum(); }
+    public long getRejeitadosPeloCircuito() { return rejeitadosPeloCircuito.sum(); }
+    public long getRejeitadosPeloBulkhead() { return rejeitadosPeloBulkhead.sum(); }
+
+    private final class Chamada implements Runnable {                                                                                           // Uma chamada ao gateway de destino, que pode ser abandonada por timeout
+        final CompletableFuture<Void> resultado = new CompletableFuture<>();
+        private final MetodoPagamento metodo;
+        private final BigDecimal valor;
+        private final Semaphore bulkhead;
+        private Thread executando;                                                                                                              // Protegidos pelo lock da própria chamada
+        private boolean abandonada;
+
+        Chamada(MetodoPagamento metodo, BigDecimal valor, Semaphore bulkhead) {
+            this.metodo = metodo;
+            this.valor = valor;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void run() {
+            try {
+                synchronized (this) {
+                    if (abandonada) {                                                                                                           // Timeout antes mesmo de começar
+                        return;
+                    }
+                    executando = Thread.currentThread();
+                }
+                destino.autorizar(metodo, valor);
+                resultado.complete(null);
+            } catch (Throwable t) {
+                resultado.completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    executando = null;
+                    Thread.interrupted();                                                                                                       // Não deixa uma interrupção do timeout vazar para a próxima tarefa desta thread
+                }
+                bulkhead.release();
+            }
+        }
+
+        synchronized void abandonar() {                                                                                                         // Interrompe a chamada pendurada para liberar a thread e a vaga
+            abandonada = true;
+            if (executando != null) {
+                executando.interrupt();
+            }
+        }
+    }
+
+    static final class Construtor {                                                                                                             // Métodos sem configuração própria usam a configuração padrão
+        private final GatewayPagamento destino;
+        private final ConfiguracaoProtecao[] configuracoes = new ConfiguracaoProtecao[MetodoPagamento.values().length];
+
+        Construtor(GatewayPagamento destino) {
+            this.destino = Objects.requireNonNull(destino, "Gateway de destino não pode ser nulo");
+            Arrays.fill(configuracoes, new ConfiguracaoProtecao(1_000, 32, 20, 0.5, 5_000));
+        }
+
+        Construtor configurar(MetodoPagamento metodo, ConfiguracaoProtecao configuracao) {
+            configuracoes[metodo.ordinal()] = Objects.requireNonNull(configuracao, "Configuração não pode ser nula");
+            return this;
+        }
+
+        GatewayProtegido construir() {
+            return new GatewayProtegido(destino, configuracoes.clone());
+        }
+    }
+}
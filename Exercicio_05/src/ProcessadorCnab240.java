@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+interface OuvinteRejeicaoCnab {                                                                                                                 // Avisado a cada boleto rejeitado (número do registro começa em 1)
+    void rejeitado(long numeroRegistro, CodigoErroPagamento codigo);
+}
+
+final class ResumoCnab {                                                                                                                        // Totais de um arquivo: memória fixa, qualquer que seja o tamanho do arquivo
+    private static final int BANCOS = 1_000;
+
+    long registros;
+    long boletos;                                                                                                                               // Detalhes segmento J com código de barras
+    long registrosJ52;                                                                                                                          // Segmento J-52 opcional (dados do sacado e do cedente), sem título
+    long validos;
+    long totalCentavos;                                                                                                                         // Soma dos válidos
+    long registrosDeclarados = -1;                                                                                                              // Quantidade informada no trailer do arquivo (-1 = sem trailer)
+    boolean truncado;                                                                                                                           // Arquivo terminou no meio de um registro
+    final long[] rejeitadosPorCodigo = new long[CodigoErroPagamento.values().length];
+    final long[] quantidadePorBanco = new long[BANCOS];
+    final long[] totalPorBanco = new long[BANCOS];
+
+    public long getRegistros() { return registros; }
+    public long getBoletos() { return boletos; }
+    public long getRegistrosJ52() { return registrosJ52; }
+    public long getValidos() { return validos; }
+    public long getRejeitados() { return boletos - validos; }
+    public long getTotalCentavos() { return totalCentavos; }
+    public long getRejeitados(CodigoErroPagamento codigo) { return rejeitadosPorCodigo[codigo.ordinal()]; }
+    public long getQuantidadePorBanco(int banco) { return quantidadePorBanco[banco]; }
+    public long getTotalCentavosPorBanco(int banco) { return totalPorBanco[banco]; }
+    public boolean isTruncado() { return truncado; }
+
+    public boolean trailerConfere() {                                                                                                           // Quantidade de registros do trailer igual à lida
+        return registrosDeclarados == registros;
+    }
+}
+
+final class ProcessadorCnab240 {                                                                                                                // Lê um arquivo CNAB 240 em fluxo, decodifica o código de barras de cada segmento J e agrega
+    static final int TAMANHO_REGISTRO = 240;
+
+    private static final int TIPO_REGISTRO = 7;                                                                                                 // Posições (a partir de 0) do layout FEBRABAN
+    private static final int SEGMENTO = 13;
+    private static final int CODIGO_BARRAS = 17;                                                                                                // 44 dígitos
+    private static final int REGISTRO_OPCIONAL = 17;                                                                                            // "52" no J-52, na mesma posição do código de barras do J
+    private static final int VALOR_TITULO = 99;                                                                                                 // 15 dígitos, 2 decimais
+    private static final int QUANTIDADE_REGISTROS = 23;                                                                                         // Trailer do arquivo: 6 dígitos
+
+    private final DecodificadorBoleto decodificador;
+    private final BoletoDecodificado boleto = new BoletoDecodificado();                                                                         // Reaproveitado em todos os registros
+    private final byte[] buffer;
+
+    public ProcessadorCnab240(DecodificadorBoleto decodificador, int tamanhoBuffer) {                                                           // Uma instância por thread: o processador guarda estado de leitura
+        if (tamanhoBuffer < TAMANHO_REGISTRO) {
+            throw new IllegalArgumentException("Buffer menor que um registro CNAB");
+        }
+        this.decodificador = Objects.requireNonNull(decodificador, "Decodificador não pode ser nulo");
+        this.buffer = new byte[tamanhoBuffer];
+    }
+
+    public ProcessadorCnab240() {
+        this(DecodificadorBoleto.padrao(), 64 << 10);
+    }
+
+    public ResumoCnab processar(InputStream entrada) throws IOException {
+        return processar(entrada, null);
+    }
+
+    public ResumoCnab processar(InputStream entrada, OuvinteRejeicaoCnab ouvinte) throws IOException {
+        ResumoCnab resumo = new ResumoCnab();
+        int posicao = 0;
+        int limite = 0;
+        boolean fimArquivo = false;
+
+        while (true) {
+            while (posicao < limite && (buffer[posicao] == '\r' || buffer[posicao] == '\n')) {                                                  // Quebras de linha entre registros são opcionais
+                posicao++;
+            }
+            if (limite - posicao < TAMANHO_REGISTRO && !fimArquivo) {                                                                           // Traz o resto do registro para o início e completa o buffer
+                System.arraycopy(buffer, posicao, buffer, 0, limite - posicao);
+                limite -= posicao;
+                posicao = 0;
+                while (limite < buffer.length) {
+                    int lidos = entrada.read(buffer, limite, buffer.length - limite);
+                    if (lidos < 0) {
+                        fimArquivo = true;
+                        break;
+                    }
+                    limite += lidos;
+                }
+                continue;
+            }
+            if (limite - posicao < TAMANHO_REGISTRO) {
+                if (posicao < limite) {
+                    resumo.truncado = true;
+                }
+                return resumo;
+            }
+            processarRegistro(posicao, resumo, ouvinte);
+            posicao += TAMANHO_REGISTRO;
+        }
+    }
+
+    private void processarRegistro(int inicio, ResumoCnab resumo, OuvinteRejeicaoCnab ouvinte) {
+        long numero = ++resumo.registros;
+        byte tipo = buffer[inicio + TIPO_REGISTRO];
+        if (tipo == '9') {                                                                                                                      // Trailer do arquivo
+            resumo.registrosDeclarados = numero(inicio + QUANTIDADE_REGISTROS, 6);
+            return;
+        }
+        if (tipo != '3' || buffer[inicio + SEGMENTO] != 'J') {
+            return;
+        }
+        if (buffer[inicio + REGISTRO_OPCIONAL] == '5' && buffer[inicio + REGISTRO_OPCIONAL + 1] == '2') {                                       // J-52 complementa o J anterior: não é um título
+            resumo.registrosJ52++;
+            return;
+        }
+
+        resumo.boletos++;
+        CodigoErroPagamento codigo = decodificador.decodificar(buffer, inicio + CODIGO_BARRAS, inicio + CODIGO_BARRAS + 44, boleto);
+        long valorTitulo = numero(inicio + VALOR_TITULO, 15);
+        if (codigo == CodigoErroPagamento.OK && valorTitulo < 0) {
+            codigo = CodigoErroPagamento.CNAB_REGISTRO_INVALIDO;
+        } else if (codigo == CodigoErroPagamento.OK && boleto.valorCentavos != 0 && boleto.valorCentavos != valorTitulo
+                && !(boleto.tipo == TipoBoleto.ARRECADACAO && boleto.identificadorValor % 2 == 1)) {                                            // Valor zero no código = valor livre; 7/9 é valor de referência
+            codigo = CodigoErroPagamento.BOLETO_VALOR_DIVERGENTE;
+        }
+
+        if (codigo != CodigoErroPagamento.OK) {
+            resumo.rejeitadosPorCodigo[codigo.ordinal()]++;
+            if (ouvinte != null) {
+                ouvinte.rejeitado(numero, codigo);
+            }
+            return;
+        }
+        resumo.validos++;
+        resumo.totalCentavos += valorTitulo;
+        resumo.quantidadePorBanco[boleto.banco]++;                                                                                              // Arrecadação fica no banco 0
+        resumo.totalPorBanco[boleto.banco] += valorTitulo;
+    }
+
+    private long numero(int inicio, int tamanho) {                                                                                              // -1 se houver algo que não seja dígito
+        long valor = 0;
+        for (int i = inicio; i < inicio + tamanho; i++) {
+            int d = buffer[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            valor = valor * 10 + d;
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,278 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+enum MetodoPagamento {                                                                                                                          // Formas de pagamento com limite de concorrência próprio
+    CARTAO_CREDITO,
+    BOLETO,
+    PIX;
+
+    public static MetodoPagamento de(FormaPagamento forma) {                                                                                    // Descobre o método a partir da implementação
+        MetodoPagamento metodo = deOuNulo(forma);
+        if (metodo == null) {
+            throw new IllegalArgumentException("Forma de pagamento não suportada: " + forma.getClass().getSimpleName());
+        }
+        return metodo;
+    }
+
+    public static MetodoPagamento deOuNulo(FormaPagamento forma) {                                                                              // null para formas de pagamento fora das três conhecidas
+        if (forma instanceof CartaoCredito) return CARTAO_CREDITO;
+        if (forma instanceof Boleto) return BOLETO;
+        if (forma instanceof Pix) return PIX;
+        return null;
+    }
+}
+
+enum StatusPagamento {
+    APROVADO,                                                                                                                                   // processarPagamento terminou sem erro
+    RECUSADO,                                                                                                                                   // Dados inválidos ou PagamentoInvalidoException
+    FALHOU                                                                                                                                      // Erro inesperado durante o processamento
+}
+
+final class ResultadoPagamento {                                                                                                                // Resultado entregue no CompletableFuture de cada pagamento
+    private final StatusPagamento status;
+    private final CodigoErroPagamento codigo;                                                                                                   // OK quando a validação passou
+    private final String mensagem;
+    private final long latenciaNanos;                                                                                                           // Tempo entre a submissão e a conclusão
+
+    ResultadoPagamento(StatusPagamento status, CodigoErroPagamento codigo, String mensagem, long latenciaNanos) {
+        this.status = status;
+        this.codigo = codigo;
+        this.mensagem = mensagem;
+        this.latenciaNanos = latenciaNanos;
+    }
+
+    public StatusPagamento getStatus() { return status; }
+    public CodigoErroPagamento getCodigo() { return codigo; }
+    public String getMensagem() { return mensagem; }
+    public long getLatenciaNanos() { return latenciaNanos; }
+
+    @Override
+    public String toString() {
+        return "ResultadoPagamento{status=" + status + ", codigo=" + codigo + ", mensagem='" + mensagem + "'}";
+    }
+}
+
+class ProcessadorPagamentos implements AutoCloseable {                                                                                          // Recebe muitos pagamentos, valida em lotes e processa cada um em uma thread virtual
+    private final int capacidade;
+    private final int tamanhoLote;
+    private final BlockingQueue<Pedido> fila;
+    private final Semaphore vagas;                                                                                                              // Pagamentos aceitos e ainda não concluídos (fila + em processamento)
+    private final Semaphore[] limitesPorMetodo;                                                                                                 // Quantos pagamentos de cada método podem estar em processarPagamento ao mesmo tempo
+    private final ExecutorService executor;
+    private final Thread despachante;
+    private final AtomicBoolean aceitando = new AtomicBoolean(true);
+
+    private final AtomicLong aprovados = new AtomicLong();
+    private final AtomicLong recusados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    private ProcessadorPagamentos(int capacidade, int tamanhoLote, int[] limites) {
+        this.capacidade = capacidade;
+        this.tamanhoLote = tamanhoLote;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.vagas = new Semaphore(capacidade);
+        this.limitesPorMetodo = new Semaphore[limites.length];
+        for (int i = 0; i < limites.length; i++) {
+            limitesPorMetodo[i] = new Semaphore(limites[i]);
+        }
+
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        this.despachante = new Thread(this::despacharEmLotes, "despachante-pagamentos");
+        this.despachante.setDaemon(true);
+        this.despachante.start();
+    }
+
+    public static Construtor construtor() {
+        return new Construtor();
+    }
+
+    public CompletableFuture<ResultadoPagamento> submeter(FormaPagamento forma, BigDecimal valor) throws InterruptedException {                 // Bloqueia enquanto o processador estiver cheio (contrapressão)
+        verificarAceitando();
+        MetodoPagamento metodo = metodoDe(forma);                                                                                               // Valida antes de reservar a vaga: um pedido inválido não consome capacidade
+        vagas.acquire();
+        return enfileirar(forma, metodo, valor);
+    }
+
+    public CompletableFuture<ResultadoPagamento> tentarSubmeter(FormaPagamento forma, BigDecimal valor) {                                       // Não bloqueia: retorna null se o processador estiver cheio
+        verificarAceitando();
+        MetodoPagamento metodo = metodoDe(forma);
+        if (!vagas.tryAcquire()) {
+            verificarAceitando();                                                                                                               // Sem vaga porque close() as tomou: encerrado, não cheio
+            return null;
+        }
+        return enfileirar(forma, metodo, valor);
+    }
+
+    private static MetodoPagamento metodoDe(FormaPagamento forma) {                                                                             // Lança para forma nula ou não suportada
+        return MetodoPagamento.de(Objects.requireNonNull(forma, "Forma de pagamento não pode ser nula"));
+    }
+
+    private CompletableFuture<ResultadoPagamento> enfileirar(FormaPagamento forma, MetodoPagamento metodo, BigDecimal valor) {                  // Chamado com a vaga já reservada
+
+        if (!aceitando.get()) {                                                                                                                 // close() foi chamado enquanto esperava a vaga
+            vagas.release();
+            throw new IllegalStateException("Processador de pagamentos encerrado");
+        }
+        Pedido pedido = new Pedido(forma, metodo, valor, System.nanoTime());
+        fila.add(pedido);                                                                                                                       // Sempre há espaço: a vaga já foi reservada
+        return pedido.resultado;
+    }
+
+    private void despacharEmLotes() {                                                                                                           // Laço do despachante: pega até tamanhoLote pedidos, valida e dispara o processamento
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        try {
+            while (true) {
+                lote.add(fila.take());
+                fila.drainTo(lote, tamanhoLote - 1);
+                for (Pedido pedido : lote) {
+                    try {
+                        CodigoErroPagamento codigo = pedido.forma.verificar();                                                                  // Validação sem exceção, ainda na thread do despachante
+                        if (codigo != CodigoErroPagamento.OK) {
+                            concluirForaDoDespachante(pedido, StatusPagamento.RECUSADO, codigo, codigo.getMensagem());
+                        } else {
+                            executor.execute(() -> processar(pedido));
+                        }
+                    } catch (RuntimeException e) {                                                                                              // Um pedido com defeito não pode derrubar o despachante nem prender a vaga
+                        concluirForaDoDespachante(pedido, StatusPagamento.FALHOU, CodigoErroPagamento.OK, "Erro inesperado: " + e.getMessage());
+                    }
+                }
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            // Encerrado por close() depois que todos os pedidos foram concluídos
+        }
+    }
+
+    private void processar(Pedido pedido) {                                                                                                     // Executa em uma thread virtual; espera a vez dentro do limite do método
+        Semaphore limite = limitesPorMetodo[pedido.metodo.ordinal()];
+        limite.acquireUninterruptibly();
+        try {
+            pedido.forma.processarRegistrado(pedido.valor);                                                                                     // Já verificado pelo despachante; entra no diário se houver um
+            concluir(pedido, StatusPagamento.APROVADO, CodigoErroPagamento.OK, "Pagamento processado");
+        } catch (PagamentoInvalidoException e) {
+            concluir(pedido, StatusPagamento.RECUSADO, CodigoErroPagamento.OK, e.getMessage());
+        } catch (RuntimeException e) {
+            concluir(pedido, StatusPagamento.FALHOU, CodigoErroPagamento.OK, "Erro inesperado: " + e.getMessage());
+        } catch (Error e) {                                                                                                                     // A vaga e o future não podem ficar presos, mas o Error continua visível
+            concluir(pedido, StatusPagamento.FALHOU, CodigoErroPagamento.OK, "Erro inesperado: " + e.getMessage());
+            throw e;
+        } finally {
+            limite.release();
+        }
+    }
+
+    private void concluir(Pedido pedido, StatusPagamento status, CodigoErroPagamento codigo, String mensagem) {                                 // Na thread virtual do pagamento: callbacks síncronos do cliente rodam aqui
+        ResultadoPagamento resultado = contabilizar(pedido, status, codigo, mensagem);
+        vagas.release();                                                                                                                        // Libera a vaga antes de avisar, para quem espera o resultado já poder submeter outro
+        pedido.resultado.complete(resultado);
+    }
+
+    private void concluirForaDoDespachante(Pedido pedido, StatusPagamento status, CodigoErroPagamento codigo, String mensagem) {               // Recusas da validação: um callback lento do cliente não pode parar o lote
+        ResultadoPagamento resultado = contabilizar(pedido, status, codigo, mensagem);
+        executor.execute(() -> pedido.resultado.complete(resultado));                                                                           // Enviado antes de liberar a vaga: close() só encerra o executor depois
+        vagas.release();
+    }
+
+    private ResultadoPagamento contabilizar(Pedido pedido, StatusPagamento status, CodigoErroPagamento codigo, String mensagem) {
+        switch (status) {
+            case APROVADO: aprovados.incrementAndGet(); break;
+            case RECUSADO: recusados.incrementAndGet(); break;
+            default: falhas.incrementAndGet();
+        }
+        return new ResultadoPagamento(status, codigo, mensagem, System.nanoTime() - pedido.submetidoEm);
+    }
+
+    private void verificarAceitando() {
+        if (!aceitando.get()) {
+            throw new IllegalStateException("Processador de pagamentos encerrado");
+        }
+    }
+
+    public long getAprovados() { return aprovados.get(); }
+    public long getRecusados() { return recusados.get(); }
+    public long getFalhas() { return falhas.get(); }
+
+    @Override
+    public void close() {                                                                                                                       // Para de aceitar pagamentos e espera os que já foram aceitos
+        if (!aceitando.compareAndSet(true, false)) {                                                                                            // Já encerrado (ou encerrando em outra thread)
+            return;
+        }
+        vagas.acquireUninterruptibly(capacidade);                                                                                               // Todas as vagas livres = nenhum pedido pendente
+        despachante.interrupt();
+        executor.shutdown();
+        try {
+            despachante.join();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            vagas.release(capacidade);                                                                                                          // Quem ficou esperando vaga chega em enfileirar e recebe IllegalStateException
+        }
+    }
+
+    private static final class Pedido {                                                                                                         // Um pagamento aceito, à espera de validação e processamento
+        final FormaPagamento forma;
+        final MetodoPagamento metodo;
+        final BigDecimal valor;
+        final long submetidoEm;
+        final CompletableFuture<ResultadoPagamento> resultado = new CompletableFuture<>();
+
+        Pedido(FormaPagamento forma, MetodoPagamento metodo, BigDecimal valor, long submetidoEm) {
+            this.forma = forma;
+            this.metodo = metodo;
+            this.valor = valor;
+            this.submetidoEm = submetidoEm;
+        }
+    }
+
+    static final class Construtor {                                                                                                             // Monta um processador; métodos sem limite definido usam o limite padrão
+        private int capacidade = 1_024;
+        private int tamanhoLote = 64;
+        private final int[] limites = new int[MetodoPagamento.values().length];
+
+        Construtor() {
+            Arrays.fill(limites, 16);
+        }
+
+        Construtor capacidade(int capacidade) {                                                                                                 // Máximo de pagamentos aceitos e não concluídos
+            if (capacidade <= 0) {
+                throw new IllegalArgumentException("Capacidade deve ser positiva");
+            }
+            this.capacidade = capacidade;
+            return this;
+        }
+
+        Construtor tamanhoLote(int tamanhoLote) {
+            if (tamanhoLote <= 0) {
+                throw new IllegalArgumentException("Tamanho do lote deve ser positivo");
+            }
+            this.tamanhoLote = tamanhoLote;
+            return this;
+        }
+
+        Construtor limite(MetodoPagamento metodo, int maximoSimultaneos) {
+            if (maximoSimultaneos <= 0) {
+                throw new IllegalArgumentException("Limite de concorrência deve ser positivo");
+            }
+            limites[metodo.ordinal()] = maximoSimultaneos;
+            return this;
+        }
+
+        ProcessadorPagamentos construir() {
+            return new ProcessadorPagamentos(capacidade, tamanhoLote, limites.clone());
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import java.math.BigDecimal;                                                                                                                    // Para trabalhar com valores monetários de forma precisa
+import java.util.Objects;
 
 class PagamentoInvalidoException extends Exception {                                                                                            // Classe de exceção personalizada para erros de pagamento
     public PagamentoInvalidoException(String mensagem) {                                                                                        // Construtor que recebe uma mensagem de erro
@@ -7,17 +8,89 @@ class PagamentoInvalidoException extends Exception {
 }
 
 abstract class FormaPagamento {                                                                                                                 // Classe abstrata que define a estrutura comum para todas as formas de pagamento
+    private static volatile GatewayPagamento gatewayPadrao = GatewayPagamento.APROVAR_SEMPRE;                                                   // Gateway usado por quem não definiu um próprio
+    private volatile GatewayPagamento gateway;                                                                                                  // null = usa o gateway padrão
+    private static volatile DiarioPagamentos diario;                                                                                            // null = tentativas não são registradas
+
+    public static void definirDiario(DiarioPagamentos novoDiario) {                                                                             // Passa a registrar cada realizarPagamento e seu resultado (null desliga)
+        diario = novoDiario;
+    }
+
+    public static void definirGatewayPadrao(GatewayPagamento novoGateway) {                                                                     // Troca o adquirente de todas as formas de pagamento sem gateway próprio
+        gatewayPadrao = Objects.requireNonNull(novoGateway, "Gateway não pode ser nulo");
+    }
+
+    public void setGateway(GatewayPagamento gateway) {                                                                                          // Adquirente só desta forma de pagamento (ex.: um simulador nos testes)
+        this.gateway = gateway;
+    }
+
+    protected GatewayPagamento gateway() {
+        GatewayPagamento proprio = gateway;
+        return proprio != null ? proprio : gatewayPadrao;
+    }
 
     // Método abstrato que deve ser implementado pelas classes filhas
     public abstract void validarPagamento() throws PagamentoInvalidoException;                                                                  // Responsável por validar os dados específicos de cada forma de pagamento
 
+    // Verifica os dados sem lançar exceção (caminho rápido); validarPagamento usa o código retornado
+    public abstract CodigoErroPagamento verificar();
+
     // Método abstrato que processa o pagamento após a validação
     public abstract void processarPagamento(BigDecimal valor) throws PagamentoInvalidoException;                                                // Recebe o valor a ser pago como parâmetro
 
     // Método template que orquestra o fluxo completo de pagamento
     public void realizarPagamento(BigDecimal valor) throws PagamentoInvalidoException {
-        validarPagamento();                                                                                                                     // Primeiro valida os dados
-        processarPagamento(valor);                                                                                                              // Depois processa o pagamento
+        DiarioPagamentos diarioAtual = diario;
+        if (diarioAtual == null) {
+            validarPagamento();                                                                                                                 // Primeiro valida os dados
+            processarPagamento(valor);                                                                                                          // Depois processa o pagamento
+            return;
+        }
+        executarRegistrado(diarioAtual, valor, true);
+    }
+
+    final void processarRegistrado(BigDecimal valor) throws PagamentoInvalidoException {                                                        // Para quem já verificou os dados (ProcessadorPagamentos): só o processamento, também no diário
+        DiarioPagamentos diarioAtual = diario;
+        if (diarioAtual == null) {
+            processarPagamento(valor);
+            return;
+        }
+        executarRegistrado(diarioAtual, valor, false);
+    }
+
+    private void executarRegistrado(DiarioPagamentos diarioAtual, BigDecimal valor, boolean validar) throws PagamentoInvalidoException {
+        long tentativa = diarioAtual.registrarTentativa(MetodoPagamento.deOuNulo(this), valor);                                                     // Gravada antes de qualquer efeito: após uma queda, fica pendente na recuperação
+        try {
+            if (validar) {
+                validarPagamento();
+            }
+            processarPagamento(valor);
+        } catch (PagamentoInvalidoException e) {
+            registrarResultado(diarioAtual, tentativa, EventoDiario.RECUSADO, e);
+            throw e;
+        } catch (RuntimeException e) {
+            registrarResultado(diarioAtual, tentativa, EventoDiario.FALHOU, e);
+            throw e;
+        }
+        registrarResultado(diarioAtual, tentativa, EventoDiario.APROVADO, null);
+    }
+
+    private static void registrarResultado(DiarioPagamentos diarioAtual, long tentativa, EventoDiario evento, Exception desfecho) {             // Falha do diário não muda o desfecho do pagamento: a tentativa fica pendente para a conciliação
+        try {
+            diarioAtual.registrarResultado(tentativa, evento);
+        } catch (RuntimeException erroDiario) {
+            if (desfecho != null) {
+                desfecho.addSuppressed(erroDiario);                                                                                             // Quem trata a recusa ou a falha também vê o erro do diário
+            } else {
+                System.err.println("Pagamento " + tentativa + " aprovado, mas o resultado não foi gravado no diário: " + erroDiario.getMessage());
+            }
+        }
+    }
+
+    protected static void lancarSeInvalido(CodigoErroPagamento codigo) throws PagamentoInvalidoException {                                      // Converte o código de erro na exceção usada por validarPagamento
+        if (codigo != CodigoErroPagamento.OK) {
+            throw new PagamentoInvalidoException(codigo.getMensagem());
+        }
     }
 }
 
@@ -34,23 +107,14 @@ class CartaoCredito extends FormaPagamento {
         this.cvv = cvv;
     }
 
+    @Override                                                                                                                                   // Número (16 dígitos + Luhn), titular, validade (MM/AA, não expirada) e CVV, sem regex
+    public CodigoErroPagamento verificar() {
+        return ValidadorPagamento.padrao().validarCartao(numeroCartao, nomeTitular, dataValidade, cvv);
+    }
+
     @Override                                                                                                                                   // Implementação do método de validação específico para cartão de crédito
     public void validarPagamento() throws PagamentoInvalidoException {
-        if (numeroCartao == null || !numeroCartao.matches("\\d{16}")) {                                                                   // Valida se o número do cartão tem 16 dígitos
-            throw new PagamentoInvalidoException("Número do cartão inválido. Deve conter 16 dígitos.");
-        }
-
-        if (nomeTitular == null || nomeTitular.trim().isEmpty()) {                                                                              // Valida se o nome do titular não está vazio
-            throw new PagamentoInvalidoException("Nome do titular é obrigatório.");
-        }
-
-        if (dataValidade == null || !dataValidade.matches("\\d{2}/\\d{2}")) {                                                             // Valida o formato da data de validade (MM/AA)
-            throw new PagamentoInvalidoException("Data de validade inválida. Use o formato MM/AA.");
-        }
-
-        if (cvv == null || !cvv.matches("\\d{3}")) {                                                                                      // Valida se o CVV tem 3 dígitos
-            throw new PagamentoInvalidoException("CVV inválido. Deve conter 3 dígitos.");
-        }
+        lancarSeInvalido(verificar());
 
         System.out.println("Validação do cartão de crédito realizada com sucesso!");
     }
@@ -59,6 +123,7 @@ class CartaoCredito extends FormaPagamento {
     public void processarPagamento(BigDecimal valor) throws PagamentoInvalidoException {
         // Simula o processamento do pagamento
         System.out.println("Processando pagamento de R$ " + valor + " via Cartão de Crédito");
+        gateway().autorizar(MetodoPagamento.CARTAO_CREDITO, valor);                                                                             // Autorização no adquirente (recusa lança PagamentoInvalidoException)
         System.out.println("Cartão: " + numeroCartao.substring(0, 4) + "**** **** " + numeroCartao.substring(12));
         System.out.println("Pagamento com cartão processado com sucesso!");
     }
@@ -71,11 +136,18 @@ class Boleto extends FormaPagamento {
         this.codigoBarras = codigoBarras;
     }
 
+    @Override                                                                                                                                   // 44 ou 48 dígitos e dígitos verificadores, sem regex
+    public CodigoErroPagamento verificar() {
+        return ValidadorPagamento.validarBoleto(codigoBarras);
+    }
+
+    public CodigoErroPagamento decodificar(BoletoDecodificado destino) {                                                                        // Banco, vencimento, valor etc. do código deste boleto (aceita também a linha digitável de 47 dígitos)
+        return DecodificadorBoleto.padrao().decodificar(codigoBarras, destino);
+    }
+
     @Override                                                                                                                                   // Implementação do método de validação específico para boleto
     public void validarPagamento() throws PagamentoInvalidoException {
-        if (codigoBarras == null || (!codigoBarras.matches("\\d{44}") && !codigoBarras.matches("\\d{48}"))) {                       // Valida se o código de barras tem 44 ou 48 dígitos (formatos comuns no Brasil)
-            throw new PagamentoInvalidoException("Código de barras inválido. Deve conter 44 ou 48 dígitos.");
-        }
+        lancarSeInvalido(verificar());
 
         System.out.println("Validação do boleto realizada com sucesso!");
     }
@@ -84,6 +156,7 @@ class Boleto extends FormaPagamento {
     public void processarPagamento(BigDecimal valor) throws PagamentoInvalidoException {
         // Simula a geração do boleto
         System.out.println("Processando pagamento de R$ " + valor + " via Boleto Bancário");
+        gateway().autorizar(MetodoPagamento.BOLETO, valor);                                                                                     // Autorização no adquirente (recusa lança PagamentoInvalidoException)
         System.out.println("Código de barras: " + codigoBarras);
         System.out.println("Boleto gerado com sucesso! Pagamento pendente até a data de vencimento.");
     }
@@ -96,15 +169,14 @@ class Pix extends FormaPagamento {
         this.chavePix = chavePix;
     }
 
+    @Override                                                                                                                                   // Chave obrigatória: CPF, CNPJ, e-mail, telefone ou chave aleatória
+    public CodigoErroPagamento verificar() {
+        return ValidadorPagamento.validarChavePix(chavePix);
+    }
+
     @Override                                                                                                                                   // Implementação do método de validação específico para PIX
     public void validarPagamento() throws PagamentoInvalidoException {
-        if (chavePix == null || chavePix.trim().isEmpty()) {                                                                                    // Valida se a chave PIX não está vazia
-            throw new PagamentoInvalidoException("Chave PIX é obrigatória.");
-        }
-
-        if (chavePix.length() < 5) {                                                                                                            // Valida se a chave PIX tem um formato válido (exemplo simplificado)
-            throw new PagamentoInvalidoException("Chave PIX inválida. Muito curta.");
-        }
+        lancarSeInvalido(verificar());
 
         System.out.println("Validação do PIX realizada com sucesso!");
     }
@@ -113,6 +185,7 @@ class Pix extends FormaPagamento {
     public void processarPagamento(BigDecimal valor) throws PagamentoInvalidoException {
         // Simula o processamento instantâneo do PIX
         System.out.println("Processando pagamento de R$ " + valor + " via PIX");
+        gateway().autorizar(MetodoPagamento.PIX, valor);                                                                                        // Autorização no adquirente (recusa lança PagamentoInvalidoException)
         System.out.println("Chave PIX: " + chavePix);
         System.out.println("Pagamento PIX processado instantaneamente com sucesso!");
     }
@@ -124,8 +197,8 @@ public class SistemaPagamentos {
         System.out.println("=== SISTEMA DE PAGAMENTOS ===\n");
 
         // Cria diferentes formas de pagamento
-        FormaPagamento cartao = new CartaoCredito("1234567812345678", "João Silva", "12/25", "123");
-        FormaPagamento boleto = new Boleto("00193373700000010000500940144816060680935031");
+        FormaPagamento cartao = new CartaoCredito("4111111111111111", "João Silva", "12/35", "123");
+        FormaPagamento boleto = new Boleto("00192373700000010000500940144816060680935031");
         FormaPagamento pix = new Pix("joao.silva@email.com");
 
         BigDecimal valor = new BigDecimal("150.99");                                                                                        // Valor a ser pago
@@ -0,0 +1,153 @@
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+final class ValidadorPagamento {                                                                                                                // Validações de cartão, boleto e PIX com varredura de caracteres (sem regex, sem exceções, sem alocação)
+    private static final ValidadorPagamento PADRAO = new ValidadorPagamento(Clock.systemDefaultZone());
+    private static final ThreadLocal<BoletoDecodificado> BOLETO_DA_THREAD = ThreadLocal.withInitial(BoletoDecodificado::new);                  // Destino reaproveitado por thread: validarBoleto continua sem alocar
+
+    private final Clock relogio;                                                                                                                // Relógio usado para saber se o cartão expirou
+    private volatile MesReferencia mesAtual;                                                                                                    // Mês atual calculado a partir do relógio, recalculado só na virada do mês
+
+    public ValidadorPagamento(Clock relogio) {
+        this.relogio = relogio;
+    }
+
+    public static ValidadorPagamento padrao() {                                                                                                 // Validador com o relógio do sistema
+        return PADRAO;
+    }
+
+    public CodigoErroPagamento validarCartao(String numero, String titular, String validade, String cvv) {                                      // Mesma ordem de verificações de CartaoCredito.validarPagamento
+        if (!somenteDigitos(numero, 16)) {                                                                                                      // 16 dígitos
+            return CodigoErroPagamento.CARTAO_NUMERO_INVALIDO;
+        }
+        if (!luhnValido(numero)) {                                                                                                              // Dígito verificador do número do cartão
+            return CodigoErroPagamento.CARTAO_LUHN_INVALIDO;
+        }
+        if (vazioOuEmBranco(titular)) {
+            return CodigoErroPagamento.TITULAR_OBRIGATORIO;
+        }
+        CodigoErroPagamento codigoValidade = validarValidade(validade);
+        if (codigoValidade != CodigoErroPagamento.OK) {
+            return codigoValidade;
+        }
+        if (!somenteDigitos(cvv, 3)) {
+            return CodigoErroPagamento.CVV_INVALIDO;
+        }
+        return CodigoErroPagamento.OK;
+    }
+
+    public CodigoErroPagamento validarValidade(String validade) {                                                                               // Formato MM/AA, mês de 01 a 12 e não expirado (vale até o fim do mês)
+        if (validade == null || validade.length() != 5 || validade.charAt(2) != '/'
+                || !digito(validade.charAt(0)) || !digito(validade.charAt(1))
+                || !digito(validade.charAt(3)) || !digito(validade.charAt(4))) {
+            return CodigoErroPagamento.VALIDADE_FORMATO_INVALIDO;
+        }
+        int mes = (validade.charAt(0) - '0') * 10 + (validade.charAt(1) - '0');
+        if (mes < 1 || mes > 12) {
+            return CodigoErroPagamento.VALIDADE_MES_INVALIDO;
+        }
+        int ano = 2000 + (validade.charAt(3) - '0') * 10 + (validade.charAt(4) - '0');
+        if (ano * 12 + (mes - 1) < anoMesAtual()) {
+            return CodigoErroPagamento.CARTAO_EXPIRADO;
+        }
+        return CodigoErroPagamento.OK;
+    }
+
+    public static CodigoErroPagamento validarBoleto(String codigo) {                                                                            // 44 dígitos: código de barras; 48 dígitos: linha digitável de arrecadação
+        if (codigo == null) {
+            return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+        }
+        int tamanho = codigo.length();
+        if ((tamanho != 44 && tamanho != 48) || !somenteDigitos(codigo, tamanho)) {
+            return CodigoErroPagamento.BOLETO_CODIGO_INVALIDO;
+        }
+        return DecodificadorBoleto.padrao().decodificar(codigo, BOLETO_DA_THREAD.get());                                                        // Mesmas regras de DV do decodificador (única implementação)
+    }
+
+    public static CodigoErroPagamento validarChavePix(String chave) {                                                                           // Obrigatória, com pelo menos 5 caracteres e de um dos tipos de chave do PIX
+        if (vazioOuEmBranco(chave)) {
+            return CodigoErroPagamento.PIX_CHAVE_OBRIGATORIA;
+        }
+        if (chave.length() < 5) {
+            return CodigoErroPagamento.PIX_CHAVE_CURTA;
+        }
+        if (ClassificadorChavePix.classificar(chave) == TipoChavePix.INVALIDA) {
+            return CodigoErroPagamento.PIX_CHAVE_FORMATO_INVALIDO;
+        }
+        return CodigoErroPagamento.OK;
+    }
+
+    static boolean luhnValido(CharSequence numero) {                                                                                            // Algoritmo de Luhn: dobra um dígito sim, outro não, a partir da direita
+        int soma = 0;
+        boolean dobrar = false;
+        for (int i = numero.length() - 1; i >= 0; i--) {
+            int d = numero.charAt(i) - '0';
+            if (dobrar) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            soma += d;
+            dobrar = !dobrar;
+        }
+        return soma % 10 == 0;
+    }
+
+    private static boolean somenteDigitos(String texto, int tamanho) {                                                                          // Equivalente a texto.matches("\\d{tamanho}") para dígitos ASCII
+        if (texto == null || texto.length() != tamanho) {
+            return false;
+        }
+        for (int i = 0; i < tamanho; i++) {
+            if (!digito(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean digito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean vazioOuEmBranco(String texto) {                                                                                      // Equivalente a texto.trim().isEmpty(), sem criar a string aparada
+        if (texto == null) {
+            return true;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int anoMesAtual() {                                                                                                                 // ano * 12 + (mês - 1) segundo o relógio
+        long agora = relogio.millis();
+        MesReferencia mes = mesAtual;
+        if (mes == null || agora < mes.inicio || agora >= mes.fim) {                                                                            // Virada de mês (ou relógio de teste voltou no tempo)
+            mes = MesReferencia.de(agora, relogio.getZone());
+            mesAtual = mes;
+        }
+        return mes.anoMes;
+    }
+
+    private static final class MesReferencia {                                                                                                  // Mês do calendário e o intervalo de tempo em que ele vale
+        final int anoMes;
+        final long inicio;
+        final long fim;
+
+        private MesReferencia(int anoMes, long inicio, long fim) {
+            this.anoMes = anoMes;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        static MesReferencia de(long millis, ZoneId zona) {
+            LocalDate primeiroDia = Instant.ofEpochMilli(millis).atZone(zona).toLocalDate().withDayOfMonth(1);
+            return new MesReferencia(primeiroDia.getYear() * 12 + primeiroDia.getMonthValue() - 1,
+                    primeiroDia.atStartOfDay(zona).toInstant().toEpochMilli(),
+                    primeiroDia.plusMonths(1).atStartOfDay(zona).toInstant().toEpochMilli());
+        }
+    }
+}
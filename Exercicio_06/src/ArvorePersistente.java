@@ -0,0 +1,192 @@
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+final class ArvorePersistente<K extends Comparable<K>, V> {                                                             // Mapa ordenado imutável: cada alteração copia só o caminho até a raiz (O(log n)) e compartilha o resto
+    private static final int DELTA = 3;                                                                                 // Parâmetros de balanceamento por peso (Hirai e Yamamoto)
+    private static final int GAMMA = 2;
+    private static final ArvorePersistente<?, ?> VAZIA = new ArvorePersistente<>(null);
+
+    private final No<K, V> raiz;
+
+    private ArvorePersistente(No<K, V> raiz) {
+        this.raiz = raiz;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K extends Comparable<K>, V> ArvorePersistente<K, V> vazia() {
+        return (ArvorePersistente<K, V>) VAZIA;
+    }
+
+    public int tamanho() {
+        return tamanho(raiz);
+    }
+
+    public boolean estaVazia() {
+        return raiz == null;
+    }
+
+    public V obter(K chave) {                                                                                           // null se a chave não existir
+        No<K, V> no = raiz;
+        while (no != null) {
+            int comparacao = chave.compareTo(no.chave);
+            if (comparacao == 0) {
+                return no.valor;
+            }
+            no = comparacao < 0 ? no.esquerda : no.direita;
+        }
+        return null;
+    }
+
+    public V naPosicao(int indice) {                                                                                    // Valor da indice-ésima menor chave, usando o tamanho guardado em cada nó
+        if (indice < 0 || indice >= tamanho()) {
+            throw new IndexOutOfBoundsException("Índice: " + indice + ", tamanho: " + tamanho());
+        }
+        No<K, V> no = raiz;
+        while (true) {
+            int tamanhoEsquerda = tamanho(no.esquerda);
+            if (indice < tamanhoEsquerda) {
+                no = no.esquerda;
+            } else if (indice == tamanhoEsquerda) {
+                return no.valor;
+            } else {
+                indice -= tamanhoEsquerda + 1;
+                no = no.direita;
+            }
+        }
+    }
+
+    public ArvorePersistente<K, V> com(K chave, V valor) {                                                              // Nova árvore com a chave associada ao valor
+        return new ArvorePersistente<>(inserir(raiz, chave, valor));
+    }
+
+    public ArvorePersistente<K, V> sem(K chave) {                                                                       // Nova árvore sem a chave (a mesma árvore se ela não existir)
+        No<K, V> novaRaiz = remover(raiz, chave);
+        return novaRaiz == raiz ? this : new ArvorePersistente<>(novaRaiz);
+    }
+
+    public Iterator<V> valores() {                                                                                      // Valores em ordem crescente de chave
+        return new Iterator<V>() {
+            private final ArrayDeque<No<K, V>> pilha = new ArrayDeque<>();
+            {
+                descer(raiz);
+            }
+
+            private void descer(No<K, V> no) {
+                for (; no != null; no = no.esquerda) {
+                    pilha.push(no);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !pilha.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (pilha.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                No<K, V> no = pilha.pop();
+                descer(no.direita);
+                return no.valor;
+            }
+        };
+    }
+
+    private static <K extends Comparable<K>, V> No<K, V> inserir(No<K, V> no, K chave, V valor) {
+        if (no == null) {
+            return new No<>(chave, valor, null, null);
+        }
+        int comparacao = chave.compareTo(no.chave);
+        if (comparacao < 0) {
+            return balancear(no.chave, no.valor, inserir(no.esquerda, chave, valor), no.direita);
+        }
+        if (comparacao > 0) {
+            return balancear(no.chave, no.valor, no.esquerda, inserir(no.direita, chave, valor));
+        }
+        return new No<>(chave, valor, no.esquerda, no.direita);
+    }
+
+    private static <K extends Comparable<K>, V> No<K, V> remover(No<K, V> no, K chave) {
+        if (no == null) {
+            return null;
+        }
+        int comparacao = chave.compareTo(no.chave);
+        if (comparacao < 0) {
+            No<K, V> esquerda = remover(no.esquerda, chave);
+            return esquerda == no.esquerda ? no : balancear(no.chave, no.valor, esquerda, no.direita);
+        }
+        if (comparacao > 0) {
+            No<K, V> direita = remover(no.direita, chave);
+            return direita == no.direita ? no : balancear(no.chave, no.valor, no.esquerda, direita);
+        }
+        return juntar(no.esquerda, no.direita);
+    }
+
+    private static <K extends Comparable<K>, V> No<K, V> juntar(No<K, V> esquerda, No<K, V> direita) {                  // Une duas subárvores em que toda chave da esquerda é menor
+        if (esquerda == null) return direita;
+        if (direita == null) return esquerda;
+        if (tamanho(esquerda) > tamanho(direita)) {
+            No<K, V> maior = esquerda;
+            while (maior.direita != null) maior = maior.direita;
+            return balancear(maior.chave, maior.valor, removerMaior(esquerda), direita);
+        }
+        No<K, V> menor = direita;
+        while (menor.esquerda != null) menor = menor.esquerda;
+        return balancear(menor.chave, menor.valor, esquerda, removerMenor(direita));
+    }
+
+    private static <K extends Comparable<K>, V> No<K, V> removerMenor(No<K, V> no) {
+        if (no.esquerda == null) return no.direita;
+        return balancear(no.chave, no.valor, removerMenor(no.esquerda), no.direita);
+    }
+
+    private static <K extends Comparable<K>, V> No<K, V> removerMaior(No<K, V> no) {
+        if (no.direita == null) return no.esquerda;
+        return balancear(no.chave, no.valor, no.esquerda, removerMaior(no.direita));
+    }
+
+    private static <K extends Comparable<K>, V> No<K, V> balancear(K chave, V valor, No<K, V> esquerda, No<K, V> direita) {
+        int pesoEsquerda = tamanho(esquerda) + 1;
+        int pesoDireita = tamanho(direita) + 1;
+        if (pesoDireita > DELTA * pesoEsquerda) {                                                                       // Direita pesada demais: rotação à esquerda
+            if (tamanho(direita.esquerda) + 1 < GAMMA * (tamanho(direita.direita) + 1)) {
+                return new No<>(direita.chave, direita.valor, new No<>(chave, valor, esquerda, direita.esquerda), direita.direita);
+            }
+            No<K, V> meio = direita.esquerda;
+            return new No<>(meio.chave, meio.valor, new No<>(chave, valor, esquerda, meio.esquerda),
+                    new No<>(direita.chave, direita.valor, meio.direita, direita.direita));
+        }
+        if (pesoEsquerda > DELTA * pesoDireita) {                                                                       // Esquerda pesada demais: rotação à direita
+            if (tamanho(esquerda.direita) + 1 < GAMMA * (tamanho(esquerda.esquerda) + 1)) {
+                return new No<>(esquerda.chave, esquerda.valor, esquerda.esquerda, new No<>(chave, valor, esquerda.direita, direita));
+            }
+            No<K, V> meio = esquerda.direita;
+            return new No<>(meio.chave, meio.valor, new No<>(esquerda.chave, esquerda.valor, esquerda.esquerda, meio.esquerda),
+                    new No<>(chave, valor, meio.direita, direita));
+        }
+        return new No<>(chave, valor, esquerda, direita);
+    }
+
+    private static int tamanho(No<?, ?> no) {
+        return no == null ? 0 : no.tamanho;
+    }
+
+    private static final class No<K, V> {                                                                               // Nó imutável, compartilhado entre versões
+        final K chave;
+        final V valor;
+        final No<K, V> esquerda;
+        final No<K, V> direita;
+        final int tamanho;                                                                                              // Nós nesta subárvore (acesso por posição)
+
+        No(K chave, V valor, No<K, V> esquerda, No<K, V> direita) {
+            this.chave = chave;
+            this.valor = valor;
+            this.esquerda = esquerda;
+            this.direita = direita;
+            this.tamanho = tamanho(esquerda) + tamanho(direita) + 1;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class BenchmarkCarrinho {                                                                                        // Confere o Carrinho persistente contra uma lista comum e compara com a cópia da lista inteira e a soma linha a linha
+    private static final int[] TAMANHOS = {10, 100, 1_000, 10_000, 100_000};
+    private static final int OPERACOES_CONFERENCIA = 20_000;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();                                      // Bytes alocados pela thread atual
+
+    public static void main(String[] args) {
+        conferir();
+
+        System.out.println("\n=== ADICIONAR E REMOVER UMA LINHA (a partir de um carrinho com n linhas) ===");
+        for (int rodada = 1; rodada <= 2; rodada++) {
+            System.out.println("Rodada " + rodada);
+            for (int n : TAMANHOS) {
+                medir(n);
+            }
+        }
+
+        System.out.println("\n=== CALCULAR TOTAL (carrinho com cupom de 15%) ===");
+        for (int rodada = 1; rodada <= 2; rodada++) {
+            System.out.println("Rodada " + rodada);
+            for (int n : TAMANHOS) {
+                medirTotal(n);
+            }
+        }
+    }
+
+    private static void medirTotal(int n) {                                                                             // Primeira chamada numa versão nova, chamadas repetidas e a soma linha a linha anterior
+        Carrinho carrinho = Carrinho.criar();
+        for (int i = 0; i < n; i++) {
+            carrinho = carrinho.adicionarItem(new ItemCarrinho(new Produto("P" + i, "Produto " + i,
+                    Dinheiro.of(BigDecimal.valueOf(1_000 + i % 997, 2), Moeda.BRL)), 1 + i % 5));
+        }
+        BigDecimal cupom = new BigDecimal("15");
+        int operacoes = Math.max(1_000, 2_000_000 / n);
+        Carrinho[] versoes = new Carrinho[operacoes];
+        for (int i = 0; i < operacoes; i++) {
+            versoes[i] = carrinho.aplicarCupom(cupom);                                                                  // Versões novas, ainda sem total calculado
+        }
+
+        System.gc();
+        long soma = 0;
+        long bytes0 = alocado();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < operacoes; i++) soma += versoes[i].calcularTotal().getValor().scale();
+        long t1 = System.nanoTime();
+        long bytes1 = alocado();
+        for (int i = 0; i < operacoes; i++) soma += versoes[i].calcularTotal().getValor().scale();
+        long t2 = System.nanoTime();
+        long bytes2 = alocado();
+        for (int i = 0; i < operacoes / 10; i++) soma += somarLinhas(carrinho.getItens(), cupom).getValor().scale();
+        long t3 = System.nanoTime();
+        long bytes3 = alocado();
+        conferir(versoes[0].calcularTotal().equals(somarLinhas(carrinho.getItens(), cupom)), "total do carrinho de " + n);
+
+        System.out.printf("  n=%,7d | primeira chamada %,7.0f ns %,5.0f B | repetida %,5.1f ns %,5.1f B || linha a linha %,13.0f ns %,13.0f B (checksum %d)%n",
+                n, (t1 - t0) / (double) operacoes, (bytes1 - bytes0) / (double) operacoes,
+                (t2 - t1) / (double) operacoes, (bytes2 - bytes1) / (double) operacoes,
+                (t3 - t2) / (double) (operacoes / 10), (bytes3 - bytes2) / (double) (operacoes / 10), soma);
+    }
+
+    private static void medir(int n) {
+        ItemCarrinho[] linhas = new ItemCarrinho[n];
+        Carrinho carrinho = Carrinho.criar();
+        List<ItemCarrinho> lista = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            linhas[i] = new ItemCarrinho(new Produto("P" + i, "Produto " + i, Dinheiro.of("10.00", Moeda.BRL)), 1 + i % 5);
+            carrinho = carrinho.adicionarItem(linhas[i]);
+            lista.add(linhas[i]);
+        }
+        List<ItemCarrinho> copiada = Collections.unmodifiableList(new ArrayList<>(lista));
+        ItemCarrinho extra = new ItemCarrinho(new Produto("EXTRA", "Extra", Dinheiro.of("1.00", Moeda.BRL)), 1);
+        int operacoes = Math.max(1_000, 2_000_000 / n);                                                                 // Menos repetições para os carrinhos grandes da cópia
+        String[] removidos = new String[operacoes];
+        SplittableRandom aleatorio = new SplittableRandom(n);
+        for (int i = 0; i < operacoes; i++) {
+            removidos[i] = linhas[aleatorio.nextInt(n)].getProduto().getId();
+        }
+
+        System.gc();                                                                                                    // Lixo das cópias da medição anterior não deve cair nesta
+        long soma = 0;
+        long bytes0 = alocado();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < operacoes; i++) soma += carrinho.adicionarItem(extra).getItens().size();
+        long t1 = System.nanoTime();
+        long bytes1 = alocado();
+        for (int i = 0; i < operacoes; i++) soma += carrinho.removerItem(removidos[i]).getItens().size();
+        long t2 = System.nanoTime();
+        long bytes2 = alocado();
+        for (int i = 0; i < operacoes; i++) soma += adicionarCopiando(copiada, extra).size();
+        long t3 = System.nanoTime();
+        long bytes3 = alocado();
+        for (int i = 0; i < operacoes; i++) soma += removerCopiando(copiada, removidos[i]).size();
+        long t4 = System.nanoTime();
+        long bytes4 = alocado();
+
+        System.out.printf("  n=%,7d | persistente: adicionar %,9.0f ns %,9.0f B | remover %,9.0f ns %,9.0f B"
+                        + " || cópia: adicionar %,11.0f ns %,11.0f B | remover %,11.0f ns %,11.0f B (checksum %d)%n", n,
+                (t1 - t0) / (double) operacoes, (bytes1 - bytes0) / (double) operacoes,
+                (t2 - t1) / (double) operacoes, (bytes2 - bytes1) / (double) operacoes,
+                (t3 - t2) / (double) operacoes, (bytes3 - bytes2) / (double) operacoes,
+                (t4 - t3) / (double) operacoes, (bytes4 - bytes3) / (double) operacoes, soma);
+    }
+
+    private static List<ItemCarrinho> adicionarCopiando(List<ItemCarrinho> itens, ItemCarrinho novoItem) {              // Implementação anterior: copia a lista e copia de novo no construtor
+        List<ItemCarrinho> novosItens = new ArrayList<>(itens);
+        novosItens.add(novoItem);
+        return Collections.unmodifiableList(new ArrayList<>(novosItens));
+    }
+
+    private static List<ItemCarrinho> removerCopiando(List<ItemCarrinho> itens, String produtoId) {
+        List<ItemCarrinho> novosItens = new ArrayList<>();
+        for (ItemCarrinho item : itens) {
+            if (!item.getProduto().getId().equals(produtoId)) {
+                novosItens.add(item);
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(novosItens));
+    }
+
+    private static void conferir() {                                                                                    // Operações aleatórias no Carrinho e numa lista de referência; versões antigas não podem mudar
+        System.out.println("=== CONFERINDO CARRINHO PERSISTENTE ===");
+        Produto[] produtos = new Produto[50];
+        for (int i = 0; i < produtos.length; i++) {
+            BigDecimal preco = i % 10 == 9 ? new BigDecimal("1E+1") : BigDecimal.valueOf(100 + i * 37L, i % 4);         // Escalas variadas (inclusive negativa): o total precisa sair com a mesma escala
+            produtos[i] = new Produto(String.format("%03d", i), "Produto " + i, Dinheiro.of(preco, i == 0 ? Moeda.USD : Moeda.BRL));
+        }
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Carrinho carrinho = Carrinho.criar();
+        List<ItemCarrinho> referencia = new ArrayList<>();
+        List<Carrinho> versoes = new ArrayList<>();
+        List<List<ItemCarrinho>> esperadas = new ArrayList<>();
+
+        for (int i = 0; i < OPERACOES_CONFERENCIA; i++) {
+            int sorteio = aleatorio.nextInt(10);
+            if (sorteio < 6) {                                                                                          // Produtos se repetem: o mesmo produto pode ter várias linhas
+                ItemCarrinho item = new ItemCarrinho(produtos[aleatorio.nextInt(produtos.length)], 1 + aleatorio.nextInt(3));
+                carrinho = carrinho.adicionarItem(item);
+                referencia.add(item);
+            } else if (sorteio < 9) {
+                String id = produtos[aleatorio.nextInt(produtos.length)].getId();
+                carrinho = carrinho.removerItem(id);
+                referencia.removeIf(item -> item.getProduto().getId().equals(id));
+            } else {
+                carrinho = carrinho.aplicarCupom(BigDecimal.valueOf(aleatorio.nextInt(31)));
+            }
+            conferir(carrinho.getItens().equals(referencia), "itens divergentes na operação " + i);
+            String esperado = totalReferencia(referencia, carrinho.getPercentualDesconto());
+            conferir(totalOuErro(carrinho).equals(esperado), "total " + totalOuErro(carrinho) + " em vez de " + esperado + " na operação " + i);
+            conferir(totalOuErro(carrinho).equals(esperado), "total repetido divergente na operação " + i);
+            if (i % 1_000 == 0) {
+                versoes.add(carrinho);
+                esperadas.add(new ArrayList<>(referencia));
+            }
+        }
+        for (int i = 0; i < versoes.size(); i++) {
+            conferir(versoes.get(i).getItens().equals(esperadas.get(i)), "versão " + i + " foi alterada");
+        }
+
+        Carrinho pequeno = Carrinho.criar().adicionarItem(new ItemCarrinho(produtos[0], 1));
+        conferir(pequeno.removerItem("inexistente") == pequeno && pequeno.removerItem(null) == pequeno, "remover ausente não deveria mudar");
+        conferir(pequeno.getItens().get(0).getProduto() == produtos[0], "get(0)");
+        try {
+            pequeno.getItens().add(new ItemCarrinho(produtos[1], 1));
+            conferir(false, "getItens() deveria ser somente leitura");
+        } catch (UnsupportedOperationException esperado) {
+        }
+        System.out.println("OK: " + OPERACOES_CONFERENCIA + " operações, " + versoes.size() + " versões antigas intactas, "
+                + carrinho.getItens().size() + " linhas no final");
+    }
+
+    private static String totalReferencia(List<ItemCarrinho> itens, BigDecimal percentualDesconto) {                    // calcularTotal anterior, recalculado do zero; compara o texto para conferir também a escala
+        try {
+            return somarLinhas(itens, percentualDesconto).toString();
+        } catch (IllegalArgumentException e) {
+            return "erro: " + e.getMessage();
+        }
+    }
+
+    private static String totalOuErro(Carrinho carrinho) {
+        try {
+            return carrinho.calcularTotal().toString();
+        } catch (IllegalArgumentException e) {
+            return "erro: " + e.getMessage();
+        }
+    }
+
+    private static Dinheiro somarLinhas(List<ItemCarrinho> itens, BigDecimal percentualDesconto) {
+        if (itens.isEmpty()) {
+            return Dinheiro.of(BigDecimal.ZERO, Moeda.BRL);
+        }
+        Dinheiro total = itens.get(0).getSubtotal();
+        for (int i = 1; i < itens.size(); i++) {
+            total = total.somar(itens.get(i).getSubtotal());
+        }
+        return percentualDesconto.compareTo(BigDecimal.ZERO) > 0 ? total.aplicarDesconto(percentualDesconto) : total;
+    }
+
+    private static long alocado() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+}
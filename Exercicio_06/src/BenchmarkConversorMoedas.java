@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class BenchmarkConversorMoedas {                                                                                 // Confere conversões, troca de tabela e total em outra moeda; compara converterTodos com a conversão em BigDecimal
+    private static final int CONFERENCIAS = 1_000_000;
+    private static final int VALORES = 1_000_000;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();                                      // Bytes alocados pela thread atual
+
+    public static void main(String[] args) throws Exception {
+        Path arquivo = Files.createTempFile("cotacoes", ".txt");
+        try {
+            Files.write(arquivo, "# moeda;cotação em reais\nBRL;1\nUSD;5.4321\nEUR;5.9012\n".getBytes(StandardCharsets.UTF_8));
+            ConversorMoedas conversor = new ConversorMoedas(arquivo);
+            conferirConversoes(conversor.getTabela());
+            conferirArquivo(conversor, arquivo);
+            conferirCarrinho(conversor);
+            conferirTroca();
+            medir(conversor.getTabela());
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static void conferirConversoes(TabelaCambio tabela) {                                                       // Caminho em long contra valor x taxa em BigDecimal, com HALF_EVEN
+        System.out.println("=== CONFERINDO CONVERSÕES ===");
+        conferir(tabela.taxa(Moeda.USD, Moeda.BRL).getValor().toString().equals("5.4321"), "taxa USD/BRL");
+        conferir(tabela.taxa(Moeda.BRL, Moeda.USD).getValor().toString().equals("0.1840908673"), "taxa BRL/USD " + tabela.taxa(Moeda.BRL, Moeda.USD));
+        conferir(tabela.converter(Dinheiro.of("100.00", Moeda.USD), Moeda.BRL).toString().equals("BRL 543.21"), "100 dólares");
+        Dinheiro reais = Dinheiro.of("10", Moeda.BRL);
+        conferir(tabela.converter(reais, Moeda.BRL) == reais, "mesma moeda devolve o próprio valor");
+
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Moeda[] moedas = Moeda.values();
+        Dinheiro[] valores = new Dinheiro[CONFERENCIAS];
+        Moeda destino = Moeda.EUR;
+        for (int i = 0; i < CONFERENCIAS; i++) {
+            valores[i] = Dinheiro.of(valorAleatorio(aleatorio), moedas[aleatorio.nextInt(moedas.length)]);
+            for (Moeda moeda : moedas) {
+                Dinheiro obtido = tabela.converter(valores[i], moeda);
+                String esperado = valores[i].getMoeda() == moeda ? valores[i].toString()
+                        : moeda + " " + valores[i].getValor().multiply(tabela.taxa(valores[i].getMoeda(), moeda).getValor())
+                        .setScale(moeda.getCasasDecimais(), RoundingMode.HALF_EVEN);
+                conferir(obtido.toString().equals(esperado), obtido + " em vez de " + esperado + " para " + valores[i]);
+            }
+        }
+        Dinheiro[] convertidos = tabela.converterTodos(valores, destino);
+        for (int i = 0; i < CONFERENCIAS; i++) {
+            conferir(convertidos[i].equals(tabela.converter(valores[i], destino)), "converterTodos na posição " + i);
+        }
+        try {
+            valores[0].converter(tabela.taxa(valores[0].getMoeda() == Moeda.BRL ? Moeda.USD : Moeda.BRL, destino));
+            conferir(false, "taxa de outra moeda deveria falhar");
+        } catch (IllegalArgumentException esperado) {
+        }
+        System.out.println("OK: " + CONFERENCIAS + " valores em " + moedas.length + " moedas");
+    }
+
+    private static void conferirArquivo(ConversorMoedas conversor, Path arquivo) throws IOException {
+        System.out.println("\n=== CONFERINDO RECARGA DO ARQUIVO ===");
+        TabelaCambio antes = conversor.getTabela();
+        Files.write(arquivo, "BRL;1\nUSD;5.4321\n".getBytes(StandardCharsets.UTF_8));                                   // Falta EUR
+        falharAoRecarregar(conversor, arquivo);
+        Files.write(arquivo, "BRL;1\nUSD;5.4321\nEUR;5.9012\nXYZ;2\n".getBytes(StandardCharsets.UTF_8));
+        falharAoRecarregar(conversor, arquivo);
+        Files.write(arquivo, "BRL;1\nUSD;0\nEUR;5.9012\n".getBytes(StandardCharsets.UTF_8));
+        falharAoRecarregar(conversor, arquivo);
+        conferir(conversor.getTabela() == antes, "tabela inválida não deveria substituir a atual");
+
+        Files.write(arquivo, "BRL;1\nUSD;5.50\nEUR;6\n".getBytes(StandardCharsets.UTF_8));
+        conversor.recarregar();
+        conferir(conversor.getTabela() != antes && conversor.converter(Dinheiro.of("2.00", Moeda.USD), Moeda.BRL).toString().equals("BRL 11.00"),
+                "nova tabela");
+        conversor.atualizar(antes);
+        System.out.println("OK: arquivos inválidos recusados, tabela trocada na recarga");
+    }
+
+    private static void falharAoRecarregar(ConversorMoedas conversor, Path arquivo) {
+        try {
+            conversor.recarregar();
+            conferir(false, "arquivo inválido deveria falhar");
+        } catch (IOException esperado) {
+            System.out.println("Recusado: " + esperado.getMessage().replace(arquivo.toString(), "cotacoes.txt"));
+        }
+    }
+
+    private static void conferirCarrinho(ConversorMoedas conversor) {                                                   // Linhas em três moedas: soma de cada moeda convertida, arredondada, depois o desconto
+        System.out.println("\n=== CONFERINDO TOTAL DO CARRINHO EM OUTRA MOEDA ===");
+        TabelaCambio tabela = conversor.getTabela();
+        Carrinho carrinho = Carrinho.criar()
+                .adicionarItem(new ItemCarrinho(new Produto("001", "Notebook", Dinheiro.of("2500.00", Moeda.BRL)), 1))
+                .adicionarItem(new ItemCarrinho(new Produto("002", "Mouse", Dinheiro.of("19.99", Moeda.USD)), 3))
+                .adicionarItem(new ItemCarrinho(new Produto("003", "Teclado", Dinheiro.of("49.90", Moeda.EUR)), 1))
+                .adicionarItem(new ItemCarrinho(new Produto("004", "Cabo", Dinheiro.of("1.005", Moeda.BRL)), 2))
+                .aplicarCupom(new BigDecimal("10"));
+
+        for (Moeda destino : Moeda.values()) {
+            BigDecimal soma = BigDecimal.ZERO;
+            for (Moeda moeda : Moeda.values()) {
+                BigDecimal daMoeda = BigDecimal.ZERO;
+                for (ItemCarrinho item : carrinho.getItens()) {
+                    if (item.getProduto().getPreco().getMoeda() == moeda) {
+                        daMoeda = daMoeda.add(item.getSubtotal().getValor());
+                    }
+                }
+                soma = soma.add(moeda == destino ? daMoeda
+                        : daMoeda.multiply(tabela.taxa(moeda, destino).getValor()).setScale(destino.getCasasDecimais(), RoundingMode.HALF_EVEN));
+            }
+            Dinheiro esperado = Dinheiro.of(soma.setScale(destino.getCasasDecimais(), RoundingMode.HALF_EVEN), destino).aplicarDesconto(new BigDecimal("10"));
+            Dinheiro obtido = carrinho.calcularTotal(destino, conversor);
+            conferir(obtido.toString().equals(esperado.toString()), obtido + " em vez de " + esperado);
+            conferir(carrinho.calcularTotal(destino, conversor) == obtido, "total repetido deveria vir do cache");
+            System.out.println("Total em " + destino + ": " + obtido);
+        }
+        try {
+            carrinho.calcularTotal();
+            conferir(false, "total sem conversão deveria recusar moedas diferentes");
+        } catch (IllegalArgumentException esperado) {
+        }
+
+        Carrinho emReais = carrinho.removerItem("002").removerItem("003");
+        conferir(emReais.calcularTotal(Moeda.BRL, conversor).equals(emReais.calcularTotal())
+                && emReais.calcularTotal(Moeda.BRL, conversor).toString().equals(emReais.calcularTotal().toString()), "carrinho só em reais");
+        conferir(Carrinho.criar().calcularTotal(Moeda.USD, conversor).toString().equals("USD 0"), "carrinho vazio");
+
+        Map<Moeda, BigDecimal> novas = new EnumMap<>(Moeda.class);
+        novas.put(Moeda.BRL, BigDecimal.ONE);
+        novas.put(Moeda.USD, new BigDecimal("6"));
+        novas.put(Moeda.EUR, new BigDecimal("7"));
+        Dinheiro antes = carrinho.calcularTotal(Moeda.BRL, conversor);
+        conversor.atualizar(TabelaCambio.de(novas));
+        conferir(!carrinho.calcularTotal(Moeda.BRL, conversor).equals(antes), "nova tabela deveria mudar o total");
+        conversor.atualizar(tabela);
+        System.out.println("OK: totais em cada moeda conferem");
+    }
+
+    private static void conferirTroca() throws InterruptedException {                                                   // Uma thread troca a tabela sem parar; cada converterTodos precisa usar uma tabela só
+        System.out.println("\n=== CONFERINDO TROCA DE TABELA DURANTE CONVERSÕES ===");
+        TabelaCambio cinco = TabelaCambio.de(cotacoes("5"));
+        TabelaCambio seis = TabelaCambio.de(cotacoes("6"));
+        ConversorMoedas conversor = new ConversorMoedas(cinco);
+        Dinheiro[] dolares = new Dinheiro[1_000];
+        for (int i = 0; i < dolares.length; i++) {
+            dolares[i] = Dinheiro.of("1.00", Moeda.USD);
+        }
+        AtomicBoolean parar = new AtomicBoolean();
+        Thread trocador = new Thread(() -> {
+            for (long i = 0; !parar.get(); i++) {
+                conversor.atualizar(i % 2 == 0 ? seis : cinco);
+                Thread.yield();
+            }
+        });
+        trocador.start();
+        int lotes = 0;
+        int[] porTabela = new int[2];
+        long fim = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < fim) {
+            Dinheiro[] reais = conversor.converterTodos(dolares, Moeda.BRL);
+            for (Dinheiro real : reais) {
+                conferir(real.equals(reais[0]), "lote misturou duas tabelas");
+            }
+            porTabela[reais[0].getValor().intValue() - 5]++;
+            lotes++;
+        }
+        parar.set(true);
+        trocador.join();
+        System.out.println("OK: " + lotes + " lotes (" + porTabela[0] + " com a primeira tabela, " + porTabela[1] + " com a segunda)");
+    }
+
+    private static Map<Moeda, BigDecimal> cotacoes(String dolar) {
+        Map<Moeda, BigDecimal> cotacoes = new EnumMap<>(Moeda.class);
+        cotacoes.put(Moeda.BRL, BigDecimal.ONE);
+        cotacoes.put(Moeda.USD, new BigDecimal(dolar));
+        cotacoes.put(Moeda.EUR, new BigDecimal("5.9"));
+        return cotacoes;
+    }
+
+    private static void medir(TabelaCambio tabela) {                                                                    // converterTodos contra calcular a taxa e converter em BigDecimal a cada valor
+        System.out.println("\n=== CONVERTER " + VALORES + " VALORES EM TRÊS MOEDAS PARA BRL ===");
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        Moeda[] moedas = Moeda.values();
+        Dinheiro[] valores = new Dinheiro[VALORES];
+        for (int i = 0; i < VALORES; i++) {
+            valores[i] = Dinheiro.ofUnidadesMinimas(100 + aleatorio.nextInt(1_000_000), moedas[aleatorio.nextInt(moedas.length)]);
+        }
+        conferir(converterComBigDecimal(tabela, valores, Moeda.BRL)[VALORES - 1].equals(tabela.converterTodos(valores, Moeda.BRL)[VALORES - 1]), "último valor");
+
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            System.gc();
+            long bytes0 = alocado();
+            long t0 = System.nanoTime();
+            Dinheiro[] rapidos = tabela.converterTodos(valores, Moeda.BRL);
+            long t1 = System.nanoTime();
+            long bytes1 = alocado();
+            Dinheiro[] lentos = converterComBigDecimal(tabela, valores, Moeda.BRL);
+            long t2 = System.nanoTime();
+            long bytes2 = alocado();
+            System.out.printf("Rodada %d: converterTodos %,6.1f ns/valor, %,5.1f B/valor || BigDecimal %,6.1f ns/valor, %,5.1f B/valor (checksum %d)%n",
+                    rodada, (t1 - t0) / (double) VALORES, (bytes1 - bytes0) / (double) VALORES,
+                    (t2 - t1) / (double) VALORES, (bytes2 - bytes1) / (double) VALORES, rapidos[rodada].hashCode() + lentos[rodada].hashCode());
+        }
+    }
+
+    private static Dinheiro[] converterComBigDecimal(TabelaCambio tabela, Dinheiro[] valores, Moeda destino) {          // Sem tabela de pares: divide as cotações a cada valor
+        Dinheiro[] convertidos = new Dinheiro[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            Dinheiro valor = valores[i];
+            if (valor.getMoeda() == destino) {
+                convertidos[i] = valor;
+                continue;
+            }
+            BigDecimal taxa = tabela.getCotacao(valor.getMoeda()).divide(tabela.getCotacao(destino), 10, RoundingMode.HALF_EVEN).stripTrailingZeros();
+            convertidos[i] = Dinheiro.of(valor.getValor().multiply(taxa).setScale(destino.getCasasDecimais(), RoundingMode.HALF_EVEN), destino);
+        }
+        return convertidos;
+    }
+
+    private static BigDecimal valorAleatorio(SplittableRandom aleatorio) {                                              // Centavos, valores perto do limite do long, outras escalas e zero
+        int sorteio = aleatorio.nextInt(20);
+        if (sorteio == 0) return BigDecimal.ZERO;
+        if (sorteio == 1) return BigDecimal.valueOf(aleatorio.nextLong(1_000_000), aleatorio.nextInt(5));
+        if (sorteio == 2) return BigDecimal.valueOf(Long.MAX_VALUE - aleatorio.nextLong(1_000_000), 2);
+        if (sorteio == 3) return BigDecimal.valueOf(aleatorio.nextLong(Long.MAX_VALUE / 4), 2);
+        return BigDecimal.valueOf(aleatorio.nextLong(100_000_000), 2);
+    }
+
+    private static long alocado() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+public class BenchmarkDinheiro {                                                                                        // Confere o Dinheiro em centavos contra a versão só com BigDecimal e compara o custo de totalizar carrinhos
+    private static final int CONFERENCIAS = 2_000_000;
+    private static final int LINHAS = 1_000;
+    private static final int CARRINHOS = 20_000;
+    private static final BigDecimal CUPOM = new BigDecimal("15");
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();                                      // Bytes alocados pela thread atual
+
+    public static void main(String[] args) {
+        conferir();
+
+        System.out.println("\n=== TOTAL DE CARRINHO (" + LINHAS + " linhas, multiplicar + somar + desconto de 15%) ===");
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        Dinheiro[] precos = new Dinheiro[LINHAS];
+        DinheiroBigDecimal[] precosReferencia = new DinheiroBigDecimal[LINHAS];
+        int[] quantidades = new int[LINHAS];
+        for (int i = 0; i < LINHAS; i++) {
+            BigDecimal preco = BigDecimal.valueOf(100 + aleatorio.nextInt(500_000), 2);                                 // R$ 1,00 a R$ 5.000,00
+            precos[i] = Dinheiro.of(preco, Moeda.BRL);
+            precosReferencia[i] = DinheiroBigDecimal.of(preco, Moeda.BRL);
+            quantidades[i] = 1 + aleatorio.nextInt(5);
+        }
+        conferir(totalizar(precos, quantidades).toString().equals(totalizar(precosReferencia, quantidades).toString()), "totais");
+
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            long soma = 0;
+            long bytes0 = alocado();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < CARRINHOS; i++) soma += totalizar(precos, quantidades).hashCode();
+            long t1 = System.nanoTime();
+            long bytes1 = alocado();
+            for (int i = 0; i < CARRINHOS; i++) soma += totalizar(precosReferencia, quantidades).hashCode();
+            long t2 = System.nanoTime();
+            long bytes2 = alocado();
+            System.out.printf("Rodada %d: centavos %,9.0f carrinhos/s, %,8.0f B/carrinho, %,7.0f MB/s alocados"
+                            + " || BigDecimal %,9.0f carrinhos/s, %,8.0f B/carrinho, %,7.0f MB/s alocados (checksum %d)%n", rodada,
+                    CARRINHOS / ((t1 - t0) / 1e9), (bytes1 - bytes0) / (double) CARRINHOS, (bytes1 - bytes0) / ((t1 - t0) / 1e3),
+                    CARRINHOS / ((t2 - t1) / 1e9), (bytes2 - bytes1) / (double) CARRINHOS, (bytes2 - bytes1) / ((t2 - t1) / 1e3), soma);
+        }
+    }
+
+    private static Dinheiro totalizar(Dinheiro[] precos, int[] quantidades) {                                           // O mesmo laço de Carrinho.somarItens
+        Dinheiro total = precos[0].multiplicar(quantidades[0]);
+        for (int i = 1; i < precos.length; i++) {
+            total = total.somar(precos[i].multiplicar(quantidades[i]));
+        }
+        return total.aplicarDesconto(CUPOM);
+    }
+
+    private static DinheiroBigDecimal totalizar(DinheiroBigDecimal[] precos, int[] quantidades) {
+        DinheiroBigDecimal total = precos[0].multiplicar(quantidades[0]);
+        for (int i = 1; i < precos.length; i++) {
+            total = total.somar(precos[i].multiplicar(quantidades[i]));
+        }
+        return total.aplicarDesconto(CUPOM);
+    }
+
+    private static void conferir() {                                                                                    // Operações aleatórias nas duas versões: mesmo texto, mesmo equals, mesmo hashCode, mesmos erros
+        System.out.println("=== CONFERINDO DINHEIRO EM CENTAVOS ===");
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Moeda[] moedas = Moeda.values();
+        long transbordos = 0;
+        for (int i = 0; i < CONFERENCIAS; i++) {
+            Moeda moeda = moedas[aleatorio.nextInt(moedas.length)];
+            BigDecimal a = valorAleatorio(aleatorio);
+            BigDecimal b = valorAleatorio(aleatorio);
+            Dinheiro x = Dinheiro.of(a, moeda);
+            Dinheiro y = Dinheiro.of(b, aleatorio.nextInt(20) == 0 ? moedas[aleatorio.nextInt(moedas.length)] : moeda);
+            DinheiroBigDecimal rx = DinheiroBigDecimal.of(a, x.getMoeda());
+            DinheiroBigDecimal ry = DinheiroBigDecimal.of(b, y.getMoeda());
+            mesmoValor(x, rx, i);
+
+            int operacao = aleatorio.nextInt(3);
+            int quantidade = quantidadeAleatoria(aleatorio);
+            BigDecimal percentual = percentualAleatorio(aleatorio);
+            Dinheiro obtido;
+            DinheiroBigDecimal esperado;
+            try {
+                esperado = operacao == 0 ? rx.somar(ry) : operacao == 1 ? rx.multiplicar(quantidade) : rx.aplicarDesconto(percentual);
+            } catch (IllegalArgumentException e) {
+                esperado = null;
+            }
+            try {
+                obtido = operacao == 0 ? x.somar(y) : operacao == 1 ? x.multiplicar(quantidade) : x.aplicarDesconto(percentual);
+            } catch (IllegalArgumentException e) {
+                obtido = null;
+            }
+            conferir((obtido == null) == (esperado == null), "erro só em uma versão na conferência " + i);
+            if (obtido != null) {
+                mesmoValor(obtido, esperado, i);
+                if (obtido.getValor().precision() > 18) transbordos++;
+                conferir(obtido.equals(x) == esperado.equals(rx) && obtido.equals(y) == esperado.equals(ry), "equals na conferência " + i);
+            }
+            conferir(x.equals(y) == rx.equals(ry), "equals entre sorteados na conferência " + i);
+        }
+        conferir(Dinheiro.of("0", Moeda.BRL).toString().equals("BRL 0") && Dinheiro.of("0.00", Moeda.BRL).toString().equals("BRL 0.00"), "zeros");
+        conferir(Dinheiro.of("0", Moeda.BRL).equals(Dinheiro.of("0.00", Moeda.BRL)), "zeros em escalas diferentes");
+        conferir(Dinheiro.of("12.34", Moeda.BRL) == Dinheiro.ofUnidadesMinimas(1234, Moeda.BRL), "cache de valores pequenos");
+        System.out.println("OK: " + CONFERENCIAS + " operações (" + transbordos + " resultados acima de long, em BigDecimal)");
+    }
+
+    private static int quantidadeAleatoria(SplittableRandom aleatorio) {                                                // Inclui quantidades que estouram o long e inválidas
+        int sorteio = aleatorio.nextInt(10);
+        return sorteio == 0 ? aleatorio.nextInt(Integer.MAX_VALUE) + 1 : sorteio == 1 ? -aleatorio.nextInt(3) : 1 + aleatorio.nextInt(100);
+    }
+
+    private static BigDecimal percentualAleatorio(SplittableRandom aleatorio) {                                         // Inteiros de 0 a 30 (caminho em long), fracionário, escala negativa e acima do limite
+        int sorteio = aleatorio.nextInt(10);
+        return sorteio == 0 ? new BigDecimal("12.5") : sorteio == 1 ? new BigDecimal("31") : sorteio == 2 ? new BigDecimal("1E+1")
+                : BigDecimal.valueOf(aleatorio.nextInt(31));
+    }
+
+    private static BigDecimal valorAleatorio(SplittableRandom aleatorio) {                                              // Centavos pequenos e grandes (perto do limite do long), outras escalas e zero
+        int sorteio = aleatorio.nextInt(20);
+        if (sorteio == 0) return BigDecimal.ZERO;
+        if (sorteio == 1) return BigDecimal.valueOf(aleatorio.nextLong(1_000_000), aleatorio.nextInt(5));
+        if (sorteio == 2) return BigDecimal.valueOf(Long.MAX_VALUE - aleatorio.nextLong(1_000_000), 2);
+        if (sorteio == 3) return new BigDecimal("123456789012345678901234567890.12");
+        if (sorteio < 8) return BigDecimal.valueOf(aleatorio.nextLong(Long.MAX_VALUE / 4), 2);
+        return BigDecimal.valueOf(aleatorio.nextLong(20_000), 2);
+    }
+
+    private static void mesmoValor(Dinheiro obtido, DinheiroBigDecimal esperado, int conferencia) {
+        conferir(obtido.toString().equals(esperado.toString()), obtido + " em vez de " + esperado + " na conferência " + conferencia);
+        conferir(obtido.hashCode() == esperado.hashCode(), "hashCode na conferência " + conferencia);
+    }
+
+    private static final class DinheiroBigDecimal {                                                                     // Dinheiro anterior, só com BigDecimal: referência da conferência e do benchmark
+        private final BigDecimal valor;
+        private final Moeda moeda;
+
+        private DinheiroBigDecimal(BigDecimal valor, Moeda moeda) {
+            this.valor = Objects.requireNonNull(valor, "Valor não pode ser nulo");
+            this.moeda = Objects.requireNonNull(moeda, "Moeda não pode ser nula");
+            if (valor.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Valor não pode ser negativo");
+            }
+        }
+
+        static DinheiroBigDecimal of(BigDecimal valor, Moeda moeda) {
+            return new DinheiroBigDecimal(valor, moeda);
+        }
+
+        DinheiroBigDecimal somar(DinheiroBigDecimal outro) {
+            if (!this.moeda.equals(outro.moeda)) {
+                throw new IllegalArgumentException("Moedas diferentes não podem ser somadas");
+            }
+            return new DinheiroBigDecimal(this.valor.add(outro.valor), this.moeda);
+        }
+
+        DinheiroBigDecimal multiplicar(int quantidade) {
+            if (quantidade <= 0) {
+                throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+            }
+            return new DinheiroBigDecimal(this.valor.multiply(new BigDecimal(quantidade)), this.moeda);
+        }
+
+        DinheiroBigDecimal aplicarDesconto(BigDecimal percentualDesconto) {
+            Objects.requireNonNull(percentualDesconto, "Percentual de desconto não pode ser nulo");
+            if (percentualDesconto.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Percentual de desconto não pode ser negativo");
+            }
+            if (percentualDesconto.compareTo(new BigDecimal("30")) > 0) {
+                throw new IllegalArgumentException("Desconto não pode exceder 30%");
+            }
+            BigDecimal valorDesconto = this.valor.multiply(percentualDesconto).divide(new BigDecimal("100"), 2, RoundingMode.HALF_EVEN);
+            BigDecimal novoValor = this.valor.subtract(valorDesconto).setScale(2, RoundingMode.HALF_EVEN);
+            return new DinheiroBigDecimal(novoValor, this.moeda);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DinheiroBigDecimal dinheiro = (DinheiroBigDecimal) o;
+            return valor.compareTo(dinheiro.valor) == 0 && moeda == dinheiro.moeda;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(valor, moeda);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s", moeda, valor);
+        }
+    }
+
+    private static long alocado() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private static void conferir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("Falhou: " + mensagem);
+        }
+    }
+}
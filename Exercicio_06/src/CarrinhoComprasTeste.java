@@ -1,47 +1,112 @@
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
 enum Moeda {                                                                                                            // Enumeração que representa as moedas disponíveis
-    BRL("Real Brasileiro"),
-    USD("Dólar Americano"),
-    EUR("Euro");
+    BRL("Real Brasileiro", 2),
+    USD("Dólar Americano", 2),
+    EUR("Euro", 2);
 
     private final String descricao;
+    private final int casasDecimais;                                                                                    // Escala da menor unidade (centavo), usada na representação compacta de Dinheiro
 
-    Moeda(String descricao) {                                                                                           // Construtor do enum Moeda
+    Moeda(String descricao, int casasDecimais) {                                                                        // Construtor do enum Moeda
         this.descricao = descricao;
+        this.casasDecimais = casasDecimais;
     }
 
     public String getDescricao() {
         return descricao;
     }
+
+    public int getCasasDecimais() {
+        return casasDecimais;
+    }
 }
 
 final class Dinheiro {                                                                                                  // Classe imutável que representa Dinheiro (Value Object)
-    private final BigDecimal valor;
+    private static final int LIMITE_CACHE = 10_000;                                                                     // Valores de 0 a 10.000 unidades mínimas (R$ 0,00 a R$ 100,00) saem de um cache
+    private static final int ESCALA_DESCONTO = 2;                                                                       // aplicarDesconto sempre arredonda para 2 casas
+    private static final BigDecimal CEM = new BigDecimal("100");
+    private static final BigDecimal LIMITE_DESCONTO = new BigDecimal("30");
+    private static final Dinheiro[][] PEQUENOS = new Dinheiro[Moeda.values().length][LIMITE_CACHE + 1];                 // Preenchido sob demanda; corrida inofensiva, os objetos são imutáveis
+    private static final Dinheiro[] ZEROS = new Dinheiro[Moeda.values().length];                                        // BigDecimal.ZERO (escala 0), o total do carrinho vazio
+
+    static {
+        for (Moeda moeda : Moeda.values()) {
+            ZEROS[moeda.ordinal()] = new Dinheiro(0, BigDecimal.ZERO, moeda);
+        }
+    }
+
+    private final long unidades;                                                                                        // Valor em unidades mínimas da moeda (centavos), quando grande == null
+    private final BigDecimal grande;                                                                                    // Valor em outra escala ou que não cabe em long; null = representação compacta
     private final Moeda moeda;
+    private BigDecimal valorCompacto;                                                                                   // getValor() da representação compacta, criado na primeira chamada
 
-    private Dinheiro(BigDecimal valor, Moeda moeda) {                                                                   // Construtor privado para garantir imutabilidade
-        this.valor = Objects.requireNonNull(valor, "Valor não pode ser nulo");                                  // Validação para garantir que valor não seja nulo
-        this.moeda = Objects.requireNonNull(moeda, "Moeda não pode ser nula");                                  // Validação para garantir que moeda não seja nula
-        if (valor.compareTo(BigDecimal.ZERO) < 0) {                                                                     // Validação para garantir que valor não seja negativo
-            throw new IllegalArgumentException("Valor não pode ser negativo");
-        }
+    private Dinheiro(long unidades, BigDecimal grande, Moeda moeda) {                                                   // Construtor privado para garantir imutabilidade (valores já validados pelas factories)
+        this.unidades = unidades;
+        this.grande = grande;
+        this.moeda = moeda;
     }
 
     public static Dinheiro of(BigDecimal valor, Moeda moeda) {                                                          // Método factory para criar instâncias de Dinheiro
-        return new Dinheiro(valor, moeda);
+        Objects.requireNonNull(valor, "Valor não pode ser nulo");                                                       // Validação para garantir que valor não seja nulo
+        Objects.requireNonNull(moeda, "Moeda não pode ser nula");                                                       // Validação para garantir que moeda não seja nula
+        if (valor.signum() < 0) {                                                                                       // Validação para garantir que valor não seja negativo
+            throw new IllegalArgumentException("Valor não pode ser negativo");
+        }
+        if (valor.scale() == moeda.getCasasDecimais() && valor.precision() <= 18) {                                     // Cabe em long: guarda em unidades mínimas
+            long emUnidades = valor.unscaledValue().longValue();
+            if (emUnidades <= LIMITE_CACHE) {
+                return compacto(emUnidades, moeda);
+            }
+            Dinheiro dinheiro = new Dinheiro(emUnidades, null, moeda);
+            dinheiro.valorCompacto = valor;
+            return dinheiro;
+        }
+        if (valor.signum() == 0 && valor.scale() == 0) {
+            return ZEROS[moeda.ordinal()];
+        }
+        return new Dinheiro(0, valor, moeda);
     }
 
     public static Dinheiro of(String valor, Moeda moeda) {                                                              // Método factory conveniente para criar Dinheiro com String
-        return new Dinheiro(new BigDecimal(valor), moeda);
+        return of(new BigDecimal(valor), moeda);
+    }
+
+    public static Dinheiro ofUnidadesMinimas(long unidades, Moeda moeda) {                                              // Método factory a partir de centavos (ou a menor unidade da moeda)
+        Objects.requireNonNull(moeda, "Moeda não pode ser nula");
+        if (unidades < 0) {
+            throw new IllegalArgumentException("Valor não pode ser negativo");
+        }
+        return compacto(unidades, moeda);
+    }
+
+    private static Dinheiro compacto(long unidades, Moeda moeda) {
+        if (unidades > LIMITE_CACHE) {
+            return new Dinheiro(unidades, null, moeda);
+        }
+        Dinheiro[] cache = PEQUENOS[moeda.ordinal()];
+        Dinheiro dinheiro = cache[(int) unidades];
+        if (dinheiro == null) {
+            dinheiro = new Dinheiro(unidades, null, moeda);
+            cache[(int) unidades] = dinheiro;
+        }
+        return dinheiro;
     }
 
     public BigDecimal getValor() {
+        if (grande != null) {
+            return grande;
+        }
+        BigDecimal valor = valorCompacto;
+        if (valor == null) {
+            valor = BigDecimal.valueOf(unidades, moeda.getCasasDecimais());
+            valorCompacto = valor;
+        }
         return valor;
     }
 
@@ -53,30 +118,68 @@ final class Dinheiro {
         if (!this.moeda.equals(outro.moeda)) {                                                                          // Verifica se as moedas são compatíveis
             throw new IllegalArgumentException("Moedas diferentes não podem ser somadas");
         }
-        return new Dinheiro(this.valor.add(outro.valor), this.moeda);
+        if (grande == null && outro.grande == null) {
+            long soma = unidades + outro.unidades;
+            if (soma >= 0) {                                                                                            // Dois valores não negativos: resultado negativo = estouro do long
+                return compacto(soma, moeda);
+            }
+        }
+        return of(getValor().add(outro.getValor()), moeda);                                                             // Outra escala ou estouro: soma em BigDecimal
     }
 
     public Dinheiro multiplicar(int quantidade) {                                                                       // Método para multiplicar o valor por uma quantidade
         if (quantidade <= 0) {                                                                                          // Validação para quantidade positiva
             throw new IllegalArgumentException("Quantidade deve ser maior que zero");
         }
-        return new Dinheiro(this.valor.multiply(new BigDecimal(quantidade)), this.moeda);
+        if (grande == null && unidades <= Long.MAX_VALUE / quantidade) {
+            return compacto(unidades * quantidade, moeda);
+        }
+        return of(getValor().multiply(BigDecimal.valueOf(quantidade)), moeda);
     }
 
     public Dinheiro aplicarDesconto(BigDecimal percentualDesconto) {                                                    // Método para aplicar desconto com limite de 30%
-        Objects.requireNonNull(percentualDesconto, "Percentual de desconto não pode ser nulo");                 // Validação para percentual não nulo
+        Objects.requireNonNull(percentualDesconto, "Percentual de desconto não pode ser nulo");                         // Validação para percentual não nulo
         if (percentualDesconto.compareTo(BigDecimal.ZERO) < 0) {                                                        // Validação para percentual não negativo
             throw new IllegalArgumentException("Percentual de desconto não pode ser negativo");
         }
-        if (percentualDesconto.compareTo(new BigDecimal("30")) > 0) {                                               // Limite de 30% para desconto
+        if (percentualDesconto.compareTo(LIMITE_DESCONTO) > 0) {                                                        // Limite de 30% para desconto
             throw new IllegalArgumentException("Desconto não pode exceder 30%");
         }
 
-        BigDecimal valorDesconto = this.valor.multiply(percentualDesconto)                                              // Calcula o valor do desconto
-                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_EVEN);
-        BigDecimal novoValor = this.valor.subtract(valorDesconto)                                                       // Aplica o desconto com arredondamento bancário
-                .setScale(2, RoundingMode.HALF_EVEN);
-        return new Dinheiro(novoValor, this.moeda);
+        if (grande == null && moeda.getCasasDecimais() == ESCALA_DESCONTO && percentualDesconto.scale() == 0
+                && unidades <= Long.MAX_VALUE / 30) {                                                                   // Centavos e percentual inteiro: mesmo HALF_EVEN, em long
+            long produto = unidades * percentualDesconto.longValue();
+            long desconto = produto / 100;
+            long resto = produto % 100;
+            if (resto > 50 || (resto == 50 && (desconto & 1) == 1)) {
+                desconto++;
+            }
+            return compacto(unidades - desconto, moeda);
+        }
+
+        BigDecimal valor = getValor();
+        BigDecimal valorDesconto = valor.multiply(percentualDesconto)                                                   // Calcula o valor do desconto
+                .divide(CEM, ESCALA_DESCONTO, RoundingMode.HALF_EVEN);
+        BigDecimal novoValor = valor.subtract(valorDesconto)                                                            // Aplica o desconto com arredondamento bancário
+                .setScale(ESCALA_DESCONTO, RoundingMode.HALF_EVEN);
+        return of(novoValor, moeda);
+    }
+
+    public Dinheiro converter(TaxaCambio taxa) {                                                                        // Valor na moeda de destino da taxa, com HALF_EVEN nas casas dessa moeda
+        if (taxa.getOrigem() != moeda) {
+            throw new IllegalArgumentException("Taxa de " + taxa.getOrigem() + " não converte " + moeda);
+        }
+        Moeda destino = taxa.getDestino();
+        if (destino == moeda) {
+            return this;
+        }
+        if (grande == null) {
+            long convertido = taxa.converterUnidades(unidades);
+            if (convertido >= 0) {
+                return compacto(convertido, destino);
+            }
+        }
+        return of(getValor().multiply(taxa.getValor()).setScale(destino.getCasasDecimais(), RoundingMode.HALF_EVEN), destino);
     }
 
     @Override                                                                                                           // Implementação do equals para comparar dois objetos Dinheiro
@@ -84,17 +187,19 @@ final class Dinheiro {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Dinheiro dinheiro = (Dinheiro) o;
-        return valor.compareTo(dinheiro.valor) == 0 && moeda == dinheiro.moeda;                                         // Compara valores e moedas usando compareTo para BigDecimal
+        if (moeda != dinheiro.moeda) return false;
+        if (grande == null && dinheiro.grande == null) return unidades == dinheiro.unidades;                            // Mesma escala: basta comparar os centavos
+        return getValor().compareTo(dinheiro.getValor()) == 0;                                                          // Compara valores usando compareTo para BigDecimal
     }
 
-    @Override                                                                                                           // Implementação do hashCode consistente com equals
+    @Override                                                                                                           // Implementação do hashCode (o mesmo de antes: depende também da escala do BigDecimal)
     public int hashCode() {
-        return Objects.hash(valor, moeda);
+        return Objects.hash(getValor(), moeda);
     }
 
     @Override
     public String toString() {
-        return String.format("%s %s", moeda, valor);
+        return String.format("%s %s", moeda, getValor());
     }
 }
 
@@ -148,11 +253,22 @@ class ItemCarrinho {
 }
 
 final class Carrinho {                                                                                                  // Classe imutável que representa o Carrinho de Compras
-    private final List<ItemCarrinho> itens;
+    private final ArvorePersistente<Long, ItemCarrinho> itensPorSequencia;                                              // Linhas na ordem de inclusão; versões compartilham os nós não alterados
+    private final ArvorePersistente<String, Sequencias> linhasPorProduto;                                               // Sequências das linhas de cada produto, para removerItem não varrer o carrinho
+    private final long proximaSequencia;
+    private final List<ItemCarrinho> itens;                                                                             // Visão somente leitura de itensPorSequencia
+    private final Subtotais subtotais;                                                                                  // Soma das linhas desta versão, derivada da versão anterior
     private final BigDecimal percentualDesconto;
-
-    private Carrinho(List<ItemCarrinho> itens, BigDecimal percentualDesconto) {                                         // Construtor privado para garantir imutabilidade
-        this.itens = Collections.unmodifiableList(new ArrayList<>(itens));                                              // Cria uma cópia defensiva da lista para garantir imutabilidade
+    private Dinheiro total;                                                                                             // calcularTotal() já calculado (null = ainda não); Dinheiro é imutável, então a corrida é inofensiva
+    private TotalConvertido totalConvertido;                                                                            // Último calcularTotal(moeda, conversor), válido para a mesma tabela e moeda
+
+    private Carrinho(ArvorePersistente<Long, ItemCarrinho> itensPorSequencia, ArvorePersistente<String, Sequencias> linhasPorProduto,
+                     long proximaSequencia, Subtotais subtotais, BigDecimal percentualDesconto) {                       // Construtor privado para garantir imutabilidade
+        this.itensPorSequencia = itensPorSequencia;                                                                     // Sem cópia defensiva: as árvores já são imutáveis
+        this.linhasPorProduto = linhasPorProduto;
+        this.proximaSequencia = proximaSequencia;
+        this.subtotais = subtotais;
+        this.itens = new ListaItens(itensPorSequencia);
         this.percentualDesconto = Objects.requireNonNull(percentualDesconto);
 
         if (percentualDesconto.compareTo(BigDecimal.ZERO) < 0) {                                                        // Validação para desconto não negativo
@@ -164,43 +280,81 @@ final class Carrinho {
     }
 
     public static Carrinho criar() {                                                                                    // Método factory para criar carrinho vazio
-        return new Carrinho(new ArrayList<>(), BigDecimal.ZERO);
+        return new Carrinho(ArvorePersistente.vazia(), ArvorePersistente.vazia(), 0, Subtotais.VAZIO, BigDecimal.ZERO);
     }
 
-    public Carrinho adicionarItem(ItemCarrinho novoItem) {                                                              // Método para adicionar item - retorna novo carrinho (imutabilidade)
-        List<ItemCarrinho> novosItens = new ArrayList<>(this.itens);                                                    // Cria nova lista com os itens existentes
-        novosItens.add(novoItem);                                                                                       // Adiciona o novo item
-        return new Carrinho(novosItens, this.percentualDesconto);                                                       // Retorna novo carrinho com a lista atualizada
+    public Carrinho adicionarItem(ItemCarrinho novoItem) {                                                              // Método para adicionar item - retorna novo carrinho (imutabilidade), O(log n)
+        Objects.requireNonNull(novoItem, "Item não pode ser nulo");
+        String produtoId = novoItem.getProduto().getId();
+        long sequencia = proximaSequencia;
+        return new Carrinho(itensPorSequencia.com(sequencia, novoItem),
+                linhasPorProduto.com(produtoId, new Sequencias(sequencia, linhasPorProduto.obter(produtoId))),
+                sequencia + 1, subtotais.com(novoItem), this.percentualDesconto);                                       // Retorna novo carrinho; o atual continua válido
     }
 
-    public Carrinho removerItem(String produtoId) {                                                                     // Método para remover item - retorna novo carrinho (imutabilidade)
-        List<ItemCarrinho> novosItens = new ArrayList<>();                                                              // Cria nova lista sem o item a ser removido
-        for (ItemCarrinho item : this.itens) {
-            if (!item.getProduto().getId().equals(produtoId)) {
-                novosItens.add(item);
-            }
+    public Carrinho removerItem(String produtoId) {                                                                     // Método para remover item - retorna novo carrinho (imutabilidade), O(k log n) para k linhas do produto
+        Sequencias linhas = produtoId == null ? null : linhasPorProduto.obter(produtoId);
+        if (linhas == null) {
+            return this;                                                                                                // Produto fora do carrinho: nada muda
+        }
+        ArvorePersistente<Long, ItemCarrinho> novosItens = itensPorSequencia;
+        Subtotais novosSubtotais = subtotais.copiar();
+        for (Sequencias linha = linhas; linha != null; linha = linha.anterior) {
+            novosSubtotais.acumular(novosItens.obter(linha.sequencia), -1);
+            novosItens = novosItens.sem(linha.sequencia);
         }
-        return new Carrinho(novosItens, this.percentualDesconto);                                                       // Retorna novo carrinho com a lista atualizada
+        return new Carrinho(novosItens, linhasPorProduto.sem(produtoId), proximaSequencia, novosSubtotais, this.percentualDesconto);
     }
 
     public Carrinho aplicarCupom(BigDecimal percentualDesconto) {                                                       // Método para aplicar cupom de desconto - retorna novo carrinho
-        return new Carrinho(this.itens, percentualDesconto);                                                            // Retorna novo carrinho com o desconto aplicado
+        return new Carrinho(itensPorSequencia, linhasPorProduto, proximaSequencia, subtotais, percentualDesconto);      // Mesmas linhas e subtotais, só muda o desconto
     }
 
-    public Dinheiro calcularTotal() {                                                                                   // Método para calcular o total do carrinho
-        if (itens.isEmpty()) {
-            return Dinheiro.of(BigDecimal.ZERO, Moeda.BRL); // Moeda padrão
+    public Dinheiro calcularTotal() {                                                                                   // Método para calcular o total do carrinho: O(1), e sem alocar nas chamadas seguintes
+        Dinheiro calculado = total;
+        if (calculado == null) {
+            if (itens.isEmpty()) {
+                calculado = Dinheiro.of(BigDecimal.ZERO, Moeda.BRL); // Moeda padrão
+            } else {
+                calculado = subtotais.escalaConhecida() ? subtotais.somar() : somarItens();
+                if (percentualDesconto.compareTo(BigDecimal.ZERO) > 0) {                                                // Aplica desconto se houver
+                    calculado = calculado.aplicarDesconto(percentualDesconto);
+                }
+            }
+            total = calculado;
         }
+        return calculado;
+    }
 
-        Dinheiro total = itens.get(0).getSubtotal();                                                                    // Soma todos os subtotais dos itens
-        for (int i = 1; i < itens.size(); i++) {
-            total = total.somar(itens.get(i).getSubtotal());
+    public Dinheiro calcularTotal(Moeda destino, ConversorMoedas conversor) {                                           // Total na moeda escolhida: soma de cada moeda convertida, arredondada para as casas do destino, depois o desconto
+        Objects.requireNonNull(destino, "Moeda não pode ser nula");
+        TabelaCambio tabela = conversor.getTabela();                                                                    // Uma tabela só para todas as moedas do carrinho
+        TotalConvertido anterior = totalConvertido;
+        if (anterior != null && anterior.tabela == tabela && anterior.destino == destino) {
+            return anterior.total;
         }
 
-        if (percentualDesconto.compareTo(BigDecimal.ZERO) > 0) {                                                        // Aplica desconto se houver
-            total = total.aplicarDesconto(percentualDesconto);
+        Dinheiro calculado;
+        if (itens.isEmpty()) {
+            calculado = Dinheiro.of(BigDecimal.ZERO, destino);
+        } else if (subtotais.somenteEm(destino)) {
+            calculado = calcularTotal();                                                                                // Nada a converter: exatamente o total de sempre
+        } else {
+            calculado = subtotais.somarConvertido(tabela, destino);
+            if (percentualDesconto.compareTo(BigDecimal.ZERO) > 0) {
+                calculado = calculado.aplicarDesconto(percentualDesconto);
+            }
         }
+        totalConvertido = new TotalConvertido(tabela, destino, calculado);
+        return calculado;
+    }
 
+    private Dinheiro somarItens() {                                                                                     // Soma linha a linha; só para preços com escala fora da faixa acompanhada em Subtotais
+        Iterator<ItemCarrinho> iterador = itensPorSequencia.valores();                                                  // Percorre a árvore em ordem; get(i) custaria O(log n) por item
+        Dinheiro total = iterador.next().getSubtotal();                                                                 // Soma todos os subtotais dos itens
+        while (iterador.hasNext()) {
+            total = total.somar(iterador.next().getSubtotal());
+        }
         return total;
     }
 
@@ -217,6 +371,143 @@ final class Carrinho {
         return String.format("Carrinho{itens=%s, desconto=%s%%, total=%s}",
                 itens, percentualDesconto, calcularTotal());
     }
+
+    private static final class Subtotais {                                                                              // Soma por moeda, com o que for preciso para reproduzir a soma linha a linha
+        private static final int ESCALAS = 16;                                                                          // Escalas de preço 0..15 acompanhadas; fora disso calcularTotal soma as linhas
+        private static final Moeda[] MOEDAS = Moeda.values();
+        static final Subtotais VAZIO = new Subtotais(new BigDecimal[MOEDAS.length], new int[MOEDAS.length], new int[ESCALAS], 0);
+
+        private final BigDecimal[] somaPorMoeda;                                                                        // null = nenhuma linha na moeda
+        private final int[] linhasPorMoeda;
+        private final int[] linhasPorEscala;                                                                            // A soma linha a linha tem a maior escala entre as linhas atuais
+        private int linhasForaDaFaixa;
+
+        private Subtotais(BigDecimal[] somaPorMoeda, int[] linhasPorMoeda, int[] linhasPorEscala, int linhasForaDaFaixa) {
+            this.somaPorMoeda = somaPorMoeda;
+            this.linhasPorMoeda = linhasPorMoeda;
+            this.linhasPorEscala = linhasPorEscala;
+            this.linhasForaDaFaixa = linhasForaDaFaixa;
+        }
+
+        Subtotais copiar() {                                                                                            // Cópia de tamanho fixo (moedas + escalas): O(1) no tamanho do carrinho
+            return new Subtotais(somaPorMoeda.clone(), linhasPorMoeda.clone(), linhasPorEscala.clone(), linhasForaDaFaixa);
+        }
+
+        Subtotais com(ItemCarrinho item) {
+            Subtotais novos = copiar();
+            novos.acumular(item, 1);
+            return novos;
+        }
+
+        void acumular(ItemCarrinho item, int sinal) {                                                                   // sinal 1 inclui a linha, -1 retira; só antes de a cópia ser publicada num Carrinho
+            Dinheiro subtotal = item.getSubtotal();
+            int moeda = subtotal.getMoeda().ordinal();
+            BigDecimal valor = subtotal.getValor();
+            linhasPorMoeda[moeda] += sinal;
+            if (linhasPorMoeda[moeda] == 0) {
+                somaPorMoeda[moeda] = null;                                                                             // Sem resto de arredondamento: a soma recomeça do zero
+            } else if (somaPorMoeda[moeda] == null) {
+                somaPorMoeda[moeda] = valor;
+            } else {
+                somaPorMoeda[moeda] = sinal > 0 ? somaPorMoeda[moeda].add(valor) : somaPorMoeda[moeda].subtract(valor);
+            }
+            int escala = valor.scale();
+            if (escala >= 0 && escala < ESCALAS) {
+                linhasPorEscala[escala] += sinal;
+            } else {
+                linhasForaDaFaixa += sinal;
+            }
+        }
+
+        boolean somenteEm(Moeda moeda) {                                                                                // Todas as linhas nesta moeda
+            for (Moeda outra : MOEDAS) {
+                if (outra != moeda && linhasPorMoeda[outra.ordinal()] > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Dinheiro somarConvertido(TabelaCambio tabela, Moeda destino) {                                                  // Uma conversão por moeda presente, não por linha
+            BigDecimal soma = BigDecimal.ZERO;
+            for (Moeda moeda : MOEDAS) {
+                if (linhasPorMoeda[moeda.ordinal()] > 0) {
+                    soma = soma.add(tabela.converter(Dinheiro.of(somaPorMoeda[moeda.ordinal()], moeda), destino).getValor());
+                }
+            }
+            return Dinheiro.of(soma.setScale(destino.getCasasDecimais(), RoundingMode.HALF_EVEN), destino);
+        }
+
+        boolean escalaConhecida() {
+            return linhasForaDaFaixa == 0;
+        }
+
+        Dinheiro somar() {                                                                                              // Mesmo valor, escala e erro que somar as linhas uma a uma
+            Moeda unica = null;
+            for (Moeda moeda : MOEDAS) {
+                if (linhasPorMoeda[moeda.ordinal()] > 0) {
+                    if (unica != null) {
+                        throw new IllegalArgumentException("Moedas diferentes não podem ser somadas");
+                    }
+                    unica = moeda;
+                }
+            }
+            int escala = ESCALAS - 1;
+            while (linhasPorEscala[escala] == 0) {
+                escala--;
+            }
+            BigDecimal soma = somaPorMoeda[unica.ordinal()];
+            if (soma.scale() > escala) {                                                                                // Linhas de escala maior já saíram: os dígitos extras são zeros
+                soma = soma.setScale(escala, RoundingMode.UNNECESSARY);
+            }
+            return Dinheiro.of(soma, unica);
+        }
+    }
+
+    private static final class TotalConvertido {
+        final TabelaCambio tabela;
+        final Moeda destino;
+        final Dinheiro total;
+
+        TotalConvertido(TabelaCambio tabela, Moeda destino, Dinheiro total) {
+            this.tabela = tabela;
+            this.destino = destino;
+            this.total = total;
+        }
+    }
+
+    private static final class Sequencias {                                                                             // Lista encadeada imutável das linhas de um produto (mais recente primeiro)
+        final long sequencia;
+        final Sequencias anterior;
+
+        Sequencias(long sequencia, Sequencias anterior) {
+            this.sequencia = sequencia;
+            this.anterior = anterior;
+        }
+    }
+
+    private static final class ListaItens extends AbstractList<ItemCarrinho> {                                          // List somente leitura sobre a árvore: alterações lançam UnsupportedOperationException
+        private final ArvorePersistente<Long, ItemCarrinho> arvore;
+
+        ListaItens(ArvorePersistente<Long, ItemCarrinho> arvore) {
+            this.arvore = arvore;
+        }
+
+        @Override
+        public ItemCarrinho get(int indice) {
+            return arvore.naPosicao(indice);
+        }
+
+        @Override
+        public int size() {
+            return arvore.tamanho();
+        }
+
+        @Override
+        public Iterator<ItemCarrinho> iterator() {
+            return arvore.valores();
+        }
+    }
 }
 
 public class CarrinhoComprasTeste {                                                                                     // Classe de teste para demonstrar o fluxo completo
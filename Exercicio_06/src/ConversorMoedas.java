@@ -0,0 +1,207 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+final class TaxaCambio {                                                                                                // Taxa de um par de moedas, pré-calculada também em ponto fixo para converter centavos em long
+    private static final long[] POTENCIAS_DE_10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    private final Moeda origem;
+    private final Moeda destino;
+    private final BigDecimal valor;                                                                                     // Unidades de destino por unidade de origem
+    private final long valorFixo;                                                                                       // valor sem a vírgula, já na escala certa; -1 = sem caminho em long
+    private final long divisor;                                                                                         // Potência de 10 que leva o produto às casas da moeda de destino
+
+    TaxaCambio(Moeda origem, Moeda destino, BigDecimal valor) {
+        this.origem = origem;
+        this.destino = destino;
+        this.valor = valor;
+
+        int expoente = origem.getCasasDecimais() + valor.scale() - destino.getCasasDecimais();                          // centavos de origem x taxa = centavos de destino x 10^expoente
+        long fixo = -1;
+        long potencia = 1;
+        if (valor.precision() <= 18 && expoente >= -18 && expoente <= 18) {
+            fixo = valor.unscaledValue().longValue();
+            if (expoente > 0) {
+                potencia = POTENCIAS_DE_10[expoente];
+            } else if (expoente < 0) {
+                long multiplicador = POTENCIAS_DE_10[-expoente];
+                fixo = fixo <= Long.MAX_VALUE / multiplicador ? fixo * multiplicador : -1;
+            }
+        }
+        this.valorFixo = fixo;
+        this.divisor = potencia;
+    }
+
+    public Moeda getOrigem() { return origem; }
+    public Moeda getDestino() { return destino; }
+    public BigDecimal getValor() { return valor; }
+
+    long converterUnidades(long unidades) {                                                                             // Mesmo resultado de valor x taxa com HALF_EVEN nas casas de destino; -1 se não couber em long
+        if (valorFixo < 0) {
+            return -1;
+        }
+        long produto = unidades * valorFixo;
+        if (Math.multiplyHigh(unidades, valorFixo) != 0 || produto < 0) {
+            return -1;
+        }
+        if (divisor == 1) {
+            return produto;
+        }
+        long quociente = produto / divisor;
+        long resto = produto - quociente * divisor;
+        long metade = divisor / 2;
+        if (resto > metade || (resto == metade && (quociente & 1) == 1)) {
+            quociente++;
+        }
+        return quociente;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s %s", origem, destino, valor);
+    }
+}
+
+final class TabelaCambio {                                                                                              // Cotações de um instante; imutável, então pode ser lida por qualquer thread sem lock
+    private static final int ESCALA_TAXA = 10;                                                                          // Casas das taxas de cada par (HALF_EVEN)
+    private static final Moeda[] MOEDAS = Moeda.values();
+
+    private final BigDecimal[] cotacoes;                                                                                // Valor de cada moeda numa unidade comum
+    private final TaxaCambio[][] taxas;                                                                                 // [origem][destino], calculadas uma vez na criação
+
+    private TabelaCambio(BigDecimal[] cotacoes) {
+        this.cotacoes = cotacoes;
+        this.taxas = new TaxaCambio[MOEDAS.length][MOEDAS.length];
+        for (Moeda origem : MOEDAS) {
+            for (Moeda destino : MOEDAS) {
+                BigDecimal taxa = origem == destino ? BigDecimal.ONE
+                        : cotacoes[origem.ordinal()].divide(cotacoes[destino.ordinal()], ESCALA_TAXA, RoundingMode.HALF_EVEN).stripTrailingZeros();
+                if (taxa.scale() < 0) {
+                    taxa = taxa.setScale(0);
+                }
+                taxas[origem.ordinal()][destino.ordinal()] = new TaxaCambio(origem, destino, taxa);
+            }
+        }
+    }
+
+    public static TabelaCambio de(Map<Moeda, BigDecimal> cotacoes) {                                                    // Uma cotação positiva para cada moeda, todas na mesma unidade
+        BigDecimal[] valores = new BigDecimal[MOEDAS.length];
+        for (Moeda moeda : MOEDAS) {
+            BigDecimal cotacao = cotacoes.get(moeda);
+            if (cotacao == null) {
+                throw new IllegalArgumentException("Cotação ausente para " + moeda);
+            }
+            if (cotacao.signum() <= 0) {
+                throw new IllegalArgumentException("Cotação de " + moeda + " deve ser positiva");
+            }
+            valores[moeda.ordinal()] = cotacao;
+        }
+        return new TabelaCambio(valores);
+    }
+
+    public static TabelaCambio ler(Path arquivo) throws IOException {                                                   // Uma linha por moeda: MOEDA;cotação (ex.: BRL;1 e USD;5.4321)
+        Map<Moeda, BigDecimal> cotacoes = new EnumMap<>(Moeda.class);
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.isEmpty() || linha.charAt(0) == '#') {
+                    continue;
+                }
+                String[] campos = linha.split(";", -1);
+                try {
+                    if (campos.length != 2 || cotacoes.put(Moeda.valueOf(campos[0]), new BigDecimal(campos[1])) != null) {
+                        throw new IllegalArgumentException("moeda repetida");
+                    }
+                } catch (IllegalArgumentException e) {                                                                  // Moeda desconhecida, número inválido ou repetição
+                    throw new IOException("Linha " + numero + " inválida em " + arquivo + ": " + linha, e);
+                }
+            }
+        }
+        try {
+            return de(cotacoes);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Tabela de câmbio inválida em " + arquivo + ": " + e.getMessage(), e);
+        }
+    }
+
+    public BigDecimal getCotacao(Moeda moeda) {
+        return cotacoes[moeda.ordinal()];
+    }
+
+    public TaxaCambio taxa(Moeda origem, Moeda destino) {
+        return taxas[origem.ordinal()][destino.ordinal()];
+    }
+
+    public Dinheiro converter(Dinheiro valor, Moeda destino) {
+        return valor.converter(taxas[valor.getMoeda().ordinal()][destino.ordinal()]);
+    }
+
+    public Dinheiro[] converterTodos(Dinheiro[] valores, Moeda destino) {                                               // Uma passada, todos com as taxas desta mesma tabela
+        Objects.requireNonNull(destino, "Moeda não pode ser nula");
+        int coluna = destino.ordinal();
+        Dinheiro[] convertidos = new Dinheiro[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            Dinheiro valor = valores[i];
+            convertidos[i] = valor.converter(taxas[valor.getMoeda().ordinal()][coluna]);
+        }
+        return convertidos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder("TabelaCambio{");
+        for (Moeda moeda : MOEDAS) {
+            texto.append(moeda.ordinal() == 0 ? "" : ", ").append(moeda).append('=').append(cotacoes[moeda.ordinal()]);
+        }
+        return texto.append('}').toString();
+    }
+}
+
+class ConversorMoedas {                                                                                                 // Converte Dinheiro com a tabela vigente; leitores não usam lock, recarregar troca a tabela inteira
+    private final Path arquivo;                                                                                         // null = tabela fornecida diretamente
+    private volatile TabelaCambio tabela;
+
+    public ConversorMoedas(Path arquivo) throws IOException {
+        this.arquivo = Objects.requireNonNull(arquivo, "Arquivo não pode ser nulo");
+        this.tabela = TabelaCambio.ler(arquivo);
+    }
+
+    public ConversorMoedas(TabelaCambio tabela) {
+        this.arquivo = null;
+        this.tabela = Objects.requireNonNull(tabela, "Tabela não pode ser nula");
+    }
+
+    public void recarregar() throws IOException {                                                                       // Se o arquivo estiver inválido, a tabela atual continua valendo
+        if (arquivo == null) {
+            throw new IllegalStateException("Conversor criado sem arquivo de cotações");
+        }
+        tabela = TabelaCambio.ler(arquivo);
+    }
+
+    public void atualizar(TabelaCambio novaTabela) {
+        tabela = Objects.requireNonNull(novaTabela, "Tabela não pode ser nula");
+    }
+
+    public TabelaCambio getTabela() {                                                                                   // Quem faz várias conversões relacionadas deve pegar a tabela uma vez e usá-la em todas
+        return tabela;
+    }
+
+    public Dinheiro converter(Dinheiro valor, Moeda destino) {
+        return tabela.converter(valor, destino);
+    }
+
+    public Dinheiro[] converterTodos(Dinheiro[] valores, Moeda destino) {                                               // Todos os valores com a mesma tabela, mesmo que outra seja carregada no meio
+        return tabela.converterTodos(valores, destino);
+    }
+}